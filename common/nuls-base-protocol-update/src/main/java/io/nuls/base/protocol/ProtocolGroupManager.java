@@ -2,6 +2,7 @@ package io.nuls.base.protocol;
 
 import io.nuls.base.protocol.cmd.MessageDispatcher;
 import io.nuls.base.protocol.cmd.TransactionDispatcher;
+import io.nuls.base.signture.VerifiedSignatureCache;
 import io.nuls.core.basic.ModuleConfig;
 import io.nuls.core.basic.VersionChangeInvoker;
 import io.nuls.core.core.annotation.Autowired;
@@ -93,6 +94,8 @@ public class ProtocolGroupManager {
 
     public static void updateProtocol(int chainId, short protocolVersion) {
         versionMap.put(chainId, protocolVersion);
+        //签名验证规则可能随协议变化, 清空已验证签名缓存
+        VerifiedSignatureCache.clear();
         if (ProtocolGroupManager.isLoadProtocol()) {
             if (transactionDispatcher == null) {
                 transactionDispatcher = SpringLiteContext.getBean(TransactionDispatcher.class);
@@ -71,7 +71,7 @@ public class RegisterHelper {
      */
     public static boolean registerMsg(Protocol protocol, String role) {
         try {
-            Map<String, Object> map = new HashMap<>(2);
+            Map<String, Object> map = new HashMap<>(4);
             List<String> cmds = new ArrayList<>();
             map.put("role", role);
             protocol.getAllowMsg().forEach(e -> cmds.addAll(Arrays.asList(e.getProtocolCmd().split(","))));
@@ -79,6 +79,8 @@ public class RegisterHelper {
                 return true;
             }
             map.put("protocolCmds", cmds);
+            //MessageDispatcher支持批量消息处理
+            map.put("batch", true);
             return ResponseMessageProcessor.requestAndResponse(ModuleE.NW.abbr, "nw_protocolRegister", map).isSuccess();
         } catch (Exception e) {
             Log.error("registerMsg fail", e);
@@ -1,5 +1,7 @@
 package io.nuls.base.protocol.cmd;
 
+import io.nuls.base.RPCUtil;
+import io.nuls.base.data.PeerMessageBatch;
 import io.nuls.base.protocol.MessageProcessor;
 import io.nuls.core.constant.BaseConstant;
 import io.nuls.core.constant.CommonCodeConstanst;
@@ -43,7 +45,7 @@ public final class MessageDispatcher extends BaseCmd {
      * @param params
      * @return
      */
-    @CmdAnnotation(cmd = BaseConstant.MSG_PROCESS, version = 1.0, description = "")
+    @CmdAnnotation(cmd = BaseConstant.MSG_PROCESS, version = 1.0, description = "", binaryParams = true)
     @Parameter(parameterName = "chainId", parameterType = "int")
     @Parameter(parameterName = "nodeId", parameterType = "String")
     @Parameter(parameterName = "cmd", parameterType = "String")
@@ -56,12 +58,41 @@ public final class MessageDispatcher extends BaseCmd {
         int chainId = Integer.parseInt(params.get(Constants.CHAIN_ID).toString());
         String nodeId = (String) params.get("nodeId");
         String cmd = (String) params.get("cmd");
-        String msgStr = (String) params.get("messageBody");
+        byte[] message = RPCUtil.decodeParam(params.get("messageBody"));
+        dispatch(chainId, nodeId, cmd, message);
+        return success();
+    }
+
+    /**
+     * 批量处理网络模块转发的节点消息
+     * Process a batch of peer messages forwarded by the network module
+     *
+     * @param params
+     * @return
+     */
+    @CmdAnnotation(cmd = BaseConstant.MSG_PROCESS_BATCH, version = 1.0, description = "", binaryParams = true)
+    @Parameter(parameterName = "messages", parameterType = "String")
+    public Response msgProcessBatch(Map params) {
+        ObjectUtils.canNotEmpty(params.get("messages"), CommonCodeConstanst.PARAMETER_ERROR.getMsg());
+        PeerMessageBatch batch = RPCUtil.getInstance(RPCUtil.decodeParam(params.get("messages")), PeerMessageBatch.class);
+        if (batch == null) {
+            return failed(CommonCodeConstanst.DESERIALIZE_ERROR);
+        }
+        for (PeerMessageBatch.PeerMessage message : batch.getMessages()) {
+            dispatch(message.getChainId(), message.getNodeId(), message.getCmd(), message.getBody());
+        }
+        return success();
+    }
+
+    private void dispatch(int chainId, String nodeId, String cmd, byte[] message) {
         for (MessageProcessor processor : processors) {
             if (cmd.equals(processor.getCmd())) {
-                processor.process(chainId, nodeId, msgStr);
+                try {
+                    processor.process(chainId, nodeId, message);
+                } catch (Exception e) {
+                    Log.error("process message fail, cmd-" + cmd + ", node-" + nodeId, e);
+                }
             }
         }
-        return success();
     }
 }
\ No newline at end of file
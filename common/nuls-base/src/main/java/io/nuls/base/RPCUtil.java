@@ -40,6 +40,20 @@ public class RPCUtil {
         return (src == null) ? null : HexUtil.decode(src);
     }
 
+    /**
+     * 读取接口参数中的二进制数据，兼容二进制编码传入的byte[]与JSON传入的十六进制字符串
+     * Read binary data from a command parameter, accepts byte[] from the binary codec and hex strings from JSON
+     *
+     * @param src 参数值
+     * @return byte[]
+     */
+    public static byte[] decodeParam(Object src) {
+        if (src instanceof byte[]) {
+            return (byte[]) src;
+        }
+        return (src == null) ? null : decode(src.toString());
+    }
+
     public static <T> T getInstance(byte[] bytes, Class<? extends BaseNulsData> clazz) {
         if (null == bytes || bytes.length == 0) {
             Log.error("error code-" + CommonCodeConstanst.DESERIALIZE_ERROR);
@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.base.data;
+
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.nuls.base.basic.NulsByteBuffer;
+import io.nuls.base.basic.NulsOutputStreamBuffer;
+import io.nuls.core.crypto.Sha256Hash;
+import io.nuls.core.exception.NulsException;
+import io.nuls.core.model.ByteUtils;
+import io.nuls.core.parse.SerializeUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 紧凑区块，用于区块的广播与转发，交易hash以加盐的6字节短id代替，接收方使用本地未确认交易还原区块
+ * 盐由发送方为每个区块随机选取, 无法离线构造冲突的短id; 接收方收到区块时以该盐计算本地未确认交易的短id并匹配
+ * 发送方预计接收方没有的交易（如系统交易）随区块一起发送
+ * Compact block, used for block broadcasting and forwarding. Transaction hashes are replaced by salted 6-byte short ids,
+ * and the receiver rebuilds the block from its local unconfirmed transactions.
+ * The salt is chosen at random by the sender for every block, so colliding short ids can't be ground offline. The
+ * receiver computes the short ids of its unconfirmed transactions with that salt when the block arrives.
+ * Transactions the sender expects the receiver lacks (such as system transactions) are sent along with the block.
+ */
+public class CompactBlock extends BaseNulsData {
+
+    private static final long SHORT_ID_MASK = 0xffffffffffffL;
+
+    /**
+     * 区块头
+     * block header
+     */
+    private BlockHeader header;
+
+    /**
+     * 计算短id的盐
+     * salt used to compute short ids
+     */
+    private long nonce;
+
+    /**
+     * 未随区块发送的交易的短id, 按区块中交易的顺序排列
+     * short ids of the transactions not sent along, in block order
+     */
+    private List<Long> shortIdList = new ArrayList<>();
+
+    /**
+     * 随区块发送的交易及其在区块中的位置, 按位置升序排列
+     * transactions sent along with their index in the block, in ascending index order
+     */
+    private List<Integer> prefilledIndexList = new ArrayList<>();
+    private List<Transaction> prefilledTxList = new ArrayList<>();
+
+    public CompactBlock() {
+    }
+
+    /**
+     * 由区块hash和盐计算短id的SipHash密钥
+     * Derive the SipHash key of short ids from the block hash and the salt
+     */
+    public static HashFunction shortIdFunction(NulsHash blockHash, long nonce) {
+        byte[] seed = new byte[NulsHash.HASH_LENGTH + 8];
+        System.arraycopy(blockHash.getBytes(), 0, seed, 0, NulsHash.HASH_LENGTH);
+        System.arraycopy(ByteUtils.longToBytes(nonce), 0, seed, NulsHash.HASH_LENGTH, 8);
+        byte[] key = Sha256Hash.hash(seed);
+        return Hashing.sipHash24(SerializeUtils.readInt64LE(key, 0), SerializeUtils.readInt64LE(key, 8));
+    }
+
+    public static long shortId(HashFunction function, NulsHash txHash) {
+        return shortId(function, txHash.getBytes());
+    }
+
+    public static long shortId(HashFunction function, byte[] txHash) {
+        return function.hashBytes(txHash).asLong() & SHORT_ID_MASK;
+    }
+
+    /**
+     * 区块中的交易总数
+     * total transaction count of the block
+     */
+    public int getTxCount() {
+        return shortIdList.size() + prefilledTxList.size();
+    }
+
+    @Override
+    public int size() {
+        int size = header.size();
+        size += SerializeUtils.sizeOfInt64();
+        size += SerializeUtils.sizeOfVarInt(shortIdList.size());
+        size += shortIdList.size() * SerializeUtils.sizeOfUint48();
+        size += SerializeUtils.sizeOfVarInt(prefilledTxList.size());
+        for (int i = 0; i < prefilledTxList.size(); i++) {
+            size += SerializeUtils.sizeOfVarInt(prefilledIndexList.get(i));
+            size += SerializeUtils.sizeOfNulsData(prefilledTxList.get(i));
+        }
+        return size;
+    }
+
+    @Override
+    protected void serializeToStream(NulsOutputStreamBuffer stream) throws IOException {
+        stream.writeNulsData(header);
+        stream.writeInt64(nonce);
+        stream.writeVarInt(shortIdList.size());
+        for (Long shortId : shortIdList) {
+            stream.writeUint48(shortId);
+        }
+        stream.writeVarInt(prefilledTxList.size());
+        for (int i = 0; i < prefilledTxList.size(); i++) {
+            stream.writeVarInt(prefilledIndexList.get(i));
+            stream.writeNulsData(prefilledTxList.get(i));
+        }
+    }
+
+    @Override
+    public void parse(NulsByteBuffer byteBuffer) throws NulsException {
+        this.header = byteBuffer.readNulsData(new BlockHeader());
+        this.nonce = byteBuffer.readInt64();
+
+        long shortIdSize = byteBuffer.readVarInt();
+        this.shortIdList = new ArrayList<>((int) Math.min(shortIdSize, header.getTxCount()));
+        for (int i = 0; i < shortIdSize; i++) {
+            //readUint48把全1解析为-1, 这里还原为48位短id
+            this.shortIdList.add(byteBuffer.readUint48() & SHORT_ID_MASK);
+        }
+
+        long prefilledSize = byteBuffer.readVarInt();
+        this.prefilledIndexList = new ArrayList<>();
+        this.prefilledTxList = new ArrayList<>();
+        for (int i = 0; i < prefilledSize; i++) {
+            this.prefilledIndexList.add((int) byteBuffer.readVarInt());
+            Transaction tx = byteBuffer.readTransaction();
+            tx.setBlockHeight(header.getHeight());
+            this.prefilledTxList.add(tx);
+        }
+    }
+
+    /**
+     * 区块头
+     * block header
+     *
+     * @return BlockHeader
+     */
+    public BlockHeader getHeader() {
+        return header;
+    }
+
+    public void setHeader(BlockHeader header) {
+        this.header = header;
+    }
+
+    public long getNonce() {
+        return nonce;
+    }
+
+    public void setNonce(long nonce) {
+        this.nonce = nonce;
+    }
+
+    public List<Long> getShortIdList() {
+        return shortIdList;
+    }
+
+    public void addShortId(long shortId) {
+        this.shortIdList.add(shortId);
+    }
+
+    public List<Integer> getPrefilledIndexList() {
+        return prefilledIndexList;
+    }
+
+    public List<Transaction> getPrefilledTxList() {
+        return prefilledTxList;
+    }
+
+    public void addPrefilledTx(int index, Transaction tx) {
+        this.prefilledIndexList.add(index);
+        this.prefilledTxList.add(tx);
+    }
+
+}
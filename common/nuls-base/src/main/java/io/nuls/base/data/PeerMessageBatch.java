@@ -0,0 +1,131 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.nuls.base.data;
+
+import io.nuls.base.basic.NulsByteBuffer;
+import io.nuls.base.basic.NulsOutputStreamBuffer;
+import io.nuls.core.exception.NulsException;
+import io.nuls.core.parse.SerializeUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网络模块转发给业务模块的批量节点消息, 每条消息只携带(chainId, nodeId, cmd)与原始消息体
+ * A batch of peer messages forwarded from the network module to a protocol module.
+ * Each message only carries (chainId, nodeId, cmd) and the raw message body.
+ */
+public class PeerMessageBatch extends BaseNulsData {
+
+    private List<PeerMessage> messages = new ArrayList<>();
+
+    public PeerMessageBatch() {
+    }
+
+    public PeerMessageBatch(List<PeerMessage> messages) {
+        this.messages = messages;
+    }
+
+    @Override
+    protected void serializeToStream(NulsOutputStreamBuffer stream) throws IOException {
+        stream.writeVarInt(messages.size());
+        for (PeerMessage message : messages) {
+            stream.writeUint16(message.getChainId());
+            stream.writeString(message.getNodeId());
+            stream.writeString(message.getCmd());
+            stream.writeBytesWithLength(message.getBody());
+        }
+    }
+
+    @Override
+    public void parse(NulsByteBuffer byteBuffer) throws NulsException {
+        int count = (int) byteBuffer.readVarInt();
+        List<PeerMessage> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int chainId = byteBuffer.readUint16();
+            String nodeId = byteBuffer.readString();
+            String cmd = byteBuffer.readString();
+            byte[] body = byteBuffer.readByLengthByte();
+            list.add(new PeerMessage(chainId, nodeId, cmd, body));
+        }
+        this.messages = list;
+    }
+
+    @Override
+    public int size() {
+        int size = SerializeUtils.sizeOfVarInt(messages.size());
+        for (PeerMessage message : messages) {
+            size += SerializeUtils.sizeOfUint16();
+            size += SerializeUtils.sizeOfString(message.getNodeId());
+            size += SerializeUtils.sizeOfString(message.getCmd());
+            size += SerializeUtils.sizeOfBytes(message.getBody());
+        }
+        return size;
+    }
+
+    public List<PeerMessage> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<PeerMessage> messages) {
+        this.messages = messages;
+    }
+
+    /**
+     * 单条节点消息
+     * A single peer message
+     */
+    public static class PeerMessage {
+
+        private final int chainId;
+        private final String nodeId;
+        private final String cmd;
+        private final byte[] body;
+
+        public PeerMessage(int chainId, String nodeId, String cmd, byte[] body) {
+            this.chainId = chainId;
+            this.nodeId = nodeId;
+            this.cmd = cmd;
+            this.body = body;
+        }
+
+        public int getChainId() {
+            return chainId;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public String getCmd() {
+            return cmd;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+}
@@ -38,6 +38,7 @@ import io.nuls.core.constant.TxType;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.crypto.ECKey;
 import io.nuls.core.crypto.HexUtil;
+import io.nuls.core.crypto.Secp256k1Verifier;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.log.Log;
 
@@ -54,19 +55,30 @@ import java.util.*;
  */
 @Component
 public class SignatureUtil {
+
+    /**
+     * 签名验证规则的硬分叉高度
+     * Height of the hard fork of the signature verification rules
+     */
+    private static final long HARD_FORKING_HEIGHT = 878000;
+
     /**
      * 验证交易中所有签名正确性
+     * 硬分叉后的验证规则比之前严格, 所以只缓存按硬分叉后规则验证通过的结果, 命中时对任意高度都成立
+     * The rules after the hard fork are stricter than before it, so only results verified with them are cached
+     * and a cache hit holds for any height
      *
      * @param tx 交易
      */
     public static boolean validateTransactionSignture(Transaction tx) throws NulsException {
-        // 判断硬分叉,需要一个高度
-        long hardForkingHeight = 878000;
-        boolean forked = tx.getBlockHeight() <= 0 || tx.getBlockHeight() > hardForkingHeight;
+        boolean forked = isForked(tx);
         try {
             if (tx.getTransactionSignature() == null || tx.getTransactionSignature().length == 0) {
                 throw new NulsException(new Exception());
             }
+            if (VerifiedSignatureCache.isVerified(tx)) {
+                return true;
+            }
             if (!tx.isMultiSignTx()) {
                 TransactionSignature transactionSignature = new TransactionSignature();
                 transactionSignature.parse(tx.getTransactionSignature(), 0);
@@ -118,9 +130,69 @@ public class SignatureUtil {
             Log.error("TransactionSignature parse error!");
             throw e;
         }
+        if (forked) {
+            VerifiedSignatureCache.putVerified(tx);
+        }
         return true;
     }
 
+    /**
+     * 批量验证一组交易的签名, 所有签名合在一起做一次批量验证, 按硬分叉后规则验证通过的交易记入VerifiedSignatureCache,
+     * 之后对这些交易调用validateTransactionSignture时直接命中缓存. 多签交易、硬分叉前的交易和未通过的交易不做处理,
+     * 仍由validateTransactionSignture逐个验证并给出错误
+     * Verify the signatures of a group of transactions as a single batch. Transactions that pass under the post-hard-fork
+     * rules are recorded in VerifiedSignatureCache, so validateTransactionSignture hits the cache for them afterwards.
+     * Multi-sign transactions, transactions before the hard fork and failed ones are left alone; validateTransactionSignture
+     * still verifies them one by one and reports the error.
+     *
+     * @param txList 交易
+     */
+    public static void verifyBatch(List<Transaction> txList) {
+        List<Secp256k1Verifier.Item> items = new ArrayList<>();
+        List<Transaction> batchTxList = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        for (Transaction tx : txList) {
+            if (!isForked(tx) || tx.getTransactionSignature() == null || tx.getTransactionSignature().length == 0) {
+                continue;
+            }
+            TransactionSignature transactionSignature = new TransactionSignature();
+            try {
+                if (tx.isMultiSignTx()) {
+                    continue;
+                }
+                transactionSignature.parse(tx.getTransactionSignature(), 0);
+            } catch (NulsException e) {
+                continue;
+            }
+            if (transactionSignature.getP2PHKSignatures() == null || transactionSignature.getP2PHKSignatures().isEmpty()) {
+                continue;
+            }
+            byte[] hash = tx.getHash().getBytes();
+            for (P2PHKSignature signature : transactionSignature.getP2PHKSignatures()) {
+                items.add(new Secp256k1Verifier.Item(hash, signature.getSignData().getSignBytes(), signature.getPublicKey()));
+            }
+            batchTxList.add(tx);
+            ends.add(items.size());
+        }
+        boolean[] results = Secp256k1Verifier.verifyBatch(items);
+        int start = 0;
+        for (int i = 0; i < batchTxList.size(); i++) {
+            int end = ends.get(i);
+            boolean passed = true;
+            for (int j = start; j < end && passed; j++) {
+                passed = results[j];
+            }
+            if (passed) {
+                VerifiedSignatureCache.putVerified(batchTxList.get(i));
+            }
+            start = end;
+        }
+    }
+
+    private static boolean isForked(Transaction tx) {
+        return tx.getBlockHeight() <= 0 || tx.getBlockHeight() > HARD_FORKING_HEIGHT;
+    }
+
     /**
      * 跨链交易验证签名
      *
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.base.signture;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.nuls.base.data.NulsHash;
+import io.nuls.base.data.Transaction;
+import io.nuls.core.crypto.Sha256Hash;
+
+import java.util.Arrays;
+
+/**
+ * 已验证签名缓存
+ * Cache of verified transaction signatures
+ * <p>
+ * 区块验证时已在未确认池中的交易直接跳过, 不会查询本缓存. 命中来自两处: 网络交易在接收时已验证签名, 但区块到达时
+ * 仍在待验证队列或孤儿池中, 尚未进入未确认池; 区块验证时批量预验证过的签名, 在随后的基础验证中不再重复验证.
+ * 以交易hash为key, 值为签名数据的hash, 交易hash不包含签名, 所以只有签名数据也相同时才算命中. 只缓存验证通过的结果,
+ * 协议升级时清空
+ * Transactions of a block that are already in the unconfirmed pool are skipped by block verification and never
+ * look up this cache. Hits come from two places: network transactions whose signature was verified on receipt but
+ * which are still in the unverified queue or the orphan pool when their block arrives, and signatures pre-verified
+ * in a batch during block verification, which the following basic validation does not verify again.
+ * The key is the transaction hash and the value the hash of the signature data; the transaction hash does not cover
+ * the signature, so a lookup only hits when the signature data matches too. Only successful verifications are
+ * cached, and the cache is cleared on protocol upgrades.
+ */
+public class VerifiedSignatureCache {
+
+    private static final int MAXIMUM_SIZE = 100000;
+
+    private static final Cache<NulsHash, byte[]> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .recordStats()
+            .build();
+
+    /**
+     * 交易的签名是否已验证通过
+     * Whether the signature of the transaction was already verified
+     */
+    public static boolean isVerified(Transaction tx) {
+        byte[] signatureHash = CACHE.getIfPresent(tx.getHash());
+        return signatureHash != null && Arrays.equals(signatureHash, Sha256Hash.hash(tx.getTransactionSignature()));
+    }
+
+    /**
+     * 记录交易的签名已验证通过
+     * Record that the signature of the transaction was verified
+     */
+    public static void putVerified(Transaction tx) {
+        CACHE.put(tx.getHash(), Sha256Hash.hash(tx.getTransactionSignature()));
+    }
+
+    public static void clear() {
+        CACHE.invalidateAll();
+    }
+
+    public static CacheStats stats() {
+        return CACHE.stats();
+    }
+}
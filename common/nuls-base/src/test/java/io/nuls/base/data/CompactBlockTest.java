@@ -0,0 +1,60 @@
+package io.nuls.base.data;
+
+import com.google.common.hash.HashFunction;
+import io.nuls.base.basic.NulsByteBuffer;
+import io.nuls.core.crypto.Sha256Hash;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 测试紧凑区块短id与序列化
+ */
+public class CompactBlockTest {
+
+    private NulsHash hash(int i) {
+        return new NulsHash(Sha256Hash.hashTwice(ByteBuffer.allocate(4).putInt(i).array()));
+    }
+
+    @Test
+    public void shortId() {
+        NulsHash blockHash = hash(0);
+        HashFunction function = CompactBlock.shortIdFunction(blockHash, 1L);
+        long shortId = CompactBlock.shortId(function, hash(1));
+        Assert.assertEquals(0L, shortId >>> 48);
+        Assert.assertEquals(shortId, CompactBlock.shortId(CompactBlock.shortIdFunction(blockHash, 1L), hash(1)));
+        //不同的nonce得到不同的短id
+        Assert.assertNotEquals(shortId, CompactBlock.shortId(CompactBlock.shortIdFunction(blockHash, 2L), hash(1)));
+    }
+
+    @Test
+    public void serialize() throws Exception {
+        BlockHeader header = new BlockHeader();
+        header.setPreHash(hash(0));
+        header.setMerkleHash(hash(1));
+        header.setTime(1574993520L);
+        header.setHeight(100L);
+        header.setTxCount(3);
+        header.setExtend(new byte[]{1, 2, 3});
+        CompactBlock compactBlock = new CompactBlock();
+        compactBlock.setHeader(header);
+        compactBlock.setNonce(-7L);
+        Transaction tx = new Transaction(1);
+        tx.setTime(1574993520L);
+        compactBlock.addPrefilledTx(0, tx);
+        compactBlock.addShortId(0xFFFFFFFFFFFFL);
+        compactBlock.addShortId(5L);
+
+        byte[] bytes = compactBlock.serialize();
+        Assert.assertEquals(compactBlock.size(), bytes.length);
+        CompactBlock parsed = new CompactBlock();
+        parsed.parse(new NulsByteBuffer(bytes));
+        Assert.assertEquals(header.getHash(), parsed.getHeader().getHash());
+        Assert.assertEquals(-7L, parsed.getNonce());
+        Assert.assertEquals(3, parsed.getTxCount());
+        Assert.assertEquals(compactBlock.getShortIdList(), parsed.getShortIdList());
+        Assert.assertEquals(Integer.valueOf(0), parsed.getPrefilledIndexList().get(0));
+        Assert.assertEquals(tx.getHash(), parsed.getPrefilledTxList().get(0).getHash());
+    }
+}
@@ -0,0 +1,60 @@
+package io.nuls.base.signture;
+
+import io.nuls.base.data.Transaction;
+import io.nuls.core.crypto.ECKey;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class VerifiedSignatureCacheTest {
+
+    private Transaction signedTx(ECKey ecKey) throws Exception {
+        Transaction tx = new Transaction(2);
+        tx.setTime(System.currentTimeMillis() / 1000);
+        tx.setRemark(new byte[]{1, 2, 3});
+        List<P2PHKSignature> signatures = new ArrayList<>();
+        signatures.add(SignatureUtil.createSignatureByEckey(tx, ecKey));
+        TransactionSignature transactionSignature = new TransactionSignature();
+        transactionSignature.setP2PHKSignatures(signatures);
+        tx.setTransactionSignature(transactionSignature.serialize());
+        return tx;
+    }
+
+    @Test
+    public void verifiedOnce() throws Exception {
+        VerifiedSignatureCache.clear();
+        Transaction tx = signedTx(new ECKey());
+        Assert.assertFalse(VerifiedSignatureCache.isVerified(tx));
+        Assert.assertTrue(SignatureUtil.validateTransactionSignture(tx));
+        Assert.assertTrue(VerifiedSignatureCache.isVerified(tx));
+
+        //同一交易换成其他签名数据时不能命中
+        Transaction other = signedTx(new ECKey());
+        other.setTime(tx.getTime());
+        Assert.assertEquals(tx.getHash(), other.getHash());
+        Assert.assertFalse(VerifiedSignatureCache.isVerified(other));
+
+        VerifiedSignatureCache.clear();
+        Assert.assertFalse(VerifiedSignatureCache.isVerified(tx));
+    }
+
+    @Test
+    public void verifyBatch() throws Exception {
+        VerifiedSignatureCache.clear();
+        Transaction tx = signedTx(new ECKey());
+        //签名数据属于另一笔交易
+        Transaction forged = new Transaction(2);
+        forged.setTime(tx.getTime() + 1);
+        forged.setTransactionSignature(tx.getTransactionSignature());
+        List<Transaction> txList = new ArrayList<>();
+        txList.add(tx);
+        txList.add(forged);
+        SignatureUtil.verifyBatch(txList);
+        Assert.assertTrue(VerifiedSignatureCache.isVerified(tx));
+        Assert.assertFalse(VerifiedSignatureCache.isVerified(forged));
+        Assert.assertTrue(SignatureUtil.validateTransactionSignture(tx));
+        VerifiedSignatureCache.clear();
+    }
+}
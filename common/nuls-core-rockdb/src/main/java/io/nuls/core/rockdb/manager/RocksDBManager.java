@@ -23,13 +23,18 @@ import io.nuls.core.log.Log;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.rockdb.constant.DBErrorCode;
 import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.model.RocksDBConfig;
+import io.nuls.core.rockdb.model.TableOptions;
+import io.nuls.core.rockdb.model.TableStatistics;
 import io.nuls.core.rockdb.util.DBUtils;
 import org.rocksdb.*;
 import org.rocksdb.util.SizeUnit;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 
 
@@ -47,11 +52,76 @@ public class RocksDBManager {
      */
     private static final ConcurrentHashMap<String, RocksDB> TABLES = new ConcurrentHashMap<>();
 
+    /**
+     * 数据表对应的列族, 独立表模式下为该表数据库的默认列族.
+     * Column family of each table, the default column family of the table's own database in legacy mode.
+     */
+    private static final ConcurrentHashMap<String, ColumnFamilyHandle> COLUMN_FAMILIES = new ConcurrentHashMap<>();
+
+    /**
+     * 列族模式下各列族的参数, 数据库关闭前需要保持引用.
+     */
+    private static final ConcurrentHashMap<String, ColumnFamilyOptions> COLUMN_FAMILY_OPTIONS = new ConcurrentHashMap<>();
+
+    /**
+     * 已注册的数据表参数.
+     * registered per-table options
+     */
+    private static final ConcurrentHashMap<String, TableOptions> TABLE_OPTIONS = new ConcurrentHashMap<>();
+
+    /**
+     * 按表名前缀注册的链数据表参数, 适用于"前缀+链id"命名的表.
+     * options registered by table name prefix, applied to tables named prefix + chain id
+     */
+    private static final ConcurrentHashMap<String, TableOptions> CHAIN_TABLE_OPTIONS = new ConcurrentHashMap<>();
+
+    /**
+     * 独立表模式下每个数据库的rocksdb统计对象.
+     */
+    private static final ConcurrentHashMap<String, Statistics> TABLE_STATISTICS = new ConcurrentHashMap<>();
+
+    /**
+     * 每个数据表的读取计数.
+     */
+    private static final ConcurrentHashMap<String, ReadCounter> READ_COUNTERS = new ConcurrentHashMap<>();
+
     /**
      * 数据表基础文件夹名.
      */
     private static final String BASE_DB_NAME = "rocksdb";
 
+    /**
+     * 列族模式下数据库文件夹名.
+     * folder name of the database holding all column families
+     */
+    private static final String COLUMN_FAMILY_DB_NAME = "_column_families";
+
+    /**
+     * 数据库配置.
+     */
+    private static RocksDBConfig config = new RocksDBConfig();
+
+    /**
+     * 所有数据表共享的块缓存.
+     */
+    private static Cache blockCache;
+
+    /**
+     * 列族模式下的数据库连接, 独立表模式下为null.
+     */
+    private static RocksDB columnFamilyDB;
+
+    private static ColumnFamilyHandle defaultColumnFamily;
+
+    private static DBOptions columnFamilyDBOptions;
+
+    private static Statistics columnFamilyStatistics;
+
+    static {
+        //块缓存等对象在打开数据库之前创建, 需要先加载本地库
+        RocksDB.loadLibrary();
+    }
+
     /**
      * 数据操作同步锁.
      */
@@ -70,10 +140,35 @@ public class RocksDBManager {
      * @throws Exception 数据库打开连接异常
      */
     public static void init(final String path) throws Exception {
+        init(path, null);
+    }
+
+    /**
+     * 根据传入的数据库路径和配置打开数据库.
+     * 数据目录下存在列族数据库时自动使用列族模式; 存在旧的独立表时忽略列族配置, 继续使用独立表模式.
+     * Open the database under the given path with the given configuration.
+     * An existing column family database is always reopened in column family mode, while existing
+     * legacy tables keep the one-database-per-table layout regardless of the configuration.
+     *
+     * @param path     数据库地址
+     * @param dbConfig 数据库配置, 为null时使用默认配置
+     * @throws Exception 数据库打开连接异常
+     */
+    public static void init(final String path, final RocksDBConfig dbConfig) throws Exception {
         synchronized (RocksDBManager.class) {
+            if (dbConfig != null) {
+                config = dbConfig;
+            }
             File dir = DBUtils.loadDataPath(path);
             dataPath = dir.getPath();
             Log.info("RocksDBManager dataPath is " + dataPath);
+            if (blockCache == null && config.getBlockCacheSize() > 0) {
+                blockCache = new LRUCache(config.getBlockCacheSize());
+            }
+            if (useColumnFamily(dir)) {
+                initColumnFamilyDB();
+                return;
+            }
             File[] tableFiles = dir.listFiles();
             RocksDB db;
             String dbPath = null;
@@ -84,9 +179,9 @@ public class RocksDBManager {
                 }
                 try {
                     dbPath = tableFile.getPath() + File.separator + BASE_DB_NAME;
-                    db = initOpenDB(dbPath);
+                    db = initOpenDB(tableFile.getName(), dbPath);
                     if (db != null) {
-                        TABLES.put(tableFile.getName(), db);
+                        putTable(tableFile.getName(), db, db.getDefaultColumnFamily());
                     }
                 } catch (Exception e) {
                     Log.warn("load table failed, tableName: " + tableFile.getName() + ", dbPath: " + dbPath, e);
@@ -98,17 +193,87 @@ public class RocksDBManager {
     }
 
     /**
-     * @param dbPath 数据库地址
+     * 判断是否使用列族模式.
+     *
+     * @param dir 数据库根目录
+     * @return 是否使用列族模式
+     */
+    private static boolean useColumnFamily(final File dir) {
+        if (columnFamilyDB != null) {
+            return true;
+        }
+        if (new File(dir, COLUMN_FAMILY_DB_NAME + File.separator + "CURRENT").exists()) {
+            return true;
+        }
+        if (!config.isColumnFamily()) {
+            return false;
+        }
+        File[] tableFiles = dir.listFiles();
+        boolean hasLegacyTable = !TABLES.isEmpty();
+        for (int i = 0; !hasLegacyTable && tableFiles != null && i < tableFiles.length; i++) {
+            hasLegacyTable = new File(tableFiles[i], BASE_DB_NAME + File.separator + "CURRENT").exists();
+        }
+        if (hasLegacyTable) {
+            Log.warn("RocksDBManager found legacy tables in {}, column family mode is disabled", dir.getPath());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 打开列族数据库, 并缓存所有列族.
+     * open the column family database and cache every column family as a table
+     *
+     * @throws RocksDBException 数据库连接异常
+     */
+    private static void initColumnFamilyDB() throws RocksDBException {
+        if (columnFamilyDB != null) {
+            return;
+        }
+        String dbPath = dataPath + File.separator + COLUMN_FAMILY_DB_NAME;
+        List<byte[]> names;
+        if (new File(dbPath + File.separator + "CURRENT").exists()) {
+            try (Options options = new Options()) {
+                names = RocksDB.listColumnFamilies(options, dbPath);
+            }
+        } else {
+            names = Collections.singletonList(RocksDB.DEFAULT_COLUMN_FAMILY);
+        }
+        List<ColumnFamilyDescriptor> descriptors = new ArrayList<>(names.size());
+        for (byte[] name : names) {
+            String tableName = new String(name, StandardCharsets.UTF_8);
+            descriptors.add(new ColumnFamilyDescriptor(name, getColumnFamilyOptions(tableName)));
+        }
+        columnFamilyStatistics = config.isStatistics() ? new Statistics() : null;
+        columnFamilyDBOptions = getDBOptions(true, columnFamilyStatistics);
+        columnFamilyDBOptions.setCreateMissingColumnFamilies(true);
+        List<ColumnFamilyHandle> handles = new ArrayList<>(names.size());
+        columnFamilyDB = RocksDB.open(columnFamilyDBOptions, dbPath, descriptors, handles);
+        for (int i = 0; i < handles.size(); i++) {
+            String tableName = new String(names.get(i), StandardCharsets.UTF_8);
+            if (Arrays.equals(RocksDB.DEFAULT_COLUMN_FAMILY, names.get(i))) {
+                defaultColumnFamily = handles.get(i);
+                COLUMN_FAMILY_OPTIONS.remove(tableName).close();
+                continue;
+            }
+            putTable(tableName, columnFamilyDB, handles.get(i));
+        }
+        Log.info("RocksDBManager opened {} column families in {}", TABLES.size(), dbPath);
+    }
+
+    /**
+     * @param tableName 数据库表名称
+     * @param dbPath    数据库地址
      * @return RocksDB 数据库连接对象
      * @throws RocksDBException 数据库连接异常
      */
-    private static RocksDB initOpenDB(final String dbPath) throws RocksDBException {
+    private static RocksDB initOpenDB(final String tableName, final String dbPath) throws RocksDBException {
         File checkFile = new File(dbPath + File.separator + "CURRENT");
         if (!checkFile.exists()) {
             return null;
         }
 
-        Options options = getCommonOptions(false);
+        Options options = getCommonOptions(tableName, false);
         return RocksDB.open(options, dbPath);
     }
 
@@ -116,16 +281,84 @@ public class RocksDBManager {
      * 装载数据库.
      * load database
      *
+     * @param tableName       数据库表名称
      * @param dbPath          数据库地址
      * @param createIfMissing 数据库不存在时是否默认创建
      * @return RocksDB
      * @throws RocksDBException 数据库连接异常
      */
-    private static RocksDB openDB(final String dbPath, final boolean createIfMissing) throws RocksDBException {
-        Options options = getCommonOptions(createIfMissing);
+    private static RocksDB openDB(final String tableName, final String dbPath, final boolean createIfMissing) throws RocksDBException {
+        Options options = getCommonOptions(tableName, createIfMissing);
         return RocksDB.open(options, dbPath);
     }
 
+    private static void putTable(final String tableName, final RocksDB db, final ColumnFamilyHandle handle) {
+        COLUMN_FAMILIES.put(tableName, handle);
+        READ_COUNTERS.putIfAbsent(tableName, new ReadCounter());
+        TABLES.put(tableName, db);
+    }
+
+    /**
+     * 注册数据表参数, 需要在该表创建或打开之前调用.
+     * Register the options of a table, must be called before the table is created or opened.
+     *
+     * @param tableName 数据库表名称
+     * @param options   数据表参数
+     */
+    public static void registerTableOptions(final String tableName, final TableOptions options) {
+        if (StringUtils.isBlank(tableName) || options == null) {
+            return;
+        }
+        if (TABLES.containsKey(tableName)) {
+            Log.warn("table {} is already opened, the registered options take effect after it is reopened", tableName);
+        }
+        TABLE_OPTIONS.put(tableName, options);
+    }
+
+    /**
+     * 注册链数据表参数, 适用于以该前缀加链id命名的所有表, 需要在init之前调用; 单独注册的表参数优先.
+     * Register the options of the tables named by the prefix followed by a chain id, must be called before init.
+     * Options registered for a single table take precedence.
+     *
+     * @param tablePrefix 数据库表名前缀
+     * @param options     数据表参数
+     */
+    public static void registerChainTableOptions(final String tablePrefix, final TableOptions options) {
+        if (StringUtils.isBlank(tablePrefix) || options == null) {
+            return;
+        }
+        CHAIN_TABLE_OPTIONS.put(tablePrefix, options);
+    }
+
+    /**
+     * 数据表的注册参数, 未注册时返回默认参数.
+     *
+     * @param tableName 数据库表名称
+     * @return 数据表参数
+     */
+    private static TableOptions getTableOptions(final String tableName) {
+        TableOptions options = TABLE_OPTIONS.get(tableName);
+        if (options != null) {
+            return options;
+        }
+        for (Map.Entry<String, TableOptions> entry : CHAIN_TABLE_OPTIONS.entrySet()) {
+            String prefix = entry.getKey();
+            if (tableName.length() > prefix.length() && tableName.startsWith(prefix) && isChainId(tableName.substring(prefix.length()))) {
+                return entry.getValue();
+            }
+        }
+        return new TableOptions();
+    }
+
+    private static boolean isChainId(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * 根据名称创建对应的数据库.
      * Create database based by name
@@ -142,17 +375,27 @@ public class RocksDBManager {
             if (TABLES.containsKey(tableName)) {
                 throw new Exception(DBErrorCode.DB_TABLE_EXIST);
             }
-            if (StringUtils.isBlank(dataPath) || !DBUtils.checkPathLegal(tableName)) {
+            if (StringUtils.isBlank(dataPath) || !DBUtils.checkPathLegal(tableName) || COLUMN_FAMILY_DB_NAME.equals(tableName)) {
+                throw new Exception(DBErrorCode.DB_TABLE_CREATE_PATH_ERROR);
+            }
+            if (columnFamilyDB != null && Arrays.equals(RocksDB.DEFAULT_COLUMN_FAMILY, tableName.getBytes(StandardCharsets.UTF_8))) {
                 throw new Exception(DBErrorCode.DB_TABLE_CREATE_PATH_ERROR);
             }
             try {
+                if (columnFamilyDB != null) {
+                    ColumnFamilyOptions cfOptions = getColumnFamilyOptions(tableName);
+                    ColumnFamilyHandle handle = columnFamilyDB.createColumnFamily(
+                            new ColumnFamilyDescriptor(tableName.getBytes(StandardCharsets.UTF_8), cfOptions));
+                    putTable(tableName, columnFamilyDB, handle);
+                    return true;
+                }
                 File dir = new File(dataPath + File.separator + tableName);
                 if (!dir.exists()) {
                     dir.mkdir();
                 }
                 String filePath = dataPath + File.separator + tableName + File.separator + BASE_DB_NAME;
-                RocksDB db = openDB(filePath, true);
-                TABLES.put(tableName, db);
+                RocksDB db = openDB(tableName, filePath, true);
+                putTable(tableName, db, db.getDefaultColumnFamily());
             } catch (Exception e) {
                 Log.error("error create table: " + tableName, e);
                 throw new Exception(DBErrorCode.DB_TABLE_CREATE_ERROR);
@@ -165,6 +408,7 @@ public class RocksDBManager {
 
     /**
      * 根据名称获得对应的数据库对象.
+     * 列族模式下所有表返回同一个数据库对象, 需要配合{@link #getColumnFamily(String)}使用.
      * Get database objects by name
      *
      * @param tableName 数据库表名称
@@ -174,6 +418,26 @@ public class RocksDBManager {
         return TABLES.get(tableName);
     }
 
+    /**
+     * 根据名称获得对应的列族.
+     * Get the column family of a table
+     *
+     * @param tableName 数据库表名称
+     * @return ColumnFamilyHandle
+     */
+    public static ColumnFamilyHandle getColumnFamily(final String tableName) {
+        return COLUMN_FAMILIES.get(tableName);
+    }
+
+    /**
+     * 是否为列族模式.
+     *
+     * @return 所有数据表是否存放在同一个数据库中
+     */
+    public static boolean isColumnFamilyMode() {
+        return columnFamilyDB != null;
+    }
+
     /**
      * 根据名称删除对应的数据库.
      * Delete database by name
@@ -190,7 +454,16 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.remove(tableName);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.remove(tableName);
+            READ_COUNTERS.remove(tableName);
+            if (db == columnFamilyDB) {
+                db.dropColumnFamily(handle);
+                handle.close();
+                closeColumnFamilyOptions(tableName);
+                return true;
+            }
             db.close();
+            closeStatistics(tableName);
             File dir = new File(dataPath + File.separator + tableName);
             if (!dir.exists()) {
                 throw new Exception(DBErrorCode.DB_TABLE_NOT_EXIST);
@@ -222,17 +495,31 @@ public class RocksDBManager {
     public static void close() {
         Set<Map.Entry<String, RocksDB>> entries = TABLES.entrySet();
         for (Map.Entry<String, RocksDB> entry : entries) {
-            try {
-                TABLES.remove(entry.getKey());
-                entry.getValue().close();
-            } catch (Exception e) {
-                Log.warn("close rocksdb error", e);
+            closeTable(entry.getKey());
+        }
+        synchronized (RocksDBManager.class) {
+            if (columnFamilyDB != null) {
+                try {
+                    defaultColumnFamily.close();
+                    columnFamilyDB.close();
+                    columnFamilyDBOptions.close();
+                    if (columnFamilyStatistics != null) {
+                        columnFamilyStatistics.close();
+                    }
+                } catch (Exception e) {
+                    Log.warn("close rocksdb error", e);
+                }
+                columnFamilyDB = null;
+                defaultColumnFamily = null;
+                columnFamilyDBOptions = null;
+                columnFamilyStatistics = null;
             }
         }
     }
 
     /**
      * 关闭指定数据库连接.
+     * 列族模式下只释放该表的列族句柄, 数据库连接在{@link #close()}时关闭.
      * close a table
      *
      * @param tableName 数据库表名称
@@ -240,12 +527,33 @@ public class RocksDBManager {
     public static void closeTable(final String tableName) {
         try {
             RocksDB db = TABLES.remove(tableName);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.remove(tableName);
+            if (db == columnFamilyDB) {
+                handle.close();
+                closeColumnFamilyOptions(tableName);
+                return;
+            }
             db.close();
+            closeStatistics(tableName);
         } catch (Exception e) {
             Log.warn("close rocksdb tableName error:" + tableName, e);
         }
     }
 
+    private static void closeColumnFamilyOptions(final String tableName) {
+        ColumnFamilyOptions options = COLUMN_FAMILY_OPTIONS.remove(tableName);
+        if (options != null) {
+            options.close();
+        }
+    }
+
+    private static void closeStatistics(final String tableName) {
+        Statistics statistics = TABLE_STATISTICS.remove(tableName);
+        if (statistics != null) {
+            statistics.close();
+        }
+    }
+
     /**
      * 数据库基本校验.
      * Basic database check
@@ -299,7 +607,8 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            db.put(key, value);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            db.put(handle, key, value);
             return true;
         } catch (Exception e) {
             Log.error(e);
@@ -324,7 +633,8 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            db.delete(key);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            db.delete(handle, key);
             return true;
         } catch (Exception e) {
             Log.error(e);
@@ -347,12 +657,13 @@ public class RocksDBManager {
         if (kvs == null || kvs.size() == 0) {
             throw new Exception(DBErrorCode.NULL_PARAMETER);
         }
-        try (WriteBatch writeBatch = new WriteBatch()) {
+        try (WriteBatch writeBatch = new WriteBatch(); WriteOptions writeOptions = new WriteOptions()) {
             RocksDB db = TABLES.get(table);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
             for (Map.Entry<byte[], byte[]> entry : kvs.entrySet()) {
-                writeBatch.put(entry.getKey(), entry.getValue());
+                writeBatch.put(handle, entry.getKey(), entry.getValue());
             }
-            db.write(new WriteOptions(), writeBatch);
+            db.write(writeOptions, writeBatch);
             return true;
         } catch (Exception ex) {
             Log.error(ex);
@@ -375,12 +686,13 @@ public class RocksDBManager {
         if (keys == null || keys.size() == 0) {
             throw new Exception(DBErrorCode.NULL_PARAMETER);
         }
-        try (WriteBatch writeBatch = new WriteBatch()) {
+        try (WriteBatch writeBatch = new WriteBatch(); WriteOptions writeOptions = new WriteOptions()) {
             RocksDB db = TABLES.get(table);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
             for (byte[] key : keys) {
-                writeBatch.delete(key);
+                writeBatch.delete(handle, key);
             }
-            db.write(new WriteOptions(), writeBatch);
+            db.write(writeOptions, writeBatch);
             return true;
         } catch (Exception ex) {
             Log.error(ex);
@@ -406,7 +718,10 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            return db.get(key);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            byte[] value = db.get(handle, key);
+            recordRead(table, value != null);
+            return value;
         } catch (Exception e) {
             Log.error("get table={}: error",table);
             Log.error(e);
@@ -431,8 +746,9 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            boolean rs = db.keyMayExist(key, new StringBuilder());
-            return rs && (db.get(key) != null);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            boolean rs = db.keyMayExist(handle, key, new StringBuilder());
+            return rs && (db.get(handle, key) != null);
         } catch (Exception e) {
             Log.error("keyMayExist table={}: error",table);
             Log.error(e);
@@ -458,7 +774,8 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            return db.multiGet(keys);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            return db.multiGet(Collections.nCopies(keys.size(), handle), keys);
         } catch (Exception ex) {
             Log.error("multiGet table={}: error",table);
             Log.error(ex);
@@ -481,8 +798,9 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
             //该方法获取的结果包含查不到的key, 将以null 值放入返回的list中,因此需要把空值去除.
-            List<byte[]> list = db.multiGetAsList(keys);
+            List<byte[]> list = db.multiGetAsList(Collections.nCopies(keys.size(), handle), keys);
             List<byte[]> rs = new ArrayList<>();
             for(byte[] tx : list){
                 if(null != tx){
@@ -514,7 +832,8 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            Map<byte[], byte[]> map = db.multiGet(keys);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            Map<byte[], byte[]> map = db.multiGet(Collections.nCopies(keys.size(), handle), keys);
             if (map != null && map.size() > 0) {
                 list.addAll(map.values());
             }
@@ -545,7 +864,8 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            Map<byte[], byte[]> map = db.multiGet(keys);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            Map<byte[], byte[]> map = db.multiGet(Collections.nCopies(keys.size(), handle), keys);
             if (map != null && map.size() > 0) {
                 list.addAll(map.keySet());
             }
@@ -572,7 +892,9 @@ public class RocksDBManager {
         List<byte[]> list = new ArrayList<>();
         try {
             RocksDB db = TABLES.get(table);
-            try (RocksIterator iterator = db.newIterator()) {
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            try (ReadOptions readOptions = new ReadOptions().setTotalOrderSeek(true);
+                 RocksIterator iterator = db.newIterator(handle, readOptions)) {
                 for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
                     list.add(iterator.key());
                 }
@@ -600,7 +922,9 @@ public class RocksDBManager {
         List<byte[]> list = new ArrayList<>();
         try {
             RocksDB db = TABLES.get(table);
-            try (RocksIterator iterator = db.newIterator()) {
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            try (ReadOptions readOptions = new ReadOptions().setTotalOrderSeek(true);
+                 RocksIterator iterator = db.newIterator(handle, readOptions)) {
                 for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
                     list.add(iterator.value());
                 }
@@ -628,7 +952,9 @@ public class RocksDBManager {
         List<Entry<byte[], byte[]>> entryList = new ArrayList<>();
         try {
             RocksDB db = TABLES.get(table);
-            try (RocksIterator iterator = db.newIterator()) {
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            try (ReadOptions readOptions = new ReadOptions().setTotalOrderSeek(true);
+                 RocksIterator iterator = db.newIterator(handle, readOptions)) {
                 for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
                     entryList.add(new Entry(iterator.key(), iterator.value()));
                 }
@@ -642,35 +968,154 @@ public class RocksDBManager {
     }
 
     /**
-     * 获得公共的数据库连接属性.
+     * 查询数据表的读取统计, 需要在配置中开启statistics.
+     * query the read counters of a table, statistics must be enabled in the configuration
+     *
+     * @param table 数据库表名称
+     * @return 统计快照, 表不存在时返回null
+     */
+    public static TableStatistics getTableStatistics(final String table) {
+        ReadCounter counter = READ_COUNTERS.get(table);
+        if (counter == null) {
+            return null;
+        }
+        boolean shared = columnFamilyDB != null && TABLES.get(table) == columnFamilyDB;
+        Statistics statistics = shared ? columnFamilyStatistics : TABLE_STATISTICS.get(table);
+        long blockCacheHit = 0;
+        long blockCacheMiss = 0;
+        if (statistics != null) {
+            blockCacheHit = statistics.getTickerCount(TickerType.BLOCK_CACHE_HIT);
+            blockCacheMiss = statistics.getTickerCount(TickerType.BLOCK_CACHE_MISS);
+        }
+        return new TableStatistics(table, counter.reads.sum(), counter.hits.sum(), blockCacheHit, blockCacheMiss, shared);
+    }
+
+    private static void recordRead(final String table, final boolean hit) {
+        if (!config.isStatistics()) {
+            return;
+        }
+        ReadCounter counter = READ_COUNTERS.get(table);
+        if (counter != null) {
+            counter.reads.increment();
+            if (hit) {
+                counter.hits.increment();
+            }
+        }
+    }
+
+    /**
+     * 获得独立表模式的数据库连接属性.
      *
+     * @param tableName       数据库表名称
      * @param createIfMissing 是否默认表
      * @return 数据库连接属性
      */
-    private static synchronized Options getCommonOptions(final boolean createIfMissing) {
-        Options options = new Options();
+    private static synchronized Options getCommonOptions(final String tableName, final boolean createIfMissing) {
+        Statistics statistics = null;
+        if (config.isStatistics()) {
+            statistics = new Statistics();
+            Statistics old = TABLE_STATISTICS.put(tableName, statistics);
+            if (old != null) {
+                old.close();
+            }
+        }
+        /*
+        Options复制两者的本地参数, 复制后立即释放
+        Options copies both native option objects, release them right after
+        */
+        try (DBOptions dbOptions = getDBOptions(createIfMissing, statistics);
+             ColumnFamilyOptions columnFamilyOptions = getTableColumnFamilyOptions(tableName)) {
+            return new Options(dbOptions, columnFamilyOptions);
+        }
+    }
+
+    /**
+     * 获得公共的数据库级别属性.
+     *
+     * @param createIfMissing 是否默认表
+     * @param statistics      统计对象, 可以为null
+     * @return 数据库级别属性
+     */
+    private static DBOptions getDBOptions(final boolean createIfMissing, final Statistics statistics) {
+        DBOptions options = new DBOptions();
 
         options.setCreateIfMissing(createIfMissing);
         /**
          * 优化读取性能方案
          */
         options.setAllowMmapReads(true);
-        options.setCompressionType(CompressionType.NO_COMPRESSION);
         options.setMaxOpenFiles(-1);
-        BlockBasedTableConfig tableOption = new BlockBasedTableConfig();
-        tableOption.setNoBlockCache(true);
-        tableOption.setBlockRestartInterval(4);
-        tableOption.setFilterPolicy(new BloomFilter(10, true));
-        options.setTableFormatConfig(tableOption);
+        if (statistics != null) {
+            options.setStatistics(statistics);
+        }
 
-        options.setMaxBackgroundCompactions(16);
+        options.setMaxBackgroundCompactions(config.getMaxBackgroundCompactions());
         options.setNewTableReaderForCompactionInputs(true);
         //为压缩的输入，打开RocksDB层的预读取
         options.setCompactionReadaheadSize(128 * SizeUnit.KB);
-        options.setNewTableReaderForCompactionInputs(true);
 
         return options;
     }
 
+    /**
+     * 获得列族属性并缓存, 数据库关闭前不能释放.
+     *
+     * @param tableName 数据库表名称
+     * @return 列族属性
+     */
+    private static ColumnFamilyOptions getColumnFamilyOptions(final String tableName) {
+        ColumnFamilyOptions options = getTableColumnFamilyOptions(tableName);
+        ColumnFamilyOptions old = COLUMN_FAMILY_OPTIONS.put(tableName, options);
+        if (old != null) {
+            old.close();
+        }
+        return options;
+    }
+
+    /**
+     * 根据注册的数据表参数生成列族属性, 未注册时使用默认参数.
+     *
+     * @param tableName 数据库表名称
+     * @return 列族属性
+     */
+    private static ColumnFamilyOptions getTableColumnFamilyOptions(final String tableName) {
+        TableOptions tableOptions = getTableOptions(tableName);
+        ColumnFamilyOptions options = new ColumnFamilyOptions();
+        options.setCompressionType(tableOptions.getCompressionType());
+        if (tableOptions.getPrefixLength() > 0) {
+            options.useFixedLengthPrefixExtractor(tableOptions.getPrefixLength());
+        }
+        if (tableOptions.getWriteBufferSize() > 0) {
+            options.setWriteBufferSize(tableOptions.getWriteBufferSize());
+        }
+        if (tableOptions.getMaxWriteBufferNumber() > 0) {
+            options.setMaxWriteBufferNumber(tableOptions.getMaxWriteBufferNumber());
+        }
+
+        BlockBasedTableConfig tableOption = new BlockBasedTableConfig();
+        if (blockCache != null) {
+            tableOption.setBlockCache(blockCache);
+            tableOption.setCacheIndexAndFilterBlocks(tableOptions.isCacheIndexAndFilterBlocks());
+        } else {
+            tableOption.setNoBlockCache(true);
+        }
+        if (tableOptions.getBlockSize() > 0) {
+            tableOption.setBlockSize(tableOptions.getBlockSize());
+        }
+        tableOption.setBlockRestartInterval(4);
+        if (tableOptions.getBloomBitsPerKey() > 0) {
+            tableOption.setFilterPolicy(new BloomFilter(tableOptions.getBloomBitsPerKey(), true));
+        }
+        options.setTableFormatConfig(tableOption);
+        return options;
+    }
+
+    /**
+     * 数据表读取计数.
+     */
+    private static class ReadCounter {
+        private final LongAdder reads = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+    }
 
 }
@@ -0,0 +1,93 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.model;
+
+/**
+ * 数据库级别的配置, 在{@link io.nuls.core.rockdb.manager.RocksDBManager#init(String, RocksDBConfig)}时传入.
+ * Database level configuration, passed in when the manager is initialized.
+ */
+public class RocksDBConfig {
+
+    /**
+     * 是否将所有数据表作为列族存放在同一个数据库中.
+     * 如果数据目录下已经存在旧的独立表, 则继续使用独立表模式.
+     * Store every table as a column family of one database.
+     * Ignored while the data path still holds tables created in the legacy one-database-per-table layout.
+     */
+    private boolean columnFamily = false;
+
+    /**
+     * 所有数据表共享的LRU块缓存大小(字节), 0表示不使用块缓存.
+     * Size in bytes of the LRU block cache shared by all tables, 0 disables the block cache.
+     */
+    private long blockCacheSize = 0;
+
+    /**
+     * 是否统计缓存命中率.
+     * Collect read and block cache hit counters.
+     */
+    private boolean statistics = false;
+
+    /**
+     * 后台压缩线程数.
+     * Number of background compaction threads.
+     */
+    private int maxBackgroundCompactions = 16;
+
+    public RocksDBConfig() {
+    }
+
+    public RocksDBConfig(boolean columnFamily, long blockCacheSize) {
+        this.columnFamily = columnFamily;
+        this.blockCacheSize = blockCacheSize;
+    }
+
+    public boolean isColumnFamily() {
+        return columnFamily;
+    }
+
+    public void setColumnFamily(boolean columnFamily) {
+        this.columnFamily = columnFamily;
+    }
+
+    public long getBlockCacheSize() {
+        return blockCacheSize;
+    }
+
+    public void setBlockCacheSize(long blockCacheSize) {
+        this.blockCacheSize = blockCacheSize;
+    }
+
+    public boolean isStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(boolean statistics) {
+        this.statistics = statistics;
+    }
+
+    public int getMaxBackgroundCompactions() {
+        return maxBackgroundCompactions;
+    }
+
+    public void setMaxBackgroundCompactions(int maxBackgroundCompactions) {
+        this.maxBackgroundCompactions = maxBackgroundCompactions;
+    }
+}
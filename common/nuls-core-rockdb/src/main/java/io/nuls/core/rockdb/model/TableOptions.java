@@ -0,0 +1,134 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.model;
+
+import org.rocksdb.CompressionType;
+
+/**
+ * 单个数据表(列族)的可调参数, 需要在表打开之前通过{@link io.nuls.core.rockdb.manager.RocksDBManager#registerTableOptions(String, TableOptions)}注册.
+ * Tunable options of a single table (column family), registered before the table is opened.
+ */
+public class TableOptions {
+
+    /**
+     * 压缩算法.
+     * compression algorithm
+     */
+    private CompressionType compressionType = CompressionType.NO_COMPRESSION;
+
+    /**
+     * 布隆过滤器每个key占用的位数, 0表示不使用布隆过滤器.
+     * Bits per key of the bloom filter, 0 disables the filter.
+     */
+    private int bloomBitsPerKey = 10;
+
+    /**
+     * 固定长度前缀提取器的长度, 0表示不使用前缀提取器.
+     * Length of the fixed-length prefix extractor, 0 disables it.
+     */
+    private int prefixLength = 0;
+
+    /**
+     * 单个memtable大小(字节), 0表示使用rocksdb默认值.
+     * Size in bytes of one memtable, 0 keeps the rocksdb default.
+     */
+    private long writeBufferSize = 0;
+
+    /**
+     * memtable最大数量, 0表示使用rocksdb默认值.
+     * Maximum number of memtables, 0 keeps the rocksdb default.
+     */
+    private int maxWriteBufferNumber = 0;
+
+    /**
+     * 数据块大小(字节), 0表示使用rocksdb默认值.
+     * Size in bytes of a data block, 0 keeps the rocksdb default.
+     */
+    private long blockSize = 0;
+
+    /**
+     * 是否将索引和过滤器块放入共享块缓存.
+     * Put index and filter blocks into the shared block cache.
+     */
+    private boolean cacheIndexAndFilterBlocks = false;
+
+    public CompressionType getCompressionType() {
+        return compressionType;
+    }
+
+    public TableOptions setCompressionType(CompressionType compressionType) {
+        this.compressionType = compressionType;
+        return this;
+    }
+
+    public int getBloomBitsPerKey() {
+        return bloomBitsPerKey;
+    }
+
+    public TableOptions setBloomBitsPerKey(int bloomBitsPerKey) {
+        this.bloomBitsPerKey = bloomBitsPerKey;
+        return this;
+    }
+
+    public int getPrefixLength() {
+        return prefixLength;
+    }
+
+    public TableOptions setPrefixLength(int prefixLength) {
+        this.prefixLength = prefixLength;
+        return this;
+    }
+
+    public long getWriteBufferSize() {
+        return writeBufferSize;
+    }
+
+    public TableOptions setWriteBufferSize(long writeBufferSize) {
+        this.writeBufferSize = writeBufferSize;
+        return this;
+    }
+
+    public int getMaxWriteBufferNumber() {
+        return maxWriteBufferNumber;
+    }
+
+    public TableOptions setMaxWriteBufferNumber(int maxWriteBufferNumber) {
+        this.maxWriteBufferNumber = maxWriteBufferNumber;
+        return this;
+    }
+
+    public long getBlockSize() {
+        return blockSize;
+    }
+
+    public TableOptions setBlockSize(long blockSize) {
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    public boolean isCacheIndexAndFilterBlocks() {
+        return cacheIndexAndFilterBlocks;
+    }
+
+    public TableOptions setCacheIndexAndFilterBlocks(boolean cacheIndexAndFilterBlocks) {
+        this.cacheIndexAndFilterBlocks = cacheIndexAndFilterBlocks;
+        return this;
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.model;
+
+/**
+ * 数据表读取统计快照.
+ * Snapshot of the read counters of one table.
+ * <p>
+ * 列族模式下所有表共用一个数据库, rocksdb只能按数据库统计块缓存命中,
+ * 此时{@link #isSharedBlockCacheCounters()}为true, 块缓存计数为整个数据库的值.
+ * In column family mode rocksdb only reports block cache tickers per database, so the block cache
+ * counters are database wide and {@link #isSharedBlockCacheCounters()} is true.
+ */
+public class TableStatistics {
+
+    private final String table;
+
+    /**
+     * 按key读取次数
+     * number of point reads
+     */
+    private final long reads;
+
+    /**
+     * 读取到数据的次数
+     * number of point reads that found a value
+     */
+    private final long hits;
+
+    private final long blockCacheHit;
+
+    private final long blockCacheMiss;
+
+    private final boolean sharedBlockCacheCounters;
+
+    public TableStatistics(String table, long reads, long hits, long blockCacheHit, long blockCacheMiss, boolean sharedBlockCacheCounters) {
+        this.table = table;
+        this.reads = reads;
+        this.hits = hits;
+        this.blockCacheHit = blockCacheHit;
+        this.blockCacheMiss = blockCacheMiss;
+        this.sharedBlockCacheCounters = sharedBlockCacheCounters;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public long getReads() {
+        return reads;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getBlockCacheHit() {
+        return blockCacheHit;
+    }
+
+    public long getBlockCacheMiss() {
+        return blockCacheMiss;
+    }
+
+    public boolean isSharedBlockCacheCounters() {
+        return sharedBlockCacheCounters;
+    }
+
+    /**
+     * 读取命中率
+     * ratio of point reads that found a value
+     */
+    public double getReadHitRate() {
+        return reads == 0 ? 0 : (double) hits / reads;
+    }
+
+    /**
+     * 块缓存命中率
+     * block cache hit ratio
+     */
+    public double getBlockCacheHitRate() {
+        long total = blockCacheHit + blockCacheMiss;
+        return total == 0 ? 0 : (double) blockCacheHit / total;
+    }
+
+    @Override
+    public String toString() {
+        return "TableStatistics{" +
+                "table='" + table + '\'' +
+                ", reads=" + reads +
+                ", hits=" + hits +
+                ", blockCacheHit=" + blockCacheHit +
+                ", blockCacheMiss=" + blockCacheMiss +
+                ", sharedBlockCacheCounters=" + sharedBlockCacheCounters +
+                '}';
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.service;
+
+import io.nuls.core.log.Log;
+import io.nuls.core.rockdb.constant.DBErrorCode;
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.model.Entry;
+import org.rocksdb.*;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 基于快照的数据表游标, 按key顺序(或逆序)逐条读取, 不会把整张表加载到内存.
+ * 范围为[from, to), from或to为null表示不限制. 读取完毕后自动释放资源, 提前结束时必须调用{@link #close()}.
+ * Snapshot consistent cursor over a table that reads entries one by one in key order (or reverse order)
+ * within [from, to). Resources are released automatically once the cursor is exhausted,
+ * callers stopping early must call {@link #close()}.
+ */
+public class RocksDBIterator implements Iterator<Entry<byte[], byte[]>>, Closeable {
+
+    private final RocksDB db;
+    private final Snapshot snapshot;
+    private final ReadOptions readOptions;
+    private final RocksIterator iterator;
+    private final byte[] from;
+    private final byte[] to;
+    private final boolean reverse;
+
+    /**
+     * 已读取但还未返回的key
+     */
+    private byte[] nextKey;
+    private volatile boolean closed = false;
+
+    RocksDBIterator(String table, byte[] from, byte[] to, boolean reverse) throws Exception {
+        this.db = RocksDBManager.getTable(table);
+        ColumnFamilyHandle handle = RocksDBManager.getColumnFamily(table);
+        if (db == null || handle == null) {
+            throw new Exception(DBErrorCode.DB_TABLE_NOT_EXIST);
+        }
+        this.from = from;
+        this.to = to;
+        this.reverse = reverse;
+        this.snapshot = db.getSnapshot();
+        this.readOptions = new ReadOptions().setSnapshot(snapshot).setTotalOrderSeek(true);
+        this.iterator = db.newIterator(handle, readOptions);
+        if (!reverse) {
+            if (from == null) {
+                iterator.seekToFirst();
+            } else {
+                iterator.seek(from);
+            }
+        } else if (to == null) {
+            iterator.seekToLast();
+        } else {
+            iterator.seekForPrev(to);
+            if (iterator.isValid() && compare(iterator.key(), to) >= 0) {
+                iterator.prev();
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextKey != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        if (iterator.isValid()) {
+            byte[] key = iterator.key();
+            if (reverse ? (from == null || compare(key, from) >= 0) : (to == null || compare(key, to) < 0)) {
+                nextKey = key;
+                return true;
+            }
+        }
+        close();
+        return false;
+    }
+
+    @Override
+    public Entry<byte[], byte[]> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Entry<byte[], byte[]> entry = new Entry<>(nextKey, iterator.value());
+        moveNext();
+        return entry;
+    }
+
+    /**
+     * 只读取key, 不复制value
+     * read the next key only, the value is not copied
+     *
+     * @return 下一个key
+     */
+    public byte[] nextKey() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        byte[] key = nextKey;
+        moveNext();
+        return key;
+    }
+
+    private void moveNext() {
+        nextKey = null;
+        if (reverse) {
+            iterator.prev();
+        } else {
+            iterator.next();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                iterator.close();
+                db.releaseSnapshot(snapshot);
+                readOptions.close();
+            } catch (Exception e) {
+                Log.warn("close rocksdb iterator error", e);
+            }
+        }
+    }
+
+    /**
+     * 按无符号字节顺序比较, 与rocksdb默认比较器一致
+     * unsigned lexicographical order, same as the rocksdb bytewise comparator
+     */
+    static int compare(byte[] a, byte[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            int c = (a[i] & 0xff) - (b[i] & 0xff);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * 计算以prefix开头的key的上界(不包含), prefix全部为0xff时返回null
+     * exclusive upper bound of all keys starting with prefix, null when prefix is all 0xff
+     */
+    static byte[] prefixEnd(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xff) {
+                byte[] end = new byte[i + 1];
+                System.arraycopy(prefix, 0, end, 0, i + 1);
+                end[i]++;
+                return end;
+            }
+        }
+        return null;
+    }
+}
@@ -23,10 +23,17 @@ import io.nuls.core.log.Log;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.rockdb.manager.RocksDBManager;
 import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.model.RocksDBConfig;
+import io.nuls.core.rockdb.model.TableOptions;
+import io.nuls.core.rockdb.model.TableStatistics;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class RocksDBService {
 
@@ -38,6 +45,44 @@ public class RocksDBService {
         }
     }
 
+    /**
+     * 按配置初始化数据库, 可开启共享块缓存与列族模式
+     * init with a configuration, enables the shared block cache and column family mode
+     * @param path
+     * @param config
+     */
+    public static void init(String path, RocksDBConfig config) {
+        try {
+            RocksDBManager.init(path, config);
+        } catch (Exception e) {
+            Log.error(e.getMessage(),e);
+        }
+    }
+
+    /**
+     * 注册数据表参数, 需要在表创建或者init之前调用
+     * register the options of a table, call it before the table is created or opened
+     * @param table
+     * @param options
+     */
+    public static void registerTableOptions(String table, TableOptions options) {
+        RocksDBManager.registerTableOptions(table, options);
+    }
+
+    /**
+     * 注册以该前缀加链id命名的所有表的参数, 需要在init之前调用
+     * register the options of the tables named by the prefix followed by a chain id, call it before init
+     * @param tablePrefix
+     * @param options
+     */
+    public static void registerChainTableOptions(String tablePrefix, TableOptions options) {
+        RocksDBManager.registerChainTableOptions(tablePrefix, options);
+    }
+
+    public static TableStatistics getTableStatistics(String table) {
+        return RocksDBManager.getTableStatistics(table);
+    }
+
     public static boolean createTable(String tableName) throws Exception {
         if (!RocksDBService.existTable(tableName)) {
             return RocksDBManager.createTable(tableName);
@@ -131,6 +176,70 @@ public class RocksDBService {
         return RocksDBManager.entryList(table);
     }
 
+    /**
+     * 顺序遍历整张表, 不会一次性加载到内存, 使用完毕需要关闭
+     * iterate the whole table in key order without loading it into memory, close it after use
+     * @param table
+     * @return
+     * @throws Exception
+     */
+    public static RocksDBIterator iterator(String table) throws Exception {
+        return new RocksDBIterator(table, null, null, false);
+    }
+
+    /**
+     * 遍历[from, to)范围内的数据, from或to为null表示不限制
+     * iterate the entries within [from, to), a null bound is unbounded
+     * @param table
+     * @param from    起始key(包含)
+     * @param to      结束key(不包含)
+     * @param reverse 是否逆序
+     * @return
+     * @throws Exception
+     */
+    public static RocksDBIterator iterator(String table, byte[] from, byte[] to, boolean reverse) throws Exception {
+        return new RocksDBIterator(table, from, to, reverse);
+    }
+
+    /**
+     * 遍历以prefix开头的数据
+     * iterate the entries whose key starts with prefix
+     * @param table
+     * @param prefix
+     * @return
+     * @throws Exception
+     */
+    public static RocksDBIterator prefixIterator(String table, byte[] prefix) throws Exception {
+        return prefixIterator(table, prefix, false);
+    }
+
+    public static RocksDBIterator prefixIterator(String table, byte[] prefix, boolean reverse) throws Exception {
+        return new RocksDBIterator(table, prefix, RocksDBIterator.prefixEnd(prefix), reverse);
+    }
+
+    /**
+     * 以Stream方式遍历[from, to)范围内的数据, 需要在try-with-resources中使用以释放快照
+     * stream the entries within [from, to), use it in try-with-resources so the snapshot is released
+     * @param table
+     * @param from
+     * @param to
+     * @param reverse
+     * @return
+     * @throws Exception
+     */
+    public static Stream<Entry<byte[], byte[]>> stream(String table, byte[] from, byte[] to, boolean reverse) throws Exception {
+        return toStream(iterator(table, from, to, reverse));
+    }
+
+    public static Stream<Entry<byte[], byte[]>> prefixStream(String table, byte[] prefix) throws Exception {
+        return toStream(prefixIterator(table, prefix));
+    }
+
+    private static Stream<Entry<byte[], byte[]>> toStream(RocksDBIterator iterator) {
+        Spliterator<Entry<byte[], byte[]>> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+    }
+
     public static BatchOperation createWriteBatch(String table) {
         if (StringUtils.isBlank(table)) {
             return null;
@@ -147,4 +256,24 @@ public class RocksDBService {
         }
         return batchOperation;
     }
+
+    /**
+     * 创建跨表批量操作, 使用默认写入参数
+     * create a batch operation spanning several tables with the default write options
+     * @return
+     */
+    public static MultiTableBatchOperation createMultiTableWriteBatch() {
+        return createMultiTableWriteBatch(false, false);
+    }
+
+    /**
+     * 创建跨表批量操作
+     * create a batch operation spanning several tables
+     * @param sync       写入后是否fsync
+     * @param disableWAL 是否跳过预写日志
+     * @return
+     */
+    public static MultiTableBatchOperation createMultiTableWriteBatch(boolean sync, boolean disableWAL) {
+        return new RocksDBMultiTableBatchOperation(sync, disableWAL);
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.storage;
+
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.model.RocksDBConfig;
+import io.nuls.core.rockdb.model.TableOptions;
+import io.nuls.core.rockdb.model.TableStatistics;
+import io.nuls.core.rockdb.service.BatchOperation;
+import io.nuls.core.rockdb.service.MultiTableBatchOperation;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rocksdb.CompressionType;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 列族模式与共享块缓存测试
+ */
+public class ColumnFamilyTest {
+
+    @Test
+    public void columnFamilyMode() throws Exception {
+        File dir = Files.createTempDirectory("rocksdb-cf").toFile();
+        RocksDBConfig config = new RocksDBConfig(true, 8 * 1024 * 1024);
+        config.setStatistics(true);
+        RocksDBService.registerTableOptions("header", new TableOptions()
+                .setCompressionType(CompressionType.LZ4_COMPRESSION)
+                .setPrefixLength(2)
+                .setCacheIndexAndFilterBlocks(true));
+        try {
+            RocksDBService.init(dir.getPath(), config);
+            Assert.assertTrue(RocksDBManager.isColumnFamilyMode());
+            Assert.assertTrue(RocksDBService.createTable("header"));
+            Assert.assertTrue(RocksDBService.createTable("height"));
+            Assert.assertSame(RocksDBManager.getTable("header"), RocksDBManager.getTable("height"));
+
+            RocksDBService.put("header", "k1".getBytes(UTF_8), "header".getBytes(UTF_8));
+            BatchOperation batch = RocksDBService.createWriteBatch("height");
+            batch.put("k1".getBytes(UTF_8), "height".getBytes(UTF_8));
+            batch.put("k2".getBytes(UTF_8), "height2".getBytes(UTF_8));
+            Assert.assertTrue(batch.executeBatch());
+
+            //列族模式下跨表批量写入是原子的
+            MultiTableBatchOperation multiBatch = RocksDBService.createMultiTableWriteBatch(true, false);
+            multiBatch.put("header", "k3".getBytes(UTF_8), "header3".getBytes(UTF_8));
+            multiBatch.put("height", "k3".getBytes(UTF_8), "height3".getBytes(UTF_8));
+            Assert.assertTrue(multiBatch.isAtomic());
+            Assert.assertTrue(multiBatch.executeBatch());
+            Assert.assertEquals("height3", new String(RocksDBService.get("height", "k3".getBytes(UTF_8)), UTF_8));
+            RocksDBService.delete("header", "k3".getBytes(UTF_8));
+
+            Assert.assertEquals("header", new String(RocksDBService.get("header", "k1".getBytes(UTF_8)), UTF_8));
+            Assert.assertEquals("height", new String(RocksDBService.get("height", "k1".getBytes(UTF_8)), UTF_8));
+            Assert.assertNull(RocksDBService.get("header", "k2".getBytes(UTF_8)));
+            Assert.assertEquals(1, RocksDBService.keyList("header").size());
+            Assert.assertEquals(3, RocksDBService.multiGetValueList("height",
+                    Arrays.asList("k1".getBytes(UTF_8), "k2".getBytes(UTF_8), "k3".getBytes(UTF_8))).size());
+
+            TableStatistics statistics = RocksDBService.getTableStatistics("header");
+            Assert.assertEquals(2, statistics.getReads());
+            Assert.assertEquals(1, statistics.getHits());
+            Assert.assertTrue(statistics.isSharedBlockCacheCounters());
+
+            RocksDBManager.close();
+            //重新打开时自动识别列族数据库
+            RocksDBService.init(dir.getPath(), new RocksDBConfig());
+            Assert.assertTrue(RocksDBManager.isColumnFamilyMode());
+            Assert.assertEquals(2, RocksDBService.listTable().length);
+            Assert.assertEquals("height2", new String(RocksDBService.get("height", "k2".getBytes(UTF_8)), UTF_8));
+
+            Assert.assertTrue(RocksDBService.destroyTable("height"));
+            Assert.assertFalse(RocksDBService.existTable("height"));
+            Assert.assertNotNull(RocksDBService.get("header", "k1".getBytes(UTF_8)));
+        } finally {
+            RocksDBManager.close();
+        }
+    }
+
+    @Test
+    public void chainTableOptions() throws Exception {
+        File dir = Files.createTempDirectory("rocksdb-table").toFile();
+        RocksDBService.registerChainTableOptions("block_header_", new TableOptions()
+                .setCompressionType(CompressionType.LZ4_COMPRESSION)
+                .setCacheIndexAndFilterBlocks(true));
+        try {
+            RocksDBService.init(dir.getPath(), new RocksDBConfig(false, 8 * 1024 * 1024));
+            Assert.assertFalse(RocksDBManager.isColumnFamilyMode());
+            Assert.assertTrue(RocksDBService.createTable("block_header_2"));
+            Assert.assertTrue(RocksDBService.createTable("block_header_index_2"));
+            RocksDBService.put("block_header_2", "k1".getBytes(UTF_8), "header".getBytes(UTF_8));
+
+            RocksDBManager.close();
+            //打开时创建的本地参数对象已释放, 重新打开后数据可读
+            RocksDBService.init(dir.getPath(), new RocksDBConfig(false, 8 * 1024 * 1024));
+            Assert.assertEquals(2, RocksDBService.listTable().length);
+            Assert.assertEquals("header", new String(RocksDBService.get("block_header_2", "k1".getBytes(UTF_8)), UTF_8));
+        } finally {
+            RocksDBManager.close();
+        }
+    }
+}
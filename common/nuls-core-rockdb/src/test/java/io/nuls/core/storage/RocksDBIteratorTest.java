@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.storage;
+
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.model.RocksDBConfig;
+import io.nuls.core.rockdb.service.RocksDBIterator;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 游标遍历测试
+ */
+public class RocksDBIteratorTest {
+
+    private static final String TABLE = "iterator-table";
+
+    @BeforeClass
+    public static void init() throws Exception {
+        RocksDBService.init(Files.createTempDirectory("rocksdb-iterator").toFile().getPath(), new RocksDBConfig());
+        RocksDBService.createTable(TABLE);
+        for (String key : new String[]{"a1", "a2", "a3", "b1", "b2", "c1"}) {
+            RocksDBService.put(TABLE, key.getBytes(UTF_8), ("v" + key).getBytes(UTF_8));
+        }
+        RocksDBService.put(TABLE, new byte[]{(byte) 0xff, 1}, new byte[]{1});
+    }
+
+    @AfterClass
+    public static void close() {
+        RocksDBManager.close();
+    }
+
+    private List<String> keys(RocksDBIterator iterator) {
+        List<String> keys = new ArrayList<>();
+        while (iterator.hasNext()) {
+            keys.add(new String(iterator.nextKey(), UTF_8));
+        }
+        return keys;
+    }
+
+    @Test
+    public void prefixScan() throws Exception {
+        Assert.assertEquals(3, keys(RocksDBService.prefixIterator(TABLE, "a".getBytes(UTF_8))).size());
+        Assert.assertEquals("b2", keys(RocksDBService.prefixIterator(TABLE, "b".getBytes(UTF_8), true)).get(0));
+        Assert.assertTrue(keys(RocksDBService.prefixIterator(TABLE, "d".getBytes(UTF_8))).isEmpty());
+        try (RocksDBIterator iterator = RocksDBService.prefixIterator(TABLE, new byte[]{(byte) 0xff})) {
+            Assert.assertArrayEquals(new byte[]{(byte) 0xff, 1}, iterator.next().getKey());
+            Assert.assertFalse(iterator.hasNext());
+        }
+    }
+
+    @Test
+    public void rangeScan() throws Exception {
+        byte[] from = "a2".getBytes(UTF_8);
+        byte[] to = "b2".getBytes(UTF_8);
+        Assert.assertEquals("[a2, a3, b1]", keys(RocksDBService.iterator(TABLE, from, to, false)).toString());
+        Assert.assertEquals("[b1, a3, a2]", keys(RocksDBService.iterator(TABLE, from, to, true)).toString());
+        Assert.assertEquals(7, keys(RocksDBService.iterator(TABLE)).size());
+    }
+
+    @Test
+    public void snapshotStream() throws Exception {
+        try (Stream<Entry<byte[], byte[]>> stream = RocksDBService.prefixStream(TABLE, "c".getBytes(UTF_8))) {
+            //快照之后写入的数据不可见
+            RocksDBService.put(TABLE, "c2".getBytes(UTF_8), "vc2".getBytes(UTF_8));
+            List<String> values = stream.map(e -> new String(e.getValue(), UTF_8)).collect(Collectors.toList());
+            Assert.assertEquals("[vc1]", values.toString());
+        } finally {
+            RocksDBService.delete(TABLE, "c2".getBytes(UTF_8));
+        }
+    }
+}
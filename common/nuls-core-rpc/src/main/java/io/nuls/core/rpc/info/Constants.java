@@ -233,4 +233,11 @@ public class Constants {
     public static final String PARAM_TYPE_LONG = "long";
     public static final String PARAM_TYPE_FLOAT = "float";
     public static final String PARAM_TYPE_DOUBLE = "double";
+
+    /**
+     * 模块间消息编码方式，握手时协商
+     * Codec of inter-module messages, negotiated during handshake
+     */
+    public static final String CODEC_JSON = "json";
+    public static final String CODEC_BINARY = "binary";
 }
@@ -89,6 +89,15 @@ public @interface CmdAnnotation {
      * */
     CmdPriority priority() default CmdPriority.DEFAULT;
 
+    /**
+     * 是否直接接收二进制参数，为true时二进制编码传入的参数以byte[]形式传给接口，否则还原为十六进制字符串
+     * Whether the method accepts binary parameters. If true, parameters received through the binary codec
+     * are passed as byte[], otherwise they are converted back to hex strings
+     *
+     * @return boolean
+     */
+    boolean binaryParams() default false;
+
     /**
      * 方法描述信息
      * Description information of method
@@ -64,6 +64,9 @@ public class CmdDetail {
 
     @JsonIgnore
     private CmdPriority priority;
+
+    @JsonIgnore
+    private boolean binaryParams;
     @JsonIgnore
     public String getMethodName() {
         return MethodName;
@@ -144,6 +147,14 @@ public class CmdDetail {
     public void setPriority(CmdPriority priority) {
         this.priority = priority;
     }
+    @JsonIgnore
+    public boolean isBinaryParams() {
+        return binaryParams;
+    }
+    @JsonIgnore
+    public void setBinaryParams(boolean binaryParams) {
+        this.binaryParams = binaryParams;
+    }
 
     @Override
     public String toString() {
@@ -29,6 +29,7 @@ import io.nuls.core.rpc.info.Constants;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.core.constant.ErrorCode;
 import io.nuls.core.model.DateUtils;
+import io.nuls.core.parse.JSONUtils;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -72,9 +73,31 @@ public class MessageUtil {
         negotiateConnection.setProtocolVersion("0.1");
         negotiateConnection.setCompressionAlgorithm("zlib");
         negotiateConnection.setCompressionRate("0");
+        negotiateConnection.setCodecs(Constants.CODEC_BINARY + "," + Constants.CODEC_JSON);
         return negotiateConnection;
     }
 
+    /**
+     * 根据客户端支持的编码方式选择本连接使用的编码
+     * Choose the codec of the connection from the codecs supported by the client
+     *
+     * @param negotiateConnection 握手请求 / Handshake request
+     * @return Constants.CODEC_BINARY or Constants.CODEC_JSON
+     */
+    public static String negotiateCodec(NegotiateConnection negotiateConnection) {
+        String codecs = negotiateConnection.getCodecs();
+        if (codecs == null || codecs.isEmpty()) {
+            return Constants.CODEC_JSON;
+        }
+        for (String codec : codecs.split(",")) {
+            codec = codec.trim();
+            if (Constants.CODEC_BINARY.equals(codec) || Constants.CODEC_JSON.equals(codec)) {
+                return codec;
+            }
+        }
+        return Constants.CODEC_JSON;
+    }
+
     /**
      * 构造默认Request对象
      * Constructing a default Request object
@@ -114,6 +137,30 @@ public class MessageUtil {
     }
 
 
+    /**
+     * 获取消息中的Request，二进制编码的消息已经是Request对象，JSON消息需要转换
+     * Get the Request of a message, binary messages already carry a Request object while JSON messages are converted
+     *
+     * @param message Request/RequestOnly message
+     * @return Request
+     */
+    public static Request getRequest(Message message) {
+        Object data = message.getMessageData();
+        return data instanceof Request ? (Request) data : JSONUtils.map2pojo((Map) data, Request.class);
+    }
+
+    /**
+     * 获取消息中的Response
+     * Get the Response of a message
+     *
+     * @param message Response message
+     * @return Response
+     */
+    public static Response getResponse(Message message) {
+        Object data = message.getMessageData();
+        return data instanceof Response ? (Response) data : JSONUtils.map2pojo((Map) data, Response.class);
+    }
+
     /**
      * 构造一个Response对象
      * Constructing a new Response object
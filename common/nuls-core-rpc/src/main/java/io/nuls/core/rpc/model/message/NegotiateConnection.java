@@ -26,6 +26,7 @@ package io.nuls.core.rpc.model.message;
 
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -35,7 +36,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  * @author tangyi
  * @date 2018/11/15
  */
-
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class NegotiateConnection {
     /**
      * module Abbreviation
@@ -63,6 +64,13 @@ public class NegotiateConnection {
     @JsonProperty
     private String CompressionRate;
 
+    /**
+     * 客户端支持的消息编码方式，逗号分隔，按优先级排序；为空表示只支持JSON
+     * Codecs supported by the client, comma separated in order of preference. Empty means JSON only
+     */
+    @JsonProperty
+    private String Codecs;
+
     @JsonIgnore
     public String getAbbreviation() {
         return Abbreviation;
@@ -102,4 +110,14 @@ public class NegotiateConnection {
     public void setCompressionRate(String CompressionRate) {
         this.CompressionRate = CompressionRate;
     }
+
+    @JsonIgnore
+    public String getCodecs() {
+        return Codecs;
+    }
+
+    @JsonIgnore
+    public void setCodecs(String Codecs) {
+        this.Codecs = Codecs;
+    }
 }
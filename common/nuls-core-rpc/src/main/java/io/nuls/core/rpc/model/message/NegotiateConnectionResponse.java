@@ -26,6 +26,7 @@ package io.nuls.core.rpc.model.message;
 
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -35,7 +36,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  * @author tangyi
  * @date 2018/11/15
  */
-
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class NegotiateConnectionResponse {
     @JsonProperty
     private String RequestID;
@@ -51,6 +52,13 @@ public class NegotiateConnectionResponse {
     @JsonProperty
     private String NegotiationComment;
 
+    /**
+     * 协商后使用的消息编码方式，为空表示JSON
+     * The codec chosen for this connection, empty means JSON
+     */
+    @JsonProperty
+    private String Codec;
+
     @JsonIgnore
     public String getRequestID() {
         return RequestID;
@@ -80,4 +88,14 @@ public class NegotiateConnectionResponse {
     public void setNegotiationComment(String NegotiationComment) {
         this.NegotiationComment = NegotiationComment;
     }
+
+    @JsonIgnore
+    public String getCodec() {
+        return Codec;
+    }
+
+    @JsonIgnore
+    public void setCodec(String Codec) {
+        this.Codec = Codec;
+    }
 }
@@ -5,7 +5,9 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
 import io.nuls.core.core.ioc.ScanUtil;
 import io.nuls.core.core.ioc.SpringLiteContext;
 import io.nuls.core.log.Log;
@@ -19,6 +21,7 @@ import io.nuls.core.rpc.model.message.Request;
 import io.nuls.core.rpc.model.message.Response;
 import io.nuls.core.rpc.netty.bootstrap.NettyClient;
 import io.nuls.core.rpc.netty.channel.ConnectData;
+import io.nuls.core.rpc.netty.codec.BinaryMessageCodec;
 import io.nuls.core.rpc.netty.processor.RequestMessageProcessor;
 import io.nuls.core.rpc.netty.thread.RequestByCountProcessor;
 import io.nuls.core.rpc.netty.thread.RequestByPeriodProcessor;
@@ -27,6 +30,7 @@ import io.nuls.core.rpc.netty.thread.ResponseAutoProcessor;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.core.rpc.util.SerializeUtil;
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.*;
@@ -94,6 +98,13 @@ public class ConnectManager {
      */
     public static final Map<Channel, ConnectData> CHANNEL_DATA_MAP = new ConcurrentHashMap<>();
 
+    /**
+     * 链接协商后使用的消息编码方式，不存在表示使用JSON
+     * <p>
+     * Key: Channel, Value: Codec negotiated for the channel, JSON if absent
+     */
+    public static final Map<Channel, String> CHANNEL_CODEC_MAP = new ConcurrentHashMap<>();
+
     /**
      * 角色与链接通道集合
      * KEY:ROLE
@@ -314,6 +325,7 @@ public class ConnectManager {
                 cmdDetail.setMethodScope(cmdAnnotation.scope());
                 cmdDetail.setVersion(cmdAnnotation.version());
                 cmdDetail.setPriority(cmdAnnotation.priority());
+                cmdDetail.setBinaryParams(cmdAnnotation.binaryParams());
                 cmdDetail.setInvokeClass(method.getDeclaringClass().getName());
                 cmdDetail.setInvokeMethod(method.getName());
                 CMD_PRIORITY_MAP.put(cmdAnnotation.cmd(),cmdAnnotation.priority().getPriority());
@@ -711,6 +723,7 @@ public class ConnectManager {
                 msgEntries.remove();
             }
         }
+        CHANNEL_CODEC_MAP.remove(channel);
         ConnectData connectData = CHANNEL_DATA_MAP.remove(channel);
         connectData.setConnected(false);
         connectData.getThreadPool().shutdown();
@@ -733,10 +746,46 @@ public class ConnectManager {
     }
 
     public static void sendMessage(Channel channel, ByteBuf message) {
+        writeFrame(channel, new TextWebSocketFrame(message));
+    }
+
+    /**
+     * 按链接协商的编码方式发送消息，二进制编码只用于Request/RequestOnly/Response，其余消息仍使用JSON
+     * Send the message with the codec negotiated for the channel. Only Request/RequestOnly/Response
+     * use the binary codec, other messages are always sent as JSON
+     *
+     * @param channel 链接通道 / Channel
+     * @param message 消息 / Message
+     * @throws IOException 序列化失败 / Serialization failed
+     */
+    public static void sendMessage(Channel channel, Message message) throws IOException {
+        if (isBinaryCodec(channel) && BinaryMessageCodec.supports(message)) {
+            writeFrame(channel, new BinaryWebSocketFrame(BinaryMessageCodec.encode(message)));
+            return;
+        }
+        if (message.getMessageData() instanceof Request) {
+            BinaryMessageCodec.toLegacyRequest((Request) message.getMessageData());
+        }
+        writeFrame(channel, new TextWebSocketFrame(SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(message))));
+    }
+
+    public static boolean isBinaryCodec(Channel channel) {
+        return Constants.CODEC_BINARY.equals(CHANNEL_CODEC_MAP.get(channel));
+    }
+
+    public static void setCodec(Channel channel, String codec) {
+        if (Constants.CODEC_BINARY.equals(codec)) {
+            CHANNEL_CODEC_MAP.put(channel, codec);
+        } else {
+            CHANNEL_CODEC_MAP.remove(channel);
+        }
+    }
+
+    private static void writeFrame(Channel channel, WebSocketFrame frame) {
 //        Log.debug("发送消息:{}",message);
         try {
             channel.eventLoop().execute(() -> {
-                ChannelFuture cf = channel.writeAndFlush(new TextWebSocketFrame(message));
+                ChannelFuture cf = channel.writeAndFlush(frame);
                 cf.addListener((ChannelFutureListener) future -> {
                     if (!future.isSuccess()) {
                         Log.error(future.cause());
@@ -768,7 +817,7 @@ public class ConnectManager {
 //    }
 
     public static void sendMessage(String moduleAbbr, Message message) throws Exception {
-        sendMessage(getConnectByRole(moduleAbbr), SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(message)));
+        sendMessage(getConnectByRole(moduleAbbr), message);
     }
 
     public static String getRoleByChannel(Channel channel){
@@ -0,0 +1,417 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.rpc.netty.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.nuls.base.RPCUtil;
+import io.nuls.base.data.BaseNulsData;
+import io.nuls.core.parse.JSONUtils;
+import io.nuls.core.rpc.model.message.Message;
+import io.nuls.core.rpc.model.message.MessageType;
+import io.nuls.core.rpc.model.message.Request;
+import io.nuls.core.rpc.model.message.Response;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 模块间二进制消息编解码器，握手协商成功后替代JSON文本帧传输Request/RequestOnly/Response
+ * Binary codec for inter-module messages. Once negotiated during the handshake it replaces
+ * JSON text frames for Request/RequestOnly/Response, other message types are always sent as JSON.
+ * <p>
+ * 帧格式 / Frame layout:
+ * version(1) | type(1) | MessageID | Timestamp | TimeZone | body
+ * <p>
+ * 参数中的byte[]与BaseNulsData以原始字节传输，不再需要十六进制编码
+ * byte[] and BaseNulsData parameters are carried as raw bytes instead of hex strings
+ */
+public class BinaryMessageCodec {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte TYPE_REQUEST = 1;
+    private static final byte TYPE_REQUEST_ONLY = 2;
+    private static final byte TYPE_RESPONSE = 3;
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_STRING = 1;
+    private static final byte VALUE_INT = 2;
+    private static final byte VALUE_LONG = 3;
+    private static final byte VALUE_DOUBLE = 4;
+    private static final byte VALUE_BOOLEAN = 5;
+    private static final byte VALUE_BYTES = 6;
+    private static final byte VALUE_MAP = 7;
+    private static final byte VALUE_LIST = 8;
+    private static final byte VALUE_BIG_INTEGER = 9;
+    private static final byte VALUE_JSON = 10;
+    private static final byte VALUE_BIG_DECIMAL = 11;
+
+    private BinaryMessageCodec() {
+    }
+
+    /**
+     * 该类型的消息是否可以用二进制格式传输
+     * Whether the message type can be sent as a binary frame
+     *
+     * @param message 待发送消息 / Message to be sent
+     * @return boolean
+     */
+    public static boolean supports(Message message) {
+        String type = message.getMessageType();
+        return (MessageType.Request.name().equals(type) || MessageType.RequestOnly.name().equals(type))
+                && message.getMessageData() instanceof Request
+                || MessageType.Response.name().equals(type) && message.getMessageData() instanceof Response;
+    }
+
+    /**
+     * 编码消息
+     * Encode message
+     *
+     * @param message Request/RequestOnly/Response message
+     * @return ByteBuf
+     * @throws IOException 序列化失败 / Serialization failed
+     */
+    public static ByteBuf encode(Message message) throws IOException {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeByte(FORMAT_VERSION);
+        MessageType messageType = MessageType.valueOf(message.getMessageType());
+        switch (messageType) {
+            case Request:
+                buf.writeByte(TYPE_REQUEST);
+                break;
+            case RequestOnly:
+                buf.writeByte(TYPE_REQUEST_ONLY);
+                break;
+            case Response:
+                buf.writeByte(TYPE_RESPONSE);
+                break;
+            default:
+                buf.release();
+                throw new IOException("Unsupported binary message type:" + messageType);
+        }
+        writeString(buf, message.getMessageID());
+        writeString(buf, message.getTimestamp());
+        writeString(buf, message.getTimeZone());
+        if (messageType == MessageType.Response) {
+            Response response = (Response) message.getMessageData();
+            writeString(buf, response.getRequestID());
+            writeString(buf, response.getResponseProcessingTime());
+            buf.writeInt(response.getResponseStatus());
+            writeString(buf, response.getResponseComment());
+            writeString(buf, response.getResponseMaxSize());
+            writeString(buf, response.getResponseErrorCode());
+            writeValue(buf, response.getResponseData(), false);
+        } else {
+            Request request = (Request) message.getMessageData();
+            writeString(buf, request.getRequestAck());
+            writeString(buf, request.getSubscriptionEventCounter());
+            writeString(buf, request.getSubscriptionPeriod());
+            writeString(buf, request.getSubscriptionRange());
+            writeString(buf, request.getResponseMaxSize());
+            writeString(buf, request.getTimeOut());
+            writeValue(buf, request.getRequestMethods(), true);
+        }
+        return buf;
+    }
+
+    /**
+     * 解码消息，Request中的二进制参数保持为byte[]，Response中的byte[]还原为与JSON一致的Base64字符串
+     * Decode message. Binary request parameters stay as byte[], byte[] inside a response is restored
+     * to the Base64 string the JSON codec would have produced
+     *
+     * @param buf 帧内容 / Frame content
+     * @return Message
+     * @throws IOException 格式错误 / Malformed frame
+     */
+    @SuppressWarnings("unchecked")
+    public static Message decode(ByteBuf buf) throws IOException {
+        byte version = buf.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary message version:" + version);
+        }
+        byte type = buf.readByte();
+        Message message = new Message();
+        message.setMessageID(readString(buf));
+        message.setTimestamp(readString(buf));
+        message.setTimeZone(readString(buf));
+        switch (type) {
+            case TYPE_REQUEST:
+            case TYPE_REQUEST_ONLY:
+                message.setMessageType(type == TYPE_REQUEST ? MessageType.Request.name() : MessageType.RequestOnly.name());
+                Request request = new Request();
+                request.setRequestAck(readString(buf));
+                request.setSubscriptionEventCounter(readString(buf));
+                request.setSubscriptionPeriod(readString(buf));
+                request.setSubscriptionRange(readString(buf));
+                request.setResponseMaxSize(readString(buf));
+                request.setTimeOut(readString(buf));
+                request.setRequestMethods((Map<String, Object>) readValue(buf, false));
+                message.setMessageData(request);
+                break;
+            case TYPE_RESPONSE:
+                message.setMessageType(MessageType.Response.name());
+                Response response = new Response();
+                response.setRequestID(readString(buf));
+                response.setResponseProcessingTime(readString(buf));
+                response.setResponseStatus(buf.readInt());
+                response.setResponseComment(readString(buf));
+                response.setResponseMaxSize(readString(buf));
+                response.setResponseErrorCode(readString(buf));
+                response.setResponseData(readValue(buf, true));
+                message.setMessageData(response);
+                break;
+            default:
+                throw new IOException("Unsupported binary message type:" + type);
+        }
+        return message;
+    }
+
+    /**
+     * 把参数中的byte[]、BaseNulsData转换为RPCUtil编码的十六进制字符串，用于不支持二进制参数的接口以及JSON传输
+     * Convert byte[] and BaseNulsData parameters into RPCUtil hex strings, used for commands that do not
+     * accept binary parameters and for the JSON codec
+     *
+     * @param value 参数 / Parameter value
+     * @return 转换后的值，没有需要转换的内容时返回原对象 / Converted value, the original object if nothing changed
+     */
+    @SuppressWarnings("unchecked")
+    public static Object toLegacyValue(Object value) throws IOException {
+        if (value instanceof byte[]) {
+            return RPCUtil.encode((byte[]) value);
+        }
+        if (value instanceof BaseNulsData) {
+            return RPCUtil.encode(((BaseNulsData) value).serialize());
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> map = (Map<Object, Object>) value;
+            Map<Object, Object> converted = null;
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                Object legacy = toLegacyValue(entry.getValue());
+                if (legacy != entry.getValue()) {
+                    if (converted == null) {
+                        converted = new LinkedHashMap<>(map);
+                    }
+                    converted.put(entry.getKey(), legacy);
+                }
+            }
+            return converted == null ? map : converted;
+        }
+        if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            List<Object> converted = null;
+            for (int i = 0; i < list.size(); i++) {
+                Object legacy = toLegacyValue(list.get(i));
+                if (legacy != list.get(i)) {
+                    if (converted == null) {
+                        converted = new ArrayList<>(list);
+                    }
+                    converted.set(i, legacy);
+                }
+            }
+            return converted == null ? list : converted;
+        }
+        return value;
+    }
+
+    /**
+     * JSON传输前转换Request中的二进制参数
+     * Convert binary parameters of a request before it is sent as JSON
+     *
+     * @param request Request
+     */
+    @SuppressWarnings("unchecked")
+    public static void toLegacyRequest(Request request) throws IOException {
+        if (request.getRequestMethods() != null) {
+            request.setRequestMethods((Map<String, Object>) toLegacyValue(request.getRequestMethods()));
+        }
+    }
+
+    private static void writeString(ByteBuf buf, String value) {
+        if (value == null) {
+            buf.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buf.writeInt(bytes.length);
+        buf.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuf buf) {
+        int length = buf.readInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = buf.toString(buf.readerIndex(), length, StandardCharsets.UTF_8);
+        buf.skipBytes(length);
+        return value;
+    }
+
+    private static void writeBytes(ByteBuf buf, byte[] bytes) {
+        buf.writeByte(VALUE_BYTES);
+        buf.writeInt(bytes.length);
+        buf.writeBytes(bytes);
+    }
+
+    /**
+     * 数值类型的编码与Jackson的反序列化结果保持一致（能用int表示的整数还原为Integer）
+     * Numbers are encoded so that they decode to the same types Jackson would produce
+     * (integers that fit into an int come back as Integer)
+     *
+     * @param nulsDataAsBytes BaseNulsData是否以字节传输，Response中保持JSON语义 / Whether BaseNulsData is sent as bytes, responses keep JSON semantics
+     */
+    private static void writeValue(ByteBuf buf, Object value, boolean nulsDataAsBytes) throws IOException {
+        if (value == null) {
+            buf.writeByte(VALUE_NULL);
+        } else if (value instanceof String) {
+            buf.writeByte(VALUE_STRING);
+            writeString(buf, (String) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            buf.writeByte(VALUE_INT);
+            buf.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            writeLong(buf, (Long) value);
+        } else if (value instanceof BigInteger) {
+            BigInteger bigInteger = (BigInteger) value;
+            if (bigInteger.bitLength() < Long.SIZE) {
+                writeLong(buf, bigInteger.longValue());
+            } else {
+                buf.writeByte(VALUE_BIG_INTEGER);
+                writeString(buf, bigInteger.toString());
+            }
+        } else if (value instanceof BigDecimal) {
+            /*
+            与JSON协议一样原样传输, 不转换为double
+            Sent exactly as with the JSON codec, not converted to double
+             */
+            buf.writeByte(VALUE_BIG_DECIMAL);
+            writeString(buf, value.toString());
+        } else if (value instanceof Double || value instanceof Float) {
+            buf.writeByte(VALUE_DOUBLE);
+            buf.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            buf.writeByte(VALUE_BOOLEAN);
+            buf.writeBoolean((Boolean) value);
+        } else if (value instanceof byte[]) {
+            writeBytes(buf, (byte[]) value);
+        } else if (value instanceof BaseNulsData && nulsDataAsBytes) {
+            writeBytes(buf, ((BaseNulsData) value).serialize());
+        } else if (value instanceof Character || value instanceof Enum) {
+            buf.writeByte(VALUE_STRING);
+            writeString(buf, value instanceof Enum ? ((Enum) value).name() : value.toString());
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            buf.writeByte(VALUE_MAP);
+            buf.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(buf, String.valueOf(entry.getKey()));
+                writeValue(buf, entry.getValue(), nulsDataAsBytes);
+            }
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            buf.writeByte(VALUE_LIST);
+            buf.writeInt(collection.size());
+            for (Object item : collection) {
+                writeValue(buf, item, nulsDataAsBytes);
+            }
+        } else if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            buf.writeByte(VALUE_LIST);
+            buf.writeInt(array.length);
+            for (Object item : array) {
+                writeValue(buf, item, nulsDataAsBytes);
+            }
+        } else {
+            /*
+            其他对象沿用JSON序列化，接收方得到与JSON协议相同的Map/List结构
+            Other objects fall back to JSON so the receiver gets the same Map/List structure as with the JSON codec
+             */
+            buf.writeByte(VALUE_JSON);
+            byte[] json = JSONUtils.obj2ByteArray(value);
+            buf.writeInt(json.length);
+            buf.writeBytes(json);
+        }
+    }
+
+    private static void writeLong(ByteBuf buf, long value) {
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            buf.writeByte(VALUE_INT);
+            buf.writeInt((int) value);
+        } else {
+            buf.writeByte(VALUE_LONG);
+            buf.writeLong(value);
+        }
+    }
+
+    private static Object readValue(ByteBuf buf, boolean bytesAsBase64) throws IOException {
+        byte tag = buf.readByte();
+        switch (tag) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                return readString(buf);
+            case VALUE_INT:
+                return buf.readInt();
+            case VALUE_LONG:
+                return buf.readLong();
+            case VALUE_DOUBLE:
+                return buf.readDouble();
+            case VALUE_BOOLEAN:
+                return buf.readBoolean();
+            case VALUE_BIG_INTEGER:
+                return new BigInteger(readString(buf));
+            case VALUE_BIG_DECIMAL:
+                return new BigDecimal(readString(buf));
+            case VALUE_BYTES:
+                byte[] bytes = new byte[buf.readInt()];
+                buf.readBytes(bytes);
+                return bytesAsBase64 ? Base64.getEncoder().encodeToString(bytes) : bytes;
+            case VALUE_MAP:
+                int mapSize = buf.readInt();
+                Map<String, Object> map = new LinkedHashMap<>(Math.max(mapSize * 4 / 3 + 1, 16));
+                for (int i = 0; i < mapSize; i++) {
+                    String key = readString(buf);
+                    map.put(key, readValue(buf, bytesAsBase64));
+                }
+                return map;
+            case VALUE_LIST:
+                int listSize = buf.readInt();
+                List<Object> list = new ArrayList<>(listSize);
+                for (int i = 0; i < listSize; i++) {
+                    list.add(readValue(buf, bytesAsBase64));
+                }
+                return list;
+            case VALUE_JSON:
+                byte[] json = new byte[buf.readInt()];
+                buf.readBytes(json);
+                return JSONUtils.byteArray2pojo(json, Object.class);
+            default:
+                throw new IOException("Unknown binary value tag:" + tag);
+        }
+    }
+}
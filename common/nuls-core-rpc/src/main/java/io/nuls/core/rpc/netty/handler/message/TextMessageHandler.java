@@ -31,6 +31,8 @@ import io.nuls.core.rpc.netty.processor.RequestMessageProcessor;
 import io.nuls.core.rpc.info.Constants;
 import io.nuls.core.rpc.model.message.Message;
 import io.nuls.core.rpc.model.message.MessageType;
+import io.nuls.core.rpc.model.message.MessageUtil;
+import io.nuls.core.rpc.model.message.NegotiateConnectionResponse;
 import io.nuls.core.rpc.model.message.Request;
 import io.nuls.core.rpc.model.message.Response;
 import io.nuls.core.rpc.netty.channel.ConnectData;
@@ -149,6 +151,17 @@ public class TextMessageHandler implements Runnable, Comparable<TextMessageHandl
                     }
                     break;
                 case NegotiateConnectionResponse:
+                    /*
+                    握手确认，记录服务端选择的编码方式
+                    Handshake confirmed, record the codec chosen by the server
+                     */
+                    NegotiateConnectionResponse negotiateResponse = JSONUtils.map2pojo((Map) message.getMessageData(), NegotiateConnectionResponse.class);
+                    ConnectManager.setCodec(channel, negotiateResponse.getCodec());
+                    ResponseContainer negotiateContainer = RequestContainer.getResponseContainer(negotiateResponse.getRequestID());
+                    if (negotiateContainer != null && negotiateContainer.getFuture() != null) {
+                        negotiateContainer.getFuture().complete(new Response());
+                    }
+                    break;
                 case Ack:
                     ResponseContainer resContainer = RequestContainer.getResponseContainer(((Map<String, String>) message.getMessageData()).get("RequestID"));
                     if (resContainer != null && resContainer.getFuture() != null) {
@@ -156,7 +169,7 @@ public class TextMessageHandler implements Runnable, Comparable<TextMessageHandl
                     }
                     break;
                 case Response:
-                    Response response = JSONUtils.map2pojo((Map) message.getMessageData(), Response.class);
+                    Response response = MessageUtil.getResponse(message);
                     /*
                     Response：还要判断是否需要自动处理
                     Response: Determines whether automatic processing is required
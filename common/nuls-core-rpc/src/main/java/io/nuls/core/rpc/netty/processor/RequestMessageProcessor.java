@@ -1,6 +1,5 @@
 package io.nuls.core.rpc.netty.processor;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import io.netty.channel.Channel;
 import io.nuls.core.constant.CommonCodeConstanst;
 import io.nuls.core.log.Log;
@@ -13,9 +12,10 @@ import io.nuls.core.rpc.model.CmdParameter;
 import io.nuls.core.rpc.model.message.*;
 import io.nuls.core.rpc.netty.channel.ConnectData;
 import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
+import io.nuls.core.rpc.netty.codec.BinaryMessageCodec;
 import io.nuls.core.rpc.util.NulsDateUtils;
-import io.nuls.core.rpc.util.SerializeUtil;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.util.HashMap;
@@ -41,20 +41,29 @@ public class RequestMessageProcessor {
      * Confirm successful handshake
      *
      * @param channel 用于发送消息 / Used to send message
-     * @throws JsonProcessingException JSON解析错误 / JSON parsing error
+     * @throws IOException JSON解析错误 / JSON parsing error
      */
-    public static void negotiateConnectionResponse(Channel channel, Message message) throws JsonProcessingException {
+    public static void negotiateConnectionResponse(Channel channel, Message message) throws IOException {
+        NegotiateConnection negotiateConnection = JSONUtils.map2pojo((Map) message.getMessageData(), NegotiateConnection.class);
+        String codec = MessageUtil.negotiateCodec(negotiateConnection);
+
         NegotiateConnectionResponse negotiateConnectionResponse = new NegotiateConnectionResponse();
         negotiateConnectionResponse.setRequestID(message.getMessageID());
         negotiateConnectionResponse.setNegotiationStatus("1");
         negotiateConnectionResponse.setNegotiationComment("Connection true!");
+        negotiateConnectionResponse.setCodec(codec);
 
         Message rspMsg = MessageUtil.basicMessage(MessageType.NegotiateConnectionResponse);
         rspMsg.setMessageData(negotiateConnectionResponse);
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMsg)));
+        ConnectManager.sendMessage(channel, rspMsg);
+
+        /*
+        握手响应以JSON发送，之后的消息使用协商的编码
+        The handshake response is sent as JSON, later messages use the negotiated codec
+         */
+        ConnectManager.setCodec(channel, codec);
 
         //握手成功之后保存channel与角色的对应信息
-        NegotiateConnection negotiateConnection = JSONUtils.map2pojo((Map) message.getMessageData(), NegotiateConnection.class);
         ConnectManager.cacheConnect(negotiateConnection.getAbbreviation(), channel, false);
     }
 
@@ -65,14 +74,14 @@ public class RequestMessageProcessor {
      *
      * @param channel   用于发送消息 / Used to send message
      * @param messageId 原始消息ID / The origin message ID
-     * @throws JsonProcessingException JSON解析错误 / JSON parsing error
+     * @throws IOException JSON解析错误 / JSON parsing error
      */
-    public static void ack(Channel channel, String messageId) throws JsonProcessingException {
+    public static void ack(Channel channel, String messageId) throws IOException {
         Ack ack = new Ack();
         ack.setRequestId(messageId);
         Message rspMsg = MessageUtil.basicMessage(MessageType.Ack);
         rspMsg.setMessageData(ack);
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMsg)));
+        ConnectManager.sendMessage(channel, rspMsg);
     }
 
     /**
@@ -82,11 +91,11 @@ public class RequestMessageProcessor {
      * @param channel   链接通道
      * @param messageId 请求ID
      */
-    public static void serviceNotStarted(Channel channel, String messageId) throws JsonProcessingException {
+    public static void serviceNotStarted(Channel channel, String messageId) throws IOException {
         Response response = MessageUtil.newFailResponse(messageId, "Service not started!");
         Message rspMsg = MessageUtil.basicMessage(MessageType.Response);
         rspMsg.setMessageData(response);
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMsg)));
+        ConnectManager.sendMessage(channel, rspMsg);
     }
 
     /**
@@ -155,10 +164,10 @@ public class RequestMessageProcessor {
      * @param requestMethods 请求的方法集合 / The collections of request method
      * @param messageId      原始消息ID / The origin message ID
      * @param isSubscribe    is subscribe message
-     * @throws JsonProcessingException 服务器端处理异常
+     * @throws IOException 服务器端处理异常
      */
     @SuppressWarnings("unchecked")
-    public static void callCommandsWithPeriod(Channel channel, Map requestMethods, String messageId, boolean isSubscribe) throws JsonProcessingException {
+    public static void callCommandsWithPeriod(Channel channel, Map requestMethods, String messageId, boolean isSubscribe) throws IOException {
         for (Object object : requestMethods.entrySet()) {
             Map.Entry<String, Map> entry = (Map.Entry<String, Map>) object;
             String method = entry.getKey();
@@ -187,10 +196,12 @@ public class RequestMessageProcessor {
                     response.setResponseErrorCode(CommonCodeConstanst.CMD_NOTFOUND.getCode());
                     Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
                     rspMessage.setMessageData(response);
-                    ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+                    ConnectManager.sendMessage(channel, rspMessage);
                     return;
                 }
 
+                params = adaptParams(cmdDetail, params);
+
                 /*
                 根据注册信息进行参数的基础验证
                 Basic verification of parameters based on registration information
@@ -201,12 +212,12 @@ public class RequestMessageProcessor {
                     response.setResponseErrorCode(CommonCodeConstanst.PARAMETER_ERROR.getCode());
                     Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
                     rspMessage.setMessageData(response);
-                    ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+                    ConnectManager.sendMessage(channel, rspMessage);
                     return;
                 }
 
                 Message rspMessage = execute(cmdDetail, params, messageId);
-                ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+                ConnectManager.sendMessage(channel, rspMessage);
 
                 /*
                 执行成功之后判断该接口是否被订阅过，如果被订阅则改变该接口触发次数
@@ -221,7 +232,7 @@ public class RequestMessageProcessor {
                 response.setResponseErrorCode(CommonCodeConstanst.SYS_UNKOWN_EXCEPTION.getCode());
                 Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
                 rspMessage.setMessageData(response);
-                ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+                ConnectManager.sendMessage(channel, rspMessage);
             }
         }
     }
@@ -231,10 +242,10 @@ public class RequestMessageProcessor {
      * Processing Request, automatically calling the correct method, returning the result
      *
      * @param requestMethods 请求的方法集合 / The collections of request method
-     * @throws JsonProcessingException 服务器端处理异常
+     * @throws IOException 服务器端处理异常
      */
     @SuppressWarnings("unchecked")
-    public static void callCommands(Map requestMethods) throws JsonProcessingException {
+    public static void callCommands(Map requestMethods) throws IOException {
         for (Object object : requestMethods.entrySet()) {
             Map.Entry<String, Map> entry = (Map.Entry<String, Map>) object;
             String method = entry.getKey();
@@ -257,6 +268,8 @@ public class RequestMessageProcessor {
                     return;
                 }
 
+                params = adaptParams(cmdDetail, params);
+
                 /*
                 根据注册信息进行参数的基础验证
                 Basic verification of parameters based on registration information
@@ -309,8 +322,8 @@ public class RequestMessageProcessor {
         rspMessage.setMessageData(realResponse);
         try {
             Log.debug("responseWithEventCount: " + JSONUtils.obj2json(rspMessage));
-            ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
-        } catch (JsonProcessingException e) {
+            ConnectManager.sendMessage(channel, rspMessage);
+        } catch (IOException e) {
             Log.error(e);
         }
     }
@@ -493,6 +506,22 @@ public class RequestMessageProcessor {
     }
 
 
+    /**
+     * 二进制编码传入的byte[]参数，对未声明支持二进制参数的接口还原为十六进制字符串
+     * Binary parameters received through the binary codec are converted back to hex strings
+     * for commands that do not declare binary parameter support
+     *
+     * @param cmdDetail CmdDetail
+     * @param params    Parameters of remote method
+     * @return Map
+     */
+    private static Map adaptParams(CmdDetail cmdDetail, Map params) throws IOException {
+        if (params == null || cmdDetail.isBinaryParams()) {
+            return params;
+        }
+        return (Map) BinaryMessageCodec.toLegacyValue(params);
+    }
+
     /**
      * Call local cmd.
      * 1. If the interface is injected via @Autowired, the injected object is used
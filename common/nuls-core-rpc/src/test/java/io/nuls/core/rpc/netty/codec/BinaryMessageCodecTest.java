@@ -0,0 +1,105 @@
+package io.nuls.core.rpc.netty.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.nuls.base.RPCUtil;
+import io.nuls.core.rpc.info.Constants;
+import io.nuls.core.rpc.model.message.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+public class BinaryMessageCodecTest {
+
+    private Message newRequestMessage(Map<String, Object> params) {
+        Request request = MessageUtil.newRequest("tx_newTx", params, Constants.BOOLEAN_FALSE, Constants.ZERO, Constants.ZERO);
+        request.setTimeOut("10000");
+        Message message = new Message();
+        message.setMessageID("1570000000000001");
+        message.setMessageType(MessageType.Request.name());
+        message.setTimestamp("1570000000000");
+        message.setTimeZone("8");
+        message.setMessageData(request);
+        return message;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void requestRoundTrip() throws Exception {
+        byte[] tx = new byte[]{1, 2, 3, 4, (byte) 0xff};
+        Map<String, Object> params = new HashMap<>();
+        params.put(Constants.CHAIN_ID, 2);
+        params.put("height", 5L);
+        params.put("bigHeight", Long.MAX_VALUE);
+        params.put("amount", new BigInteger("100000000000000000000000"));
+        params.put("price", new BigDecimal("123456789012345678.123456789"));
+        params.put("tx", tx);
+        params.put("txList", Arrays.asList("a", "b"));
+        params.put("flag", true);
+        params.put("address", null);
+
+        Message message = newRequestMessage(params);
+        Assert.assertTrue(BinaryMessageCodec.supports(message));
+        ByteBuf buf = BinaryMessageCodec.encode(message);
+        Message decoded = BinaryMessageCodec.decode(buf);
+        buf.release();
+
+        Assert.assertEquals(message.getMessageID(), decoded.getMessageID());
+        Assert.assertEquals(MessageType.Request.name(), decoded.getMessageType());
+        Request request = MessageUtil.getRequest(decoded);
+        Assert.assertEquals("10000", request.getTimeOut());
+        Map<String, Object> decodedParams = (Map<String, Object>) request.getRequestMethods().get("tx_newTx");
+        Assert.assertEquals(2, decodedParams.get(Constants.CHAIN_ID));
+        Assert.assertEquals(5, decodedParams.get("height"));
+        Assert.assertEquals(Long.MAX_VALUE, decodedParams.get("bigHeight"));
+        Assert.assertEquals(new BigInteger("100000000000000000000000"), decodedParams.get("amount"));
+        Assert.assertEquals(new BigDecimal("123456789012345678.123456789"), decodedParams.get("price"));
+        Assert.assertArrayEquals(tx, (byte[]) decodedParams.get("tx"));
+        Assert.assertEquals(Arrays.asList("a", "b"), decodedParams.get("txList"));
+        Assert.assertEquals(true, decodedParams.get("flag"));
+        Assert.assertTrue(decodedParams.containsKey("address"));
+        Assert.assertNull(decodedParams.get("address"));
+
+        Map<String, Object> legacy = (Map<String, Object>) BinaryMessageCodec.toLegacyValue(decodedParams);
+        Assert.assertEquals(RPCUtil.encode(tx), legacy.get("tx"));
+        Assert.assertArrayEquals(tx, RPCUtil.decodeParam(legacy.get("tx")));
+        Assert.assertArrayEquals(tx, RPCUtil.decodeParam(decodedParams.get("tx")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void responseRoundTrip() throws Exception {
+        Response response = MessageUtil.newSuccessResponse("1570000000000001");
+        Map<String, Object> data = new HashMap<>();
+        data.put("value", true);
+        data.put("hash", new byte[]{9, 8, 7});
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("tx_newTx", data);
+        response.setResponseData(responseData);
+        Message message = MessageUtil.basicMessage(MessageType.Response);
+        message.setMessageData(response);
+
+        ByteBuf buf = BinaryMessageCodec.encode(message);
+        Message decoded = BinaryMessageCodec.decode(buf);
+        buf.release();
+
+        Response decodedResponse = MessageUtil.getResponse(decoded);
+        Assert.assertTrue(decodedResponse.isSuccess());
+        Assert.assertEquals(response.getRequestID(), decodedResponse.getRequestID());
+        Map<String, Object> decodedData = (Map<String, Object>) ((Map<String, Object>) decodedResponse.getResponseData()).get("tx_newTx");
+        Assert.assertEquals(true, decodedData.get("value"));
+        Assert.assertEquals(Base64.getEncoder().encodeToString(new byte[]{9, 8, 7}), decodedData.get("hash"));
+    }
+
+    @Test
+    public void negotiateCodec() {
+        NegotiateConnection negotiateConnection = new NegotiateConnection();
+        Assert.assertEquals(Constants.CODEC_JSON, MessageUtil.negotiateCodec(negotiateConnection));
+        negotiateConnection.setCodecs("smile, binary,json");
+        Assert.assertEquals(Constants.CODEC_BINARY, MessageUtil.negotiateCodec(negotiateConnection));
+        negotiateConnection.setCodecs("json,binary");
+        Assert.assertEquals(Constants.CODEC_JSON, MessageUtil.negotiateCodec(negotiateConnection));
+    }
+}
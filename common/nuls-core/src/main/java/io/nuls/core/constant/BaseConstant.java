@@ -58,6 +58,11 @@ public class BaseConstant {
      */
     public static final String MSG_PROCESS = "msgProcess";
 
+    /**
+     * 模块统一批量消息处理器RPC接口
+     */
+    public static final String MSG_PROCESS_BATCH = "msgProcessBatch";
+
     /**
      * 模块统一交易验证器RPC接口
      */
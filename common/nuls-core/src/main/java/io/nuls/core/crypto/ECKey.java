@@ -661,11 +661,9 @@ public class ECKey {
      * @param pub       The public key bytes to use.
      */
     public static boolean verify(byte[] data, ECDSASignature signature, byte[] pub) {
-        ECDSASigner signer = new ECDSASigner();
-        ECPublicKeyParameters params = new ECPublicKeyParameters(CURVE.getCurve().decodePoint(pub), CURVE);
-        signer.init(false, params);
+        ECPoint q = Secp256k1Verifier.decodePubKey(pub);
         try {
-            return signer.verifySignature(data, signature.r, signature.s);
+            return Secp256k1Verifier.verify(data, signature, q);
         } catch (NullPointerException e) {
             log.error("Caught NPE inside bouncy castle", e);
             return false;
@@ -681,7 +679,7 @@ public class ECKey {
      * @throws Exception if the signature is unparseable in some way.
      */
     public static boolean verify(byte[] data, byte[] signature, byte[] pub) {
-        return verify(data, ECKey.ECDSASignature.decodeFromDER(signature), pub);
+        return verify(data, Secp256k1Verifier.decodeSignature(signature), pub);
     }
 
     /**
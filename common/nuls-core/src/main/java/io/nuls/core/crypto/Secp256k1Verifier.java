@@ -0,0 +1,279 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.crypto;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.nuls.core.model.ByteArrayWrapper;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECPoint;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.nuls.core.crypto.ECKey.CURVE;
+
+/**
+ * secp256k1签名验证
+ * secp256k1 signature verification
+ * <p>
+ * 与ECDSASigner.verifySignature的验证步骤完全一致, 结果相同. 区别在于:
+ * 1.公钥解码(含点校验)的结果放入LRU缓存, 点上保存的GLV/wNAF预计算表随之复用, 同一地址再次签名时不再解压公钥与重建预计算表
+ * 2.标准DER编码的签名直接解析, 其他编码仍由ECDSASignature.decodeFromDER解析
+ * 3.批量验证时所有s的模逆只做一次模逆运算(Montgomery批量求逆), 结果点的仿射坐标也只做一次域求逆
+ * 基点的固定基预计算、GLV自同态与Shamir/Strauss多标量乘法由BouncyCastle的SecP256K1Curve提供.
+ * The verification steps are exactly those of ECDSASigner.verifySignature, so the results are the same. The
+ * differences are:
+ * 1.Decoded and validated public keys are kept in an LRU cache, together with the GLV/wNAF precomputation tables
+ * stored on the points, so keys that sign again are neither decompressed nor precomputed again
+ * 2.Strict DER signatures are parsed directly, any other encoding still goes through ECDSASignature.decodeFromDER
+ * 3.A batch inverts all of its s values with a single modular inversion (Montgomery's trick) and normalizes all of
+ * its result points with a single field inversion
+ * Fixed-base precomputation, the GLV endomorphism and Shamir/Strauss multi-scalar multiplication come from
+ * BouncyCastle's SecP256K1Curve.
+ */
+public class Secp256k1Verifier {
+
+    private static final int PUB_KEY_CACHE_SIZE = 4096;
+
+    private static final Cache<ByteArrayWrapper, ECPoint> PUB_KEY_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(PUB_KEY_CACHE_SIZE)
+            .recordStats()
+            .build();
+
+    /**
+     * 验证DER编码的签名, 签名或公钥无法解析时抛出异常, 与ECKey.verify一致
+     * Verify a DER encoded signature. Throws when the signature or the public key can't be parsed, like ECKey.verify
+     *
+     * @param data      Hash of the data to verify.
+     * @param signature ASN.1 encoded signature.
+     * @param pub       The public key bytes to use.
+     */
+    public static boolean verify(byte[] data, byte[] signature, byte[] pub) {
+        return verify(data, decodeSignature(signature), pub);
+    }
+
+    public static boolean verify(byte[] data, ECKey.ECDSASignature signature, byte[] pub) {
+        return verify(data, signature, decodePubKey(pub));
+    }
+
+    static boolean verify(byte[] data, ECKey.ECDSASignature signature, ECPoint q) {
+        BigInteger n = CURVE.getN();
+        BigInteger r = signature.r;
+        BigInteger s = signature.s;
+        if (!inRange(r, n) || !inRange(s, n)) {
+            return false;
+        }
+        ECPoint point = multiply(data, r, s.modInverse(n), q);
+        if (point.isInfinity()) {
+            return false;
+        }
+        return matches(point.normalize(), r);
+    }
+
+    /**
+     * 批量验证, 签名或公钥无法解析的项验证不通过
+     * Verify a batch. Items whose signature or public key can't be parsed are rejected.
+     *
+     * @return 每一项的验证结果/result of every item
+     */
+    public static boolean[] verifyBatch(List<Item> items) {
+        int size = items.size();
+        boolean[] results = new boolean[size];
+        BigInteger n = CURVE.getN();
+        ECKey.ECDSASignature[] signatures = new ECKey.ECDSASignature[size];
+        ECPoint[] pubKeys = new ECPoint[size];
+        BigInteger[] inverses = new BigInteger[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            Item item = items.get(i);
+            try {
+                ECKey.ECDSASignature signature = decodeSignature(item.signature);
+                pubKeys[i] = decodePubKey(item.pub);
+                if (inRange(signature.r, n) && inRange(signature.s, n)) {
+                    signatures[i] = signature;
+                    inverses[count++] = signature.s;
+                }
+            } catch (RuntimeException e) {
+                //无法解析的签名或公钥, 验证不通过
+            }
+        }
+        invertAll(inverses, count, n);
+
+        ECPoint[] points = new ECPoint[size];
+        ECPoint[] finitePoints = new ECPoint[count];
+        int finiteCount = 0;
+        int inverseIndex = 0;
+        for (int i = 0; i < size; i++) {
+            ECKey.ECDSASignature signature = signatures[i];
+            if (signature == null) {
+                continue;
+            }
+            ECPoint point = multiply(items.get(i).data, signature.r, inverses[inverseIndex++], pubKeys[i]);
+            if (!point.isInfinity()) {
+                points[i] = point;
+                finitePoints[finiteCount++] = point;
+            }
+        }
+        if (finiteCount > 0) {
+            CURVE.getCurve().normalizeAll(finitePoints, 0, finiteCount, null);
+        }
+
+        finiteCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (points[i] != null) {
+                results[i] = matches(finitePoints[finiteCount++], signatures[i].r);
+            }
+        }
+        return results;
+    }
+
+    public static CacheStats pubKeyCacheStats() {
+        return PUB_KEY_CACHE.stats();
+    }
+
+    /**
+     * 解码公钥并做与ECPublicKeyParameters相同的校验, 校验失败时抛出异常且不缓存
+     * Decode a public key and validate it the way ECPublicKeyParameters does. Invalid keys throw and are not cached.
+     */
+    static ECPoint decodePubKey(byte[] pub) {
+        ByteArrayWrapper key = new ByteArrayWrapper(pub);
+        ECPoint q = PUB_KEY_CACHE.getIfPresent(key);
+        if (q == null) {
+            q = new ECPublicKeyParameters(CURVE.getCurve().decodePoint(pub), CURVE).getQ();
+            PUB_KEY_CACHE.put(new ByteArrayWrapper(pub.clone()), q);
+        }
+        return q;
+    }
+
+    /**
+     * 标准DER编码(短格式长度, 无多余数据)的签名直接解析, 其余交给decodeFromDER
+     * Strict DER signatures (short form lengths, no trailing data) are parsed directly, anything else goes to decodeFromDER
+     */
+    static ECKey.ECDSASignature decodeSignature(byte[] bytes) {
+        int length = bytes.length;
+        if (length >= 8 && bytes[0] == 0x30 && bytes[1] >= 0 && bytes[1] == length - 2 && bytes[2] == 0x02) {
+            int rLength = bytes[3] & 0xFF;
+            int sOffset = 4 + rLength;
+            if (rLength >= 1 && rLength < 0x80 && sOffset + 2 < length && bytes[sOffset] == 0x02) {
+                int sLength = bytes[sOffset + 1] & 0xFF;
+                if (sLength >= 1 && sLength < 0x80 && sOffset + 2 + sLength == length) {
+                    BigInteger r = new BigInteger(1, Arrays.copyOfRange(bytes, 4, sOffset));
+                    BigInteger s = new BigInteger(1, Arrays.copyOfRange(bytes, sOffset + 2, length));
+                    return new ECKey.ECDSASignature(r, s);
+                }
+            }
+        }
+        return ECKey.ECDSASignature.decodeFromDER(bytes);
+    }
+
+    private static boolean inRange(BigInteger value, BigInteger n) {
+        return value.signum() > 0 && value.compareTo(n) < 0;
+    }
+
+    private static ECPoint multiply(byte[] data, BigInteger r, BigInteger sInverse, ECPoint q) {
+        BigInteger n = CURVE.getN();
+        BigInteger e = calculateE(n, data);
+        BigInteger u1 = e.multiply(sInverse).mod(n);
+        BigInteger u2 = r.multiply(sInverse).mod(n);
+        return ECAlgorithms.sumOfTwoMultiplies(CURVE.getG(), u1, q, u2);
+    }
+
+    private static boolean matches(ECPoint normalized, BigInteger r) {
+        return normalized.getAffineXCoord().toBigInteger().mod(CURVE.getN()).equals(r);
+    }
+
+    /**
+     * 与ECDSASigner.calculateE相同
+     * Same as ECDSASigner.calculateE
+     */
+    private static BigInteger calculateE(BigInteger n, byte[] message) {
+        int log2n = n.bitLength();
+        int messageBitLength = message.length * 8;
+        BigInteger e = new BigInteger(1, message);
+        if (log2n < messageBitLength) {
+            e = e.shiftRight(messageBitLength - log2n);
+        }
+        return e;
+    }
+
+    /**
+     * Montgomery批量求逆, 原地把前count个值替换为其模n的逆
+     * Montgomery's trick, replaces the first count values with their inverses modulo n in place
+     */
+    private static void invertAll(BigInteger[] values, int count, BigInteger n) {
+        if (count == 0) {
+            return;
+        }
+        BigInteger[] prefix = new BigInteger[count];
+        prefix[0] = values[0];
+        for (int i = 1; i < count; i++) {
+            prefix[i] = prefix[i - 1].multiply(values[i]).mod(n);
+        }
+        BigInteger inverse = prefix[count - 1].modInverse(n);
+        for (int i = count - 1; i > 0; i--) {
+            BigInteger value = values[i];
+            values[i] = inverse.multiply(prefix[i - 1]).mod(n);
+            inverse = inverse.multiply(value).mod(n);
+        }
+        values[0] = inverse;
+    }
+
+    /**
+     * 批量验证的一项
+     * One item of a batch verification
+     */
+    public static class Item {
+        private final byte[] data;
+        private final byte[] signature;
+        private final byte[] pub;
+
+        /**
+         * @param data      Hash of the data to verify.
+         * @param signature ASN.1 encoded signature.
+         * @param pub       The public key bytes to use.
+         */
+        public Item(byte[] data, byte[] signature, byte[] pub) {
+            this.data = data;
+            this.signature = signature;
+            this.pub = pub;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public byte[] getSignature() {
+            return signature;
+        }
+
+        public byte[] getPub() {
+            return pub;
+        }
+    }
+}
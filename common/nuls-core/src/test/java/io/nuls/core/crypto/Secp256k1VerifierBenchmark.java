@@ -0,0 +1,95 @@
+package io.nuls.core.crypto;
+
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比原来的ECDSASigner验证、Secp256k1Verifier单条验证与批量验证验证一个区块大小的签名集合的性能
+ * Compares the old ECDSASigner path, Secp256k1Verifier.verify and Secp256k1Verifier.verifyBatch on a block sized
+ * set of signatures. Signers are reused the way accounts sign many transactions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Secp256k1VerifierBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    @Param({"100"})
+    public int signers;
+
+    private List<Secp256k1Verifier.Item> items;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(1);
+        ECKey[] keys = new ECKey[signers];
+        for (int i = 0; i < signers; i++) {
+            keys[i] = new ECKey();
+        }
+        items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ECKey key = keys[i % signers];
+            byte[] data = new byte[32];
+            random.nextBytes(data);
+            items.add(new Secp256k1Verifier.Item(data, key.sign(data), key.getPubKey()));
+        }
+        for (boolean result : Secp256k1Verifier.verifyBatch(items)) {
+            if (!result) {
+                throw new IllegalStateException("invalid signature");
+            }
+        }
+    }
+
+    @Benchmark
+    public int ecdsaSigner() {
+        int valid = 0;
+        for (Secp256k1Verifier.Item item : items) {
+            ECKey.ECDSASignature signature = ECKey.ECDSASignature.decodeFromDER(item.getSignature());
+            ECDSASigner signer = new ECDSASigner();
+            signer.init(false, new ECPublicKeyParameters(ECKey.CURVE.getCurve().decodePoint(item.getPub()), ECKey.CURVE));
+            if (signer.verifySignature(item.getData(), signature.r, signature.s)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public int verify() {
+        int valid = 0;
+        for (Secp256k1Verifier.Item item : items) {
+            if (Secp256k1Verifier.verify(item.getData(), item.getSignature(), item.getPub())) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public boolean[] verifyBatch() {
+        return Secp256k1Verifier.verifyBatch(items);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(Secp256k1VerifierBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,113 @@
+package io.nuls.core.crypto;
+
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class Secp256k1VerifierTest {
+
+    private final Random random = new Random(1);
+
+    /**
+     * 原来的验证方式, 抛出异常时返回null
+     */
+    private Boolean reference(byte[] data, byte[] signature, byte[] pub) {
+        try {
+            ECKey.ECDSASignature sig = ECKey.ECDSASignature.decodeFromDER(signature);
+            ECDSASigner signer = new ECDSASigner();
+            signer.init(false, new ECPublicKeyParameters(ECKey.CURVE.getCurve().decodePoint(pub), ECKey.CURVE));
+            return signer.verifySignature(data, sig.r, sig.s);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private Boolean verify(byte[] data, byte[] signature, byte[] pub) {
+        try {
+            return Secp256k1Verifier.verify(data, signature, pub);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private byte[] der(BigInteger r, BigInteger s) {
+        return new ECKey.ECDSASignature(r, s).encodeToDER();
+    }
+
+    private List<Secp256k1Verifier.Item> cases() {
+        List<Secp256k1Verifier.Item> items = new ArrayList<>();
+        BigInteger n = ECKey.CURVE.getN();
+        for (int i = 0; i < 20; i++) {
+            ECKey key = new ECKey();
+            byte[] data = new byte[32];
+            random.nextBytes(data);
+            ECKey.ECDSASignature sig = ECKey.ECDSASignature.decodeFromDER(key.sign(data));
+            byte[] pub = key.getPubKey();
+            byte[] uncompressed = ECKey.CURVE.getCurve().decodePoint(pub).getEncoded(false);
+            byte[] signature = sig.encodeToDER();
+            items.add(new Secp256k1Verifier.Item(data, signature, pub));
+            items.add(new Secp256k1Verifier.Item(data, signature, uncompressed));
+            //高位S
+            items.add(new Secp256k1Verifier.Item(data, der(sig.r, n.subtract(sig.s)), pub));
+            //篡改数据
+            byte[] other = data.clone();
+            other[i] ^= 1;
+            items.add(new Secp256k1Verifier.Item(other, signature, pub));
+            //超出范围的r, s
+            items.add(new Secp256k1Verifier.Item(data, der(BigInteger.ZERO, sig.s), pub));
+            items.add(new Secp256k1Verifier.Item(data, der(sig.r, n), pub));
+            items.add(new Secp256k1Verifier.Item(data, der(sig.r.add(n), sig.s), pub));
+            //非标准编码: 多余数据, 前导零, 截断
+            items.add(new Secp256k1Verifier.Item(data, Arrays.copyOf(signature, signature.length + 1), pub));
+            byte[] padded = new byte[signature.length + 1];
+            padded[0] = 0x30;
+            padded[1] = (byte) (signature[1] + 1);
+            padded[2] = 0x02;
+            padded[3] = (byte) (signature[3] + 1);
+            System.arraycopy(signature, 4, padded, 5, signature.length - 4);
+            items.add(new Secp256k1Verifier.Item(data, padded, pub));
+            items.add(new Secp256k1Verifier.Item(data, Arrays.copyOf(signature, signature.length - 1), pub));
+            //无效公钥
+            byte[] badPub = pub.clone();
+            badPub[0] = 0x05;
+            items.add(new Secp256k1Verifier.Item(data, signature, badPub));
+            //签名数据长度不是32字节
+            items.add(new Secp256k1Verifier.Item(Arrays.copyOf(data, 40), signature, pub));
+        }
+        return items;
+    }
+
+    @Test
+    public void sameResultAsECDSASigner() {
+        for (Secp256k1Verifier.Item item : cases()) {
+            Boolean expected = reference(item.getData(), item.getSignature(), item.getPub());
+            Assert.assertEquals(expected, verify(item.getData(), item.getSignature(), item.getPub()));
+            //再次验证时公钥来自缓存
+            Assert.assertEquals(expected, verify(item.getData(), item.getSignature(), item.getPub()));
+        }
+    }
+
+    @Test
+    public void batch() {
+        List<Secp256k1Verifier.Item> items = cases();
+        boolean[] results = Secp256k1Verifier.verifyBatch(items);
+        int accepted = 0;
+        for (int i = 0; i < items.size(); i++) {
+            Secp256k1Verifier.Item item = items.get(i);
+            Boolean expected = reference(item.getData(), item.getSignature(), item.getPub());
+            Assert.assertEquals(Boolean.TRUE.equals(expected), results[i]);
+            if (results[i]) {
+                accepted++;
+            }
+        }
+        Assert.assertTrue(accepted >= 40);
+        Assert.assertEquals(0, Secp256k1Verifier.verifyBatch(new ArrayList<>()).length);
+    }
+}
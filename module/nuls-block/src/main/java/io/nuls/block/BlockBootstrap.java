@@ -13,6 +13,8 @@ import io.nuls.block.thread.monitor.*;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.log.Log;
+import io.nuls.core.rockdb.model.RocksDBConfig;
+import io.nuls.core.rockdb.model.TableOptions;
 import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.core.rpc.info.HostInfo;
 import io.nuls.core.rpc.model.ModuleE;
@@ -24,6 +26,7 @@ import io.nuls.core.rpc.util.AddressPrefixDatas;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.core.thread.ThreadUtils;
 import io.nuls.core.thread.commom.NulsThreadFactory;
+import org.rocksdb.CompressionType;
 
 import java.util.List;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -104,8 +107,20 @@ public class BlockBootstrap extends RpcModule {
      * Initialization database
      */
     private void initDb() throws Exception {
+        /*
+        区块头按hash随机读取, 使用布隆过滤器并将索引与过滤器放入共享块缓存; 区块头可压缩, 高度索引的值是hash不压缩
+        Block headers are read at random by hash: bloom filters, index and filter blocks in the shared block cache.
+        Headers are compressed, the height index only holds hashes and is not.
+        */
+        RocksDBService.registerChainTableOptions(BLOCK_HEADER, new TableOptions()
+                .setCompressionType(CompressionType.LZ4_COMPRESSION)
+                .setBloomBitsPerKey(10)
+                .setCacheIndexAndFilterBlocks(true));
+        RocksDBService.registerChainTableOptions(BLOCK_HEADER_INDEX, new TableOptions()
+                .setBloomBitsPerKey(10)
+                .setCacheIndexAndFilterBlocks(true));
         //读取配置文件,数据存储根目录,初始化打开该目录下所有表连接并放入缓存
-        RocksDBService.init(blockConfig.getDataFolder());
+        RocksDBService.init(blockConfig.getDataFolder(), new RocksDBConfig(blockConfig.isDbColumnFamily(), blockConfig.getDbBlockCacheSize()));
         RocksDBService.createTable(CHAIN_LATEST_HEIGHT);
         RocksDBService.createTable(CHAIN_PARAMETERS);
         RocksDBService.createTable(PROTOCOL_CONFIG);
@@ -70,6 +70,10 @@ public interface CommandConstant {
      * 批量交易消息
      */
     String TXGROUP_MESSAGE = "txs";
+    /**
+     * 紧凑区块消息
+     */
+    String COMPACT_BLOCK_MESSAGE = "cBlock";
 
     //普通服务对应的RPC命令
     /**
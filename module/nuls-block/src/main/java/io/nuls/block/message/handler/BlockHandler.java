@@ -24,8 +24,10 @@ import io.nuls.base.RPCUtil;
 import io.nuls.base.data.Block;
 import io.nuls.base.protocol.MessageProcessor;
 import io.nuls.block.manager.ContextManager;
+import io.nuls.block.model.BlockDownloaderParams;
 import io.nuls.block.message.BlockMessage;
 import io.nuls.block.model.ChainContext;
+import io.nuls.block.model.Node;
 import io.nuls.block.utils.SingleBlockCacher;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.log.logback.NulsLogger;
@@ -50,9 +52,14 @@ public class BlockHandler implements MessageProcessor {
 
     @Override
     public void process(int chainId, String nodeId, String msgStr) {
+        process(chainId, nodeId, RPCUtil.decode(msgStr));
+    }
+
+    @Override
+    public void process(int chainId, String nodeId, byte[] msgBytes) {
         ChainContext context = ContextManager.getContext(chainId);
         NulsLogger logger = context.getLogger();
-        BlockMessage message = RPCUtil.getInstanceRpcStr(msgStr, BlockMessage.class);
+        BlockMessage message = RPCUtil.getInstance(msgBytes, BlockMessage.class);
         if (message == null) {
             return;
         }
@@ -62,9 +69,12 @@ public class BlockHandler implements MessageProcessor {
             long height = block.getHeader().getHeight();
             //接受到的区块高度比当前最新高度高，并且区块同步过程正在进行
             boolean b = height > context.getLatestHeight() && context.isNeedSyn();
-            if (b && context.getBlockMap().put(height, block) == null) {
-                context.getCachedBlockSize().addAndGet(block.size());
-            } else {
+            BlockDownloaderParams downloaderParams = context.getDownloaderParams();
+            Node node = downloaderParams == null ? null : downloaderParams.getNodeMap().get(nodeId);
+            if (node != null) {
+                node.receiveBlock(height, block.size());
+            }
+            if (!b || !context.putSyncBlock(block)) {
                 logger.warn("ignore BlockMessage from node-{}, blockHeight-{}, isNeedSyn-{}, LatestHeight-{}", nodeId, height, context.isNeedSyn(), context.getLatestHeight());
             }
         } else {
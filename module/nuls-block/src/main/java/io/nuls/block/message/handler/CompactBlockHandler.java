@@ -0,0 +1,203 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.nuls.block.message.handler;
+
+import com.google.common.hash.HashFunction;
+import io.nuls.base.RPCUtil;
+import io.nuls.base.data.*;
+import io.nuls.base.protocol.MessageProcessor;
+import io.nuls.block.constant.BlockForwardEnum;
+import io.nuls.block.constant.StatusEnum;
+import io.nuls.block.manager.ContextManager;
+import io.nuls.block.message.CompactBlockMessage;
+import io.nuls.block.message.HashMessage;
+import io.nuls.block.model.CachedSmallBlock;
+import io.nuls.block.model.ChainContext;
+import io.nuls.block.model.ChainParameters;
+import io.nuls.block.model.CompactBlockMetrics;
+import io.nuls.block.rpc.call.NetworkCall;
+import io.nuls.block.rpc.call.TransactionCall;
+import io.nuls.block.service.BlockService;
+import io.nuls.block.thread.monitor.TxGroupRequestor;
+import io.nuls.block.utils.BlockUtil;
+import io.nuls.block.utils.SmallBlockCacher;
+import io.nuls.core.core.annotation.Autowired;
+import io.nuls.core.core.annotation.Component;
+import io.nuls.core.log.logback.NulsLogger;
+import io.nuls.core.model.DateUtils;
+import io.nuls.core.parse.SerializeUtils;
+import io.nuls.core.rpc.util.NulsDateUtils;
+
+import java.util.*;
+
+import static io.nuls.block.constant.BlockForwardEnum.COMPLETE;
+import static io.nuls.block.constant.BlockForwardEnum.EMPTY;
+import static io.nuls.block.constant.BlockForwardEnum.ERROR;
+import static io.nuls.block.constant.CommandConstant.COMPACT_BLOCK_MESSAGE;
+import static io.nuls.block.constant.CommandConstant.GET_SMALL_BLOCK_MESSAGE;
+
+/**
+ * 处理收到的{@link CompactBlockMessage},用于区块的广播与转发
+ * 使用本地未确认交易还原区块, 无法完整还原时回退到小区块协议, 向源节点请求{@link SmallBlock}
+ */
+@Component("CompactBlockHandlerV1")
+public class CompactBlockHandler implements MessageProcessor {
+
+    @Autowired
+    private BlockService blockService;
+
+    @Override
+    public String getCmd() {
+        return COMPACT_BLOCK_MESSAGE;
+    }
+
+    @Override
+    public void process(int chainId, String nodeId, String msgStr) {
+        process(chainId, nodeId, RPCUtil.decode(msgStr));
+    }
+
+    @Override
+    public void process(int chainId, String nodeId, byte[] msgBytes) {
+        ChainContext context = ContextManager.getContext(chainId);
+        CompactBlockMessage message = RPCUtil.getInstance(msgBytes, CompactBlockMessage.class);
+        if (message == null) {
+            return;
+        }
+        NulsLogger logger = context.getLogger();
+        CompactBlock compactBlock = message.getCompactBlock();
+        if (null == compactBlock) {
+            logger.warn("recieved a null compactBlock!");
+            return;
+        }
+
+        BlockHeader header = compactBlock.getHeader();
+        NulsHash blockHash = header.getHash();
+        //阻止恶意节点提前出块,拒绝接收未来一定时间外的区块
+        ChainParameters parameters = context.getParameters();
+        int validBlockInterval = parameters.getValidBlockInterval();
+        long currentTime = NulsDateUtils.getCurrentTimeMillis();
+        if (header.getTime() * 1000 > (currentTime + validBlockInterval)) {
+            logger.error("header.getTime()-" + header.getTime() + ", currentTime-" + currentTime + ", validBlockInterval-" + validBlockInterval);
+            return;
+        }
+
+        logger.debug("recieve compactBlockMessage from node-" + nodeId + ", height:" + header.getHeight() + ", hash:" + header.getHash());
+        context.getCachedHashHeightMap().put(blockHash, header.getHeight());
+        NetworkCall.setHashAndHeight(chainId, blockHash, header.getHeight(), nodeId);
+        if (context.getStatus().equals(StatusEnum.SYNCHRONIZING)) {
+            return;
+        }
+        //已收到完整区块或者正在通过小区块协议补全交易
+        BlockForwardEnum status = SmallBlockCacher.getStatus(chainId, blockHash);
+        if (!EMPTY.equals(status)) {
+            return;
+        }
+        if (!BlockUtil.headerVerify(chainId, header)) {
+            logger.info("recieve error CompactBlockMessage from " + nodeId);
+            SmallBlockCacher.setStatus(chainId, blockHash, ERROR);
+            return;
+        }
+
+        Block block = reconstruct(context, compactBlock);
+        if (block == null) {
+            //回退到小区块协议
+            HashMessage request = new HashMessage();
+            request.setRequestHash(blockHash);
+            NetworkCall.sendToNode(chainId, request, nodeId, GET_SMALL_BLOCK_MESSAGE);
+            return;
+        }
+        Map<NulsHash, Transaction> txMap = new HashMap<>(block.getTxs().size());
+        block.getTxs().forEach(e -> txMap.put(e.getHash(), e));
+        CachedSmallBlock cachedSmallBlock = new CachedSmallBlock(null, BlockUtil.getSmallBlock(chainId, block), txMap, nodeId);
+        SmallBlockCacher.cacheSmallBlock(chainId, cachedSmallBlock);
+        SmallBlockCacher.setStatus(chainId, blockHash, COMPLETE);
+        TxGroupRequestor.removeTask(chainId, blockHash);
+        block.setNodeId(nodeId);
+        logger.debug("record recv block, block create time-" + DateUtils.timeStamp2DateStr(block.getHeader().getTime() * 1000) + ", hash-" + block.getHeader().getHash());
+        boolean b = blockService.saveBlock(chainId, block, 1, true, false, true);
+        if (!b) {
+            SmallBlockCacher.setStatus(chainId, blockHash, ERROR);
+        }
+    }
+
+    /**
+     * 使用随区块发送的交易与本地未确认交易还原区块, 有交易缺失、短id冲突或默克尔根不一致时返回null
+     * Rebuild the block from the prefilled transactions and the local unconfirmed transactions.
+     * Returns null when a transaction is missing, short ids collide, or the merkle root does not match.
+     */
+    private Block reconstruct(ChainContext context, CompactBlock compactBlock) {
+        BlockHeader header = compactBlock.getHeader();
+        CompactBlockMetrics metrics = context.getCompactBlockMetrics();
+        List<Long> shortIdList = compactBlock.getShortIdList();
+        List<Transaction> prefilledTxList = compactBlock.getPrefilledTxList();
+        int txCount = compactBlock.getTxCount();
+        if (txCount != header.getTxCount()) {
+            metrics.record(prefilledTxList.size(), shortIdList.size(), 0, false);
+            return null;
+        }
+        Transaction[] txs = new Transaction[txCount];
+        List<Integer> prefilledIndexList = compactBlock.getPrefilledIndexList();
+        for (int i = 0; i < prefilledTxList.size(); i++) {
+            int index = prefilledIndexList.get(i);
+            if (index < 0 || index >= txCount || txs[index] != null) {
+                metrics.record(prefilledTxList.size(), shortIdList.size(), 0, false);
+                return null;
+            }
+            txs[index] = prefilledTxList.get(i);
+        }
+
+        int shortIdLength = SerializeUtils.sizeOfUint48();
+        byte[] shortIds = new byte[shortIdList.size() * shortIdLength];
+        for (int i = 0; i < shortIdList.size(); i++) {
+            System.arraycopy(SerializeUtils.uint48ToBytes(shortIdList.get(i)), 0, shortIds, i * shortIdLength, shortIdLength);
+        }
+        List<Transaction> poolTxs = TransactionCall.getTransactionsByShortIds(context.getChainId(), header.getHash(), compactBlock.getNonce(), shortIds);
+        HashFunction function = CompactBlock.shortIdFunction(header.getHash(), compactBlock.getNonce());
+        Map<Long, Transaction> poolTxMap = new HashMap<>(poolTxs.size());
+        for (Transaction tx : poolTxs) {
+            poolTxMap.put(CompactBlock.shortId(function, tx.getHash()), tx);
+        }
+        int next = 0;
+        int hits = 0;
+        for (int i = 0; i < txCount; i++) {
+            if (txs[i] == null) {
+                Transaction tx = poolTxMap.get(shortIdList.get(next++));
+                if (tx != null) {
+                    txs[i] = tx;
+                    hits++;
+                }
+            }
+        }
+        boolean complete = hits == shortIdList.size();
+        Block block = null;
+        if (complete) {
+            block = new Block();
+            block.setHeader(header);
+            List<Transaction> txList = Arrays.asList(txs);
+            txList.forEach(e -> e.setBlockHeight(header.getHeight()));
+            block.setTxs(txList);
+            complete = header.getMerkleHash().equals(NulsHash.calcMerkleHash(block.getTxHashList()));
+        }
+        metrics.record(prefilledTxList.size(), shortIdList.size(), hits, complete);
+        context.getLogger().debug("compact block height-" + header.getHeight() + ", prefilled-" + prefilledTxList.size() + ", poolHit-" + hits + "/" + shortIdList.size() + ", reconstructed-" + complete + ", " + metrics);
+        return complete ? block : null;
+    }
+}
@@ -22,9 +22,9 @@ package io.nuls.block.message.handler;
 
 import io.nuls.base.RPCUtil;
 import io.nuls.base.protocol.MessageProcessor;
-import io.nuls.block.constant.NodeEnum;
 import io.nuls.block.manager.ContextManager;
 import io.nuls.block.message.CompleteMessage;
+import io.nuls.block.model.BlockDownloaderParams;
 import io.nuls.block.model.ChainContext;
 import io.nuls.block.model.Node;
 import io.nuls.core.core.annotation.Component;
@@ -56,8 +56,13 @@ public class CompleteHandler implements MessageProcessor {
         ChainContext context = ContextManager.getContext(chainId);
         NulsLogger logger = context.getLogger();
         logger.debug("recieve " + message + " from node-" + nodeId);
-        Node node = context.getDownloaderParams().getNodeMap().get(nodeId);
-        node.adjustCredit(message.isSuccess());
-        node.setNodeEnum(NodeEnum.IDLE);
+        BlockDownloaderParams downloaderParams = context.getDownloaderParams();
+        Node node = downloaderParams == null ? null : downloaderParams.getNodeMap().get(nodeId);
+        if (node == null) {
+            return;
+        }
+        if (!node.completeTask(message.getRequestHash(), message.isSuccess())) {
+            logger.debug("ignore stale " + message + " from node-" + nodeId);
+        }
     }
 }
@@ -65,6 +65,21 @@ public class BlockConfig extends ChainParameters implements ModuleConfig {
 
     private String dataPath;
 
+    /**
+     * 是否将所有数据表作为列族存放在同一个数据库中
+     */
+    private boolean dbColumnFamily = false;
+
+    /**
+     * 数据库共享块缓存大小(字节), 0表示不使用块缓存
+     */
+    private long dbBlockCacheSize = 64 * 1024 * 1024;
+
+    /**
+     * 是否以紧凑区块广播与转发区块, 需要网络中的节点都支持紧凑区块消息
+     */
+    private boolean compactBlockRelay = false;
+
     /**
      * 启动后自动回滚多少个区块
      */
@@ -163,6 +178,22 @@ public class BlockConfig extends ChainParameters implements ModuleConfig {
         this.testAutoRollbackAmount = testAutoRollbackAmount;
     }
 
+    public boolean isDbColumnFamily() {
+        return dbColumnFamily;
+    }
+
+    public void setDbColumnFamily(boolean dbColumnFamily) {
+        this.dbColumnFamily = dbColumnFamily;
+    }
+
+    public long getDbBlockCacheSize() {
+        return dbBlockCacheSize;
+    }
+
+    public void setDbBlockCacheSize(long dbBlockCacheSize) {
+        this.dbBlockCacheSize = dbBlockCacheSize;
+    }
+
     public String getDataFolder() {
         return dataPath + File.separator + ModuleE.BL.name;
     }
@@ -174,4 +205,12 @@ public class BlockConfig extends ChainParameters implements ModuleConfig {
     public void setRollbackHeight(int rollbackHeight) {
         this.rollbackHeight = rollbackHeight;
     }
+
+    public boolean isCompactBlockRelay() {
+        return compactBlockRelay;
+    }
+
+    public void setCompactBlockRelay(boolean compactBlockRelay) {
+        this.compactBlockRelay = compactBlockRelay;
+    }
 }
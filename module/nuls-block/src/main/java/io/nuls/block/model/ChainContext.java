@@ -26,6 +26,7 @@ import io.nuls.base.data.Block;
 import io.nuls.base.data.NulsHash;
 import io.nuls.block.constant.StatusEnum;
 import io.nuls.block.manager.BlockChainManager;
+import io.nuls.block.thread.BlockPreVerifier;
 import io.nuls.block.thread.monitor.TxGroupRequestor;
 import io.nuls.block.utils.LoggerUtil;
 import io.nuls.block.utils.SingleBlockCacher;
@@ -35,6 +36,7 @@ import io.nuls.core.model.CollectionUtils;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.StampedLock;
 
@@ -127,11 +129,30 @@ public class ChainContext {
      */
     private Map<Long, Block> blockMap = new ConcurrentHashMap<>(100);
 
+    /**
+     * 同步区块预验证结果,key为区块高度
+     */
+    private Map<Long, Future<Boolean>> preVerifyMap = new ConcurrentHashMap<>(100);
+
+    /**
+     * 同步区块到达通知
+     */
+    private final Object syncBlockArrival = new Object();
+
     /**
      * 孤儿区块关联的节点,维护孤儿区块时优先从这些节点下载
      */
     private Map<NulsHash, List<String>> orphanBlockRelatedNodes;
 
+    /**
+     * 紧凑区块还原统计
+     */
+    private final CompactBlockMetrics compactBlockMetrics = new CompactBlockMetrics();
+
+    public CompactBlockMetrics getCompactBlockMetrics() {
+        return compactBlockMetrics;
+    }
+
     public Map<NulsHash, List<String>> getOrphanBlockRelatedNodes() {
         return orphanBlockRelatedNodes;
     }
@@ -148,6 +169,72 @@ public class ChainContext {
         this.blockMap = blockMap;
     }
 
+    public Map<Long, Future<Boolean>> getPreVerifyMap() {
+        return preVerifyMap;
+    }
+
+    /**
+     * 缓存一个同步区块并提交并行预验证,同一高度只接受第一个到达的区块
+     * Cache a synchronized block and submit it for parallel pre-verification, only the first block of a height is accepted
+     *
+     * @param block 同步区块
+     * @return 是否被缓存
+     */
+    public synchronized boolean putSyncBlock(Block block) {
+        long height = block.getHeader().getHeight();
+        if (blockMap.containsKey(height)) {
+            return false;
+        }
+        preVerifyMap.put(height, BlockPreVerifier.submit(chainId, block));
+        blockMap.put(height, block);
+        cachedBlockSize.addAndGet(block.size());
+        synchronized (syncBlockArrival) {
+            syncBlockArrival.notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * 移除一个同步区块及其预验证结果
+     * Remove a synchronized block together with its pre-verification result
+     *
+     * @param height 区块高度
+     * @return 被移除的区块
+     */
+    public Block removeSyncBlock(long height) {
+        preVerifyMap.remove(height);
+        Block block = blockMap.remove(height);
+        if (block != null) {
+            cachedBlockSize.addAndGet(-block.size());
+        }
+        return block;
+    }
+
+    /**
+     * 等待指定高度的同步区块到达,最多等待timeout毫秒
+     * Wait up to timeout milliseconds for the synchronized block of the given height to arrive
+     *
+     * @param height  区块高度
+     * @param timeout 超时时间(毫秒)
+     */
+    public void awaitSyncBlock(long height, long timeout) throws InterruptedException {
+        synchronized (syncBlockArrival) {
+            if (!blockMap.containsKey(height)) {
+                syncBlockArrival.wait(timeout);
+            }
+        }
+    }
+
+    /**
+     * 清空同步区块缓存
+     * Clear the synchronized block cache
+     */
+    public void clearSyncBlocks() {
+        preVerifyMap.clear();
+        blockMap.clear();
+        cachedBlockSize.set(0);
+    }
+
     public BlockDownloaderParams getDownloaderParams() {
         return downloaderParams;
     }
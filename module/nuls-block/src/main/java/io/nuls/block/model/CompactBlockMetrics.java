@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.nuls.block.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 紧凑区块还原统计
+ * Compact block reconstruction statistics
+ */
+public class CompactBlockMetrics {
+
+    /**
+     * 收到的紧凑区块数
+     */
+    private final AtomicLong received = new AtomicLong();
+
+    /**
+     * 直接还原成功的紧凑区块数, 其余回退到小区块协议
+     */
+    private final AtomicLong reconstructed = new AtomicLong();
+
+    /**
+     * 随区块发送的交易数
+     */
+    private final AtomicLong prefilledTxs = new AtomicLong();
+
+    /**
+     * 需要从本地未确认交易还原的交易数
+     */
+    private final AtomicLong shortIdTxs = new AtomicLong();
+
+    /**
+     * 从本地未确认交易中找到的交易数
+     */
+    private final AtomicLong poolHitTxs = new AtomicLong();
+
+    public void record(int prefilled, int shortIds, int poolHits, boolean success) {
+        received.incrementAndGet();
+        if (success) {
+            reconstructed.incrementAndGet();
+        }
+        prefilledTxs.addAndGet(prefilled);
+        shortIdTxs.addAndGet(shortIds);
+        poolHitTxs.addAndGet(poolHits);
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+
+    public long getReconstructed() {
+        return reconstructed.get();
+    }
+
+    public long getPrefilledTxs() {
+        return prefilledTxs.get();
+    }
+
+    public long getShortIdTxs() {
+        return shortIdTxs.get();
+    }
+
+    public long getPoolHitTxs() {
+        return poolHitTxs.get();
+    }
+
+    /**
+     * 区块还原命中率(百分比)
+     * Block reconstruction hit rate (percent)
+     */
+    public double getBlockHitRate() {
+        long total = received.get();
+        return total == 0 ? 0D : reconstructed.get() * 100D / total;
+    }
+
+    /**
+     * 交易命中率(百分比)
+     * Transaction hit rate in the local pool (percent)
+     */
+    public double getTxHitRate() {
+        long total = shortIdTxs.get();
+        return total == 0 ? 0D : poolHitTxs.get() * 100D / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("received-%d, reconstructed-%d, blockHitRate-%.2f%%, prefilledTxs-%d, shortIdTxs-%d, poolHitTxs-%d, txHitRate-%.2f%%",
+                getReceived(), getReconstructed(), getBlockHitRate(), getPrefilledTxs(), getShortIdTxs(), getPoolHitTxs(), getTxHitRate());
+    }
+}
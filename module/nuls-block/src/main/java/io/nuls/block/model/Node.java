@@ -71,6 +71,32 @@ public class Node {
      * 节点状态
      */
     private NodeEnum nodeEnum;
+    /**
+     * 当前下载任务的请求hash,用于匹配下载完成消息
+     */
+    private NulsHash requestHash;
+    /**
+     * 当前下载任务已收到的区块数与字节数
+     */
+    private int taskBlocks;
+    private long taskBytes;
+    /**
+     * 当前下载任务是否已超时并被重新分配
+     */
+    private boolean taskReassigned;
+    /**
+     * 累计收到的区块数与字节数
+     */
+    private long totalBlocks;
+    private long totalBytes;
+    /**
+     * 下载带宽估计值(B/s),指数加权平均,小于0表示尚未测量
+     */
+    private double bandwidth = -1;
+    /**
+     * 请求到收到第一个区块的延迟估计值(ms),指数加权平均,小于0表示尚未测量
+     */
+    private double latency = -1;
 
     public long getStartHeight() {
         return startHeight;
@@ -170,6 +196,126 @@ public class Node {
         }
     }
 
+    /**
+     * 开始一个新的批量下载任务
+     * Start a new batch download task
+     *
+     * @param startHeight 起始高度
+     * @param endHeight   结束高度
+     * @param requestHash 请求消息hash
+     */
+    public synchronized void startTask(long startHeight, long endHeight, NulsHash requestHash) {
+        this.startHeight = startHeight;
+        this.endHeight = endHeight;
+        this.requestHash = requestHash;
+        this.startTime = System.currentTimeMillis();
+        this.taskBlocks = 0;
+        this.taskBytes = 0;
+        this.taskReassigned = false;
+        setNodeEnum(NodeEnum.WORKING);
+    }
+
+    /**
+     * 记录从该节点收到的同步区块,用于测量延迟
+     * Record a synchronized block received from this node, used to measure latency
+     *
+     * @param height 区块高度
+     * @param size   区块字节数
+     */
+    public synchronized void receiveBlock(long height, int size) {
+        if (height < startHeight || height > endHeight) {
+            return;
+        }
+        if (taskBlocks == 0) {
+            latency = ewma(latency, System.currentTimeMillis() - startTime);
+        }
+        taskBlocks++;
+        taskBytes += size;
+        totalBlocks++;
+        totalBytes += size;
+    }
+
+    /**
+     * 结束当前下载任务,根据下载是否成功调整信用值,并更新带宽估计
+     * Finish the current download task, adjust credit by the result and update the bandwidth estimate
+     *
+     * @param requestHash 下载完成消息中的请求hash
+     * @param success     是否下载成功
+     * @return 请求hash与当前任务不匹配时返回false
+     */
+    public synchronized boolean completeTask(NulsHash requestHash, boolean success) {
+        if (this.requestHash != null && !this.requestHash.equals(requestHash)) {
+            return false;
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        if (success && taskBytes > 0) {
+            bandwidth = ewma(bandwidth, taskBytes * 1000D / elapsed);
+        }
+        //已经因超时重新分配的任务,信用值已经扣减过
+        if (!taskReassigned || success) {
+            adjustCredit(success);
+        }
+        this.requestHash = null;
+        if (!nodeEnum.equals(NodeEnum.TIMEOUT)) {
+            setNodeEnum(NodeEnum.IDLE);
+        }
+        return true;
+    }
+
+    /**
+     * 当前下载任务超时,降低信用值与带宽估计,返回是否首次超时
+     * The current download task timed out, lower credit and the bandwidth estimate; returns whether this is the first timeout
+     */
+    public synchronized boolean timeoutTask() {
+        if (taskReassigned) {
+            return false;
+        }
+        taskReassigned = true;
+        if (bandwidth > 0) {
+            bandwidth /= 2;
+        }
+        adjustCredit(false);
+        return true;
+    }
+
+    /**
+     * 按测量的延迟与带宽估计下载任务预计耗时(ms),尚未测量时返回-1
+     * Expected time (ms) of a download task from the measured latency and bandwidth, -1 before any measurement
+     *
+     * @param blocks       区块数
+     * @param avgBlockSize 平均区块字节数
+     */
+    public synchronized long expectedTime(int blocks, long avgBlockSize) {
+        if (bandwidth <= 0) {
+            return -1;
+        }
+        return (long) (Math.max(latency, 0) + blocks * avgBlockSize * 1000D / bandwidth);
+    }
+
+    private static double ewma(double old, double sample) {
+        return old < 0 ? sample : old * 0.7 + sample * 0.3;
+    }
+
+    public synchronized double getBandwidth() {
+        return bandwidth;
+    }
+
+    public synchronized double getLatency() {
+        return latency;
+    }
+
+    public synchronized long getTotalBlocks() {
+        return totalBlocks;
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized boolean isTaskReassigned() {
+        return taskReassigned;
+    }
+
     @Override
     public String toString() {
         return new StringJoiner(", ", Node.class.getSimpleName() + "[", "]")
@@ -177,6 +323,8 @@ public class Node {
                 .add("height=" + height)
                 .add("hash=" + hash)
                 .add("credit=" + credit)
+                .add("bandwidth=" + (long) bandwidth)
+                .add("latency=" + (long) latency)
                 .add("nodeEnum=" + nodeEnum)
                 .toString();
     }
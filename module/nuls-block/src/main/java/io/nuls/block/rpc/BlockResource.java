@@ -29,6 +29,7 @@ import io.nuls.base.data.po.BlockHeaderPo;
 import io.nuls.block.constant.BlockErrorCode;
 import io.nuls.block.manager.ContextManager;
 import io.nuls.block.model.ChainContext;
+import io.nuls.block.model.CompactBlockMetrics;
 import io.nuls.block.service.BlockService;
 import io.nuls.block.utils.SmallBlockCacher;
 import io.nuls.core.core.annotation.Autowired;
@@ -70,19 +71,30 @@ public class BlockResource extends BaseCmd {
     @Parameters({
             @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链ID")
     })
-    @ResponseData(name = "返回值", description = "返回一个Map对象，包含两个属性", responseType = @TypeDescriptor(value = Map.class, mapKeys = {
+    @ResponseData(name = "返回值", description = "返回一个Map对象，包含区块高度与紧凑区块统计", responseType = @TypeDescriptor(value = Map.class, mapKeys = {
             @Key(name = "networkHeight", valueType = Long.class, description = "网络节点最新区块高度"),
-            @Key(name = "localHeight", valueType = Long.class, description = "本地节点最新区块高度")})
+            @Key(name = "localHeight", valueType = Long.class, description = "本地节点最新区块高度"),
+            @Key(name = "compactBlockReceived", valueType = Long.class, description = "收到的紧凑区块数"),
+            @Key(name = "compactBlockReconstructed", valueType = Long.class, description = "使用本地交易完整还原的紧凑区块数"),
+            @Key(name = "compactPrefilledTxs", valueType = Long.class, description = "随紧凑区块发送的交易数"),
+            @Key(name = "compactShortIdTxs", valueType = Long.class, description = "以短id发送的交易数"),
+            @Key(name = "compactPoolHitTxs", valueType = Long.class, description = "在本地未确认交易中找到的短id交易数")})
     )
     public Response info(Map map) {
         int chainId = Integer.parseInt(map.get(Constants.CHAIN_ID).toString());
-        Map<String, Long> responseData = new HashMap<>(2);
+        Map<String, Long> responseData = new HashMap<>(8);
         ChainContext context = ContextManager.getContext(chainId);
         if (context == null) {
             return success();
         }
         responseData.put("networkHeight", context.getNetworkHeight());
         responseData.put("localHeight", context.getLatestHeight());
+        CompactBlockMetrics metrics = context.getCompactBlockMetrics();
+        responseData.put("compactBlockReceived", metrics.getReceived());
+        responseData.put("compactBlockReconstructed", metrics.getReconstructed());
+        responseData.put("compactPrefilledTxs", metrics.getPrefilledTxs());
+        responseData.put("compactShortIdTxs", metrics.getShortIdTxs());
+        responseData.put("compactPoolHitTxs", metrics.getPoolHitTxs());
         return success(responseData);
     }
 
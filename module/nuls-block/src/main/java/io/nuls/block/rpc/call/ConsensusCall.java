@@ -59,9 +59,10 @@ public class ConsensusCall {
      * @param chainId 链Id/chain id
      * @param block
      * @param download 0区块下载中,1接收到最新区块
+     * @param preVerified 默克尔根与区块签名已通过预验证,共识模块不再重复验证
      * @return
      */
-    public static Result verify(int chainId, Block block, int download) {
+    public static Result verify(int chainId, Block block, int download, boolean preVerified) {
         NulsLogger logger = ContextManager.getContext(chainId).getLogger();
         try {
             Map<String, Object> params = new HashMap<>(5);
@@ -69,6 +70,7 @@ public class ConsensusCall {
             params.put(Constants.CHAIN_ID, chainId);
             params.put("download", download);
             params.put("block", RPCUtil.encode(block.serialize()));
+            params.put("preVerified", preVerified);
             Response response = ResponseMessageProcessor.requestAndResponse(ModuleE.CS.abbr, "cs_validBlock", params, 10 * 60 * 1000);
             if (response.isSuccess()) {
                 Map responseData = (Map) response.getResponseData();
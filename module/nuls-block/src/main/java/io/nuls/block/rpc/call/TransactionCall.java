@@ -262,6 +262,50 @@ public class TransactionCall {
         return transactions;
     }
 
+    /**
+     * 根据紧凑区块的短id, 从交易管理模块的待打包交易中获取交易
+     *
+     * @param chainId   链Id/chain id
+     * @param blockHash 区块hash
+     * @param nonce     短id的盐
+     * @param shortIds  短id, 每个6字节
+     * @return
+     */
+    public static List<Transaction> getTransactionsByShortIds(int chainId, NulsHash blockHash, long nonce, byte[] shortIds) {
+        if (shortIds.length == 0) {
+            return Collections.emptyList();
+        }
+        ArrayList<Transaction> transactions = new ArrayList<>();
+        NulsLogger logger = ContextManager.getContext(chainId).getLogger();
+        try {
+            Map<String, Object> params = new HashMap<>(4);
+            params.put(Constants.CHAIN_ID, chainId);
+            params.put("blockHash", blockHash.toHex());
+            params.put("nonce", nonce);
+            params.put("shortIds", shortIds);
+            Response response = ResponseMessageProcessor.requestAndResponse(ModuleE.TX.abbr, "tx_getTxsByShortIds", params);
+            if (response.isSuccess()) {
+                Map responseData = (Map) response.getResponseData();
+                Map map = (Map) responseData.get("tx_getTxsByShortIds");
+                List<String> txHexList = (List<String>) map.get("txList");
+                if (txHexList == null || txHexList.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                for (String txHex : txHexList) {
+                    Transaction transaction = new Transaction();
+                    transaction.parse(new NulsByteBuffer(RPCUtil.decode(txHex)));
+                    transactions.add(transaction);
+                }
+            } else {
+                return Collections.emptyList();
+            }
+        } catch (Exception e) {
+            logger.error("", e);
+            return Collections.emptyList();
+        }
+        return transactions;
+    }
+
     /**
      * 获取单个交易
      *
@@ -162,6 +162,19 @@ public interface BlockService {
      */
     boolean saveBlock(int chainId, Block block, boolean needLock);
 
+    /**
+     * 保存已通过预验证的同步区块,不再重复基础验证、默克尔根与区块签名验证
+     * Save a synchronized block that passed pre-verification, without repeating the basic checks, merkle root and
+     * block signature verification
+     *
+     * @param chainId 链Id/chain id
+     * @param block    待保存区块
+     * @param needLock 是否需要加锁
+     * @param preVerified 是否已通过{@link io.nuls.block.thread.BlockPreVerifier}验证
+     * @return
+     */
+    boolean saveBlock(int chainId, Block block, boolean needLock, boolean preVerified);
+
     /**
      * 保存区块,已经考虑失败回滚操作,不抛出异常情况下,不会有垃圾数据
      *
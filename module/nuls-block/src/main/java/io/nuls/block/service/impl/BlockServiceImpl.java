@@ -26,8 +26,10 @@ import io.nuls.base.data.po.BlockHeaderPo;
 import io.nuls.block.constant.BlockErrorCode;
 import io.nuls.block.manager.BlockChainManager;
 import io.nuls.block.manager.ContextManager;
+import io.nuls.block.message.CompactBlockMessage;
 import io.nuls.block.message.HashMessage;
 import io.nuls.block.message.SmallBlockMessage;
+import io.nuls.block.model.CachedSmallBlock;
 import io.nuls.block.model.Chain;
 import io.nuls.block.model.ChainContext;
 import io.nuls.block.model.ChainParameters;
@@ -63,6 +65,7 @@ import java.util.*;
 import java.util.concurrent.locks.StampedLock;
 
 import static io.nuls.base.data.BlockHeader.BLOCK_HEADER_COMPARATOR;
+import static io.nuls.block.BlockBootstrap.blockConfig;
 import static io.nuls.block.constant.BlockForwardEnum.COMPLETE;
 import static io.nuls.block.constant.CommandConstant.*;
 import static io.nuls.block.constant.Constant.BLOCK_HEADER_INDEX;
@@ -277,15 +280,20 @@ public class BlockServiceImpl implements BlockService {
 
     @Override
     public boolean saveBlock(int chainId, Block block, boolean needLock) {
-        return saveBlock(chainId, block, false, 0, needLock, false, false);
+        return saveBlock(chainId, block, false, 0, needLock, false, false, false);
+    }
+
+    @Override
+    public boolean saveBlock(int chainId, Block block, boolean needLock, boolean preVerified) {
+        return saveBlock(chainId, block, false, 0, needLock, false, false, preVerified);
     }
 
     @Override
     public boolean saveBlock(int chainId, Block block, int download, boolean needLock, boolean broadcast, boolean forward) {
-        return saveBlock(chainId, block, false, download, needLock, broadcast, forward);
+        return saveBlock(chainId, block, false, download, needLock, broadcast, forward, false);
     }
 
-    private boolean saveBlock(int chainId, Block block, boolean localInit, int download, boolean needLock, boolean broadcast, boolean forward) {
+    private boolean saveBlock(int chainId, Block block, boolean localInit, int download, boolean needLock, boolean broadcast, boolean forward, boolean preVerified) {
         long startTime = System.nanoTime();
         ChainContext context = ContextManager.getContext(chainId);
         NulsLogger logger = context.getLogger();
@@ -299,7 +307,7 @@ public class BlockServiceImpl implements BlockService {
         }
         try {
             //1.验证区块
-            Result result = verifyBlock(chainId, block, localInit, download);
+            Result result = verifyBlock(chainId, block, localInit, download, preVerified);
             if (result.isFailed()) {
                 logger.debug("verifyBlock fail! height-" + height);
                 return false;
@@ -549,6 +557,22 @@ public class BlockServiceImpl implements BlockService {
 
     @Override
     public boolean forwardBlock(int chainId, NulsHash hash, String excludeNode) {
+        if (blockConfig.isCompactBlockRelay()) {
+            //紧凑区块转发, 本节点需要向源节点获取的交易对方很可能也没有, 随区块一起发送
+            CachedSmallBlock cachedSmallBlock = SmallBlockCacher.getCachedSmallBlock(chainId, hash);
+            if (cachedSmallBlock != null) {
+                try {
+                    SmallBlock smallBlock = cachedSmallBlock.getSmallBlock();
+                    Block block = BlockUtil.assemblyBlock(smallBlock.getHeader(), cachedSmallBlock.getTxMap(), smallBlock.getTxHashList());
+                    List<NulsHash> missingTransactions = cachedSmallBlock.getMissingTransactions();
+                    CompactBlockMessage message = new CompactBlockMessage();
+                    message.setCompactBlock(BlockUtil.getCompactBlock(chainId, block, missingTransactions == null ? Collections.emptyList() : missingTransactions));
+                    return NetworkCall.broadcast(chainId, message, excludeNode, COMPACT_BLOCK_MESSAGE);
+                } catch (Exception e) {
+                    ContextManager.getContext(chainId).getLogger().warn("forward compact block fail, hash-" + hash, e);
+                }
+            }
+        }
         HashMessage message = new HashMessage(hash);
         return NetworkCall.broadcast(chainId, message, excludeNode, FORWARD_SMALL_BLOCK_MESSAGE);
     }
@@ -556,14 +580,21 @@ public class BlockServiceImpl implements BlockService {
     @Override
     public boolean broadcastBlock(int chainId, Block block) {
         NulsLogger logger = ContextManager.getContext(chainId).getLogger();
-        SmallBlockMessage message = new SmallBlockMessage();
-        message.setSmallBlock(BlockUtil.getSmallBlock(chainId, block));
-        boolean broadcast = NetworkCall.broadcast(chainId, message, SMALL_BLOCK_MESSAGE);
+        boolean broadcast;
+        if (blockConfig.isCompactBlockRelay()) {
+            CompactBlockMessage message = new CompactBlockMessage();
+            message.setCompactBlock(BlockUtil.getCompactBlock(chainId, block, Collections.emptyList()));
+            broadcast = NetworkCall.broadcast(chainId, message, COMPACT_BLOCK_MESSAGE);
+        } else {
+            SmallBlockMessage message = new SmallBlockMessage();
+            message.setSmallBlock(BlockUtil.getSmallBlock(chainId, block));
+            broadcast = NetworkCall.broadcast(chainId, message, SMALL_BLOCK_MESSAGE);
+        }
         logger.debug("hash-" + block.getHeader().getHash() + ", broadcast-" + broadcast);
         return broadcast;
     }
 
-    private Result verifyBlock(int chainId, Block block, boolean localInit, int download) {
+    private Result verifyBlock(int chainId, Block block, boolean localInit, int download, boolean preVerified) {
         ChainContext context = ContextManager.getContext(chainId);
         NulsLogger logger = context.getLogger();
         BlockHeader header = block.getHeader();
@@ -573,8 +604,8 @@ public class BlockServiceImpl implements BlockService {
             return Result.getFailed(BlockErrorCode.BLOCK_VERIFY_ERROR);
         }
 
-        //1.验证一些基本信息如区块大小限制、字段非空验证
-        boolean basicVerify = BlockUtil.basicVerify(chainId, block);
+        //1.验证一些基本信息如区块大小限制、字段非空验证,预验证时已经验证过
+        boolean basicVerify = preVerified || BlockUtil.basicVerify(chainId, block);
         if (localInit) {
             logger.debug("basicVerify-" + basicVerify);
             if (basicVerify) {
@@ -591,7 +622,7 @@ public class BlockServiceImpl implements BlockService {
             return Result.getFailed(BlockErrorCode.BLOCK_VERIFY_ERROR);
         }
         //共识验证
-        Result consensusVerify = ConsensusCall.verify(chainId, block, download);
+        Result consensusVerify = ConsensusCall.verify(chainId, block, download, preVerified);
         if (consensusVerify.isFailed()) {
             logger.error("consensusVerify-" + consensusVerify);
             return Result.getFailed(BlockErrorCode.BLOCK_VERIFY_ERROR);
@@ -624,7 +655,7 @@ public class BlockServiceImpl implements BlockService {
                         genesisBlock = GenesisBlock.getInstance(chainId, chainParameters.getAssetId(), Files.readString(Path.of(configFile, value)));
                     }
                 }
-                boolean b = saveBlock(chainId, genesisBlock, true, 0, false, false, false);
+                boolean b = saveBlock(chainId, genesisBlock, true, 0, false, false, false, false);
                 if (!b) {
                     throw new NulsRuntimeException(BlockErrorCode.SAVE_GENESIS_ERROR);
                 }
@@ -29,6 +29,7 @@ import io.nuls.core.core.annotation.Component;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.model.ByteUtils;
 import io.nuls.core.parse.SerializeUtils;
+import io.nuls.core.rockdb.service.MultiTableBatchOperation;
 import io.nuls.core.rockdb.service.RocksDBService;
 
 import java.util.ArrayList;
@@ -54,9 +55,16 @@ public class BlockStorageServiceImpl implements BlockStorageService {
         byte[] height = SerializeUtils.uint64ToByteArray(blockHeader.getHeight());
         try {
             byte[] hash = blockHeader.getHash().getBytes();
-            boolean b1 = RocksDBService.put(BLOCK_HEADER_INDEX + chainId, height, hash);
-            boolean b2 = RocksDBService.put(BLOCK_HEADER + chainId, hash, blockHeader.serialize());
-            return b1 && b2;
+            //索引与区块头在同一次写入中提交
+            MultiTableBatchOperation batch = RocksDBService.createMultiTableWriteBatch();
+            try {
+                batch.put(BLOCK_HEADER_INDEX + chainId, height, hash);
+                batch.put(BLOCK_HEADER + chainId, hash, blockHeader.serialize());
+            } catch (Exception e) {
+                batch.close();
+                throw e;
+            }
+            return batch.executeBatch();
         } catch (Exception e) {
             COMMON_LOG.error("", e);
             return false;
@@ -128,10 +136,17 @@ public class BlockStorageServiceImpl implements BlockStorageService {
     @Override
     public boolean remove(int chainId, long height) {
         try {
-            byte[] hash = RocksDBService.get(BLOCK_HEADER_INDEX + chainId, SerializeUtils.uint64ToByteArray(height));
-            boolean b1 = RocksDBService.delete(BLOCK_HEADER_INDEX + chainId, SerializeUtils.uint64ToByteArray(height));
-            boolean b2 = RocksDBService.delete(BLOCK_HEADER + chainId, hash);
-            return b1 && b2;
+            byte[] key = SerializeUtils.uint64ToByteArray(height);
+            byte[] hash = RocksDBService.get(BLOCK_HEADER_INDEX + chainId, key);
+            MultiTableBatchOperation batch = RocksDBService.createMultiTableWriteBatch();
+            try {
+                batch.delete(BLOCK_HEADER_INDEX + chainId, key);
+                batch.delete(BLOCK_HEADER + chainId, hash);
+            } catch (Exception e) {
+                batch.close();
+                throw e;
+            }
+            return batch.executeBatch();
         } catch (Exception e) {
             COMMON_LOG.error("", e);
             return false;
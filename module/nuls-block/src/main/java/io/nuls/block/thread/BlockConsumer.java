@@ -65,23 +65,39 @@ public class BlockConsumer implements Callable<Boolean> {
         logger.info("BlockConsumer start work");
         try {
             long begin = System.nanoTime();
+            int preVerifyFailed = 0;
             while (pendingHeight <= netLatestHeight && context.isNeedSyn()) {
-                block = context.getBlockMap().remove(pendingHeight);
+                block = context.getBlockMap().get(pendingHeight);
                 if (block != null) {
+                    //等待并行预验证结果,预验证通过后再执行与链状态相关的验证并保存
+                    boolean verified = BlockPreVerifier.await(chainId, block, context.getPreVerifyMap().get(pendingHeight));
+                    context.removeSyncBlock(pendingHeight);
+                    if (!verified) {
+                        logger.error("The downloaded block failed pre-verification, height-" + pendingHeight + ", hash-" + block.getHeader().getHash());
+                        punishNode(pendingHeight, params.getNodes(), context);
+                        //每个节点都提供了无效区块,停止同步进程,等待下次同步
+                        if (++preVerifyFailed > params.getNodes().size()) {
+                            context.setNeedSyn(false);
+                            return false;
+                        }
+                        retryDownload(pendingHeight, context);
+                        begin = System.nanoTime();
+                        continue;
+                    }
+                    preVerifyFailed = 0;
                     begin = System.nanoTime();
-                    boolean saveBlock = blockService.saveBlock(chainId, block, true);
+                    boolean saveBlock = blockService.saveBlock(chainId, block, true, true);
                     if (!saveBlock) {
                         logger.error("An exception occurred while saving the downloaded block, height-" + pendingHeight + ", hash-" + block.getHeader().getHash());
                         context.setNeedSyn(false);
                         return false;
                     }
                     pendingHeight++;
-                    context.getCachedBlockSize().addAndGet(-block.size());
                     continue;
                 }
-                Thread.sleep(10);
+                context.awaitSyncBlock(pendingHeight, 100);
                 long end = System.nanoTime();
-                //超过10秒没有高度更新
+                //超过5秒没有高度更新
                 if ((end - begin) / 1000000 > 5000) {
                     updateNodeStatus(context);
                     punishNode(pendingHeight, params.getNodes(), context);
@@ -139,8 +155,7 @@ public class BlockConsumer implements Callable<Boolean> {
             if (block != null) {
                 context.getLogger().info("retryDownload, get block from " + node.getId() + " success, height-" + height);
                 download = true;
-                context.getBlockMap().put(height, block);
-                context.getCachedBlockSize().addAndGet(block.size());
+                context.putSyncBlock(block);
                 break;
             } else {
                 node.adjustCredit(false);
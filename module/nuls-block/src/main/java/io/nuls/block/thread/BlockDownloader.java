@@ -22,6 +22,7 @@
 
 package io.nuls.block.thread;
 
+import io.nuls.base.data.NulsHash;
 import io.nuls.block.constant.BlockErrorCode;
 import io.nuls.block.constant.NodeEnum;
 import io.nuls.block.manager.ContextManager;
@@ -35,6 +36,8 @@ import io.nuls.core.exception.NulsRuntimeException;
 import io.nuls.core.log.logback.NulsLogger;
 
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -42,6 +45,11 @@ import static io.nuls.block.constant.CommandConstant.GET_BLOCKS_BY_HEIGHT_MESSAG
 
 /**
  * 区块下载管理器
+ * 根据每个节点实测的带宽与延迟分配下载区间,总是优先下载最靠前的缺失高度,
+ * 超时任务中尚未收到的区块立即重新分配给其他空闲节点
+ * Block download manager.
+ * Ranges are sized to each node's measured bandwidth and latency, the lowest missing heights are always requested first,
+ * and blocks not yet received from a timed out task are reassigned to other idle nodes right away.
  *
  * @author captain
  * @version 1.0
@@ -49,11 +57,26 @@ import static io.nuls.block.constant.CommandConstant.GET_BLOCKS_BY_HEIGHT_MESSAG
  */
 public class BlockDownloader implements Callable<Boolean> {
 
+    /**
+     * 单个下载任务的目标耗时(ms),按节点带宽计算区间大小
+     */
+    private static final long TARGET_TASK_TIME = 2000L;
+
+    /**
+     * 下载任务超时时间下限(ms)
+     */
+    private static final long MIN_TASK_TIMEOUT = 3000L;
+
     /**
      * 链ID
      */
     private int chainId;
 
+    /**
+     * 待重新分配的下载区间,key为起始高度,value为结束高度
+     */
+    private final TreeMap<Long, Long> retryRanges = new TreeMap<>();
+
     BlockDownloader(int chainId) {
         this.chainId = chainId;
     }
@@ -73,45 +96,64 @@ public class BlockDownloader implements Callable<Boolean> {
             int downloadNumber = chainParameters.getDownloadNumber();
             AtomicInteger cachedBlockSize = context.getCachedBlockSize();
             long limit = context.getParameters().getCachedBlockSizeLimit() * 80 / 100;
-            while (startHeight <= netLatestHeight && context.isNeedSyn()) {
+            while (context.isNeedSyn() && context.getLatestHeight() < netLatestHeight) {
+                long avgBlockSize = avgBlockSize(nodes);
+                checkTimeout(nodes, context, avgBlockSize);
+                boolean retry = !retryRanges.isEmpty();
+                if (!retry && startHeight > netLatestHeight) {
+                    //所有区间都已分配,等待下载完成或者超时重新分配
+                    Thread.sleep(100L);
+                    continue;
+                }
                 int cachedSize = cachedBlockSize.get();
-                while (cachedSize > cachedBlockSizeLimit) {
+                //重新分配的区间总是在提交高度之前,不受缓存限制,否则可能阻塞区块保存
+                while (!retry && cachedSize > cachedBlockSizeLimit) {
                     logger.info("BlockDownloader wait! cached block:" + context.getBlockMap().size() + ", total block size:" + cachedSize);
-                    nodes.forEach(e -> e.setCredit(20));
-                    Thread.sleep(3000L);
+                    Thread.sleep(1000L);
                     cachedSize = cachedBlockSize.get();
                     if (!context.isNeedSyn()) {
                         return false;
                     }
                 }
-                //下载的区块字节数达到缓存阈值的80%时，降慢下载速度
-                if (cachedSize > limit) {
-                    nodes.forEach(e -> e.setCredit(e.getCredit() / 2));
-                }
                 Node node = getNode(nodes);
                 if (node == null) {
                     Thread.sleep(100L);
                     continue;
                 }
-                int credit = node.getCredit();
-                int size = downloadNumber * credit / 100;
-                size = size <= 0 ? 1 : size;
-                if (startHeight + size > netLatestHeight) {
-                    size = (int) (netLatestHeight - startHeight + 1);
+                int size = taskSize(node, avgBlockSize, downloadNumber);
+                //下载的区块字节数达到缓存阈值的80%时，降慢下载速度
+                if (cachedSize > limit) {
+                    size = Math.max(1, size / 2);
+                }
+                long from;
+                long to;
+                if (retry) {
+                    Map.Entry<Long, Long> range = retryRanges.pollFirstEntry();
+                    from = range.getKey();
+                    to = Math.min(range.getValue(), from + size - 1);
+                    if (to < range.getValue()) {
+                        retryRanges.put(to + 1, range.getValue());
+                    }
+                } else {
+                    from = startHeight;
+                    to = Math.min(netLatestHeight, startHeight + size - 1);
                 }
-                long endHeight = startHeight + size - 1;
                 //组装批量获取区块消息
-                HeightRangeMessage message = new HeightRangeMessage(startHeight, endHeight);
+                HeightRangeMessage message = new HeightRangeMessage(from, to);
+                NulsHash requestHash = NulsHash.calcHash(message.serialize());
+                node.startTask(from, to, requestHash);
                 //发送消息给目标节点
                 boolean b = NetworkCall.sendToNode(chainId, message, node.getId(), GET_BLOCKS_BY_HEIGHT_MESSAGE);
                 if (b) {
-                    node.setNodeEnum(NodeEnum.WORKING);
-                    node.setStartTime(System.currentTimeMillis());
-                    node.setStartHeight(startHeight);
-                    node.setEndHeight(endHeight);
-                    startHeight += size;
+                    if (!retry) {
+                        startHeight = to + 1;
+                    }
                 } else {
                     logger.error("BlockDownloader sendToNode failed!");
+                    node.completeTask(requestHash, false);
+                    if (retry) {
+                        retryRanges.put(from, to);
+                    }
                 }
             }
             logger.info("BlockDownloader stop work, flag-" + context.isNeedSyn());
@@ -122,11 +164,90 @@ public class BlockDownloader implements Callable<Boolean> {
         return context.isNeedSyn();
     }
 
+    /**
+     * 按节点带宽计算下载区间大小,尚未测量带宽的节点按信用值计算
+     *
+     * @param node           下载节点
+     * @param avgBlockSize   平均区块字节数
+     * @param downloadNumber 单次下载区块数上限
+     * @return 区间大小
+     */
+    private int taskSize(Node node, long avgBlockSize, int downloadNumber) {
+        double bandwidth = node.getBandwidth();
+        int size;
+        if (bandwidth > 0 && avgBlockSize > 0) {
+            double time = Math.max(TARGET_TASK_TIME - Math.max(node.getLatency(), 0), TARGET_TASK_TIME / 4D);
+            size = (int) (bandwidth * time / 1000 / avgBlockSize);
+        } else {
+            size = downloadNumber * node.getCredit() / 100;
+        }
+        return Math.max(1, Math.min(size, downloadNumber));
+    }
+
+    /**
+     * 检查正在下载的任务是否超时,超时任务中尚未收到的区块加入待重新分配区间
+     *
+     * @param nodes        下载节点
+     * @param context      链上下文
+     * @param avgBlockSize 平均区块字节数
+     */
+    private void checkTimeout(List<Node> nodes, ChainContext context, long avgBlockSize) {
+        long now = System.currentTimeMillis();
+        long maxTimeout = context.getParameters().getSingleDownloadTimeout();
+        for (Node node : nodes) {
+            if (!node.getNodeEnum().equals(NodeEnum.WORKING) || node.isTaskReassigned()) {
+                continue;
+            }
+            long startHeight = node.getStartHeight();
+            long endHeight = node.getEndHeight();
+            long expected = node.expectedTime((int) (endHeight - startHeight + 1), avgBlockSize);
+            long timeout = expected < 0 ? maxTimeout : Math.min(maxTimeout, Math.max(MIN_TASK_TIMEOUT, expected * 3));
+            if (now - node.getStartTime() <= timeout || !node.timeoutTask()) {
+                continue;
+            }
+            long latestHeight = context.getLatestHeight();
+            Map<Long, ?> blockMap = context.getBlockMap();
+            long rangeStart = -1;
+            for (long height = Math.max(startHeight, latestHeight + 1); height <= endHeight; height++) {
+                boolean missing = !blockMap.containsKey(height);
+                if (missing && rangeStart < 0) {
+                    rangeStart = height;
+                } else if (!missing && rangeStart >= 0) {
+                    retryRanges.put(rangeStart, height - 1);
+                    rangeStart = -1;
+                }
+            }
+            if (rangeStart >= 0) {
+                retryRanges.put(rangeStart, endHeight);
+            }
+            context.getLogger().warn("download task timeout, node-" + node.getId() + ", start-" + startHeight + ", end-" + endHeight + ", retry ranges-" + retryRanges);
+        }
+    }
+
+    /**
+     * 所有节点已下载区块的平均字节数,尚未下载时返回0
+     */
+    private long avgBlockSize(List<Node> nodes) {
+        long blocks = 0;
+        long bytes = 0;
+        for (Node node : nodes) {
+            blocks += node.getTotalBlocks();
+            bytes += node.getTotalBytes();
+        }
+        return blocks == 0 ? 0 : bytes / blocks;
+    }
+
+    /**
+     * 选择带宽最高的空闲节点,尚未测量带宽的节点优先,以便尽快完成测量
+     */
     private Node getNode(List<Node> nodes) {
         int count = 0;
+        Node best = null;
         for (Node node : nodes) {
             if (node.getNodeEnum().equals(NodeEnum.IDLE)) {
-                return node;
+                if (best == null || score(node) > score(best)) {
+                    best = node;
+                }
             }
             if (node.getNodeEnum().equals(NodeEnum.TIMEOUT)) {
                 count++;
@@ -135,7 +256,12 @@ public class BlockDownloader implements Callable<Boolean> {
         if (count == nodes.size()) {
             throw new NulsRuntimeException(BlockErrorCode.BLOCK_SYN_ERROR);
         }
-        return null;
+        return best;
+    }
+
+    private double score(Node node) {
+        double bandwidth = node.getBandwidth();
+        return bandwidth < 0 ? Double.MAX_VALUE : bandwidth * node.getCredit() / 100;
     }
 
 }
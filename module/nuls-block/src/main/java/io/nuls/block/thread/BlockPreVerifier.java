@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.nuls.block.thread;
+
+import io.nuls.base.data.Block;
+import io.nuls.base.data.BlockHeader;
+import io.nuls.base.data.NulsHash;
+import io.nuls.block.manager.ContextManager;
+import io.nuls.block.utils.BlockUtil;
+import io.nuls.core.log.logback.NulsLogger;
+import io.nuls.core.thread.ThreadUtils;
+import io.nuls.core.thread.commom.NulsThreadFactory;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 同步区块的并行预验证
+ * 区块下载到达后立即在线程池中完成与链状态无关的验证(基础验证、交易hash与默克尔根、区块签名),
+ * BlockConsumer只需按高度顺序等待预验证结果并执行与链状态相关的验证与保存,使验证与保存形成流水线
+ * Parallel pre-verification of synchronized blocks.
+ * As soon as a downloaded block arrives, the checks that do not depend on chain state (basic checks, tx hashes
+ * and merkle root, block signature) run in a thread pool, so BlockConsumer only waits for the result in height order
+ * and then runs the state dependent verification and save, pipelining verification with commit.
+ * 保存时标记为已预验证,区块基础验证与共识模块的默克尔根、区块签名验证不再重复执行
+ * The block is saved as pre-verified, so the basic checks and the merkle root and block signature checks of the
+ * consensus module are not run a second time.
+ */
+public class BlockPreVerifier {
+
+    private static final ThreadPoolExecutor EXECUTOR = ThreadUtils.createThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), 0, new NulsThreadFactory("block-pre-verifier"));
+
+    /**
+     * 提交区块预验证
+     * Submit a block for pre-verification
+     *
+     * @param chainId 链Id/chain id
+     * @param block   待验证区块
+     * @return 预验证结果
+     */
+    public static Future<Boolean> submit(int chainId, Block block) {
+        return EXECUTOR.submit(() -> verify(chainId, block));
+    }
+
+    /**
+     * 获取区块预验证结果,预验证任务不存在时在当前线程验证
+     * Get the pre-verification result of a block, verifying it in the current thread when no task was submitted
+     *
+     * @param chainId 链Id/chain id
+     * @param block   待验证区块
+     * @param future  预验证任务,可以为null
+     * @return 预验证结果
+     */
+    public static boolean await(int chainId, Block block, Future<Boolean> future) throws InterruptedException {
+        if (future == null) {
+            return verify(chainId, block);
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            ContextManager.getContext(chainId).getLogger().error("block pre-verify error, height-" + block.getHeader().getHeight(), e.getCause());
+            return false;
+        }
+    }
+
+    /**
+     * 与链状态无关的区块验证,同时缓存区块头与交易的hash,后续保存区块时无需重复计算
+     * Block verification that does not depend on chain state. The header and tx hashes are cached on the way,
+     * so saving the block later does not compute them again.
+     *
+     * @param chainId 链Id/chain id
+     * @param block   待验证区块
+     * @return 验证结果
+     */
+    public static boolean verify(int chainId, Block block) {
+        if (!BlockUtil.basicVerify(chainId, block)) {
+            return false;
+        }
+        NulsLogger logger = ContextManager.getContext(chainId).getLogger();
+        BlockHeader header = block.getHeader();
+        if (header.getMerkleHash() == null || !header.getMerkleHash().equals(NulsHash.calcMerkleHash(block.getTxHashList()))) {
+            logger.error("block pre-verify fail, merkle hash error! height-" + header.getHeight() + ", hash-" + header.getHash());
+            return false;
+        }
+        if (header.getBlockSignature() == null || header.getBlockSignature().verifySignature(header.getHash()).isFailed()) {
+            logger.error("block pre-verify fail, block signature error! height-" + header.getHeight() + ", hash-" + header.getHash());
+            return false;
+        }
+        return true;
+    }
+
+}
@@ -317,8 +317,7 @@ public class BlockSynchronizer implements Runnable {
             logger.error("Block syn fail, downResult:" + downResult + ", storageResult:" + storageResult);
         }
         context.setNeedSyn(true);
-        context.getBlockMap().clear();
-        context.getCachedBlockSize().set(0);
+        context.clearSyncBlocks();
         context.setDownloaderParams(null);
         return false;
     }
@@ -20,6 +20,7 @@
 
 package io.nuls.block.utils;
 
+import com.google.common.hash.HashFunction;
 import io.nuls.base.data.*;
 import io.nuls.base.data.po.BlockHeaderPo;
 import io.nuls.block.constant.BlockErrorCode;
@@ -44,6 +45,7 @@ import io.nuls.core.exception.NulsRuntimeException;
 import io.nuls.core.log.logback.NulsLogger;
 import io.nuls.core.model.ByteUtils;
 
+import java.security.SecureRandom;
 import java.util.*;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -61,6 +63,11 @@ import static io.nuls.block.constant.CommandConstant.GET_BLOCK_MESSAGE;
 @Component
 public class BlockUtil {
 
+    /**
+     * 紧凑区块短id的盐
+     */
+    private static final SecureRandom SHORT_ID_NONCE_RANDOM = new SecureRandom();
+
     @Autowired
     private static BlockService blockService;
     @Autowired
@@ -366,6 +373,37 @@ public class BlockUtil {
         return smallBlock;
     }
 
+    /**
+     * 生成紧凑区块, 系统交易与指定的交易随区块发送, 其余交易以短id代替
+     *
+     * @param chainId   链Id/chain id
+     * @param block     区块
+     * @param prefilled 预计接收方没有的交易hash
+     * @return
+     */
+    public static CompactBlock getCompactBlock(int chainId, Block block, Collection<NulsHash> prefilled) {
+        ChainContext context = ContextManager.getContext(chainId);
+        List<Integer> transactionType = context.getSystemTransactionType();
+        if (transactionType.isEmpty()) {
+            transactionType.addAll(TransactionCall.getSystemTypes(chainId));
+        }
+        Set<NulsHash> prefilledSet = new HashSet<>(prefilled);
+        CompactBlock compactBlock = new CompactBlock();
+        compactBlock.setHeader(block.getHeader());
+        compactBlock.setNonce(SHORT_ID_NONCE_RANDOM.nextLong());
+        HashFunction function = CompactBlock.shortIdFunction(block.getHeader().getHash(), compactBlock.getNonce());
+        List<Transaction> txs = block.getTxs();
+        for (int i = 0; i < txs.size(); i++) {
+            Transaction tx = txs.get(i);
+            if (transactionType.contains(tx.getType()) || prefilledSet.contains(tx.getHash())) {
+                compactBlock.addPrefilledTx(i, tx);
+            } else {
+                compactBlock.addShortId(CompactBlock.shortId(function, tx.getHash()));
+            }
+        }
+        return compactBlock;
+    }
+
     /**
      * 根据smallblock和txmap组装一个完整区块
      *
@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.nuls.block.model;
+
+import io.nuls.base.data.NulsHash;
+import io.nuls.block.constant.NodeEnum;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NodeTest {
+
+    @Test
+    public void task() throws InterruptedException {
+        Node node = new Node();
+        node.setNodeEnum(NodeEnum.IDLE);
+        assertEquals(-1, node.expectedTime(10, 1000));
+
+        NulsHash requestHash = NulsHash.calcHash(new byte[]{1});
+        node.startTask(1, 10, requestHash);
+        assertEquals(NodeEnum.WORKING, node.getNodeEnum());
+        Thread.sleep(10);
+        node.receiveBlock(1, 1000);
+        node.receiveBlock(11, 1000);
+        assertEquals(1, node.getTotalBlocks());
+        assertTrue(node.getLatency() >= 10);
+
+        //不匹配的下载完成消息被忽略
+        assertFalse(node.completeTask(NulsHash.calcHash(new byte[]{2}), true));
+        assertEquals(NodeEnum.WORKING, node.getNodeEnum());
+
+        assertTrue(node.completeTask(requestHash, true));
+        assertEquals(NodeEnum.IDLE, node.getNodeEnum());
+        assertEquals(60, node.getCredit());
+        assertTrue(node.getBandwidth() > 0);
+        assertTrue(node.expectedTime(10, 1000) > 0);
+    }
+}
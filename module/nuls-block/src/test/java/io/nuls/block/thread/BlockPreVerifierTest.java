@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.nuls.block.thread;
+
+import io.nuls.base.data.Block;
+import io.nuls.base.data.BlockHeader;
+import io.nuls.base.data.NulsHash;
+import io.nuls.base.data.Transaction;
+import io.nuls.base.signture.BlockSignature;
+import io.nuls.base.signture.SignatureUtil;
+import io.nuls.block.manager.ContextManager;
+import io.nuls.block.model.ChainParameters;
+import io.nuls.block.service.impl.BlockServiceImpl;
+import io.nuls.core.core.ioc.SpringLiteContext;
+import io.nuls.core.crypto.ECKey;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+public class BlockPreVerifierTest {
+
+    private static final int CHAIN_ID = 2;
+
+    private static final ECKey KEY = new ECKey();
+
+    @BeforeClass
+    public static void setUp() {
+        SpringLiteContext.putBean("blockService", new BlockServiceImpl());
+        ChainParameters parameters = new ChainParameters();
+        parameters.setChainId(CHAIN_ID);
+        parameters.setBlockMaxSize(5242880);
+        parameters.setExtendMaxSize(1024);
+        parameters.setSmallBlockCache((byte) 6);
+        parameters.setHeightRange(1000);
+        ContextManager.init(parameters);
+    }
+
+    /**
+     * 测试正常区块通过预验证,线程池与当前线程的结果一致
+     */
+    @Test
+    public void verify() throws Exception {
+        Block block = newBlock(1);
+        Assert.assertTrue(BlockPreVerifier.verify(CHAIN_ID, block));
+        Future<Boolean> future = BlockPreVerifier.submit(CHAIN_ID, block);
+        Assert.assertTrue(BlockPreVerifier.await(CHAIN_ID, block, future));
+        Assert.assertTrue(BlockPreVerifier.await(CHAIN_ID, block, null));
+    }
+
+    /**
+     * 测试默克尔根与交易不一致的区块不能通过预验证
+     */
+    @Test
+    public void merkleHashError() throws Exception {
+        Block block = newBlock(1);
+        block.getTxs().get(0).setRemark("changed".getBytes());
+        block.getTxs().get(0).setHash(null);
+        Assert.assertFalse(BlockPreVerifier.verify(CHAIN_ID, block));
+    }
+
+    /**
+     * 测试区块签名与区块头不一致的区块不能通过预验证
+     */
+    @Test
+    public void signatureError() throws Exception {
+        Block block = newBlock(1);
+        Block other = newBlock(2);
+        block.getHeader().setBlockSignature(other.getHeader().getBlockSignature());
+        Assert.assertFalse(BlockPreVerifier.verify(CHAIN_ID, block));
+    }
+
+    private static Block newBlock(long height) throws Exception {
+        Block block = new Block();
+        List<Transaction> txs = new ArrayList<>();
+        List<NulsHash> txHashList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Transaction tx = new Transaction();
+            tx.setType(i + 1);
+            tx.setTime(height);
+            txs.add(tx);
+            txHashList.add(tx.getHash());
+        }
+        block.setTxs(txs);
+        BlockHeader header = new BlockHeader();
+        header.setHeight(height);
+        header.setTime(height);
+        header.setPreHash(NulsHash.calcHash(String.valueOf(height - 1).getBytes()));
+        header.setTxCount(txs.size());
+        header.setMerkleHash(NulsHash.calcMerkleHash(txHashList));
+        BlockSignature signature = new BlockSignature();
+        signature.setSignData(SignatureUtil.signDigest(header.getHash().getBytes(), KEY));
+        signature.setPublicKey(KEY.getPubKey());
+        header.setBlockSignature(signature);
+        block.setHeader(header);
+        return block;
+    }
+
+}
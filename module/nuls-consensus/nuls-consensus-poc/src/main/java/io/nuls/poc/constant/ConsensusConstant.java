@@ -184,6 +184,12 @@ public interface ConsensusConstant {
 
     int ROUND_CACHE_COUNT = 10;
 
+    /**
+     * 无出块任务时共识任务的最长唤醒间隔(毫秒)
+     * Longest wake-up interval of the consensus task when there is nothing to pack (ms)
+     */
+    long CONSENSUS_IDLE_INTERVAL = 1000L;
+
     int RPC_CALL_TRY_COUNT = 5;
 
     byte VALUE_OF_ONE_HUNDRED =100;
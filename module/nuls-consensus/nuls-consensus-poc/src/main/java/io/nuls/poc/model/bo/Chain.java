@@ -6,9 +6,11 @@ import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.Transaction;
 import io.nuls.core.log.Log;
 import io.nuls.core.parse.I18nUtils;
+import io.nuls.poc.constant.ConsensusConstant;
 import io.nuls.poc.model.bo.config.ConfigBean;
 import io.nuls.poc.model.bo.consensus.Evidence;
 import io.nuls.poc.model.bo.round.MeetingRound;
+import io.nuls.poc.model.bo.round.RoundCache;
 import io.nuls.poc.model.bo.tx.txdata.Agent;
 import io.nuls.poc.model.bo.tx.txdata.Deposit;
 import io.nuls.poc.model.po.PunishLogPo;
@@ -113,6 +115,18 @@ public class Chain {
 
     private final Lock roundLock = new ReentrantLock();
 
+    /**
+     * 委托与黄牌索引
+     * Index of deposits and yellow punishments
+     */
+    private final ConsensusStateIndex stateIndex = new ConsensusStateIndex();
+
+    /**
+     * 轮次计算结果缓存
+     * Cache of computed rounds
+     */
+    private final RoundCache roundCache = new RoundCache(ConsensusConstant.ROUND_CACHE_COUNT);
+
     private NulsLogger logger;
 
     private boolean cacheLoaded;
@@ -231,20 +245,7 @@ public class Chain {
      * @return List<Deposit>
      */
     private List<Deposit> getDepositListByAgentId(NulsHash agentHash, long startBlockHeight) {
-        List<Deposit> resultList = new ArrayList<>();
-        for (int i = depositList.size() - 1; i >= 0; i--) {
-            Deposit deposit = depositList.get(i);
-            if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= startBlockHeight) {
-                continue;
-            }
-            if (deposit.getBlockHeight() > startBlockHeight || deposit.getBlockHeight() < 0L) {
-                continue;
-            }
-            if (deposit.getAgentHash().equals(agentHash)) {
-                resultList.add(deposit);
-            }
-        }
-        return resultList;
+        return stateIndex.getDepositList(agentHash, startBlockHeight);
     }
 
 
@@ -272,6 +273,14 @@ public class Chain {
         this.canPacking = canPacking;
     }
 
+    public ConsensusStateIndex getStateIndex() {
+        return stateIndex;
+    }
+
+    public RoundCache getRoundCache() {
+        return roundCache;
+    }
+
     public List<Agent> getAgentList() {
         return agentList;
     }
@@ -0,0 +1,167 @@
+package io.nuls.poc.model.bo;
+
+import io.nuls.base.data.NulsHash;
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.poc.model.bo.tx.txdata.Deposit;
+import io.nuls.poc.model.po.PunishLogPo;
+
+import java.util.*;
+
+/**
+ * 共识状态索引
+ * Consensus state index
+ * <p>
+ * 按节点hash索引委托信息, 按地址索引黄牌记录, 与链上的委托列表、黄牌列表同步增量维护(区块提交与回滚时更新),
+ * 计算轮次时只需访问出块成员相关的数据, 不再对每个节点扫描全部委托与黄牌
+ * Deposits are indexed by agent hash and yellow punishments by address. Both are maintained incrementally together with
+ * the chain's deposit and yellow punish lists (on block commit and rollback), so building a round only touches the data
+ * of its members instead of scanning every deposit and punishment for every agent.
+ * <p>
+ * 委托保留生效高度与退出高度, 查询时按高度过滤; 各索引列表内部保持与原列表一致的相对顺序
+ * Deposits keep their block height and delete height and are filtered by height when queried. Every indexed list keeps
+ * the same relative order as the original list.
+ */
+public class ConsensusStateIndex {
+    /**
+     * key:节点hash, value:该节点的委托列表
+     * key: agent hash, value: deposits of the agent
+     */
+    private final Map<NulsHash, List<Deposit>> depositMap = new HashMap<>();
+
+    /**
+     * key:地址, value:该地址的黄牌记录
+     * key: address, value: yellow punishments of the address
+     */
+    private final Map<ByteArrayWrapper, List<PunishLogPo>> yellowPunishMap = new HashMap<>();
+
+    /**
+     * 用完整的委托列表重建委托索引
+     * Rebuild the deposit index from the complete deposit list
+     */
+    public synchronized void resetDeposits(List<Deposit> depositList) {
+        depositMap.clear();
+        for (Deposit deposit : depositList) {
+            addDeposit(deposit);
+        }
+    }
+
+    public synchronized void addDeposit(Deposit deposit) {
+        depositMap.computeIfAbsent(deposit.getAgentHash(), k -> new ArrayList<>()).add(deposit);
+    }
+
+    /**
+     * 替换交易hash相同的委托
+     * Replace the deposit with the same transaction hash
+     */
+    public synchronized void updateDeposit(Deposit deposit) {
+        List<Deposit> list = depositMap.get(deposit.getAgentHash());
+        if (list == null) {
+            return;
+        }
+        for (int index = 0; index < list.size(); index++) {
+            if (deposit.getTxHash().equals(list.get(index).getTxHash())) {
+                list.set(index, deposit);
+                return;
+            }
+        }
+    }
+
+    public synchronized void removeDeposit(Deposit deposit) {
+        List<Deposit> list = depositMap.get(deposit.getAgentHash());
+        if (list == null) {
+            return;
+        }
+        list.remove(deposit);
+        if (list.isEmpty()) {
+            depositMap.remove(deposit.getAgentHash());
+        }
+    }
+
+    /**
+     * 获取节点在指定高度有效的委托, 顺序与按原列表倒序遍历的结果一致
+     * Get the deposits of an agent that are effective at the given height, in the order of a reverse scan of the original list
+     *
+     * @param agentHash 节点hash/agent hash
+     * @param height    高度/height
+     * @return List<Deposit>
+     */
+    public synchronized List<Deposit> getDepositList(NulsHash agentHash, long height) {
+        List<Deposit> list = depositMap.get(agentHash);
+        if (list == null) {
+            return new ArrayList<>();
+        }
+        List<Deposit> resultList = new ArrayList<>();
+        for (int i = list.size() - 1; i >= 0; i--) {
+            Deposit deposit = list.get(i);
+            if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= height) {
+                continue;
+            }
+            if (deposit.getBlockHeight() > height || deposit.getBlockHeight() < 0L) {
+                continue;
+            }
+            resultList.add(deposit);
+        }
+        return resultList;
+    }
+
+    /**
+     * 用完整的黄牌列表重建黄牌索引
+     * Rebuild the yellow punish index from the complete yellow punish list
+     */
+    public synchronized void resetYellowPunishes(List<PunishLogPo> punishList) {
+        yellowPunishMap.clear();
+        addYellowPunishes(punishList);
+    }
+
+    public synchronized void addYellowPunishes(Collection<PunishLogPo> punishList) {
+        for (PunishLogPo po : punishList) {
+            yellowPunishMap.computeIfAbsent(new ByteArrayWrapper(po.getAddress()), k -> new ArrayList<>()).add(po);
+        }
+    }
+
+    public synchronized void removeYellowPunishes(Collection<PunishLogPo> punishList) {
+        for (PunishLogPo po : punishList) {
+            ByteArrayWrapper key = new ByteArrayWrapper(po.getAddress());
+            List<PunishLogPo> list = yellowPunishMap.get(key);
+            if (list == null) {
+                continue;
+            }
+            list.removeIf(po::equals);
+            if (list.isEmpty()) {
+                yellowPunishMap.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 统计地址在指定轮次区间内的黄牌数量, 达到上限后停止统计
+     * Count the yellow punishments of an address within the round range, stop counting once the limit is reached
+     *
+     * @param address    地址/address
+     * @param roundStart 起始轮次/round start index
+     * @param roundEnd   结束轮次/round end index
+     * @param limit      统计上限/count limit
+     * @return long
+     */
+    public synchronized long getYellowPunishCount(byte[] address, long roundStart, long roundEnd, long limit) {
+        List<PunishLogPo> list = yellowPunishMap.get(new ByteArrayWrapper(address));
+        if (list == null) {
+            return 0;
+        }
+        long count = 0;
+        for (int i = list.size() - 1; i >= 0; i--) {
+            if (count >= limit) {
+                break;
+            }
+            PunishLogPo punish = list.get(i);
+            if (punish.getRoundIndex() > roundEnd) {
+                continue;
+            }
+            if (punish.getRoundIndex() < roundStart) {
+                break;
+            }
+            count++;
+        }
+        return count;
+    }
+}
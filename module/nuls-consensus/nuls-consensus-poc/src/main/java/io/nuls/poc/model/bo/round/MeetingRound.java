@@ -27,12 +27,14 @@ package io.nuls.poc.model.bo.round;
 
 import io.nuls.base.basic.AddressTool;
 import io.nuls.base.data.Address;
+import io.nuls.base.data.NulsHash;
 import io.nuls.core.rpc.model.ApiModel;
 import io.nuls.core.rpc.model.ApiModelProperty;
 import io.nuls.core.rpc.model.TypeDescriptor;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.poc.constant.ConsensusErrorCode;
 import io.nuls.poc.model.bo.Chain;
+import io.nuls.poc.model.bo.tx.txdata.Agent;
 import io.nuls.poc.rpc.call.CallMethodUtils;
 import io.nuls.core.exception.NulsRuntimeException;
 import io.nuls.core.log.Log;
@@ -100,6 +102,12 @@ public class MeetingRound {
      * */
     @ApiModelProperty(description = "当前节点出块信息")
     private MeetingMember myMember;
+    /**
+     * 计算轮次时得到的各节点总委托金额(以创建节点交易hash为key), 轮次成为当前轮次时才更新到链上节点
+     * Total deposits of the agents computed with the round, keyed by the create agent transaction hash.
+     * They are applied to the chain's agents only when the round becomes the current round.
+     * */
+    private Map<NulsHash, BigInteger> agentTotalDeposit;
 
     public MeetingRound getPreRound() {
         return preRound;
@@ -232,6 +240,46 @@ public class MeetingRound {
         return memberList;
     }
 
+    /**
+     * 复制轮次信息, 打包成员列表共享, 上一轮与本地打包成员不复制
+     * Copy the round. The member list is shared, the previous round and the local packing member are not copied.
+     *
+     * @return MeetingRound
+     * */
+    public MeetingRound copy() {
+        MeetingRound round = new MeetingRound();
+        round.totalWeight = totalWeight;
+        round.index = index;
+        round.startTime = startTime;
+        round.endTime = endTime;
+        round.memberCount = memberCount;
+        round.memberList = memberList;
+        round.agentTotalDeposit = agentTotalDeposit;
+        return round;
+    }
+
+    public void setAgentTotalDeposit(Map<NulsHash, BigInteger> agentTotalDeposit) {
+        this.agentTotalDeposit = agentTotalDeposit;
+    }
+
+    /**
+     * 将本轮次计算出的总委托金额更新到链上节点
+     * Apply the total deposits computed with this round to the chain's agents
+     *
+     * @param agentList 链上节点列表/agents of the chain
+     * */
+    public void applyAgentTotalDeposit(List<Agent> agentList) {
+        if (agentTotalDeposit == null || agentList == null) {
+            return;
+        }
+        for (Agent agent : agentList) {
+            BigInteger totalDeposit = agentTotalDeposit.get(agent.getTxHash());
+            if (totalDeposit != null) {
+                agent.setTotalDeposit(totalDeposit);
+            }
+        }
+    }
+
     public MeetingMember getMyMember() {
         return myMember;
     }
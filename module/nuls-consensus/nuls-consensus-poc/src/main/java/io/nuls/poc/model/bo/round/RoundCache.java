@@ -0,0 +1,106 @@
+package io.nuls.poc.model.bo.round;
+
+import io.nuls.base.data.BlockHeader;
+
+import java.util.*;
+
+/**
+ * 轮次计算结果缓存
+ * Cache of computed rounds
+ * <p>
+ * 轮次成员只由轮次下标、轮次开始时间和上一轮次的起始区块决定, 以这三者为key缓存计算结果,
+ * 打包、区块验证与RPC查询再次需要同一轮次时不再重新计算; 区块回滚时删除起始区块被回滚的轮次
+ * The members of a round are determined by the round index, the round start time and the initial block of the
+ * previous round, so computed rounds are cached under these three. Packing, block validation and RPC queries that
+ * need the same round again do not recompute it. On rollback, rounds whose initial block was rolled back are removed.
+ */
+public class RoundCache {
+    private final int capacity;
+
+    private final LinkedHashMap<String, Entry> roundMap;
+
+    /**
+     * 已提交后台预计算的最大轮次下标
+     * The highest round index already submitted for background pre-computation
+     */
+    private long precomputedIndex = -1L;
+
+    public RoundCache(int capacity) {
+        this.capacity = capacity;
+        this.roundMap = new LinkedHashMap<String, Entry>(capacity + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > RoundCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * 获取缓存的轮次, 返回的轮次不包含上一轮与本地打包成员信息, 调用者可以自由修改
+     * Get a cached round. The returned copy has no previous round and no local member and may be modified by the caller.
+     *
+     * @param index            轮次下标/round index
+     * @param startTime        轮次开始时间/round start time
+     * @param startBlockHeader 上一轮次的起始区块/Initial block of the last round
+     * @return MeetingRound, 未缓存时返回null/null when not cached
+     */
+    public synchronized MeetingRound get(long index, long startTime, BlockHeader startBlockHeader) {
+        Entry entry = roundMap.get(getKey(index, startTime, startBlockHeader));
+        if (entry == null) {
+            return null;
+        }
+        return entry.round.copy();
+    }
+
+    /**
+     * 缓存计算出的轮次
+     * Cache a computed round
+     *
+     * @param round            计算出的轮次(不含上一轮与本地打包成员)/the computed round without previous round and local member
+     * @param startBlockHeader 上一轮次的起始区块/Initial block of the last round
+     */
+    public synchronized void put(MeetingRound round, BlockHeader startBlockHeader) {
+        roundMap.put(getKey(round.getIndex(), round.getStartTime(), startBlockHeader), new Entry(round.copy(), startBlockHeader.getHeight()));
+    }
+
+    /**
+     * 标记轮次已提交预计算, 已提交过时返回false
+     * Mark a round index as submitted for pre-computation, returns false if it was already submitted
+     */
+    public synchronized boolean markPrecompute(long index) {
+        if (index <= precomputedIndex) {
+            return false;
+        }
+        precomputedIndex = index;
+        return true;
+    }
+
+    /**
+     * 区块回滚到指定高度(不含)时, 删除起始区块高度不小于该高度的轮次
+     * When blocks from the given height on are rolled back, remove the rounds whose initial block is at or above it
+     *
+     * @param height 回滚到的高度/rollback height
+     */
+    public synchronized void rollback(long height) {
+        roundMap.values().removeIf(entry -> entry.startHeight >= height);
+        precomputedIndex = -1L;
+    }
+
+    public synchronized int size() {
+        return roundMap.size();
+    }
+
+    private String getKey(long index, long startTime, BlockHeader startBlockHeader) {
+        return index + "_" + startTime + "_" + startBlockHeader.getHash().toHex();
+    }
+
+    private static class Entry {
+        private final MeetingRound round;
+        private final long startHeight;
+
+        private Entry(MeetingRound round, long startHeight) {
+            this.round = round;
+            this.startHeight = startHeight;
+        }
+    }
+}
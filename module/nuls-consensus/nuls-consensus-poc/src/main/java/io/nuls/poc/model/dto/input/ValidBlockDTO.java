@@ -11,6 +11,11 @@ public class ValidBlockDTO {
     private int chainId;
     private int download;
     private String block;
+    /**
+     * 区块模块已完成默克尔根与区块签名验证
+     * The block module already verified the merkle root and the block signature
+     */
+    private boolean preVerified;
 
     public int getChainId() {
         return chainId;
@@ -35,4 +40,12 @@ public class ValidBlockDTO {
     public void setBlock(String block) {
         this.block = block;
     }
+
+    public boolean isPreVerified() {
+        return preVerified;
+    }
+
+    public void setPreVerified(boolean preVerified) {
+        this.preVerified = preVerified;
+    }
 }
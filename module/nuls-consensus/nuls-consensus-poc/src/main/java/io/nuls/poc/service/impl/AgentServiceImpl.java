@@ -46,6 +46,7 @@ import io.nuls.poc.utils.manager.AgentManager;
 import io.nuls.poc.utils.manager.ChainManager;
 import io.nuls.poc.utils.manager.CoinDataManager;
 import io.nuls.poc.utils.manager.RoundManager;
+import io.nuls.poc.utils.manager.SchedulerManager;
 import io.nuls.poc.utils.validator.TxValidator;
 
 import java.io.IOException;
@@ -80,6 +81,9 @@ public class AgentServiceImpl implements AgentService {
     @Autowired
     private RoundManager roundManager;
 
+    @Autowired
+    private SchedulerManager schedulerManager;
+
     /**
      * 创建节点
      */
@@ -457,6 +461,7 @@ public class AgentServiceImpl implements AgentService {
             return Result.getFailed(ConsensusErrorCode.CHAIN_NOT_EXIST);
         }
         chain.setConsensusStatus(ConsensusStatus.RUNNING);
+        schedulerManager.wakeUp(chain);
         chain.getLogger().info("updateAgentConsensusStatus-修改节点共识状态成功......");
         return Result.getSuccess(ConsensusErrorCode.SUCCESS);
     }
@@ -480,6 +485,7 @@ public class AgentServiceImpl implements AgentService {
         }
         if (status == 1) {
             chain.setCanPacking(true);
+            schedulerManager.wakeUp(chain);
             chain.getLogger().info("updateAgentStatus--节点打包状态修改成功，修改后状态为：可打包状态");
         } else {
             chain.setCanPacking(false);
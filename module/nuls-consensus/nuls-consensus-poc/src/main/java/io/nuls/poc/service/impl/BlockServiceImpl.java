@@ -160,7 +160,7 @@ public class BlockServiceImpl implements BlockService {
         try {
             Block block = new Block();
             block.parse(new NulsByteBuffer(RPCUtil.decode(blockHex)));
-            blockValidator.validate(isDownload, chain, block);
+            blockValidator.validate(isDownload, chain, block, dto.isPreVerified());
             Response response = CallMethodUtils.verify(chainId, block.getTxs(), block.getHeader(), chain.getNewestHeader(), chain.getLogger());
             if (response.isSuccess()) {
                 Map responseData = (Map) response.getResponseData();
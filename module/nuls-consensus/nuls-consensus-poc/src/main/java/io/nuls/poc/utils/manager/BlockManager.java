@@ -27,6 +27,9 @@ public class BlockManager {
     @Autowired
     private PunishManager punishManager;
 
+    @Autowired
+    private SchedulerManager schedulerManager;
+
     /**
      * 收到最新区块头，更新链区块缓存数据
      * Receive the latest block header, update the chain block cache entity
@@ -64,6 +67,10 @@ public class BlockManager {
         chain.getLogger().info("区块保存，高度为：" + blockHeader.getHeight() + " , txCount: " + blockHeader.getTxCount() + ",本地最新区块高度为：" + chain.getNewestHeader().getHeight() + ", 轮次:" + receiveExtendsData.getRoundIndex());
         //清除已经缓存了的比本节点轮次大的轮次信息
         roundManager.clearRound(chain,receiveRoundIndex);
+        //后台预先计算下一轮次
+        roundManager.precomputeNextRound(chain, blockHeader);
+        //唤醒共识任务, 等待上一节点出块的打包任务可立即开始
+        schedulerManager.wakeUp(chain);
     }
 
     /**
@@ -75,6 +82,8 @@ public class BlockManager {
      */
     public void chainRollBack(Chain chain, int height) {
         chain.getLogger().info("区块开始回滚，回滚到的高度：" + height);
+        //删除起始区块被回滚的轮次缓存
+        chain.getRoundCache().rollback(height);
         List<BlockHeader> headerList = chain.getBlockHeaderList();
         headerList.sort(new BlockHeaderComparator());
         BlockHeader originalBlocHeader = chain.getNewestHeader();
@@ -116,5 +125,6 @@ public class BlockManager {
             roundManager.rollBackRound(chain, roundIndex);
         }
         chain.getLogger().info("区块回滚成功，回滚到的高度为：" + height + ",本地最新区块高度为：" + chain.getNewestHeader().getHeight());
+        schedulerManager.wakeUp(chain);
     }
 }
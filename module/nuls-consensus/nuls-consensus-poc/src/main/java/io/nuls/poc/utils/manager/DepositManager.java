@@ -45,6 +45,7 @@ public class DepositManager {
         }
         Collections.sort(allDepositList, new DepositComparator());
         chain.setDepositList(allDepositList);
+        chain.getStateIndex().resetDeposits(allDepositList);
     }
 
     /**
@@ -56,6 +57,7 @@ public class DepositManager {
      */
     public void addDeposit(Chain chain, Deposit deposit) {
         chain.getDepositList().add(deposit);
+        chain.getStateIndex().addDeposit(deposit);
     }
 
     /**
@@ -69,11 +71,13 @@ public class DepositManager {
         List<Deposit> depositList = chain.getDepositList();
         if (depositList.size() == 0) {
             depositList.add(deposit);
+            chain.getStateIndex().addDeposit(deposit);
             return;
         }
         for (int index = 0; index < depositList.size(); index++) {
             if (deposit.getTxHash().equals(depositList.get(index).getTxHash())) {
                 depositList.set(index, deposit);
+                chain.getStateIndex().updateDeposit(deposit);
                 break;
             }
         }
@@ -94,6 +98,7 @@ public class DepositManager {
         for (Deposit deposit : depositList) {
             if (txHash.equals(deposit.getTxHash())) {
                 depositList.remove(deposit);
+                chain.getStateIndex().removeDeposit(deposit);
                 return;
             }
         }
@@ -89,6 +89,7 @@ public class PunishManager {
         Collections.sort(yellowPunishList, new PunishLogComparator());
         chain.setRedPunishList(redPunishList);
         chain.setYellowPunishList(yellowPunishList);
+        chain.getStateIndex().resetYellowPunishes(yellowPunishList);
     }
 
     /**
@@ -102,13 +103,16 @@ public class PunishManager {
         BlockExtendsData roundData = blockHeader.getExtendsData();
         Iterator <PunishLogPo> iterator = chain.getYellowPunishList().iterator();
         long minRound = roundData.getRoundIndex() - ConsensusConstant.INIT_PUNISH_OF_ROUND_COUNT;
+        List<PunishLogPo> removedList = new ArrayList<>();
         while (iterator.hasNext()){
             PunishLogPo punishLogPo = iterator.next();
             if(punishLogPo.getRoundIndex() >= minRound){
                 break;
             }
             iterator.remove();
+            removedList.add(punishLogPo);
         }
+        chain.getStateIndex().removeYellowPunishes(removedList);
     }
 
     /**
@@ -777,6 +781,7 @@ public class PunishManager {
             }
         }
         chain.getYellowPunishList().addAll(savedList);
+        chain.getStateIndex().addYellowPunishes(savedList);
         return true;
     }
 
@@ -809,6 +814,7 @@ public class PunishManager {
             deleteIndex++;
         }
         chain.getYellowPunishList().removeAll(deletedList);
+        chain.getStateIndex().removeYellowPunishes(deletedList);
         return true;
     }
 
@@ -6,7 +6,7 @@ import io.nuls.base.data.BlockHeader;
 import io.nuls.base.data.NulsHash;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.exception.NulsException;
-import io.nuls.core.log.Log;
+import io.nuls.core.model.ByteArrayWrapper;
 import io.nuls.core.model.DoubleUtils;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.rpc.util.NulsDateUtils;
@@ -16,13 +16,11 @@ import io.nuls.poc.model.bo.round.MeetingMember;
 import io.nuls.poc.model.bo.round.MeetingRound;
 import io.nuls.poc.model.bo.tx.txdata.Agent;
 import io.nuls.poc.model.bo.tx.txdata.Deposit;
-import io.nuls.poc.model.po.PunishLogPo;
 import io.nuls.poc.rpc.call.CallMethodUtils;
-import io.nuls.poc.utils.enumeration.PunishType;
 
-import java.io.IOException;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 /**
  * 轮次信息管理类
@@ -51,6 +49,11 @@ public class RoundManager {
             meetingRound.setPreRound(roundList.get(roundList.size() - 1));
         }
         roundList.add(meetingRound);
+        /*
+        轮次成为当前轮次时才将计算出的总委托金额更新到链上节点
+        Only apply the computed total deposits to the chain's agents once the round becomes the current round
+        */
+        meetingRound.applyAgentTotalDeposit(chain.getAgentList());
         if (roundList.size() > ConsensusConstant.ROUND_CACHE_COUNT) {
             roundList.get(0).setPreRound(null);
             roundList.remove(0);
@@ -232,11 +235,11 @@ public class RoundManager {
             MeetingRound round = getCurrentRound(chain);
             if (isRealTime) {
                 /*
-                如果本地最新轮次为空或本地最新轮次打包结束时间小于当前时间则需要计算下一轮次信息
-                If the local latest round is empty or the local latest round is packaged less than the current time,
+                如果本地最新轮次为空或本地最新轮次打包结束时间不大于当前时间则需要计算下一轮次信息
+                If the local latest round is empty or the local latest round is packaged no later than the current time,
                 the next round of information needs to be calculated.
                 */
-                if (round == null || round.getEndTime() < NulsDateUtils.getCurrentTimeSeconds()) {
+                if (round == null || round.getEndTime() <= NulsDateUtils.getCurrentTimeSeconds()) {
                     MeetingRound nextRound = getRound(chain, null, true);
                     nextRound.setPreRound(round);
                     addRound(chain, nextRound);
@@ -430,10 +433,10 @@ public class RoundManager {
      */
     @SuppressWarnings("unchecked")
     private MeetingRound calculationRound(Chain chain, BlockHeader startBlockHeader, long index, long startTime) throws Exception {
-        MeetingRound round = new MeetingRound();
-        round.setIndex(index);
-        round.setStartTime(startTime);
-        setMemberList(chain, round, startBlockHeader);
+        MeetingRound round = chain.getRoundCache().get(index, startTime, startBlockHeader);
+        if (round == null) {
+            round = buildRound(chain, startBlockHeader, index, startTime);
+        }
         List<byte[]> packingAddressList = CallMethodUtils.getEncryptedAddressList(chain);
         if (!packingAddressList.isEmpty()) {
             round.calcLocalPacker(packingAddressList, chain);
@@ -443,6 +446,67 @@ public class RoundManager {
         return round;
     }
 
+    /**
+     * 计算轮次成员并放入轮次缓存
+     * Compute the members of a round and put the round into the round cache
+     *
+     * @param chain            chain info
+     * @param startBlockHeader 上一轮次的起始区块/Initial blocks of the last round
+     * @param index            轮次下标/round index
+     * @param startTime        轮次开始打包时间/start time
+     */
+    private MeetingRound buildRound(Chain chain, BlockHeader startBlockHeader, long index, long startTime) throws NulsException {
+        MeetingRound round = new MeetingRound();
+        round.setIndex(index);
+        round.setStartTime(startTime);
+        setMemberList(chain, round, startBlockHeader);
+        chain.getRoundCache().put(round, startBlockHeader);
+        return round;
+    }
+
+    /**
+     * 在后台预先计算下一轮次
+     * Compute the next round in the background
+     * <p>
+     * 下一轮次的成员由本轮第一个区块(或上一轮最后一个区块)之前的数据决定, 收到本轮区块后即可计算,
+     * 轮次切换时打包与区块验证直接使用缓存结果
+     * The members of the next round only depend on the data up to the first block of the current round (or the last
+     * block of the previous round), so the next round can be computed as soon as a block of the current round is
+     * received. Packing and block validation then use the cached round when the round changes.
+     *
+     * @param chain       chain info
+     * @param blockHeader 最新区块头/the newest block header
+     */
+    public void precomputeNextRound(Chain chain, BlockHeader blockHeader) {
+        ScheduledThreadPoolExecutor executor = chain.getScheduledThreadPoolExecutor();
+        if (executor == null || blockHeader.getHeight() == 0L) {
+            return;
+        }
+        BlockExtendsData extendsData = blockHeader.getExtendsData();
+        long index = extendsData.getRoundIndex() + 1;
+        long startTime = extendsData.getRoundEndTime(chain.getConfig().getPackingInterval());
+        /*
+        同步历史区块时下一轮早已开始, 不需要预计算
+        When syncing old blocks the next round has long started, no need to compute it in advance
+        */
+        if (startTime < NulsDateUtils.getCurrentTimeSeconds() || !chain.getRoundCache().markPrecompute(index)) {
+            return;
+        }
+        executor.execute(() -> {
+            chain.getRoundLock().lock();
+            try {
+                BlockHeader startBlockHeader = getFirstBlockOfPreRound(chain, index);
+                if (chain.getRoundCache().get(index, startTime, startBlockHeader) == null) {
+                    buildRound(chain, startBlockHeader, index, startTime);
+                }
+            } catch (Exception e) {
+                chain.getLogger().warn("precompute round fail, index:" + index, e);
+            } finally {
+                chain.getRoundLock().unlock();
+            }
+        });
+    }
+
     /**
      * 设置轮次中打包节点信息
      * Setting Packing Node Information in Rounds
@@ -453,6 +517,7 @@ public class RoundManager {
      */
     private void setMemberList(Chain chain, MeetingRound round, BlockHeader startBlockHeader) throws NulsException {
         List<MeetingMember> memberList = new ArrayList<>();
+        Map<NulsHash, BigInteger> agentTotalDeposit = new HashMap<>();
         String seedNodesStr = chain.getConfig().getSeedNodes();
         String[] seedNodes;
         /*
@@ -477,27 +542,25 @@ public class RoundManager {
             }
         }
         List<Agent> agentList = getAliveAgentList(chain, startBlockHeader.getHeight());
+        /*
+        信誉值统计区间内各地址的出块数只统计一次
+        Count the blocks of every packing address in the credit range once for all members
+        */
+        Map<ByteArrayWrapper, Long> blockCountMap = null;
         for (Agent agent : agentList) {
-            Agent realAgent = new Agent();
-            try {
-                realAgent.parse(agent.serialize(), 0);
-                realAgent.setTxHash(agent.getTxHash());
-            } catch (IOException io) {
-                Log.error(io);
-                return;
-            }
+            Agent realAgent = copyAgent(agent);
             MeetingMember member = new MeetingMember();
             member.setRoundStartTime(round.getStartTime());
             /*
             获取节点委托信息，用于计算节点总的委托金额
             Get the node delegation information for calculating the total amount of the node delegation
             */
-            List<Deposit> cdList = getDepositListByAgentId(chain, realAgent.getTxHash(), startBlockHeader.getHeight());
+            List<Deposit> cdList = chain.getStateIndex().getDepositList(realAgent.getTxHash(), startBlockHeader.getHeight());
             BigInteger totalDeposit = BigInteger.ZERO;
             for (Deposit dtx : cdList) {
                 totalDeposit = totalDeposit.add(dtx.getDeposit());
             }
-            agent.setTotalDeposit(totalDeposit);
+            agentTotalDeposit.put(realAgent.getTxHash(), totalDeposit);
             realAgent.setTotalDeposit(totalDeposit);
             member.setDepositList(cdList);
             member.setRoundIndex(round.getIndex());
@@ -508,39 +571,34 @@ public class RoundManager {
             */
             boolean isItIn = realAgent.getTotalDeposit().compareTo(chain.getConfig().getCommissionMin()) >= 0 ? true : false;
             if (isItIn) {
-                realAgent.setCreditVal(calcCreditVal(chain, member, startBlockHeader));
+                if (blockCountMap == null) {
+                    blockCountMap = getBlockCountMap(chain, startBlockHeader);
+                }
+                realAgent.setCreditVal(calcCreditVal(chain, member, startBlockHeader, blockCountMap));
                 memberList.add(member);
             }
         }
         round.init(memberList, chain);
+        round.setAgentTotalDeposit(agentTotalDeposit);
     }
 
     /**
-     * 获取节点的委托信息
-     * Obtaining delegation information of nodes
+     * 复制节点的序列化字段与交易hash, 作为本轮次的打包成员信息, 高度等其他字段保持默认值
+     * Copy the serialized fields and the transaction hash of an agent for the round member,
+     * all other fields such as heights keep their default values
      *
-     * @param chain            chain info
-     * @param agentHash        节点ID/agent hash
-     * @param startBlockHeight 上一轮次的起始区块高度/Initial blocks of the last round
-     * @return List<Deposit>
+     * @param agent 节点信息/agent info
+     * @return Agent
      */
-    private List<Deposit> getDepositListByAgentId(Chain chain, NulsHash agentHash, long startBlockHeight) {
-        List<Deposit> depositList = chain.getDepositList();
-        List<Deposit> resultList = new ArrayList<>();
-        for (int i = depositList.size() - 1; i >= 0; i--) {
-            Deposit deposit = depositList.get(i);
-            if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= startBlockHeight) {
-                continue;
-            }
-            if (deposit.getBlockHeight() > startBlockHeight || deposit.getBlockHeight() < 0L) {
-                continue;
-            }
-            if (!deposit.getAgentHash().equals(agentHash)) {
-                continue;
-            }
-            resultList.add(deposit);
-        }
-        return resultList;
+    private Agent copyAgent(Agent agent) {
+        Agent realAgent = new Agent();
+        realAgent.setAgentAddress(agent.getAgentAddress());
+        realAgent.setPackingAddress(agent.getPackingAddress());
+        realAgent.setRewardAddress(agent.getRewardAddress());
+        realAgent.setDeposit(agent.getDeposit());
+        realAgent.setCommissionRate(agent.getCommissionRate());
+        realAgent.setTxHash(agent.getTxHash());
+        return realAgent;
     }
 
     /**
@@ -577,18 +635,15 @@ public class RoundManager {
      * @param blockHeader 区块头/block header
      * @return double
      */
-    private double calcCreditVal(Chain chain, MeetingMember member, BlockHeader blockHeader) throws NulsException {
+    private double calcCreditVal(Chain chain, MeetingMember member, BlockHeader blockHeader, Map<ByteArrayWrapper, Long> blockCountMap) {
         BlockExtendsData roundData = blockHeader.getExtendsData();
-        long roundStart = roundData.getRoundIndex() - ConsensusConstant.RANGE_OF_CAPACITY_COEFFICIENT;
-        if (roundStart < 0) {
-            roundStart = 0;
-        }
+        long roundStart = getCreditRoundStart(roundData);
         /*
         信誉值计算是通过限定轮次内节点出块数与黄牌数计算出的
         Credit value is calculated by limiting the number of blocks and yellow cards of nodes in rounds.
         */
-        long blockCount = getBlockCountByAddress(chain, member.getAgent().getPackingAddress(), roundStart, roundData.getRoundIndex() - 1);
-        long sumRoundVal = getPunishCountByAddress(chain, member.getAgent().getAgentAddress(), roundStart, roundData.getRoundIndex() - 1, PunishType.YELLOW.getCode());
+        long blockCount = blockCountMap.getOrDefault(new ByteArrayWrapper(member.getAgent().getPackingAddress()), 0L);
+        long sumRoundVal = getYellowPunishCount(chain, member.getAgent().getAgentAddress(), roundStart, roundData.getRoundIndex() - 1);
         double ability = DoubleUtils.div(blockCount, ConsensusConstant.RANGE_OF_CAPACITY_COEFFICIENT);
         /*double penalty = DoubleUtils.div(DoubleUtils.mul(ConsensusConstant.CREDIT_MAGIC_NUM, sumRoundVal),
                 DoubleUtils.mul(ConsensusConstant.RANGE_OF_CAPACITY_COEFFICIENT, ConsensusConstant.RANGE_OF_CAPACITY_COEFFICIENT));*/
@@ -597,39 +652,26 @@ public class RoundManager {
         return DoubleUtils.round(DoubleUtils.sub(ability, penalty), 4);
     }
 
+    private long getCreditRoundStart(BlockExtendsData roundData) {
+        long roundStart = roundData.getRoundIndex() - ConsensusConstant.RANGE_OF_CAPACITY_COEFFICIENT;
+        if (roundStart < 0) {
+            roundStart = 0;
+        }
+        return roundStart;
+    }
+
     /**
-     * 获取指定地址获得的红黄牌惩罚数量
-     * Get the number of red and yellow card penalties for the specified address
+     * 获取指定地址获得的黄牌惩罚数量
+     * Get the number of yellow card penalties for the specified address
      *
      * @param chain      chain info
      * @param address    地址/address
      * @param roundStart 起始轮次/round start index
      * @param roundEnd   结束轮次/round end index
-     * @param code       红黄牌标识/Red and yellow logo
      * @return long
      */
-    private long getPunishCountByAddress(Chain chain, byte[] address, long roundStart, long roundEnd, int code) throws NulsException {
-        long count = 0;
-        List<PunishLogPo> punishList = chain.getYellowPunishList();
-        if (code == PunishType.RED.getCode()) {
-            punishList = chain.getRedPunishList();
-        }
-        for (int i = punishList.size() - 1; i >= 0; i--) {
-            if (count >= ConsensusConstant.CREDIT_MAGIC_NUM) {
-                break;
-            }
-            PunishLogPo punish = punishList.get(i);
-
-            if (punish.getRoundIndex() > roundEnd) {
-                continue;
-            }
-            if (punish.getRoundIndex() < roundStart) {
-                break;
-            }
-            if (Arrays.equals(punish.getAddress(), address)) {
-                count++;
-            }
-        }
+    private long getYellowPunishCount(Chain chain, byte[] address, long roundStart, long roundEnd) {
+        long count = chain.getStateIndex().getYellowPunishCount(address, roundStart, roundEnd, ConsensusConstant.CREDIT_MAGIC_NUM);
         /*
         每一轮的惩罚都有可能包含上一轮次的惩罚记录，即计算从a到a+99轮的惩罚记录时，a轮的惩罚中可能是惩罚某个地址在a-1轮未出块，导致100轮最多可能有101个惩罚记录，在这里处理下
         Each round of punishment is likely to contain a rounds punishment record, calculated from a to a + 99 rounds of punishment record,
@@ -703,31 +745,32 @@ public class RoundManager {
     }
 
     /**
-     * 获取地址出块数量
-     * Get the number of address blocks
+     * 统计信誉值计算区间内各打包地址的出块数量
+     * Count the blocks of every packing address within the credit value range
      *
-     * @param chain          chain info
-     * @param packingAddress 出块地址
-     * @param roundStart     起始轮次
-     * @param roundEnd       结束轮次
+     * @param chain       chain info
+     * @param blockHeader 上一轮次的起始区块/Initial blocks of the last round
+     * @return key:打包地址/packing address, value:出块数量/block count
      */
-    private long getBlockCountByAddress(Chain chain, byte[] packingAddress, long roundStart, long roundEnd) {
-        long count = 0;
+    private Map<ByteArrayWrapper, Long> getBlockCountMap(Chain chain, BlockHeader blockHeader) {
+        BlockExtendsData extendsData = blockHeader.getExtendsData();
+        long roundStart = getCreditRoundStart(extendsData);
+        long roundEnd = extendsData.getRoundIndex() - 1;
+        int chainId = chain.getConfig().getChainId();
+        Map<ByteArrayWrapper, Long> countMap = new HashMap<>(ConsensusConstant.INIT_CAPACITY);
         List<BlockHeader> blockHeaderList = chain.getBlockHeaderList();
         for (int i = blockHeaderList.size() - 1; i >= 0; i--) {
-            BlockHeader blockHeader = blockHeaderList.get(i);
-            BlockExtendsData roundData = blockHeader.getExtendsData();
+            BlockHeader header = blockHeaderList.get(i);
+            BlockExtendsData roundData = header.getExtendsData();
             if (roundData.getRoundIndex() > roundEnd) {
                 continue;
             }
             if (roundData.getRoundIndex() < roundStart) {
                 break;
             }
-            if (Arrays.equals(blockHeader.getPackingAddress(chain.getConfig().getChainId()), packingAddress)) {
-                count++;
-            }
+            countMap.merge(new ByteArrayWrapper(header.getPackingAddress(chainId)), 1L, Long::sum);
         }
-        return count;
+        return countMap;
     }
 
 
@@ -7,8 +7,9 @@ import io.nuls.core.core.annotation.Component;
 import io.nuls.core.thread.ThreadUtils;
 import io.nuls.core.thread.commom.NulsThreadFactory;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 /**
  * 共识模块任务管理器
@@ -19,6 +20,8 @@ import java.util.concurrent.TimeUnit;
  * */
 @Component
 public class SchedulerManager {
+    private final Map<Integer, ConsensusProcessTask> consensusTaskMap = new ConcurrentHashMap<>();
+
     /**
      * 创建一条链的任务
      * The task of creating a chain
@@ -33,7 +36,22 @@ public class SchedulerManager {
         Chain-related tasks
         */
         ConsensusProcess consensusProcess = new ConsensusProcess();
-        scheduledThreadPoolExecutor.scheduleAtFixedRate(new ConsensusProcessTask(chain,consensusProcess),1000L,100L, TimeUnit.MILLISECONDS);
+        ConsensusProcessTask consensusProcessTask = new ConsensusProcessTask(chain, consensusProcess, scheduledThreadPoolExecutor);
+        consensusTaskMap.put(chainId, consensusProcessTask);
+        consensusProcessTask.start(1000L);
         chain.setScheduledThreadPoolExecutor(scheduledThreadPoolExecutor);
     }
+
+    /**
+     * 立即唤醒链的共识任务(收到新区块、区块回滚、打包状态变化时调用)
+     * Wake up the consensus task of a chain at once (on new blocks, rollbacks and packing state changes)
+     *
+     * @param chain chain info
+     * */
+    public void wakeUp(Chain chain){
+        ConsensusProcessTask consensusProcessTask = consensusTaskMap.get(chain.getConfig().getChainId());
+        if(consensusProcessTask != null){
+            consensusProcessTask.wakeUp();
+        }
+    }
 }
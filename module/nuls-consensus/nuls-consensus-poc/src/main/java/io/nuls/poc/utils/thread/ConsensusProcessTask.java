@@ -25,13 +25,24 @@
  */
 package io.nuls.poc.utils.thread;
 
+import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.poc.constant.ConsensusConstant;
 import io.nuls.poc.model.bo.Chain;
 import io.nuls.poc.utils.thread.process.ConsensusProcess;
 
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 共识任务
  * Consensus task
+ * <p>
+ * 每次执行后按共识处理器返回的网络时间点重新调度自己, 出块时间点到达时准时唤醒, 不再固定频率轮询;
+ * 收到新区块、区块回滚或打包状态变化时可立即唤醒; 同一时刻只有一个共识处理在执行
+ * After every run the task schedules itself at the network time returned by the consensus processor, so it wakes
+ * exactly at slot boundaries instead of polling at a fixed rate. New blocks, rollbacks and packing state changes wake
+ * it up at once. At most one consensus run executes at any time.
  *
  * @author tag
  * 2018/11/15
@@ -40,18 +51,90 @@ public class ConsensusProcessTask implements Runnable {
 
     private ConsensusProcess consensusProcess;
     private Chain chain;
+    private ScheduledThreadPoolExecutor executor;
+
+    private ScheduledFuture<?> future;
+    /**
+     * 下一次计划唤醒的网络时间(毫秒)
+     * Network time (ms) of the next planned wake-up
+     */
+    private long wakeTime;
+    private boolean running;
+    private boolean wakeUpPending;
 
-    public ConsensusProcessTask(Chain chain,ConsensusProcess consensusProcess) {
+    public ConsensusProcessTask(Chain chain, ConsensusProcess consensusProcess, ScheduledThreadPoolExecutor executor) {
         this.chain = chain;
         this.consensusProcess = consensusProcess;
+        this.executor = executor;
+    }
+
+    /**
+     * 在指定延迟后开始调度
+     * Start scheduling after the given delay
+     *
+     * @param delay 延迟(毫秒)/delay in ms
+     */
+    public synchronized void start(long delay) {
+        schedule(NulsDateUtils.getCurrentTimeMillis() + delay);
+    }
+
+    /**
+     * 立即唤醒, 正在执行时在本次执行结束后立即再执行一次
+     * Wake up at once. If a run is in progress, run again right after it finishes.
+     */
+    public synchronized void wakeUp() {
+        if (running) {
+            wakeUpPending = true;
+            return;
+        }
+        schedule(NulsDateUtils.getCurrentTimeMillis());
     }
 
     @Override
     public void run() {
+        long plannedTime;
+        synchronized (this) {
+            if (running) {
+                wakeUpPending = true;
+                return;
+            }
+            running = true;
+            wakeUpPending = false;
+            plannedTime = wakeTime;
+        }
+        long nextWakeTime = 0L;
         try {
-            consensusProcess.process(chain);
+            long wakeDelay = NulsDateUtils.getCurrentTimeMillis() - plannedTime;
+            if (chain.getLogger().getLogger().isDebugEnabled()) {
+                chain.getLogger().debug("consensus wake-up delay: " + wakeDelay + "ms");
+            }
+            nextWakeTime = consensusProcess.process(chain);
         } catch (Exception e) {
             chain.getLogger().error(e.getMessage());
+        } finally {
+            synchronized (this) {
+                running = false;
+                long now = NulsDateUtils.getCurrentTimeMillis();
+                if (wakeUpPending) {
+                    nextWakeTime = now;
+                } else if (nextWakeTime <= 0L) {
+                    nextWakeTime = now + ConsensusConstant.CONSENSUS_IDLE_INTERVAL;
+                }
+                wakeUpPending = false;
+                schedule(nextWakeTime);
+            }
+        }
+    }
+
+    private void schedule(long time) {
+        if (future != null) {
+            future.cancel(false);
+        }
+        if (executor.isShutdown()) {
+            return;
         }
+        wakeTime = time;
+        long delay = Math.max(0L, time - NulsDateUtils.getCurrentTimeMillis());
+        future = executor.schedule(this, delay, TimeUnit.MILLISECONDS);
     }
 }
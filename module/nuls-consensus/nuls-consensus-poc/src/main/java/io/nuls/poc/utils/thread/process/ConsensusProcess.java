@@ -41,21 +41,40 @@ public class ConsensusProcess {
     private RoundManager roundManager = SpringLiteContext.getBean(RoundManager.class);
     private RandomSeedsStorageService randomSeedsStorageService = SpringLiteContext.getBean(RandomSeedsStorageService.class);
 
+    /**
+     * 等待上一节点出块的最长时间占出块间隔的百分比
+     * Longest wait for the previous node's block, as a percentage of the packing interval
+     */
+    private static final int WAIT_RATIO = 60;
+
     private NulsLogger consensusLogger;
 
-    private boolean hasPacking;
+    /**
+     * 已打包的出块时间段的结束时间(毫秒), 防止同一时间段重复打包
+     * End time (ms) of the slot already packed, so the same slot is never packed twice
+     */
+    private long packedSlotEndTime;
 
-    public void process(Chain chain) {
+    /**
+     * 执行一次共识处理
+     * Run the consensus processing once
+     *
+     * @param chain chain info
+     * @return 下一次需要唤醒的网络时间(毫秒)/network time (ms) of the next wake-up
+     */
+    public long process(Chain chain) {
+        long idleWakeTime = NulsDateUtils.getCurrentTimeMillis() + ConsensusConstant.CONSENSUS_IDLE_INTERVAL;
         try {
             boolean canPackage = checkCanPackage(chain);
             if (!canPackage) {
-                return;
+                return idleWakeTime;
             }
             consensusLogger = chain.getLogger();
-            doWork(chain);
+            return doWork(chain, idleWakeTime);
         } catch (Exception e) {
             chain.getLogger().error(e);
         }
+        return idleWakeTime;
     }
 
     /**
@@ -85,13 +104,13 @@ public class ConsensusProcess {
     }
 
 
-    private void doWork(Chain chain) throws Exception {
+    private long doWork(Chain chain, long idleWakeTime) throws Exception {
         /*
         检查节点状态
         Check node status
         */
         if (chain.getConsensusStatus().ordinal() < ConsensusStatus.RUNNING.ordinal()) {
-            return;
+            return idleWakeTime;
         }
 
         /*
@@ -100,48 +119,62 @@ public class ConsensusProcess {
          */
         MeetingRound round = roundManager.resetRound(chain, true);
         if (round == null) {
-            return;
+            return idleWakeTime;
         }
+        long now = NulsDateUtils.getCurrentTimeMillis();
+        long roundEndTime = round.getEndTime() * 1000;
+        /*
+        本轮结束时需要重新计算轮次
+        The round has to be recalculated when it ends
+        */
+        long roundWakeTime = roundEndTime > now ? roundEndTime : idleWakeTime;
         MeetingMember member = round.getMyMember();
         if (member == null) {
-            return;
+            return roundWakeTime;
         }
 
         /*
         如果是共识节点则判断是否轮到自己出块
-        1.节点是否正在打包
+        1.节点是否已在该时间段打包
         2.当前时间是否处于节点打包开始时间和结束时间之间
         If it's a consensus node, it's time to decide whether it's your turn to come out of the block.
-        1. Is the node packing?
+        1. Has the node already packed in this slot?
         2. Is the current time between the start and end of the node packing?
         */
-        if (!hasPacking && member.getPackStartTime() < NulsDateUtils.getCurrentTimeSeconds() && member.getPackEndTime() > NulsDateUtils.getCurrentTimeSeconds()) {
-            hasPacking = true;
-            try {
-                if (consensusLogger.getLogger().isDebugEnabled()) {
-                    consensusLogger.debug("当前网络时间： " + NulsDateUtils.convertDate(new Date(NulsDateUtils.getCurrentTimeMillis())) + " , 我的打包开始时间: " +
-                            NulsDateUtils.convertDate(new Date(member.getPackStartTime() * 1000)) + " , 我的打包结束时间: " +
-                            NulsDateUtils.convertDate(new Date(member.getPackEndTime() * 1000)) + " , 当前轮开始时间: " +
-                            NulsDateUtils.convertDate(new Date(round.getStartTime() * 1000)) + " , 当前轮结束开始时间: " +
-                            NulsDateUtils.convertDate(new Date(round.getEndTime() * 1000)));
-                }
-                packing(chain, member, round);
-            } catch (Exception e) {
-                consensusLogger.error(e);
-            }
-            while (member.getPackEndTime() > NulsDateUtils.getCurrentTimeSeconds()) {
-                try {
-                    Thread.sleep(500L);
-                } catch (InterruptedException e) {
-                    consensusLogger.error(e);
-                }
+        long packStartTime = member.getPackStartTime() * 1000;
+        long packEndTime = member.getPackEndTime() * 1000;
+        if (now < packStartTime) {
+            return packStartTime;
+        }
+        if (now >= packEndTime || packedSlotEndTime == packEndTime) {
+            return roundWakeTime;
+        }
+        /*
+        如果本地最新区块不是本轮次中上一节点所出, 等待一定时间, 期间收到新区块会立即唤醒
+        If the latest local block is not from the previous node of this round, wait for a while; a new block wakes the task at once
+        */
+        long waitEndTime = packStartTime + chain.getConfig().getPackingInterval() * 1000 * WAIT_RATIO / ConsensusConstant.VALUE_OF_ONE_HUNDRED;
+        if (now < waitEndTime && !hasReceiveNewestBlock(chain, member, round)) {
+            return waitEndTime;
+        }
+        packedSlotEndTime = packEndTime;
+        try {
+            consensusLogger.info("packing start, slot start delay: " + (now - packStartTime) + "ms");
+            if (consensusLogger.getLogger().isDebugEnabled()) {
+                consensusLogger.debug("当前网络时间： " + NulsDateUtils.convertDate(new Date(now)) + " , 我的打包开始时间: " +
+                        NulsDateUtils.convertDate(new Date(packStartTime)) + " , 我的打包结束时间: " +
+                        NulsDateUtils.convertDate(new Date(packEndTime)) + " , 当前轮开始时间: " +
+                        NulsDateUtils.convertDate(new Date(round.getStartTime() * 1000)) + " , 当前轮结束开始时间: " +
+                        NulsDateUtils.convertDate(new Date(roundEndTime)));
             }
-            hasPacking = false;
+            packing(chain, member, round);
+        } catch (Exception e) {
+            consensusLogger.error(e);
         }
+        return roundEndTime > NulsDateUtils.getCurrentTimeMillis() ? roundEndTime : idleWakeTime;
     }
 
     private void packing(Chain chain, MeetingMember self, MeetingRound round) throws Exception {
-        waitReceiveNewestBlock(chain, self, round);
         /*
         等待出块
         Wait for blocks
@@ -166,39 +199,6 @@ public class ConsensusProcess {
         }
     }
 
-    /**
-     * 是否到达节点出块的时间点，如果本地最新区块为本轮次中上一节点所出，则直接打包出块，否则等待一定时间之后如果还没有接收到上一节点出的块则直接打包出块
-     * Whether or not to arrive at the time point when the node is out of the block, if the latest local block is out of the previous node in this round, it will be packaged directly.
-     * Otherwise, if the block from the previous node has not been received after waiting for a certain time, it will be packed directly.
-     */
-    private void waitReceiveNewestBlock(Chain chain, MeetingMember self, MeetingRound round) {
-        int waitRatio = 60;
-        long timeout = chain.getConfig().getPackingInterval() * waitRatio / ConsensusConstant.VALUE_OF_ONE_HUNDRED;
-        long endTime = self.getPackStartTime() + timeout;
-        boolean hasReceiveNewestBlock;
-        if (NulsDateUtils.getCurrentTimeSeconds() >= endTime) {
-            return;
-        }
-        try {
-            while (true) {
-                /*
-                判断本地最新区块是否为轮次中上一个节点所出
-                Determine whether the latest local block is from the last node in the round
-                */
-                hasReceiveNewestBlock = hasReceiveNewestBlock(chain, self, round);
-                if (hasReceiveNewestBlock) {
-                    break;
-                }
-                Thread.sleep(100L);
-                if (NulsDateUtils.getCurrentTimeSeconds() >= endTime) {
-                    break;
-                }
-            }
-        } catch (InterruptedException e) {
-            consensusLogger.error(e.getMessage());
-        }
-    }
-
     /**
      * 判断本地最新区块是否为本轮次上一个出块节点所出
      * Judging whether the latest block in this region is from the last block in this round
@@ -52,20 +52,23 @@ public class BlockValidator {
      * 区块头验证
      * Block verification
      *
-     * @param isDownload block status
-     * @param chain      chain info
-     * @param block      block info
+     * @param isDownload  block status
+     * @param chain       chain info
+     * @param block       block info
+     * @param preVerified 默克尔根与区块签名已由区块模块验证/merkle root and block signature already verified by the block module
      */
-    public void validate(boolean isDownload, Chain chain, Block block) throws NulsException, IOException {
+    public void validate(boolean isDownload, Chain chain, Block block, boolean preVerified) throws NulsException, IOException {
         BlockHeader blockHeader = block.getHeader();
-        //验证梅克尔哈希]
-        if (!blockHeader.getMerkleHash().equals(NulsHash.calcMerkleHash(block.getTxHashList()))) {
-            throw new NulsException(ConsensusErrorCode.MERKEL_HASH_ERROR);
-        }
-        //区块头签名验证
-        if (blockHeader.getBlockSignature().verifySignature(blockHeader.getHash()).isFailed()) {
-            chain.getLogger().error("Block Header Verification Error!");
-            throw new NulsException(ConsensusErrorCode.SIGNATURE_ERROR);
+        if (!preVerified) {
+            //验证梅克尔哈希]
+            if (!blockHeader.getMerkleHash().equals(NulsHash.calcMerkleHash(block.getTxHashList()))) {
+                throw new NulsException(ConsensusErrorCode.MERKEL_HASH_ERROR);
+            }
+            //区块头签名验证
+            if (blockHeader.getBlockSignature().verifySignature(blockHeader.getHash()).isFailed()) {
+                chain.getLogger().error("Block Header Verification Error!");
+                throw new NulsException(ConsensusErrorCode.SIGNATURE_ERROR);
+            }
         }
         RoundValidResult roundValidResult;
         String blockHeaderHash = blockHeader.getHash().toHex();
@@ -0,0 +1,92 @@
+package io.nuls.test.model;
+
+import io.nuls.base.data.NulsHash;
+import io.nuls.core.crypto.Sha256Hash;
+import io.nuls.poc.model.bo.ConsensusStateIndex;
+import io.nuls.poc.model.bo.tx.txdata.Deposit;
+import io.nuls.poc.model.po.PunishLogPo;
+import io.nuls.poc.utils.enumeration.PunishType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 共识状态索引测试
+ * Consensus state index test
+ */
+public class ConsensusStateIndexTest {
+
+    private NulsHash hash(int i) {
+        return new NulsHash(Sha256Hash.hashTwice(ByteBuffer.allocate(4).putInt(i).array()));
+    }
+
+    private Deposit newDeposit(NulsHash agentHash, int txIndex, long blockHeight) {
+        Deposit deposit = new Deposit();
+        deposit.setAgentHash(agentHash);
+        deposit.setTxHash(hash(txIndex));
+        deposit.setBlockHeight(blockHeight);
+        deposit.setDelHeight(-1L);
+        deposit.setDeposit(BigInteger.valueOf(txIndex));
+        return deposit;
+    }
+
+    private PunishLogPo newPunish(byte[] address, long roundIndex, int index) {
+        PunishLogPo po = new PunishLogPo();
+        po.setAddress(address);
+        po.setType(PunishType.YELLOW.getCode());
+        po.setHeight(roundIndex * 10);
+        po.setRoundIndex(roundIndex);
+        po.setIndex(index);
+        return po;
+    }
+
+    @Test
+    public void deposits() {
+        NulsHash agentA = hash(1000);
+        NulsHash agentB = hash(1001);
+        Deposit d1 = newDeposit(agentA, 1, 10L);
+        Deposit d2 = newDeposit(agentB, 2, 11L);
+        Deposit d3 = newDeposit(agentA, 3, 12L);
+        ConsensusStateIndex index = new ConsensusStateIndex();
+        index.resetDeposits(Arrays.asList(d1, d2, d3));
+
+        //倒序返回, 且只返回指定高度有效的委托
+        Assert.assertEquals(Arrays.asList(d3, d1), index.getDepositList(agentA, 12L));
+        Assert.assertEquals(Collections.singletonList(d1), index.getDepositList(agentA, 11L));
+
+        Deposit cancel = newDeposit(agentA, 1, 10L);
+        cancel.setDelHeight(20L);
+        index.updateDeposit(cancel);
+        Assert.assertEquals(Arrays.asList(d3, cancel), index.getDepositList(agentA, 19L));
+        Assert.assertEquals(Collections.singletonList(d3), index.getDepositList(agentA, 20L));
+
+        index.removeDeposit(d3);
+        Assert.assertEquals(Collections.singletonList(cancel), index.getDepositList(agentA, 19L));
+        Assert.assertEquals(Collections.singletonList(d2), index.getDepositList(agentB, 19L));
+        Assert.assertTrue(index.getDepositList(hash(1002), 19L).isEmpty());
+    }
+
+    @Test
+    public void yellowPunishes() {
+        byte[] addressA = new byte[23];
+        byte[] addressB = new byte[23];
+        addressB[22] = 1;
+        ConsensusStateIndex index = new ConsensusStateIndex();
+        index.resetYellowPunishes(Arrays.asList(newPunish(addressA, 1, 1), newPunish(addressB, 2, 1)));
+        List<PunishLogPo> block = Arrays.asList(newPunish(addressA, 3, 1), newPunish(addressA, 4, 1));
+        index.addYellowPunishes(block);
+
+        Assert.assertEquals(3, index.getYellowPunishCount(addressA, 1, 4, 100));
+        Assert.assertEquals(2, index.getYellowPunishCount(addressA, 2, 4, 100));
+        Assert.assertEquals(1, index.getYellowPunishCount(addressA, 1, 3, 1));
+        Assert.assertEquals(1, index.getYellowPunishCount(addressB, 1, 4, 100));
+
+        index.removeYellowPunishes(Collections.singletonList(newPunish(addressA, 4, 1)));
+        Assert.assertEquals(2, index.getYellowPunishCount(addressA, 1, 4, 100));
+    }
+}
@@ -0,0 +1,81 @@
+package io.nuls.test.model;
+
+import io.nuls.base.data.BlockHeader;
+import io.nuls.base.data.NulsHash;
+import io.nuls.poc.model.bo.round.MeetingRound;
+import io.nuls.poc.model.bo.round.RoundCache;
+import io.nuls.poc.model.bo.tx.txdata.Agent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Collections;
+
+/**
+ * 轮次缓存测试
+ * Round cache test
+ */
+public class RoundCacheTest {
+
+    private BlockHeader newHeader(long height) {
+        BlockHeader header = new BlockHeader();
+        header.setPreHash(new NulsHash(new byte[32]));
+        header.setMerkleHash(new NulsHash(new byte[32]));
+        header.setHeight(height);
+        header.setTime(1575000000L + height);
+        header.setExtend(new byte[0]);
+        return header;
+    }
+
+    private MeetingRound newRound(long index, long startTime) {
+        MeetingRound round = new MeetingRound();
+        round.setIndex(index);
+        round.setStartTime(startTime);
+        return round;
+    }
+
+    @Test
+    public void getAndRollback() {
+        RoundCache cache = new RoundCache(2);
+        BlockHeader header10 = newHeader(10L);
+        BlockHeader header20 = newHeader(20L);
+        Agent agent = new Agent();
+        agent.setTxHash(NulsHash.calcHash(new byte[]{1}));
+        agent.setTotalDeposit(BigInteger.ONE);
+        MeetingRound round5 = newRound(5L, 100L);
+        round5.setAgentTotalDeposit(Collections.singletonMap(agent.getTxHash(), BigInteger.TEN));
+        cache.put(round5, header10);
+        cache.put(newRound(6L, 200L), header20);
+
+        Assert.assertNull(cache.get(5L, 101L, header10));
+        Assert.assertNull(cache.get(5L, 100L, header20));
+        MeetingRound round = cache.get(5L, 100L, header10);
+        Assert.assertEquals(5L, round.getIndex());
+        //命中缓存不修改链上节点, 轮次成为当前轮次时才更新
+        Assert.assertEquals(BigInteger.ONE, agent.getTotalDeposit());
+        round.applyAgentTotalDeposit(Collections.singletonList(agent));
+        Assert.assertEquals(BigInteger.TEN, agent.getTotalDeposit());
+        //返回的是副本, 调用者的修改不影响缓存
+        round.setPreRound(round);
+        Assert.assertNull(cache.get(5L, 100L, header10).getPreRound());
+
+        cache.rollback(15L);
+        Assert.assertNotNull(cache.get(5L, 100L, header10));
+        Assert.assertNull(cache.get(6L, 200L, header20));
+
+        cache.put(newRound(7L, 300L), header20);
+        cache.put(newRound(8L, 400L), header20);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get(5L, 100L, header10));
+    }
+
+    @Test
+    public void markPrecompute() {
+        RoundCache cache = new RoundCache(2);
+        Assert.assertTrue(cache.markPrecompute(5L));
+        Assert.assertFalse(cache.markPrecompute(5L));
+        Assert.assertTrue(cache.markPrecompute(6L));
+        cache.rollback(0L);
+        Assert.assertTrue(cache.markPrecompute(6L));
+    }
+}
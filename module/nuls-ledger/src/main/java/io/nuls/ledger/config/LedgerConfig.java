@@ -37,6 +37,45 @@ public class LedgerConfig implements ModuleConfig {
      */
     private String dataPath;
 
+    /**
+     * 是否将所有数据表作为列族存放在同一个数据库中
+     */
+    private boolean dbColumnFamily = false;
+
+    /**
+     * 数据库共享块缓存大小(字节), 0表示不使用块缓存
+     */
+    private long dbBlockCacheSize = 64 * 1024 * 1024;
+
+    /**
+     * 每条链缓存的已确认账户状态数量上限
+     */
+    private int accountStateCacheSize = 200000;
+
+    public int getAccountStateCacheSize() {
+        return accountStateCacheSize;
+    }
+
+    public void setAccountStateCacheSize(int accountStateCacheSize) {
+        this.accountStateCacheSize = accountStateCacheSize;
+    }
+
+    public boolean isDbColumnFamily() {
+        return dbColumnFamily;
+    }
+
+    public void setDbColumnFamily(boolean dbColumnFamily) {
+        this.dbColumnFamily = dbColumnFamily;
+    }
+
+    public long getDbBlockCacheSize() {
+        return dbBlockCacheSize;
+    }
+
+    public void setDbBlockCacheSize(long dbBlockCacheSize) {
+        this.dbBlockCacheSize = dbBlockCacheSize;
+    }
+
     public String getLanguage() {
         return language;
     }
@@ -120,6 +120,10 @@ public interface CmdConstant {
      * 获取资产信息
      */
     String CMD_GET_ASSETS_BY_ID = "getAssetsById";
+    /**
+     * 确认账户状态缓存统计
+     */
+    String CMD_GET_ACCOUNT_STATE_CACHE_STATS = "getAccountStateCacheStats";
 
 
 }
@@ -28,15 +28,20 @@ import io.nuls.base.protocol.ProtocolLoader;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.core.ioc.SpringLiteContext;
+import io.nuls.core.rockdb.model.RocksDBConfig;
+import io.nuls.core.rockdb.model.TableOptions;
 import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.core.rpc.model.ModuleE;
 import io.nuls.ledger.config.LedgerConfig;
 import io.nuls.ledger.model.LedgerChain;
 import io.nuls.ledger.service.BlockDataService;
+import io.nuls.ledger.storage.DataBaseArea;
 import io.nuls.ledger.storage.Repository;
 import io.nuls.ledger.storage.impl.LgBlockSyncRepositoryImpl;
 import io.nuls.ledger.storage.impl.RepositoryImpl;
 import io.nuls.ledger.utils.LoggerUtil;
+import org.rocksdb.CompressionType;
+import org.rocksdb.util.SizeUnit;
 
 import java.io.File;
 import java.util.Map;
@@ -109,7 +114,23 @@ public class LedgerChainManager {
      */
     private void initRocksDb() {
         try {
-            RocksDBService.init(ledgerConfig.getDataPath() + File.separator + ModuleE.LG.name);
+            /*
+            账户状态表每个区块都大量随机读写: 布隆过滤器, 索引与过滤器放入共享块缓存, 更大的写缓冲; 区块快照表只在回滚时读取, 只做压缩
+            The account state table takes heavy random reads and writes every block: bloom filters, index and filter
+            blocks in the shared block cache and larger write buffers. Block snapshots are only read on rollback and
+            are just compressed.
+            */
+            RocksDBService.registerChainTableOptions(DataBaseArea.TB_LEDGER_ACCOUNT + "_", new TableOptions()
+                    .setCompressionType(CompressionType.LZ4_COMPRESSION)
+                    .setBloomBitsPerKey(10)
+                    .setCacheIndexAndFilterBlocks(true)
+                    .setWriteBufferSize(64 * SizeUnit.MB)
+                    .setMaxWriteBufferNumber(4));
+            RocksDBService.registerChainTableOptions(DataBaseArea.TB_LEDGER_ACCOUNT_BLOCK_SNAPSHOT + "_", new TableOptions()
+                    .setCompressionType(CompressionType.LZ4_COMPRESSION)
+                    .setBloomBitsPerKey(0));
+            RocksDBService.init(ledgerConfig.getDataPath() + File.separator + ModuleE.LG.name,
+                    new RocksDBConfig(ledgerConfig.isDbColumnFamily(), ledgerConfig.getDbBlockCacheSize()));
             Repository initDB = SpringLiteContext.getBean(RepositoryImpl.class);
             initDB.initTableName();
         } catch (Exception e) {
@@ -39,6 +39,10 @@ import java.util.List;
 public class AccountBalance {
     private AccountState nowAccountState;
     private AccountStateSnapshot preAccountState;
+    /**
+     * 确认账户状态缓存key/confirmed account state cache key
+     */
+    private byte[] cacheKey;
 
 
     public AccountState getNowAccountState() {
@@ -57,8 +61,21 @@ public class AccountBalance {
         this.preAccountState = preAccountState;
     }
 
+    public byte[] getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(byte[] cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
     public AccountBalance(AccountState nowAccountState, AccountStateSnapshot preAccountState) {
         this.nowAccountState = nowAccountState;
         this.preAccountState = preAccountState;
     }
+
+    public AccountBalance(AccountState nowAccountState, AccountStateSnapshot preAccountState, byte[] cacheKey) {
+        this(nowAccountState, preAccountState);
+        this.cacheKey = cacheKey;
+    }
 }
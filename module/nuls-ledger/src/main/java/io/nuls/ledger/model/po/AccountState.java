@@ -78,6 +78,14 @@ public class AccountState extends BaseNulsData {
      */
     private List<FreezeLockTimeState> freezeLockTimeStates = new ArrayList<>();
 
+    /**
+     * 快照与缓存对象共享的nonce与冻结列表, 在首次通过getter访问时才复制
+     * Nonce and freeze lists shared with the cached object, copied on first access through a getter
+     */
+    private boolean sharedNonce;
+    private boolean sharedFreezeHeightStates;
+    private boolean sharedFreezeLockTimeStates;
+
     public AccountState() {
         super();
     }
@@ -199,25 +207,49 @@ public class AccountState extends BaseNulsData {
 
     public AccountState deepClone() {
         AccountState orgAccountState = new AccountState();
-        orgAccountState.setNonce(ByteUtils.copyOf(this.getNonce(), 8));
+        orgAccountState.setNonce(ByteUtils.copyOf(this.nonce, 8));
         orgAccountState.setLatestUnFreezeTime(this.getLatestUnFreezeTime());
         orgAccountState.setTotalFromAmount(this.getTotalFromAmount());
         orgAccountState.setTotalToAmount(this.getTotalToAmount());
         List<FreezeHeightState> heightStateArrayList = new ArrayList<>();
-        heightStateArrayList.addAll(this.getFreezeHeightStates());
+        heightStateArrayList.addAll(this.freezeHeightStates);
         orgAccountState.setFreezeHeightStates(heightStateArrayList);
         List<FreezeLockTimeState> lockTimeStateArrayList = new ArrayList<>();
-        lockTimeStateArrayList.addAll(this.getFreezeLockTimeStates());
+        lockTimeStateArrayList.addAll(this.freezeLockTimeStates);
         orgAccountState.setFreezeLockTimeStates(lockTimeStateArrayList);
         return orgAccountState;
     }
 
+    /**
+     * 写时复制的快照: 与当前对象共享nonce与冻结列表, 通过getter取出时才复制, 只读操作不产生复制
+     * Copy-on-write snapshot: shares the nonce and freeze lists with this object and only copies them
+     * when they are taken out through a getter, read-only operations do not copy
+     */
+    public AccountState snapshot() {
+        AccountState snapshot = new AccountState();
+        snapshot.nonce = this.nonce;
+        snapshot.latestUnFreezeTime = this.latestUnFreezeTime;
+        snapshot.totalFromAmount = this.totalFromAmount;
+        snapshot.totalToAmount = this.totalToAmount;
+        snapshot.freezeHeightStates = this.freezeHeightStates;
+        snapshot.freezeLockTimeStates = this.freezeLockTimeStates;
+        snapshot.sharedNonce = true;
+        snapshot.sharedFreezeHeightStates = true;
+        snapshot.sharedFreezeLockTimeStates = true;
+        return snapshot;
+    }
+
     public byte[] getNonce() {
+        if (sharedNonce) {
+            nonce = ByteUtils.copyOf(nonce, nonce.length);
+            sharedNonce = false;
+        }
         return nonce;
     }
 
     public void setNonce(byte[] nonce) {
         this.nonce = nonce;
+        this.sharedNonce = false;
     }
 
     public long getLatestUnFreezeTime() {
@@ -245,19 +277,29 @@ public class AccountState extends BaseNulsData {
     }
 
     public List<FreezeHeightState> getFreezeHeightStates() {
+        if (sharedFreezeHeightStates) {
+            freezeHeightStates = new ArrayList<>(freezeHeightStates);
+            sharedFreezeHeightStates = false;
+        }
         return freezeHeightStates;
     }
 
     public void setFreezeHeightStates(List<FreezeHeightState> freezeHeightStates) {
         this.freezeHeightStates = freezeHeightStates;
+        this.sharedFreezeHeightStates = false;
     }
 
     public List<FreezeLockTimeState> getFreezeLockTimeStates() {
+        if (sharedFreezeLockTimeStates) {
+            freezeLockTimeStates = new ArrayList<>(freezeLockTimeStates);
+            sharedFreezeLockTimeStates = false;
+        }
         return freezeLockTimeStates;
     }
 
     public void setFreezeLockTimeStates(List<FreezeLockTimeState> freezeLockTimeStates) {
         this.freezeLockTimeStates = freezeLockTimeStates;
+        this.sharedFreezeLockTimeStates = false;
     }
 
     public boolean timeAllow() {
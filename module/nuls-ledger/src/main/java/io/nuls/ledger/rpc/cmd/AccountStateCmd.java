@@ -40,6 +40,8 @@ import io.nuls.ledger.model.po.sub.FreezeHeightState;
 import io.nuls.ledger.model.po.sub.FreezeLockTimeState;
 import io.nuls.ledger.service.AccountStateService;
 import io.nuls.ledger.service.UnconfirmedStateService;
+import io.nuls.ledger.storage.AccountStateCache;
+import io.nuls.ledger.storage.Repository;
 import io.nuls.ledger.utils.LedgerUtil;
 import io.nuls.ledger.utils.LoggerUtil;
 
@@ -63,6 +65,8 @@ public class AccountStateCmd extends BaseLedgerCmd {
     private AccountStateService accountStateService;
     @Autowired
     private UnconfirmedStateService unconfirmedStateService;
+    @Autowired
+    private Repository repository;
 
     /**
      * 获取账户资产余额
@@ -299,4 +303,43 @@ public class AccountStateCmd extends BaseLedgerCmd {
         return response;
     }
 
+    /**
+     * 确认账户状态缓存的命中统计
+     * Hit statistics of the confirmed account state cache
+     *
+     * @param params
+     * @return
+     */
+    @CmdAnnotation(cmd = CmdConstant.CMD_GET_ACCOUNT_STATE_CACHE_STATS, version = 1.0,
+            description = "确认账户状态缓存统计/Confirmed account state cache statistics")
+    @Parameters(value = {
+            @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterValidRange = "[1-65535]", parameterDes = "运行链Id,取值区间[1-65535]")
+    })
+    @ResponseData(name = "返回值", description = "返回一个Map对象",
+            responseType = @TypeDescriptor(value = Map.class, mapKeys = {
+                    @Key(name = "size", valueType = int.class, description = "缓存条目数"),
+                    @Key(name = "hitCount", valueType = long.class, description = "命中次数"),
+                    @Key(name = "missCount", valueType = long.class, description = "未命中次数"),
+                    @Key(name = "hitRate", valueType = double.class, description = "命中率"),
+                    @Key(name = "evictionCount", valueType = long.class, description = "淘汰次数")
+            })
+    )
+    public Response getAccountStateCacheStats(Map params) {
+        Integer chainId = (Integer) params.get("chainId");
+        if (!chainHanlder(chainId)) {
+            return failed(LedgerErrorCode.CHAIN_INIT_FAIL);
+        }
+        AccountStateCache cache = repository.getAccountStateCacheInfo(chainId);
+        long hitCount = cache.getHitCount();
+        long missCount = cache.getMissCount();
+        long requestCount = hitCount + missCount;
+        Map<String, Object> rtMap = new HashMap<>(5);
+        rtMap.put("size", cache.size());
+        rtMap.put("hitCount", hitCount);
+        rtMap.put("missCount", missCount);
+        rtMap.put("hitRate", requestCount == 0 ? 1.0 : (double) hitCount / requestCount);
+        rtMap.put("evictionCount", cache.getEvictionCount());
+        return success(rtMap);
+    }
+
 }
@@ -61,6 +61,18 @@ public interface AccountStateService {
      */
     AccountState getAccountStateReCal(String address, int addressChainId, int assetChainId, int assetId);
 
+    /**
+     * 获取账本信息，并重新计算冻结的金额的信息, 交易中的地址字节可直接用作缓存key
+     * Same as above, the address bytes of a coin are used directly as part of the cache key
+     *
+     * @param address 地址字节/address bytes
+     * @param addressChainId
+     * @param assetChainId
+     * @param assetId
+     * @return
+     */
+    AccountState getAccountStateReCal(byte[] address, int addressChainId, int assetChainId, int assetId);
+
     /**
      * 回滚账户信息
      *
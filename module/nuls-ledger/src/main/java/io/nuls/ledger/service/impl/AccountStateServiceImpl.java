@@ -46,6 +46,7 @@ import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * @author lanjinsheng
@@ -69,12 +70,13 @@ public class AccountStateServiceImpl implements AccountStateService {
     public void rollAccountState(int chainId, List<AccountStateSnapshot> preAccountStates) throws Exception {
         //获取当前数据库值
         Map<byte[], byte[]> accountStates = new HashMap<>(preAccountStates.size());
-        Map<String, AccountState> accountStatesMem = new HashMap<>(preAccountStates.size());
+        Map<byte[], AccountState> accountStatesMem = new HashMap<>(preAccountStates.size());
         for (AccountStateSnapshot accountStateSnapshot : preAccountStates) {
             String assetKey = LedgerUtil.getKeyStr(accountStateSnapshot.getAddress(),
                     accountStateSnapshot.getAssetChainId(), accountStateSnapshot.getAssetId());
             accountStates.put(assetKey.getBytes(LedgerConstant.DEFAULT_ENCODING), accountStateSnapshot.getAccountState().serialize());
-            accountStatesMem.put(assetKey, accountStateSnapshot.getAccountState());
+            accountStatesMem.put(LedgerUtil.getAccountCacheKey(accountStateSnapshot.getAddress(),
+                    accountStateSnapshot.getAssetChainId(), accountStateSnapshot.getAssetId()), accountStateSnapshot.getAccountState());
             //获取当前数据库值
             Map<String, TxUnconfirmed> unconfirmedNonces = new HashMap<>(64);
             AccountStateUnconfirmed accountStateUnconfirmed = new AccountStateUnconfirmed();
@@ -112,13 +114,9 @@ public class AccountStateServiceImpl implements AccountStateService {
      */
     @Override
     public AccountState getAccountState(String address, int addressChainId, int assetChainId, int assetId) {
-        //尝试缓存获取
-        AccountState accountState = repository.getAccountStateByMemory(addressChainId, LedgerUtil.getKeyStr(address, assetChainId, assetId));
-        if (null != accountState) {
-            return accountState;
-        }
-        byte[] key = LedgerUtil.getKey(address, assetChainId, assetId);
-        accountState = repository.getAccountState(addressChainId, key);
+        //尝试缓存获取,未命中时从数据库加载
+        byte[] cacheKey = LedgerUtil.getAccountCacheKey(address, assetChainId, assetId);
+        AccountState accountState = repository.getCachedAccountState(addressChainId, cacheKey, () -> LedgerUtil.getKey(address, assetChainId, assetId));
         if (null == accountState) {
             accountState = new AccountState(LedgerConstant.getInitNonceByte());
         }
@@ -134,16 +132,23 @@ public class AccountStateServiceImpl implements AccountStateService {
      */
     @Override
     public AccountState getAccountStateReCal(String address, int addressChainId, int assetChainId, int assetId) {
-        //尝试缓存获取
-        AccountState accountState = repository.getAccountStateByMemory(addressChainId, LedgerUtil.getKeyStr(address, assetChainId, assetId));
+        //尝试缓存获取,未命中时从数据库加载
+        byte[] cacheKey = LedgerUtil.getAccountCacheKey(address, assetChainId, assetId);
+        return getAccountStateReCal(addressChainId, cacheKey, () -> LedgerUtil.getKey(address, assetChainId, assetId));
+    }
+
+    @Override
+    public AccountState getAccountStateReCal(byte[] address, int addressChainId, int assetChainId, int assetId) {
+        //命中缓存时不需要地址字符串
+        byte[] cacheKey = LedgerUtil.getAccountCacheKey(address, assetChainId, assetId);
+        return getAccountStateReCal(addressChainId, cacheKey, () -> LedgerUtil.getKey(LedgerUtil.getRealAddressStr(address), assetChainId, assetId));
+    }
+
+    private AccountState getAccountStateReCal(int addressChainId, byte[] cacheKey, Supplier<byte[]> dbKey) {
+        AccountState accountState = repository.getCachedAccountState(addressChainId, cacheKey, dbKey);
         if (null == accountState) {
-            //账户处理锁
-            byte[] key = LedgerUtil.getKey(address, assetChainId, assetId);
-            accountState = repository.getAccountState(addressChainId, key);
-            if (null == accountState) {
-                accountState = new AccountState(LedgerConstant.getInitNonceByte());
-                return accountState;
-            }
+            accountState = new AccountState(LedgerConstant.getInitNonceByte());
+            return accountState;
         }
         //解冻时间高度锁
         if (accountState.timeAllow()) {
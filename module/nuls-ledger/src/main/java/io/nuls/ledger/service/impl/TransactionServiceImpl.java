@@ -233,7 +233,7 @@ public class TransactionServiceImpl implements TransactionService {
             int accountMapSize = txList.size() * 3;
             //批量交易按交易进行账户的金额处理，再按区块为原子性进行提交,updateAccounts用于账户计算缓存，最后统一处理
             Map<String, AccountBalance> updateAccounts = new HashMap<>(accountMapSize);
-            Map<String, AccountState> updateMemAccounts = new HashMap<>(accountMapSize);
+            Map<byte[], AccountState> updateMemAccounts = new HashMap<>(accountMapSize);
             //整体区块备份
             BlockSnapshotAccounts blockSnapshotAccounts = new BlockSnapshotAccounts();
             Map<byte[], byte[]> accountStatesMap = new HashMap<>(accountMapSize);
@@ -252,7 +252,7 @@ public class TransactionServiceImpl implements TransactionService {
                     freezeStateService.recalculateFreeze(addressChainId, entry.getValue().getNowAccountState());
                     entry.getValue().getNowAccountState().setLatestUnFreezeTime(NulsDateUtils.getCurrentTimeSeconds());
                     accountStatesMap.put(entry.getKey().getBytes(LedgerConstant.DEFAULT_ENCODING), entry.getValue().getNowAccountState().serialize());
-                    updateMemAccounts.put(entry.getKey(), entry.getValue().getNowAccountState());
+                    updateMemAccounts.put(entry.getValue().getCacheKey(), entry.getValue().getNowAccountState());
                 }
             } catch (Exception e) {
                 logger(addressChainId).error("confirmBlockProcess blockSnapshotAccounts addAccountState error!");
@@ -261,35 +261,32 @@ public class TransactionServiceImpl implements TransactionService {
                 return false;
             }
             //提交整体数据
+            boolean committed = false;
             try {
-                //备份历史
-                repository.saveBlockSnapshot(addressChainId, blockHeight, blockSnapshotAccounts);
                 //更新链下资产种类，及资产地址集合数据。
                 chainAssetsService.updateChainAssets(addressChainId, assetAddressIndex);
-                //更新账本
-                if (accountStatesMap.size() > 0) {
-                    repository.batchUpdateAccountState(addressChainId, accountStatesMap, updateMemAccounts);
-                }
+                //备份历史、更新账本、删除过期快照并存储当前高度, 一次批量写入
+                long expiredSnapshotHeight = blockHeight > LedgerConstant.CACHE_ACCOUNT_BLOCK ? (blockHeight - LedgerConstant.CACHE_ACCOUNT_BLOCK) : 0;
+                repository.commitBlock(addressChainId, blockHeight, blockSnapshotAccounts, accountStatesMap, updateMemAccounts, expiredSnapshotHeight);
+                committed = true;
                 for (Map.Entry<String, Integer> entry : clearUncfs.entrySet()) {
                     //进行收到网络其他节点的交易，刷新本地未确认数据处理
                     unconfirmedStateService.clearAccountUnconfirmed(addressChainId, entry.getKey());
                 }
                 //删除跃迁的未确认交易
                 unconfirmedStateService.batchDeleteUnconfirmedTx(addressChainId, delUncfd2CfdKeys);
-                //删除过期缓存数据
-                if (blockHeight > LedgerConstant.CACHE_ACCOUNT_BLOCK) {
-                    repository.delBlockSnapshot(addressChainId, (blockHeight - LedgerConstant.CACHE_ACCOUNT_BLOCK));
-                }
             } catch (Exception e) {
                 //需要回滚数据
                 cleanBlockCommitTempDatas();
                 logger(addressChainId).error(e);
                 LoggerUtil.logger(addressChainId).error("confirmBlockProcess  error! go rollBackBlock!addrChainId={},height={}", addressChainId, blockHeight);
+                if (committed) {
+                    //高度已随区块一起提交, 需要回退
+                    repository.saveOrUpdateBlockHeight(addressChainId, blockHeight - 1);
+                }
                 rollBackBlock(addressChainId, blockSnapshotAccounts.getAccounts(), blockHeight);
                 return false;
             }
-            //完全提交,存储当前高度。
-            repository.saveOrUpdateBlockHeight(addressChainId, blockHeight);
             return true;
         } catch (Exception e) {
             LoggerUtil.logger(addressChainId).error("confirmBlockProcess error", e);
@@ -309,9 +306,9 @@ public class TransactionServiceImpl implements TransactionService {
         AccountBalance accountBalance = updateAccounts.get(key);
         if (null == accountBalance) {
             //交易里的账户处理缓存AccountBalance
-            AccountState accountState = accountStateService.getAccountStateReCal(address, addressChainId, assetChainId, assetId);
+            AccountState accountState = accountStateService.getAccountStateReCal(coin.getAddress(), addressChainId, assetChainId, assetId);
             AccountStateSnapshot bakAccountState = new AccountStateSnapshot(addressChainId, assetChainId, assetId, address, accountState.deepClone());
-            accountBalance = new AccountBalance(accountState, bakAccountState);
+            accountBalance = new AccountBalance(accountState, bakAccountState, LedgerUtil.getAccountCacheKey(coin.getAddress(), assetChainId, assetId));
             updateAccounts.put(key, accountBalance);
         }
         return accountBalance;
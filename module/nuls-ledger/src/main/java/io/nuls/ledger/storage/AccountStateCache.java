@@ -0,0 +1,160 @@
+/*-
+ * ⁣⁣
+ * MIT License
+ * ⁣⁣
+ * Copyright (C) 2017 - 2018 nuls.io
+ * ⁣⁣
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ⁣⁣
+ */
+package io.nuls.ledger.storage;
+
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.ledger.model.po.AccountState;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 有容量上限的已确认账户状态缓存, 按段加锁的LRU淘汰, key为地址字节加资产id
+ * Bounded cache of confirmed account states. Segmented LRU eviction, keyed by the address bytes plus the asset ids,
+ * see {@link io.nuls.ledger.utils.LedgerUtil#getAccountCacheKey(byte[], int, int)}.
+ * <p>
+ * 缓存中的对象不会被修改, 读取时返回写时复制的快照 {@link AccountState#snapshot()}
+ * Cached objects are never modified, reads return a copy-on-write snapshot {@link AccountState#snapshot()}
+ */
+public class AccountStateCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * 每次写入递增, 用于丢弃与写入并发的数据库加载结果
+     * Incremented on every write, used to drop database loads that raced with a write
+     */
+    private final AtomicLong writeEpoch = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AccountStateCache(int maxSize) {
+        int segmentSize = Math.max(1, maxSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * 获取账户状态快照, 未命中时通过loader从数据库加载并放入缓存
+     * Get a snapshot of the account state, loading it from the database on a miss
+     *
+     * @param key    缓存key cache key
+     * @param loader 数据库加载 database loader, may return null
+     * @return 快照, 数据库中也不存在时返回null snapshot, null when it does not exist in the database either
+     */
+    public AccountState get(byte[] key, Supplier<AccountState> loader) {
+        ByteArrayWrapper wrapper = new ByteArrayWrapper(key);
+        Segment segment = segmentFor(wrapper);
+        AccountState accountState;
+        synchronized (segment) {
+            accountState = segment.get(wrapper);
+        }
+        if (null != accountState) {
+            hits.increment();
+            return accountState.snapshot();
+        }
+        misses.increment();
+        long epoch = writeEpoch.get();
+        accountState = loader.get();
+        if (null == accountState) {
+            return null;
+        }
+        synchronized (segment) {
+            if (epoch == writeEpoch.get()) {
+                segment.putIfAbsent(wrapper, accountState);
+            }
+        }
+        return accountState.snapshot();
+    }
+
+    public void put(byte[] key, AccountState accountState) {
+        ByteArrayWrapper wrapper = new ByteArrayWrapper(key);
+        Segment segment = segmentFor(wrapper);
+        synchronized (segment) {
+            writeEpoch.incrementAndGet();
+            segment.put(wrapper, accountState);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountStateCache{size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + "}";
+    }
+
+    private Segment segmentFor(ByteArrayWrapper key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private class Segment extends LinkedHashMap<ByteArrayWrapper, AccountState> {
+        private final int maxSize;
+
+        private Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteArrayWrapper, AccountState> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
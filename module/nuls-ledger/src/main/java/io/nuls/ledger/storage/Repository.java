@@ -32,6 +32,7 @@ import io.nuls.ledger.model.po.BlockSnapshotAccounts;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * 数据存储接口
@@ -52,13 +53,24 @@ public interface Repository {
     AccountState getAccountState(int chainId, byte[] key);
 
     /**
-     * 内存获取账户余额对象
+     * 从缓存获取账户余额对象的快照, 未命中时从数据库加载并放入缓存
+     * Get a snapshot of the account state from the cache, loading it from the database on a miss
+     *
+     * @param chainId
+     * @param cacheKey 缓存key/cache key, see {@link io.nuls.ledger.utils.LedgerUtil#getAccountCacheKey(byte[], int, int)}
+     * @param dbKey    未命中时提供数据库key/supplies the database key on a miss
+     * @return 数据库中也不存在时返回null
+     */
+    AccountState getCachedAccountState(int chainId, byte[] cacheKey, Supplier<byte[]> dbKey);
+
+    /**
+     * 账户状态缓存, 用于查看命中/未命中/淘汰统计
+     * Account state cache of the chain, exposes hit/miss/eviction statistics
      *
      * @param chainId
-     * @param key
      * @return
      */
-    AccountState getAccountStateByMemory(int chainId, String key);
+    AccountStateCache getAccountStateCacheInfo(int chainId);
 
     /**
      * 批量更新账号账本信息
@@ -68,8 +80,23 @@ public interface Repository {
      * @param accountStateMap
      * @throws Exception
      */
-    void batchUpdateAccountState(int addressChainId, Map<byte[], byte[]> accountStateMap,Map<String, AccountState> accountStateMemMap) throws Exception;
-    void clearAccountStateMem(int addressChainId, Map<String, AccountState> accountStateMemMap) throws Exception;
+    void batchUpdateAccountState(int addressChainId, Map<byte[], byte[]> accountStateMap,Map<byte[], AccountState> accountStateMemMap) throws Exception;
+    void clearAccountStateMem(int addressChainId, Map<byte[], AccountState> accountStateMemMap) throws Exception;
+
+    /**
+     * 区块提交: 区块快照、账户状态、过期快照删除以及链高度在同一个批次中写入
+     * commit a block: snapshot, account states, expired snapshot removal and chain height in one batch write
+     *
+     * @param addressChainId
+     * @param height                区块高度
+     * @param blockSnapshotAccounts 区块快照
+     * @param accountStateMap       账户状态
+     * @param accountStateMemMap    账户状态缓存
+     * @param expiredSnapshotHeight 需要删除的过期快照高度, 小于等于0时不删除
+     * @throws Exception
+     */
+    void commitBlock(int addressChainId, long height, BlockSnapshotAccounts blockSnapshotAccounts, Map<byte[], byte[]> accountStateMap,
+                     Map<byte[], AccountState> accountStateMemMap, long expiredSnapshotHeight) throws Exception;
 
     /**
      * 删除区块快照
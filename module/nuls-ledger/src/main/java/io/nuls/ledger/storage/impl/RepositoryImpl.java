@@ -27,15 +27,19 @@ package io.nuls.ledger.storage.impl;
 
 import io.nuls.base.basic.NulsByteBuffer;
 import io.nuls.core.basic.InitializingBean;
+import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.log.Log;
 import io.nuls.core.model.ByteUtils;
 import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.service.MultiTableBatchOperation;
 import io.nuls.core.rockdb.service.RocksDBService;
+import io.nuls.ledger.config.LedgerConfig;
 import io.nuls.ledger.model.ChainHeight;
 import io.nuls.ledger.model.po.AccountState;
 import io.nuls.ledger.model.po.BlockSnapshotAccounts;
+import io.nuls.ledger.storage.AccountStateCache;
 import io.nuls.ledger.storage.DataBaseArea;
 import io.nuls.ledger.storage.Repository;
 
@@ -43,6 +47,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import static io.nuls.ledger.utils.LoggerUtil.logger;
 
@@ -53,36 +58,67 @@ import static io.nuls.ledger.utils.LoggerUtil.logger;
  */
 @Component
 public class RepositoryImpl implements Repository, InitializingBean {
+    @Autowired
+    LedgerConfig ledgerConfig;
     /**
-     * key1=chainId,  Map1=确认账户状态， key2= addr+assetkey  value=AccountState
+     * key=chainId,  value=确认账户状态缓存, 缓存key见 {@link io.nuls.ledger.utils.LedgerUtil#getAccountCacheKey(byte[], int, int)}
      */
-    Map<String, Map<String, AccountState>> memChainsAccounts = new ConcurrentHashMap<>(16);
+    Map<Integer, AccountStateCache> memChainsAccounts = new ConcurrentHashMap<>(16);
 
     public RepositoryImpl() {
 
     }
 
     @Override
-    public void batchUpdateAccountState(int addressChainId, Map<byte[], byte[]> accountStateMap, Map<String, AccountState> accountStateMemMap) throws Exception {
-        if (null == memChainsAccounts.get(String.valueOf(addressChainId))) {
-            memChainsAccounts.put(String.valueOf(addressChainId), new ConcurrentHashMap<>(1024));
-        }
-        if (null != accountStateMemMap) {
-            memChainsAccounts.get(String.valueOf(addressChainId)).putAll(accountStateMemMap);
-        }
+    public void batchUpdateAccountState(int addressChainId, Map<byte[], byte[]> accountStateMap, Map<byte[], AccountState> accountStateMemMap) throws Exception {
         //update account
         RocksDBService.batchPut(getLedgerAccountTableName(addressChainId), accountStateMap);
+        putAccountStateMem(addressChainId, accountStateMemMap);
+    }
 
+    private AccountStateCache getAccountStateCache(int addressChainId) {
+        return memChainsAccounts.computeIfAbsent(addressChainId, k -> new AccountStateCache(ledgerConfig.getAccountStateCacheSize()));
     }
 
-    @Override
-    public void clearAccountStateMem(int addressChainId, Map<String, AccountState> accountStateMemMap) throws Exception {
-        if (null == memChainsAccounts.get(String.valueOf(addressChainId))) {
-            memChainsAccounts.put(String.valueOf(addressChainId), new ConcurrentHashMap<>(1024));
+    /**
+     * 数据库写入完成后再更新缓存, 保证被淘汰后重新加载的值不会比缓存旧
+     * The cache is updated after the database write, so a value reloaded after eviction is never older than the cache
+     */
+    private void putAccountStateMem(int addressChainId, Map<byte[], AccountState> accountStateMemMap) throws Exception {
+        if (null == accountStateMemMap) {
+            return;
         }
-        if (null != accountStateMemMap) {
-            memChainsAccounts.get(String.valueOf(addressChainId)).putAll(accountStateMemMap);
+        AccountStateCache cache = getAccountStateCache(addressChainId);
+        for (Map.Entry<byte[], AccountState> entry : accountStateMemMap.entrySet()) {
+            cache.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void commitBlock(int addressChainId, long height, BlockSnapshotAccounts blockSnapshotAccounts, Map<byte[], byte[]> accountStateMap,
+                            Map<byte[], AccountState> accountStateMemMap, long expiredSnapshotHeight) throws Exception {
+        MultiTableBatchOperation batch = RocksDBService.createMultiTableWriteBatch();
+        try {
+            batch.put(getBlockSnapshotTableName(addressChainId), ByteUtils.longToBytes(height), blockSnapshotAccounts.serialize());
+            String accountTable = getLedgerAccountTableName(addressChainId);
+            for (Map.Entry<byte[], byte[]> entry : accountStateMap.entrySet()) {
+                batch.put(accountTable, entry.getKey(), entry.getValue());
+            }
+            if (expiredSnapshotHeight > 0) {
+                batch.delete(getBlockSnapshotTableName(addressChainId), ByteUtils.longToBytes(expiredSnapshotHeight));
+            }
+            batch.put(getChainsHeightTableName(), ByteUtils.intToBytes(addressChainId), ByteUtils.longToBytes(height));
+        } catch (Exception e) {
+            batch.close();
+            throw e;
         }
+        batch.executeBatch();
+        putAccountStateMem(addressChainId, accountStateMemMap);
+    }
+
+    @Override
+    public void clearAccountStateMem(int addressChainId, Map<byte[], AccountState> accountStateMemMap) throws Exception {
+        putAccountStateMem(addressChainId, accountStateMemMap);
     }
 
 
@@ -135,22 +171,13 @@ public class RepositoryImpl implements Repository, InitializingBean {
     }
 
     @Override
-    public AccountState getAccountStateByMemory(int chainId, String key) {
-        //缓存有值,则直接获取
-        if (null != memChainsAccounts.get(String.valueOf(chainId))) {
-            AccountState accountStateMem = memChainsAccounts.get(String.valueOf(chainId)).get(key);
-            if (null != accountStateMem) {
-                AccountState accountState = new AccountState();
-                System.arraycopy(accountStateMem.getNonce(), 0, accountState.getNonce(), 0, accountStateMem.getNonce().length);
-                accountState.setTotalFromAmount(accountStateMem.getTotalFromAmount());
-                accountState.setTotalToAmount(accountStateMem.getTotalToAmount());
-                accountState.setLatestUnFreezeTime(accountStateMem.getLatestUnFreezeTime());
-                accountState.getFreezeHeightStates().addAll(accountStateMem.getFreezeHeightStates());
-                accountState.getFreezeLockTimeStates().addAll(accountStateMem.getFreezeLockTimeStates());
-                return accountState;
-            }
-        }
-        return null;
+    public AccountState getCachedAccountState(int chainId, byte[] cacheKey, Supplier<byte[]> dbKey) {
+        return getAccountStateCache(chainId).get(cacheKey, () -> getAccountState(chainId, dbKey.get()));
+    }
+
+    @Override
+    public AccountStateCache getAccountStateCacheInfo(int chainId) {
+        return getAccountStateCache(chainId);
     }
 
     @Override
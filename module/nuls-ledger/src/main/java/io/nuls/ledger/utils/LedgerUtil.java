@@ -59,6 +59,31 @@ public class LedgerUtil {
         return null;
     }
 
+    /**
+     * 确认账户状态缓存key: 地址字节 + 资产链id(2字节) + 资产id(2字节)
+     * Confirmed account state cache key: address bytes + asset chain id (2 bytes) + asset id (2 bytes)
+     *
+     * @param address 地址字节/address bytes
+     * @return byte[]
+     */
+    public static byte[] getAccountCacheKey(byte[] address, int assetChainId, int assetId) {
+        byte[] key = new byte[address.length + 4];
+        System.arraycopy(address, 0, key, 0, address.length);
+        key[address.length] = (byte) (assetChainId >>> 8);
+        key[address.length + 1] = (byte) assetChainId;
+        key[address.length + 2] = (byte) (assetId >>> 8);
+        key[address.length + 3] = (byte) assetId;
+        return key;
+    }
+
+    /**
+     * @param address 不含前缀的地址字符串/address string without prefix
+     * @return byte[]
+     */
+    public static byte[] getAccountCacheKey(String address, int assetChainId, int assetId) {
+        return getAccountCacheKey(AddressTool.getAddressByRealAddr(address), assetChainId, assetId);
+    }
+
     public static byte[] getNonceDecode(String nonceStr) {
         return HexUtil.decode(nonceStr);
     }
@@ -0,0 +1,126 @@
+/*-
+ * ⁣⁣
+ * MIT License
+ * ⁣⁣
+ * Copyright (C) 2017 - 2018 nuls.io
+ * ⁣⁣
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ⁣⁣
+ */
+package io.nuls.ledger.validator;
+
+import java.util.*;
+
+/**
+ * 区块内交易的账户冲突图: 涉及相同账户资产(或相同解锁nonce)的交易归入同一分区
+ * Account conflict graph of a block's transactions: transactions touching the same account asset
+ * (or unlocking the same nonce) end up in the same partition.
+ * <p>
+ * 分区之间没有共享状态, 可以独立校验; 分区内交易保持区块中的原始顺序
+ * Partitions share no state and can be validated independently; transactions keep their block order within a partition.
+ */
+public class AccountConflictGraph {
+
+    private final Map<String, Integer> keyIndexes = new HashMap<>();
+    private int[] parent;
+    private final int txCount;
+    /**
+     * 每笔交易的第一个key的序号, -1表示交易不涉及任何账户
+     */
+    private final int[] txFirstKey;
+    private int keyCount;
+
+    public AccountConflictGraph(int txCount) {
+        this.txCount = txCount;
+        this.txFirstKey = new int[txCount];
+        Arrays.fill(txFirstKey, -1);
+        this.parent = new int[Math.max(16, txCount * 2)];
+    }
+
+    /**
+     * 记录交易涉及的key
+     * Record a key touched by the transaction
+     *
+     * @param txIndex 交易在区块中的序号 index of the transaction in the block
+     * @param key     账户资产key或解锁nonce account asset key or unlocked nonce
+     */
+    public void addKey(int txIndex, String key) {
+        int keyIndex = indexOf(key);
+        if (txFirstKey[txIndex] < 0) {
+            txFirstKey[txIndex] = keyIndex;
+        } else {
+            union(txFirstKey[txIndex], keyIndex);
+        }
+    }
+
+    /**
+     * 按分区内第一笔交易在区块中的位置排序, 结果是确定的
+     * Partitions ordered by the block position of their first transaction, so the result is deterministic
+     *
+     * @return 每个分区内交易的序号 transaction indexes of each partition
+     */
+    public List<List<Integer>> partitions() {
+        Map<Integer, List<Integer>> rootPartitions = new HashMap<>();
+        List<List<Integer>> partitions = new ArrayList<>();
+        for (int i = 0; i < txCount; i++) {
+            if (txFirstKey[i] < 0) {
+                partitions.add(Collections.singletonList(i));
+                continue;
+            }
+            int root = find(txFirstKey[i]);
+            List<Integer> partition = rootPartitions.get(root);
+            if (null == partition) {
+                partition = new ArrayList<>();
+                rootPartitions.put(root, partition);
+                partitions.add(partition);
+            }
+            partition.add(i);
+        }
+        return partitions;
+    }
+
+    private int indexOf(String key) {
+        Integer index = keyIndexes.get(key);
+        if (null != index) {
+            return index;
+        }
+        if (keyCount == parent.length) {
+            parent = Arrays.copyOf(parent, keyCount * 2);
+        }
+        parent[keyCount] = keyCount;
+        keyIndexes.put(key, keyCount);
+        return keyCount++;
+    }
+
+    private int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+}
@@ -54,7 +54,8 @@ import io.nuls.ledger.utils.LoggerUtil;
 
 import java.math.BigInteger;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static io.nuls.ledger.utils.LoggerUtil.logger;
 
@@ -96,6 +97,14 @@ public class CoinDataValidator {
     private Map<String, Map<String, List<FreezeHeightState>>> chainsLockedHeightMap = new ConcurrentHashMap<String, Map<String, List<FreezeHeightState>>>();
 
 
+    /**
+     * 区块交易数达到该值时按账户分区并行校验
+     * Blocks with at least this many transactions are validated in parallel by account partition
+     */
+    private static final int PARALLEL_VALIDATE_MIN_TXS = 64;
+
+    private static final ForkJoinPool VALIDATE_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
     @Autowired
     private AccountStateService accountStateService;
 
@@ -196,6 +205,10 @@ public class CoinDataValidator {
 
     /**
      * 开始批量校验,整个区块校验，场景：接收到的外部的区块包
+     * <p>
+     * 交易按账户冲突图分区, 交易数较多且存在多个分区时在线程池中并行校验各分区, 结果与逐笔顺序校验一致
+     * Transactions are partitioned by the account conflict graph. With enough transactions and more than one
+     * partition, partitions are validated in parallel; the result is the same as sequential validation.
      */
     public boolean blockValidate(int chainId, long height, List<Transaction> txs) {
         LoggerUtil.logger(chainId).debug("blocksValidate chainId={},height={},txsNumber={}", chainId, height, txs.size());
@@ -204,19 +217,100 @@ public class CoinDataValidator {
             LoggerUtil.logger(chainId).error("addressChainId ={},blockHeight={},ledgerBlockHeight={}", chainId, height, currentDbHeight);
             return false;
         }
-        Set<String> batchValidateTxSet = new HashSet<>(txs.size());
+        int txCount = txs.size();
+        CoinData[] coinDatas = new CoinData[txCount];
+        AccountConflictGraph conflictGraph = new AccountConflictGraph(txCount);
+        Set<String> txHashSet = new HashSet<>(txCount);
+        for (int i = 0; i < txCount; i++) {
+            Transaction tx = txs.get(i);
+            tx.setBlockHeight(height);
+            String txHash = tx.getHash().toHex();
+            if (!txHashSet.add(txHash)) {
+                //区块内交易重复,与逐笔校验的TX_EXIST结果一致
+                logger(chainId).error("{} tx exist!", txHash);
+                return false;
+            }
+            coinDatas[i] = CoinDataUtil.parseCoinData(tx.getCoinData());
+            if (txCount >= PARALLEL_VALIDATE_MIN_TXS && null != coinDatas[i]) {
+                addConflictKeys(conflictGraph, i, coinDatas[i]);
+            }
+        }
+        if (txCount < PARALLEL_VALIDATE_MIN_TXS) {
+            return partitionValidate(chainId, txs, coinDatas, null, null);
+        }
+        List<List<Integer>> partitions = conflictGraph.partitions();
+        if (partitions.size() == 1) {
+            return partitionValidate(chainId, txs, coinDatas, partitions.get(0), null);
+        }
+        //分区之间没有共享的账户, 任一分区失败即区块校验失败
+        AtomicBoolean failed = new AtomicBoolean(false);
+        List<Callable<Boolean>> tasks = new ArrayList<>(partitions.size());
+        for (List<Integer> partition : partitions) {
+            tasks.add(() -> partitionValidate(chainId, txs, coinDatas, partition, failed));
+        }
+        try {
+            for (Future<Boolean> future : VALIDATE_POOL.invokeAll(tasks)) {
+                if (!future.get()) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger(chainId).error(e);
+            return false;
+        } catch (ExecutionException e) {
+            logger(chainId).error(e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 记录交易涉及的账户资产, 解锁交易还涉及被解锁的nonce(同一区块内不允许重复解锁)
+     * Record the account assets a transaction touches, unlocks also touch the unlocked nonce (it may only be unlocked once per block)
+     */
+    private void addConflictKeys(AccountConflictGraph conflictGraph, int txIndex, CoinData coinData) {
+        for (CoinFrom coinFrom : coinData.getFrom()) {
+            String address = LedgerUtil.getRealAddressStr(coinFrom.getAddress());
+            conflictGraph.addKey(txIndex, LedgerUtil.getKeyStr(address, coinFrom.getAssetsChainId(), coinFrom.getAssetsId()));
+            if (coinFrom.getLocked() != 0) {
+                conflictGraph.addKey(txIndex, "locked-" + LedgerUtil.getNonceEncode(coinFrom.getNonce()));
+            }
+        }
+        for (CoinTo coinTo : coinData.getTo()) {
+            String address = LedgerUtil.getRealAddressStr(coinTo.getAddress());
+            conflictGraph.addKey(txIndex, LedgerUtil.getKeyStr(address, coinTo.getAssetsChainId(), coinTo.getAssetsId()));
+        }
+    }
+
+    /**
+     * 按区块顺序逐笔校验一个分区内的交易, 并校验分区内账户的余额
+     * Validate the transactions of one partition in block order, then check the balances of its accounts
+     *
+     * @param partition 分区内交易的序号, null表示全部交易 transaction indexes, null for all transactions
+     * @param failed    其他分区已失败时提前结束 stop early once another partition failed, may be null
+     */
+    private boolean partitionValidate(int chainId, List<Transaction> txs, CoinData[] coinDatas, List<Integer> partition, AtomicBoolean failed) {
+        int size = null == partition ? txs.size() : partition.size();
+        Set<String> batchValidateTxSet = new HashSet<>(size);
         Map<String, List<TempAccountNonce>> accountValidateTxMap = new HashMap<>(1024);
         Map<String, AccountState> accountStateMap = new HashMap<>(1024);
         Map<String, Object> lockedCancelNonceMap = new HashMap<>(32);
-        Map<String, List<FreezeLockTimeState>> lockedTimeMap = new ConcurrentHashMap<String, List<FreezeLockTimeState>>();
-        Map<String, List<FreezeHeightState>> lockedHeightMap = new ConcurrentHashMap<String, List<FreezeHeightState>>();
+        Map<String, List<FreezeLockTimeState>> lockedTimeMap = new HashMap<String, List<FreezeLockTimeState>>();
+        Map<String, List<FreezeHeightState>> lockedHeightMap = new HashMap<String, List<FreezeHeightState>>();
 
-        for (Transaction tx : txs) {
-            tx.setBlockHeight(height);
-            ValidateResult validateResult = blockTxsValidate(chainId, tx, batchValidateTxSet, accountValidateTxMap, accountStateMap, lockedCancelNonceMap,
+        for (int i = 0; i < size; i++) {
+            if (null != failed && failed.get()) {
+                return false;
+            }
+            int txIndex = null == partition ? i : partition.get(i);
+            ValidateResult validateResult = blockTxsValidate(chainId, txs.get(txIndex), coinDatas[txIndex], batchValidateTxSet, accountValidateTxMap, accountStateMap, lockedCancelNonceMap,
                     lockedTimeMap, lockedHeightMap);
             if (!validateResult.isSuccess()) {
                 LoggerUtil.logger(chainId).error("code={},msg={}", validateResult.getValidateCode(), validateResult.getValidateDesc());
+                if (null != failed) {
+                    failed.set(true);
+                }
                 return false;
             }
         }
@@ -226,11 +320,13 @@ public class CoinDataValidator {
             if (BigIntegerUtils.isLessThan(entry.getValue().getAvailableAmount(), BigInteger.ZERO)) {
                 //余额不足
                 logger(chainId).info("{}==balance is not enough", entry.getKey());
+                if (null != failed) {
+                    failed.set(true);
+                }
                 return false;
             }
         }
         return true;
-
     }
 
 
@@ -309,7 +405,7 @@ public class CoinDataValidator {
             List<FreezeLockTimeState> timeStates = getFreezeLockTimeValidateList(getFreezeLockTimeValidateMap(chainId), assetKey);
             List<FreezeHeightState> heightStates = getFreezeLockHeightValidateList(getFreezeLockHeightValidateMap(chainId), assetKey);
             if (null == accountState) {
-                accountState = accountStateService.getAccountStateReCal(address, chainId, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
+                accountState = accountStateService.getAccountStateReCal(coinFrom.getAddress(), chainId, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
                 accountStateMap.put(assetKey, accountState);
                 timeStates.addAll(accountState.getFreezeLockTimeStates());
                 heightStates.addAll(accountState.getFreezeHeightStates());
@@ -366,7 +462,7 @@ public class CoinDataValidator {
             List<FreezeLockTimeState> timeList = getFreezeLockTimeValidateList(timeStatesMap, assetKey);
             List<FreezeHeightState> heightList = getFreezeLockHeightValidateList(heightStatesMap, assetKey);
             if (null == accountState) {
-                accountState = accountStateService.getAccountStateReCal(address, chainId, coinTo.getAssetsChainId(), coinTo.getAssetsId());
+                accountState = accountStateService.getAccountStateReCal(coinTo.getAddress(), chainId, coinTo.getAssetsChainId(), coinTo.getAssetsId());
                 accountStateMap.put(assetKey, accountState);
                 timeList.addAll(accountState.getFreezeLockTimeStates());
                 heightList.addAll(accountState.getFreezeHeightStates());
@@ -587,7 +683,7 @@ public class CoinDataValidator {
             List<FreezeLockTimeState> timeList = getFreezeLockTimeValidateList(timeLockMap, assetKey);
             List<FreezeHeightState> heightList = getFreezeLockHeightValidateList(heightLockMap, assetKey);
             if (null == accountState) {
-                accountState = accountStateService.getAccountStateReCal(address, chainId, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
+                accountState = accountStateService.getAccountStateReCal(coinFrom.getAddress(), chainId, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
                 accountStateMap.put(assetKey, accountState);
                 timeList.addAll(accountState.getFreezeLockTimeStates());
                 heightList.addAll(accountState.getFreezeHeightStates());
@@ -648,6 +744,13 @@ public class CoinDataValidator {
     public ValidateResult blockTxsValidate(int chainId, Transaction tx, Set<String> batchValidateTxSet, Map<String, List<TempAccountNonce>> accountValidateTxMap,
                                            Map<String, AccountState> accountStateMap, Map<String, Object> lockedCancelNonceMap, Map<String, List<FreezeLockTimeState>> lockedTimeMap,
                                            Map<String, List<FreezeHeightState>> lockedHeightMap) {
+        return blockTxsValidate(chainId, tx, CoinDataUtil.parseCoinData(tx.getCoinData()), batchValidateTxSet, accountValidateTxMap, accountStateMap,
+                lockedCancelNonceMap, lockedTimeMap, lockedHeightMap);
+    }
+
+    private ValidateResult blockTxsValidate(int chainId, Transaction tx, CoinData coinData, Set<String> batchValidateTxSet, Map<String, List<TempAccountNonce>> accountValidateTxMap,
+                                            Map<String, AccountState> accountStateMap, Map<String, Object> lockedCancelNonceMap, Map<String, List<FreezeLockTimeState>> lockedTimeMap,
+                                            Map<String, List<FreezeHeightState>> lockedHeightMap) {
         //先校验，再逐笔放入缓存
         //交易的 hash值如果已存在，返回false，交易的from coin nonce 如果不连续，则存在双花。
         String txHash = tx.getHash().toHex();
@@ -663,7 +766,6 @@ public class CoinDataValidator {
         } catch (Exception e) {
             LoggerUtil.logger(chainId).error(e);
         }
-        CoinData coinData = CoinDataUtil.parseCoinData(tx.getCoinData());
         if (null == coinData) {
             //例如黄牌交易，直接返回
             batchValidateTxSet.add(txHash);
@@ -791,7 +893,7 @@ public class CoinDataValidator {
                 }
             }
             String address = LedgerUtil.getRealAddressStr(coinFrom.getAddress());
-            AccountState accountState = accountStateService.getAccountStateReCal(address, addressChainId, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
+            AccountState accountState = accountStateService.getAccountStateReCal(coinFrom.getAddress(), addressChainId, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
             //普通交易
             if (coinFrom.getLocked() == 0) {
                 return validateCommonCoinData(addressChainId, coinFrom.getAssetsChainId(), coinFrom.getAssetsId(), accountState, address, coinFrom.getAmount(), coinFrom.getNonce(), txNonce, true);
@@ -833,7 +935,7 @@ public class CoinDataValidator {
             int assetChainId = coinFrom.getAssetsChainId();
             int assetId = coinFrom.getAssetsId();
             String accountKey = LedgerUtil.getKeyStr(address, assetChainId, assetId);
-            AccountState accountState = accountStateService.getAccountStateReCal(address, addressChainId, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
+            AccountState accountState = accountStateService.getAccountStateReCal(coinFrom.getAddress(), addressChainId, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
             //普通交易
             if (coinFrom.getLocked() == 0) {
                 ValidateResult validateResult = validateCommonCoinData(addressChainId, assetChainId, assetId, accountState, address, coinFrom.getAmount(), coinFrom.getNonce(), txNonce, false);
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.test.storage;
+
+import io.nuls.ledger.model.po.AccountState;
+import io.nuls.ledger.model.po.sub.FreezeHeightState;
+import io.nuls.ledger.storage.AccountStateCache;
+import io.nuls.ledger.utils.LedgerUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AccountStateCacheTest {
+
+    private AccountState newAccountState(long amount) {
+        AccountState accountState = new AccountState(new byte[]{0, 0, 0, 0, 0, 0, 0, 1});
+        accountState.setTotalToAmount(BigInteger.valueOf(amount));
+        FreezeHeightState heightState = new FreezeHeightState();
+        heightState.setAmount(BigInteger.ONE);
+        accountState.getFreezeHeightStates().add(heightState);
+        return accountState;
+    }
+
+    @Test
+    public void loadOnMiss() {
+        AccountStateCache cache = new AccountStateCache(1000);
+        AtomicInteger loads = new AtomicInteger();
+        byte[] key = "address-2-1".getBytes();
+        AccountState first = cache.get(key, () -> {
+            loads.incrementAndGet();
+            return newAccountState(100);
+        });
+        AccountState second = cache.get(key, () -> {
+            loads.incrementAndGet();
+            return newAccountState(200);
+        });
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals(BigInteger.valueOf(100), second.getTotalToAmount());
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertNull(cache.get("none".getBytes(), () -> null));
+    }
+
+    @Test
+    public void copyOnWriteSnapshot() {
+        AccountStateCache cache = new AccountStateCache(1000);
+        byte[] key = "address-2-1".getBytes();
+        cache.put(key, newAccountState(100));
+
+        AccountState snapshot = cache.get(key, () -> null);
+        Assert.assertEquals(BigInteger.ONE, snapshot.getFreezeTotal());
+        snapshot.getFreezeHeightStates().clear();
+        snapshot.getNonce()[7] = 9;
+        snapshot.setTotalToAmount(BigInteger.ZERO);
+
+        AccountState cached = cache.get(key, () -> null);
+        Assert.assertEquals(1, cached.getFreezeHeightStates().size());
+        Assert.assertEquals(1, cached.getNonce()[7]);
+        Assert.assertEquals(BigInteger.valueOf(100), cached.getTotalToAmount());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        AccountStateCache cache = new AccountStateCache(16);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(("address-" + i).getBytes(), newAccountState(i));
+        }
+        Assert.assertTrue(cache.size() <= 16 + 16);
+        Assert.assertEquals(1000 - cache.size(), cache.getEvictionCount());
+    }
+
+    @Test
+    public void cacheKey() {
+        byte[] address = new byte[23];
+        address[0] = 2;
+        address[2] = 1;
+        Arrays.fill(address, 3, 23, (byte) 7);
+        byte[] key = LedgerUtil.getAccountCacheKey(address, 2, 1);
+        Assert.assertEquals(27, key.length);
+        Assert.assertArrayEquals(new byte[]{0, 2, 0, 1}, Arrays.copyOfRange(key, 23, 27));
+        //字符串地址与地址字节得到相同的key
+        Assert.assertArrayEquals(key, LedgerUtil.getAccountCacheKey(LedgerUtil.getRealAddressStr(address), 2, 1));
+        Assert.assertFalse(Arrays.equals(key, LedgerUtil.getAccountCacheKey(address, 2, 2)));
+    }
+}
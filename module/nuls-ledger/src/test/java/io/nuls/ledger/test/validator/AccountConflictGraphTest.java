@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.test.validator;
+
+import io.nuls.ledger.validator.AccountConflictGraph;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class AccountConflictGraphTest {
+
+    @Test
+    public void partitions() {
+        AccountConflictGraph graph = new AccountConflictGraph(6);
+        // tx0: A -> B, tx1: C -> D, tx2: B -> E, tx3: no coin data, tx4: F -> F, tx5: D -> A
+        graph.addKey(0, "A");
+        graph.addKey(0, "B");
+        graph.addKey(1, "C");
+        graph.addKey(1, "D");
+        graph.addKey(2, "B");
+        graph.addKey(2, "E");
+        graph.addKey(4, "F");
+        graph.addKey(4, "F");
+
+        List<List<Integer>> partitions = graph.partitions();
+        Assert.assertEquals(5, partitions.size());
+        Assert.assertEquals(Arrays.asList(0, 2), partitions.get(0));
+        Assert.assertEquals(Arrays.asList(1), partitions.get(1));
+        Assert.assertEquals(Arrays.asList(3), partitions.get(2));
+        Assert.assertEquals(Arrays.asList(4), partitions.get(3));
+        Assert.assertEquals(Arrays.asList(5), partitions.get(4));
+
+        graph.addKey(5, "D");
+        graph.addKey(5, "A");
+        partitions = graph.partitions();
+        Assert.assertEquals(3, partitions.size());
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 5), partitions.get(0));
+    }
+
+    @Test
+    public void manyKeys() {
+        int count = 10000;
+        AccountConflictGraph graph = new AccountConflictGraph(count);
+        for (int i = 0; i < count; i++) {
+            graph.addKey(i, "from" + i);
+            graph.addKey(i, "to" + (i % 100));
+        }
+        Assert.assertEquals(100, graph.partitions().size());
+    }
+}
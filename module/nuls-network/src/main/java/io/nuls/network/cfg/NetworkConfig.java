@@ -56,6 +56,17 @@ public class NetworkConfig implements ModuleConfig {
      * 中心化网络服务接口
      */
     private String timeServers;
+    /**
+     * 每个节点的发送速率上限 (B/s), 0表示不限制, 共识与区块转发消息不受限制但占用额度
+     * Max send rate per peer (B/s), 0 means unlimited. Consensus and block forward messages are never held back
+     * but still use up the budget.
+     */
+    private long peerSendRateLimit = 0L;
+    /**
+     * 每个节点的区块同步数据发送速率上限 (B/s), 0表示不限制
+     * Max send rate of block sync data per peer (B/s), 0 means unlimited
+     */
+    private long peerBulkSendRateLimit = 0L;
 
     public List<String> getLocalIps() {
 
@@ -248,4 +259,20 @@ public class NetworkConfig implements ModuleConfig {
     public void setMainChainId(int mainChainId) {
         this.mainChainId = mainChainId;
     }
+
+    public long getPeerSendRateLimit() {
+        return peerSendRateLimit;
+    }
+
+    public void setPeerSendRateLimit(long peerSendRateLimit) {
+        this.peerSendRateLimit = peerSendRateLimit;
+    }
+
+    public long getPeerBulkSendRateLimit() {
+        return peerBulkSendRateLimit;
+    }
+
+    public void setPeerBulkSendRateLimit(long peerBulkSendRateLimit) {
+        this.peerBulkSendRateLimit = peerBulkSendRateLimit;
+    }
 }
@@ -61,8 +61,13 @@ public interface NetworkConstant {
      */
     int CONNETCI_TIME_OUT = 6000;
 
-    int HIGH_WATER_MARK = 8 * 1024 * 1024;
-    int LOW_WATER_MARK = 4 * 1024 * 1024;
+    /**
+     * 连接写缓冲区的高低水位, 超过高水位时连接不可写, 消息留在节点的发送队列中按优先级等待
+     * Write buffer watermarks of a channel. Above the high watermark the channel is not writable,
+     * and messages wait in the peer's outbound queue by priority.
+     */
+    int HIGH_WATER_MARK = 1024 * 1024;
+    int LOW_WATER_MARK = 512 * 1024;
 
     int MAX_SAME_IP_PER_GROUP = 10;
 
@@ -124,9 +129,20 @@ public interface NetworkConstant {
     long MAX_NUMBER_4_BYTE = 4294967295L;
     int MAX_NUMBER_2_BYTE = 65535;
 
-    int MAX_CACHE_MSG_QUEUE = 100;
-    int INIT_CACHE_MSG_QUEUE_NUMBER = 110;
-
     int MAX_CACHE_MSG_CYCLE_MILL_TIME = 5000;
-    int MAX_CACHE_MSG_TRY_TIME = 5;
+
+    /**
+     * 转发给业务模块的消息队列: 达到高水位时暂停读取节点消息, 降到低水位时恢复, 达到容量上限时丢弃
+     * Queue of messages forwarded to protocol modules: peer reads pause at the high watermark,
+     * resume at the low watermark, and messages are dropped at the capacity
+     */
+    int RPC_MSG_QUEUE_CAPACITY = 4096;
+    int RPC_MSG_QUEUE_HIGH_WATERMARK = 2048;
+    int RPC_MSG_QUEUE_LOW_WATERMARK = 512;
+    /**
+     * 单次批量转发的最大消息数与最大字节数
+     * Max number of messages and bytes forwarded in one batch
+     */
+    int RPC_MSG_BATCH_MAX_COUNT = 64;
+    int RPC_MSG_BATCH_MAX_BYTES = 1024 * 1024;
 }
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.network.constant;
+
+/**
+ * 节点发送消息的优先级分类, 按声明顺序从高到低发送
+ * CONSENSUS     网络模块自身消息与注册为高优先级的消息
+ * BLOCK_FORWARD 区块转发及其交易补全消息, 以及未指定优先级的消息
+ * TX_GOSSIP     交易广播等低优先级消息, 排队过久则丢弃
+ * BULK          区块同步的批量数据, 受单独的速率限制
+ * Outbound message classes of a peer, sent in declaration order from highest to lowest.
+ */
+public enum OutboundPriority {
+    CONSENSUS(4 * 1024 * 1024, 0),
+    BLOCK_FORWARD(16 * 1024 * 1024, 0),
+    TX_GOSSIP(4 * 1024 * 1024, 3000),
+    BULK(32 * 1024 * 1024, 0);
+
+    /**
+     * 队列中允许积压的最大字节数, 超出后新消息被丢弃
+     * Max bytes queued in this class, new messages are dropped beyond it
+     */
+    private final long maxQueuedBytes;
+    /**
+     * 消息排队超过该时间(毫秒)后丢弃, 0表示不丢弃
+     * Messages queued longer than this (ms) are dropped, 0 means never
+     */
+    private final long maxQueuedTime;
+
+    OutboundPriority(long maxQueuedBytes, long maxQueuedTime) {
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.maxQueuedTime = maxQueuedTime;
+    }
+
+    public long getMaxQueuedBytes() {
+        return maxQueuedBytes;
+    }
+
+    public long getMaxQueuedTime() {
+        return maxQueuedTime;
+    }
+}
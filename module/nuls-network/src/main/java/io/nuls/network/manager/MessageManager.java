@@ -24,14 +24,17 @@
  */
 package io.nuls.network.manager;
 
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
-import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelPromise;
 import io.nuls.base.basic.NulsByteBuffer;
-import io.nuls.base.data.BaseNulsData;
+import io.nuls.core.constant.ErrorCode;
+import io.nuls.core.core.ioc.SpringLiteContext;
 import io.nuls.core.crypto.Sha256Hash;
 import io.nuls.core.log.Log;
 import io.nuls.core.model.ByteUtils;
+import io.nuls.network.cfg.NetworkConfig;
 import io.nuls.network.constant.ManagerStatusEnum;
 import io.nuls.network.constant.NetworkConstant;
 import io.nuls.network.constant.NetworkErrorCode;
@@ -42,14 +45,13 @@ import io.nuls.network.manager.handler.message.OtherModuleMessageHandler;
 import io.nuls.network.model.NetworkEventResult;
 import io.nuls.network.model.Node;
 import io.nuls.network.model.NodeGroup;
+import io.nuls.network.model.NodeOutboundQueue;
 import io.nuls.network.model.dto.IpAddressShare;
-import io.nuls.network.model.dto.PeerCacheMessage;
 import io.nuls.network.model.message.AddrMessage;
 import io.nuls.network.model.message.GetAddrMessage;
 import io.nuls.network.model.message.base.BaseMessage;
 import io.nuls.network.model.message.base.MessageHeader;
 import io.nuls.network.utils.LoggerUtil;
-import io.nuls.network.utils.MessageUtil;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
@@ -245,6 +247,8 @@ public class MessageManager extends BaseManager {
 
     /**
      * 广播消息到所有节点，排除特定节点
+     * 消息只序列化一次, 所有节点共享同一个引用计数的缓冲区
+     * The message is serialized once and all peers share the same reference counted buffer
      *
      * @param message
      * @param excludeNode
@@ -262,11 +266,28 @@ public class MessageManager extends BaseManager {
             connectNodes = nodeGroup.getLocalNetNodeContainer().getConnectedNodes().values();
         }
         if (null != connectNodes && connectNodes.size() > 0) {
-            for (Node connectNode : connectNodes) {
-                if (null != excludeNode && connectNode.getId().equals(excludeNode.getId())) {
-                    continue;
+            ByteBuf frame;
+            try {
+                frame = encode(message);
+            } catch (Exception e) {
+                LoggerUtil.COMMON_LOG.error(e);
+                return new NetworkEventResult(false, NetworkErrorCode.NET_MESSAGE_ERROR);
+            }
+            try {
+                for (Node connectNode : connectNodes) {
+                    if (null != excludeNode && connectNode.getId().equals(excludeNode.getId())) {
+                        continue;
+                    }
+                    if (null == checkNode(message, connectNode)) {
+                        try {
+                            writeToNode(frame.retainedDuplicate(), connectNode, message.getHeader().getCommandStr(), asyn);
+                        } catch (Exception e) {
+                            LoggerUtil.COMMON_LOG.error(e);
+                        }
+                    }
                 }
-                this.sendToNode(message, connectNode, asyn);
+            } finally {
+                frame.release();
             }
         }
         return new NetworkEventResult(true, NetworkErrorCode.SUCCESS);
@@ -304,51 +325,85 @@ public class MessageManager extends BaseManager {
     }
 
     private NetworkEventResult broadcastToANode(BaseMessage message, Node node, boolean asyn) {
-        /*
-         *not handShakeMessage must be  validate peer status
-         */
+        ErrorCode errorCode = checkNode(message, node);
+        if (null != errorCode) {
+            return new NetworkEventResult(false, errorCode);
+        }
+        try {
+            return writeToNode(encode(message), node, message.getHeader().getCommandStr(), asyn);
+        } catch (Exception e) {
+            LoggerUtil.COMMON_LOG.error(e);
+            return new NetworkEventResult(false, NetworkErrorCode.NET_MESSAGE_ERROR);
+        }
+    }
+
+    /**
+     * 非握手消息需要节点已完成握手, 并且连接可用
+     * Non handshake messages require the peer to have completed the handshake, and the channel must be active
+     *
+     * @return 节点不可发送时返回错误码, 否则返回null
+     */
+    private ErrorCode checkNode(BaseMessage message, Node node) {
         if (!isHandShakeMessage(message)) {
             if (NodeConnectStatusEnum.AVAILABLE != node.getConnectStatus()) {
                 Log.error("============={} status is not handshake(AVAILABLE)", node.getId());
-                return new NetworkEventResult(false, NetworkErrorCode.NET_NODE_DEAD);
+                return NetworkErrorCode.NET_NODE_DEAD;
             }
         }
         if (node.getChannel() == null || !node.getChannel().isActive()) {
             Log.error("============={} getChannel is not Active", node.getId());
-            return new NetworkEventResult(false, NetworkErrorCode.NET_NODE_MISS_CHANNEL);
+            return NetworkErrorCode.NET_NODE_MISS_CHANNEL;
         }
-        try {
-            MessageHeader header = message.getHeader();
-            BaseNulsData body = message.getMsgBody();
-            header.setPayloadLength(body.size());
-            if (asyn) {
-                node.getChannel().eventLoop().execute(() -> {
-                    Channel channel = node.getChannel();
-                    if (channel != null) {
-                        try {
-                            if (!channel.isWritable()) {
-                                LoggerUtil.COMMON_LOG.error("#### isWritable=false,send fail.node={},cmd={}", node.getId(), header.getCommandStr());
+        return null;
+    }
 
-                            }
-                            channel.writeAndFlush(Unpooled.wrappedBuffer(message.serialize()));
-                        } catch (IOException e) {
-                            LoggerUtil.COMMON_LOG.error(e);
-                        }
-                    }
+    /**
+     * 将消息头与消息体一次性编码到池化的直接内存缓冲区中
+     * Encode the header and body once into a pooled direct buffer
+     *
+     * @param message message
+     * @return 引用计数为1的缓冲区, 由调用者负责释放
+     */
+    private ByteBuf encode(BaseMessage message) throws IOException {
+        message.getHeader().setPayloadLength(message.getMsgBody().size());
+        return encode(message.serialize());
+    }
 
-                });
-            } else {
-                ChannelFuture future = node.getChannel().writeAndFlush(Unpooled.wrappedBuffer(message.serialize()));
-                future.await();
-                boolean success = future.isSuccess();
-                if (!success) {
-                    return new NetworkEventResult(false, NetworkErrorCode.NET_BROADCAST_FAIL);
-                }
-            }
+    private ByteBuf encode(byte[] message) {
+        ByteBuf frame = PooledByteBufAllocator.DEFAULT.directBuffer(message.length);
+        frame.writeBytes(message);
+        return frame;
+    }
 
-        } catch (Exception e) {
-            LoggerUtil.COMMON_LOG.error(e);
-            return new NetworkEventResult(false, NetworkErrorCode.NET_MESSAGE_ERROR);
+    /**
+     * 将已编码的消息放入节点的发送队列, 由本方法负责释放frame
+     * 发送队列按消息优先级写入连接, 刷新由管道中的FlushConsolidationHandler合并
+     * Queue an encoded message to a peer, this method takes ownership of frame.
+     * The outbound queue writes to the channel by message priority, and flushes are coalesced by the
+     * FlushConsolidationHandler in the pipeline.
+     *
+     * @param frame 已编码的消息
+     * @param node  节点
+     * @param cmd   消息指令
+     * @param asyn  是否异步
+     */
+    private NetworkEventResult writeToNode(ByteBuf frame, Node node, String cmd, boolean asyn) throws InterruptedException {
+        Channel channel = node.getChannel();
+        if (channel == null) {
+            frame.release();
+            return new NetworkEventResult(false, NetworkErrorCode.NET_NODE_MISS_CHANNEL);
+        }
+        if (asyn) {
+            if (!node.getOutboundQueue().offer(frame, cmd, null)) {
+                return new NetworkEventResult(false, NetworkErrorCode.NET_BROADCAST_FAIL);
+            }
+            return new NetworkEventResult(true, NetworkErrorCode.SUCCESS);
+        }
+        ChannelPromise promise = channel.newPromise();
+        node.getOutboundQueue().offer(frame, cmd, promise);
+        promise.await();
+        if (!promise.isSuccess()) {
+            return new NetworkEventResult(false, NetworkErrorCode.NET_BROADCAST_FAIL);
         }
         return new NetworkEventResult(true, NetworkErrorCode.SUCCESS);
     }
@@ -372,39 +427,24 @@ public class MessageManager extends BaseManager {
             }
             nodes = nodes.subList(0, toIndex);
         }
-        for (Node node : nodes) {
-            if (node.getChannel() == null || !node.getChannel().isActive()) {
-                Log.info("broadcastToNodes node={} is not Active", node.getId());
-                continue;
-            }
-            try {
-                if (asyn) {
-                    node.getChannel().eventLoop().execute(() -> {
-                        Channel channel = node.getChannel();
-                        if (channel != null) {
-                            if (!channel.isWritable()) {
-                                if (!MessageUtil.isLowerLeverCmd(cmd)) {
-                                    LoggerUtil.COMMON_LOG.debug("#### isWritable=false,node={},cmd={} add to cache", node.getId(), cmd);
-                                    node.getCacheSendMsgQueue().addLast(new PeerCacheMessage(message));
-                                } else {
-                                    LoggerUtil.COMMON_LOG.debug("#### isWritable=false,node={},cmd={} send to peer is drop", node.getId(), cmd);
-                                }
-                            } else {
-                                channel.writeAndFlush(Unpooled.wrappedBuffer(message));
-                            }
-                        }
-                    });
-                } else {
-                    ChannelFuture future = node.getChannel().writeAndFlush(Unpooled.wrappedBuffer(message));
-                    future.await();
-                    boolean success = future.isSuccess();
-                    if (!success) {
+        ByteBuf frame = encode(message);
+        try {
+            for (Node node : nodes) {
+                if (node.getChannel() == null || !node.getChannel().isActive()) {
+                    Log.info("broadcastToNodes node={} is not Active", node.getId());
+                    continue;
+                }
+                try {
+                    NetworkEventResult result = writeToNode(frame.retainedDuplicate(), node, cmd, asyn);
+                    if (!asyn && !result.isSuccess()) {
                         return new NetworkEventResult(false, NetworkErrorCode.NET_BROADCAST_FAIL);
                     }
+                } catch (Exception e) {
+                    Log.error(e);
                 }
-            } catch (Exception e) {
-                Log.error(e);
             }
+        } finally {
+            frame.release();
         }
         return new NetworkEventResult(true, NetworkErrorCode.SUCCESS);
     }
@@ -412,6 +452,8 @@ public class MessageManager extends BaseManager {
     @Override
     public void init() throws Exception {
         MessageFactory.getInstance().init();
+        NetworkConfig networkConfig = SpringLiteContext.getBean(NetworkConfig.class);
+        NodeOutboundQueue.setSendRateLimit(networkConfig.getPeerSendRateLimit(), networkConfig.getPeerBulkSendRateLimit());
     }
 
     @Override
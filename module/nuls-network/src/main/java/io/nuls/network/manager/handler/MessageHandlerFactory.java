@@ -36,6 +36,7 @@ import io.nuls.network.utils.MessageUtil;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -53,6 +54,11 @@ public class MessageHandlerFactory {
      * key : protocol cmd, value : Map<role,role>
      */
     private static Map<String, Map<String, CmdPriority>> protocolRoleHandlerMap = new ConcurrentHashMap<>();
+    /**
+     * 支持批量消息处理(msgProcessBatch)的模块角色
+     * Roles that accept batched peer messages (msgProcessBatch)
+     */
+    private static Set<String> batchRoles = ConcurrentHashMap.newKeySet();
 
     private static MessageHandlerFactory INSTANCE = new MessageHandlerFactory();
 
@@ -106,12 +112,21 @@ public class MessageHandlerFactory {
             for (Map<String, CmdPriority> value : values) {
                 value.remove(role);
             }
+            batchRoles.remove(role);
         } finally {
             Lockers.PROTOCOL_HANDLERS_REGISTER_LOCK.unlock();
         }
 
     }
 
+    public void addBatchRole(String role) {
+        batchRoles.add(role);
+    }
+
+    public boolean isBatchRole(String role) {
+        return batchRoles.contains(role);
+    }
+
     /**
      * get handler entity
      *
@@ -0,0 +1,212 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.network.manager.handler.message;
+
+import io.netty.channel.Channel;
+import io.nuls.base.data.PeerMessageBatch;
+import io.nuls.core.constant.BaseConstant;
+import io.nuls.core.rpc.info.Constants;
+import io.nuls.core.rpc.model.message.MessageUtil;
+import io.nuls.core.rpc.model.message.Request;
+import io.nuls.core.rpc.netty.processor.ResponseMessageProcessor;
+import io.nuls.core.thread.ThreadUtils;
+import io.nuls.network.constant.NetworkConstant;
+import io.nuls.network.manager.TimeManager;
+import io.nuls.network.manager.handler.MessageHandlerFactory;
+import io.nuls.network.model.Node;
+import io.nuls.network.model.dto.RpcCacheMessage;
+import io.nuls.network.utils.LoggerUtil;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 将节点消息转发给业务模块
+ * 每个模块角色一个有界队列与一个发送线程, 消息体以原始字节转发, 支持批量处理的模块一次转发多条消息.
+ * 队列达到高水位时暂停读取发送消息的节点连接, 降到低水位后恢复, 以此向节点施加背压, 而不是缓存后定时重试.
+ * Forward peer messages to protocol modules.
+ * Each module role has a bounded queue and a sender thread. Message bodies are forwarded as raw bytes, and several
+ * messages are sent in one request to modules that support batching. When a queue reaches the high watermark, reading
+ * from the sending peer's channel is paused until the queue drains to the low watermark, applying back-pressure to peers
+ * instead of caching and retrying on a timer.
+ */
+public class ModuleMessageDispatcher {
+
+    private static final long RETRY_INTERVAL = 10L;
+
+    private static ModuleMessageDispatcher instance = new ModuleMessageDispatcher();
+
+    private final Map<String, RoleQueue> queues = new ConcurrentHashMap<>();
+
+    private ModuleMessageDispatcher() {
+
+    }
+
+    public static ModuleMessageDispatcher getInstance() {
+        return instance;
+    }
+
+    /**
+     * 将消息放入模块角色的转发队列
+     * Put a message into the forward queue of a module role
+     *
+     * @param role    模块角色
+     * @param message 节点消息
+     */
+    public void dispatch(String role, RpcCacheMessage message) {
+        RoleQueue queue = queues.get(role);
+        if (null == queue) {
+            synchronized (queues) {
+                queue = queues.get(role);
+                if (null == queue) {
+                    queue = new RoleQueue(role);
+                    queues.put(role, queue);
+                    ThreadUtils.createAndRunThread("rpc-msg-dispatch-" + role, queue, true);
+                }
+            }
+        }
+        queue.offer(message);
+    }
+
+    private static class RoleQueue implements Runnable {
+
+        private final String role;
+        private final LinkedBlockingQueue<RpcCacheMessage> queue = new LinkedBlockingQueue<>(NetworkConstant.RPC_MSG_QUEUE_CAPACITY);
+        private final Set<Node> pausedNodes = ConcurrentHashMap.newKeySet();
+
+        private RoleQueue(String role) {
+            this.role = role;
+        }
+
+        private void offer(RpcCacheMessage message) {
+            if (!queue.offer(message)) {
+                LoggerUtil.logger(message.getChainId()).error("role={},cmd={},msg queue full,drop msg", role, message.getCmd());
+                return;
+            }
+            if (queue.size() >= NetworkConstant.RPC_MSG_QUEUE_HIGH_WATERMARK) {
+                Channel channel = message.getNode().getChannel();
+                if (null != channel && pausedNodes.add(message.getNode())) {
+                    channel.config().setAutoRead(false);
+                    LoggerUtil.logger(message.getChainId()).debug("role={},msg queue size={},pause reading node={}", role, queue.size(), message.getNode().getId());
+                }
+            }
+        }
+
+        private void resumeIfDrained() {
+            if (pausedNodes.isEmpty() || queue.size() > NetworkConstant.RPC_MSG_QUEUE_LOW_WATERMARK) {
+                return;
+            }
+            Iterator<Node> iterator = pausedNodes.iterator();
+            while (iterator.hasNext()) {
+                Node node = iterator.next();
+                iterator.remove();
+                Channel channel = node.getChannel();
+                if (null != channel) {
+                    channel.config().setAutoRead(true);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            List<RpcCacheMessage> batch = new ArrayList<>();
+            while (true) {
+                try {
+                    RpcCacheMessage message = queue.take();
+                    batch.add(message);
+                    int bytes = message.getMessageBody().length;
+                    while (batch.size() < NetworkConstant.RPC_MSG_BATCH_MAX_COUNT && bytes < NetworkConstant.RPC_MSG_BATCH_MAX_BYTES) {
+                        message = queue.poll();
+                        if (null == message) {
+                            break;
+                        }
+                        batch.add(message);
+                        bytes += message.getMessageBody().length;
+                    }
+                    resumeIfDrained();
+                    if (batch.size() > 1 && MessageHandlerFactory.getInstance().isBatchRole(role)) {
+                        send(batch.get(0), batchRequest(batch));
+                    } else {
+                        for (RpcCacheMessage single : batch) {
+                            send(single, request(single));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    LoggerUtil.COMMON_LOG.error("role={},currentThread interrupt!!", role);
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    LoggerUtil.COMMON_LOG.error(e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        /**
+         * 发送请求, 模块连接不可写时等待后重试, 队列随之积压并触发背压, 超过最大缓存时间后丢弃
+         *
+         * @param oldest  请求中最早的消息
+         * @param request 请求
+         */
+        private void send(RpcCacheMessage oldest, Request request) throws Exception {
+            while (true) {
+                if (TimeManager.currentTimeMillis() - oldest.getCreateTime() > NetworkConstant.MAX_CACHE_MSG_CYCLE_MILL_TIME) {
+                    LoggerUtil.logger(oldest.getChainId()).error("role={},cmd={},createTime={},RPC fail,drop msg", role, oldest.getCmd(), oldest.getCreateTime());
+                    return;
+                }
+                try {
+                    if (!"0".equals(ResponseMessageProcessor.requestOnly(role, request))) {
+                        return;
+                    }
+                } catch (Exception e) {
+                    LoggerUtil.logger(oldest.getChainId()).error("role={},cmd={},RPC fail,drop msg:{}", role, oldest.getCmd(), e.getMessage());
+                    return;
+                }
+                Thread.sleep(RETRY_INTERVAL);
+            }
+        }
+
+        private Request request(RpcCacheMessage message) {
+            Map<String, Object> paramMap = new HashMap<>(4);
+            paramMap.put("chainId", message.getChainId());
+            paramMap.put("nodeId", message.getNode().getId());
+            paramMap.put("cmd", message.getCmd());
+            paramMap.put("messageBody", message.getMessageBody());
+            return MessageUtil.newRequest(BaseConstant.MSG_PROCESS, paramMap, Constants.BOOLEAN_FALSE, Constants.ZERO, Constants.ZERO);
+        }
+
+        private Request batchRequest(List<RpcCacheMessage> messages) throws Exception {
+            List<PeerMessageBatch.PeerMessage> list = new ArrayList<>(messages.size());
+            for (RpcCacheMessage message : messages) {
+                list.add(new PeerMessageBatch.PeerMessage(message.getChainId(), message.getNode().getId(), message.getCmd(), message.getMessageBody()));
+            }
+            Map<String, Object> paramMap = new HashMap<>(2);
+            paramMap.put("messages", new PeerMessageBatch(list).serialize());
+            return MessageUtil.newRequest(BaseConstant.MSG_PROCESS_BATCH, paramMap, Constants.BOOLEAN_FALSE, Constants.ZERO, Constants.ZERO);
+        }
+    }
+}
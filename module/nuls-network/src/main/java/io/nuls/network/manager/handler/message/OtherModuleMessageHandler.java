@@ -24,26 +24,17 @@
  */
 package io.nuls.network.manager.handler.message;
 
-import io.nuls.base.RPCUtil;
-import io.nuls.core.constant.BaseConstant;
-import io.nuls.core.rpc.info.Constants;
 import io.nuls.core.rpc.model.CmdPriority;
-import io.nuls.core.rpc.model.message.MessageUtil;
-import io.nuls.core.rpc.model.message.Request;
-import io.nuls.core.rpc.netty.processor.ResponseMessageProcessor;
-import io.nuls.network.constant.NetworkConstant;
 import io.nuls.network.manager.NodeGroupManager;
 import io.nuls.network.manager.handler.MessageHandlerFactory;
 import io.nuls.network.manager.handler.base.BaseMessageHandler;
 import io.nuls.network.model.NetworkEventResult;
 import io.nuls.network.model.Node;
-import io.nuls.network.model.NodeGroup;
 import io.nuls.network.model.dto.RpcCacheMessage;
 import io.nuls.network.model.message.base.BaseMessage;
 import io.nuls.network.model.message.base.MessageHeader;
 import io.nuls.network.utils.LoggerUtil;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -84,34 +75,16 @@ public class OtherModuleMessageHandler extends BaseMessageHandler {
     public NetworkEventResult recieve(MessageHeader header, byte[] payLoadBody, Node node) {
         long magicNum = header.getMagicNumber();
         int chainId = NodeGroupManager.getInstance().getChainIdByMagicNum(magicNum);
-        NodeGroup nodeGroup = NodeGroupManager.getInstance().getNodeGroupByChainId(chainId);
-        Map<String, Object> paramMap = new HashMap<>();
-        paramMap.put("chainId", chainId);
-        paramMap.put("nodeId", node.getId());
         String cmd = header.getCommandStr();
-        paramMap.put("cmd", cmd);
-        String messageBody = RPCUtil.encode(payLoadBody);
-        paramMap.put("messageBody", messageBody);
         Map<String, CmdPriority> protocolRoles = MessageHandlerFactory.getInstance().getProtocolRoleHandlerMap(cmd);
         if (protocolRoles == null || protocolRoles.isEmpty()) {
             LoggerUtil.logger(chainId).error("unknown mssages. cmd={},handler may be unRegistered to network.", cmd);
             return NetworkEventResult.getResultSuccess();
         }
-        for (Map.Entry<String,CmdPriority> entry : protocolRoles.entrySet()) {
-            try {
-                Request request = MessageUtil.newRequest(BaseConstant.MSG_PROCESS, paramMap, Constants.BOOLEAN_FALSE, Constants.ZERO, Constants.ZERO);
-                if ("0".equals(ResponseMessageProcessor.requestOnly(entry.getKey(), request))) {
-                    if (nodeGroup.getCacheMsgQueue().size() > NetworkConstant.MAX_CACHE_MSG_QUEUE) {
-                        LoggerUtil.COMMON_LOG.error("chainId = {},cmd={},CacheMsgQueue size={}.RPC fail,drop msg", chainId, cmd, nodeGroup.getCacheMsgQueue().size());
-                    } else {
-                        LoggerUtil.COMMON_LOG.error("chainId = {},cmd={},RPC fail,add to cache", chainId, cmd);
-                        RpcCacheMessage peerMessage = new RpcCacheMessage(node.getId(), cmd, messageBody);
-                        nodeGroup.getCacheMsgQueue().addLast(peerMessage);
-                    }
-                }
-            } catch (Exception e) {
-                LoggerUtil.logger(chainId).error("{}", e.getMessage());
-            }
+        //消息体以原始字节转发, 由各模块的转发队列发送
+        RpcCacheMessage message = new RpcCacheMessage(chainId, node, cmd, payLoadBody);
+        for (String role : protocolRoles.keySet()) {
+            ModuleMessageDispatcher.getInstance().dispatch(role, message);
         }
 //        MessageTestUtil.recievedMessage(cmd);
         return NetworkEventResult.getResultSuccess();
@@ -29,14 +29,10 @@ import io.netty.channel.Channel;
 import io.nuls.network.constant.NetworkConstant;
 import io.nuls.network.manager.NodeGroupManager;
 import io.nuls.network.model.dto.Dto;
-import io.nuls.network.model.dto.PeerCacheMessage;
 import io.nuls.network.model.po.BasePo;
 import io.nuls.network.model.po.NodePo;
 import io.nuls.network.netty.listener.EventListener;
 
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.LinkedBlockingDeque;
-
 /**
  * 一个peer节点可以同时为多条链使用，
  * 所以存在节点所属不同网络的状态维护
@@ -109,7 +105,11 @@ public class Node implements Dto {
     private EventListener connectedListener;
     private EventListener disconnectListener;
 
-    private BlockingDeque<PeerCacheMessage> cacheSendMsgQueue = new LinkedBlockingDeque<>(NetworkConstant.INIT_CACHE_MSG_QUEUE_NUMBER);
+    /**
+     * 发送队列
+     * outbound queue
+     */
+    private final NodeOutboundQueue outboundQueue = new NodeOutboundQueue(this);
 
     public Node(long magicNumber, String ip, int remotePort, int remoteCrossPort, int type, boolean isCrossConnect) {
         this(ip + NetworkConstant.COLON + remotePort, magicNumber, ip, remotePort, remoteCrossPort, type, isCrossConnect);
@@ -137,6 +137,7 @@ public class Node implements Dto {
     public void close() {
         this.channel.close();
         this.channel = null;
+        this.outboundQueue.clear();
     }
 
     public EventListener getRegisterListener() {
@@ -352,12 +353,8 @@ public class Node implements Dto {
         this.hadShare = hadShare;
     }
 
-    public BlockingDeque<PeerCacheMessage> getCacheSendMsgQueue() {
-        return cacheSendMsgQueue;
-    }
-
-    public void setCacheSendMsgQueue(BlockingDeque<PeerCacheMessage> cacheSendMsgQueue) {
-        this.cacheSendMsgQueue = cacheSendMsgQueue;
+    public NodeOutboundQueue getOutboundQueue() {
+        return outboundQueue;
     }
 
     @Override
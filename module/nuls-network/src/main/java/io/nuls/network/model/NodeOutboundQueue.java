@@ -0,0 +1,290 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.network.model;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.ScheduledFuture;
+import io.nuls.network.constant.OutboundPriority;
+import io.nuls.network.utils.LoggerUtil;
+import io.nuls.network.utils.MessageUtil;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 节点的发送队列
+ * 消息按优先级分类排队, 在连接的事件循环中按优先级从高到低写入连接, 连接不可写(超过写缓冲区高水位)时停止写入,
+ * 降到低水位后继续. 交易广播与区块同步数据受字节速率限制, 排队过久的交易广播被丢弃.
+ * Outbound queue of a peer.
+ * Messages are queued by class and written to the channel in priority order on the channel's event loop. Writing stops
+ * while the channel is not writable (above the write buffer high watermark) and resumes below the low watermark.
+ * Tx gossip and block sync data are byte-rate limited, and gossip that waited too long is dropped.
+ */
+public class NodeOutboundQueue {
+
+    private static final OutboundPriority[] PRIORITIES = OutboundPriority.values();
+
+    /**
+     * 每个节点的发送速率上限与区块同步数据的发送速率上限 (B/s), 0表示不限制
+     * Max send rate per peer and max send rate of block sync data per peer (B/s), 0 means unlimited
+     */
+    private static volatile long sendRateLimit = 0L;
+    private static volatile long bulkSendRateLimit = 0L;
+
+    private final Node node;
+    private final Deque<OutboundMessage>[] queues;
+    private final AtomicLong[] queuedBytes;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+    /**
+     * 以下字段只在连接的事件循环中访问
+     * The fields below are only accessed on the channel's event loop
+     */
+    private ScheduledFuture<?> delayedDrain;
+    private double sendTokens;
+    private double bulkTokens;
+    private long lastRefillTime = System.nanoTime();
+
+    @SuppressWarnings("unchecked")
+    public NodeOutboundQueue(Node node) {
+        this.node = node;
+        this.queues = new Deque[PRIORITIES.length];
+        this.queuedBytes = new AtomicLong[PRIORITIES.length];
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            queues[i] = new ConcurrentLinkedDeque<>();
+            queuedBytes[i] = new AtomicLong();
+        }
+        this.sendTokens = sendRateLimit;
+        this.bulkTokens = bulkSendRateLimit;
+    }
+
+    public static void setSendRateLimit(long sendRateLimit, long bulkSendRateLimit) {
+        NodeOutboundQueue.sendRateLimit = Math.max(0L, sendRateLimit);
+        NodeOutboundQueue.bulkSendRateLimit = Math.max(0L, bulkSendRateLimit);
+    }
+
+    /**
+     * 将已编码的消息放入发送队列, 由本方法负责释放frame
+     * Queue an encoded message, this method takes ownership of frame
+     *
+     * @param frame   已编码的消息
+     * @param cmd     消息指令
+     * @param promise 写入完成时通知, 可为null
+     * @return 队列已满或连接不可用时返回false
+     */
+    public boolean offer(ByteBuf frame, String cmd, ChannelPromise promise) {
+        Channel channel = node.getChannel();
+        OutboundPriority priority = MessageUtil.getOutboundPriority(cmd);
+        int size = frame.readableBytes();
+        if (null == channel || !channel.isActive()) {
+            drop(new OutboundMessage(frame, cmd, size, promise), "channel is not active");
+            return false;
+        }
+        AtomicLong bytes = queuedBytes[priority.ordinal()];
+        if (bytes.addAndGet(size) > priority.getMaxQueuedBytes()) {
+            bytes.addAndGet(-size);
+            drop(new OutboundMessage(frame, cmd, size, promise), priority + " queue is full");
+            return false;
+        }
+        queues[priority.ordinal()].addLast(new OutboundMessage(frame, cmd, size, promise));
+        flush();
+        return true;
+    }
+
+    /**
+     * 在连接的事件循环中写入排队的消息, 连接重新变为可写时也需要调用
+     * Write queued messages on the channel's event loop, also called when the channel becomes writable again
+     */
+    public void flush() {
+        Channel channel = node.getChannel();
+        if (null != channel && drainScheduled.compareAndSet(false, true)) {
+            channel.eventLoop().execute(this::drain);
+        }
+    }
+
+    /**
+     * 丢弃所有排队的消息, 连接断开时调用
+     * Drop all queued messages, called when the channel is closed
+     */
+    public void clear() {
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            OutboundMessage message;
+            while ((message = queues[i].pollFirst()) != null) {
+                queuedBytes[i].addAndGet(-message.size);
+                release(message, null);
+            }
+        }
+    }
+
+    public long getQueuedBytes(OutboundPriority priority) {
+        return queuedBytes[priority.ordinal()].get();
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        Channel channel = node.getChannel();
+        if (null == channel || !channel.isActive()) {
+            clear();
+            return;
+        }
+        refill();
+        long now = System.currentTimeMillis();
+        long delay = 0L;
+        boolean written = false;
+        while (channel.isWritable()) {
+            OutboundMessage message = null;
+            OutboundPriority priority = null;
+            for (int i = 0; i < PRIORITIES.length && null == message; i++) {
+                OutboundMessage head = peek(i, now);
+                if (null == head) {
+                    continue;
+                }
+                long wait = waitTime(PRIORITIES[i]);
+                if (wait > 0) {
+                    delay = delay == 0 ? wait : Math.min(delay, wait);
+                    continue;
+                }
+                message = queues[i].pollFirst();
+                if (null != message) {
+                    priority = PRIORITIES[i];
+                    queuedBytes[i].addAndGet(-message.size);
+                }
+            }
+            if (null == message) {
+                break;
+            }
+            consume(priority, message.size);
+            if (null == message.promise) {
+                channel.write(message.frame, channel.voidPromise());
+            } else {
+                channel.write(message.frame, message.promise);
+            }
+            written = true;
+        }
+        if (written) {
+            channel.flush();
+        }
+        if (delay > 0 && null == delayedDrain) {
+            delayedDrain = channel.eventLoop().schedule(() -> {
+                delayedDrain = null;
+                drain();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 取队首消息, 丢弃排队超时的消息
+     */
+    private OutboundMessage peek(int index, long now) {
+        long maxQueuedTime = PRIORITIES[index].getMaxQueuedTime();
+        OutboundMessage head = queues[index].peekFirst();
+        while (null != head && maxQueuedTime > 0 && now - head.createTime > maxQueuedTime) {
+            if (queues[index].remove(head)) {
+                queuedBytes[index].addAndGet(-head.size);
+                drop(head, "queued more than " + maxQueuedTime + "ms");
+            }
+            head = queues[index].peekFirst();
+        }
+        return head;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double seconds = (now - lastRefillTime) / 1000000000D;
+        lastRefillTime = now;
+        long rate = sendRateLimit;
+        if (rate > 0) {
+            sendTokens = Math.min(rate, sendTokens + seconds * rate);
+        }
+        long bulkRate = bulkSendRateLimit;
+        if (bulkRate > 0) {
+            bulkTokens = Math.min(bulkRate, bulkTokens + seconds * bulkRate);
+        }
+    }
+
+    /**
+     * 共识与区块转发消息不等待, 只消耗额度; 交易广播与区块同步数据在额度为负时等待
+     * Consensus and block forward messages never wait but still use up the budget;
+     * gossip and bulk data wait while the budget is negative
+     *
+     * @return 需要等待的毫秒数
+     */
+    private long waitTime(OutboundPriority priority) {
+        if (priority == OutboundPriority.CONSENSUS || priority == OutboundPriority.BLOCK_FORWARD) {
+            return 0L;
+        }
+        long wait = 0L;
+        long rate = sendRateLimit;
+        if (rate > 0 && sendTokens < 0) {
+            wait = (long) (-sendTokens * 1000 / rate) + 1;
+        }
+        long bulkRate = bulkSendRateLimit;
+        if (priority == OutboundPriority.BULK && bulkRate > 0 && bulkTokens < 0) {
+            wait = Math.max(wait, (long) (-bulkTokens * 1000 / bulkRate) + 1);
+        }
+        return wait;
+    }
+
+    private void consume(OutboundPriority priority, int size) {
+        if (sendRateLimit > 0) {
+            sendTokens -= size;
+        }
+        if (priority == OutboundPriority.BULK && bulkSendRateLimit > 0) {
+            bulkTokens -= size;
+        }
+    }
+
+    private void drop(OutboundMessage message, String reason) {
+        LoggerUtil.COMMON_LOG.debug("#### node={},cmd={} send is drop:{}", node.getId(), message.cmd, reason);
+        release(message, reason);
+    }
+
+    private void release(OutboundMessage message, String reason) {
+        message.frame.release();
+        if (null != message.promise) {
+            message.promise.tryFailure(new IllegalStateException(null == reason ? "channel closed" : reason));
+        }
+    }
+
+    private static class OutboundMessage {
+        private final ByteBuf frame;
+        private final String cmd;
+        private final int size;
+        private final ChannelPromise promise;
+        private final long createTime = System.currentTimeMillis();
+
+        private OutboundMessage(ByteBuf frame, String cmd, int size, ChannelPromise promise) {
+            this.frame = frame;
+            this.cmd = cmd;
+            this.size = size;
+            this.promise = promise;
+        }
+    }
+}
@@ -1,75 +1,47 @@
 package io.nuls.network.model.dto;
 
 import io.nuls.network.manager.TimeManager;
-
-import java.util.HashMap;
-import java.util.Map;
+import io.nuls.network.model.Node;
 
 /**
+ * 等待转发给业务模块的节点消息
+ * A peer message waiting to be forwarded to a protocol module
+ *
  * @author lanjinsheng
  * @date 2019-07-16
  */
 public class RpcCacheMessage {
-    String nodeId;
+    int chainId;
+    Node node;
     String cmd;
-    String messageBody;
+    byte[] messageBody;
     long createTime = 0;
-    int tryTimes = 0;
 
-    public RpcCacheMessage(String nodeId, String cmd, String messageBody) {
+    public RpcCacheMessage(int chainId, Node node, String cmd, byte[] messageBody) {
+        this.chainId = chainId;
+        this.node = node;
         this.cmd = cmd;
-        this.nodeId = nodeId;
         this.messageBody = messageBody;
         this.createTime = TimeManager.currentTimeMillis();
     }
 
-    public Map<String, Object> toMap(int chainId) {
-        Map<String, Object> paramMap = new HashMap<>();
-        paramMap.put("chainId", chainId);
-        paramMap.put("nodeId", nodeId);
-        paramMap.put("cmd", cmd);
-        paramMap.put("messageBody", messageBody);
-        return paramMap;
-    }
-
-
-    public String getNodeId() {
-        return nodeId;
+    public int getChainId() {
+        return chainId;
     }
 
-    public void setNodeId(String nodeId) {
-        this.nodeId = nodeId;
+    public Node getNode() {
+        return node;
     }
 
     public String getCmd() {
         return cmd;
     }
 
-    public void setCmd(String cmd) {
-        this.cmd = cmd;
-    }
-
-    public String getMessageBody() {
+    public byte[] getMessageBody() {
         return messageBody;
     }
 
-    public void setMessageBody(String messageBody) {
-        this.messageBody = messageBody;
-    }
-
     public long getCreateTime() {
         return createTime;
     }
-
-    public void setCreateTime(long createTime) {
-        this.createTime = createTime;
-    }
-
-    public int getTryTimes() {
-        return tryTimes;
-    }
-
-    public void setTryTimes(int tryTimes) {
-        this.tryTimes = tryTimes;
-    }
 }
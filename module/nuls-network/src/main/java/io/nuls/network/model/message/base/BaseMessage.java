@@ -70,10 +70,11 @@ public abstract class BaseMessage<T extends BaseNulsData> extends BaseNulsData {
      */
     @Override
     protected void serializeToStream(NulsOutputStreamBuffer stream) throws IOException {
-        long checksum = getCheckSum();
-        header.setChecksum(checksum);
+        //消息体只序列化一次, 同时用于计算校验和与写入
+        byte[] body = msgBody.serialize();
+        header.setChecksum(getCheckSum(body.length == 0 ? ToolsConstant.PLACE_HOLDER : body));
         stream.write(header.serialize());
-        stream.write(msgBody.serialize());
+        stream.write(body);
     }
 
 
@@ -85,6 +86,10 @@ public abstract class BaseMessage<T extends BaseNulsData> extends BaseNulsData {
             data = msgBody.serialize();
         }
 //        Log.info("=================getCheckSum:"+entity.length);
+        return getCheckSum(data);
+    }
+
+    private static long getCheckSum(byte[] data) {
         byte[] bodyHash = Sha256Hash.hashTwice(data);
         byte[] get4Byte = ByteUtils.subBytes(bodyHash, 0, 4);
         long checksum = ByteUtils.bytesToBigInteger(get4Byte).longValue();
@@ -84,6 +84,15 @@ public class ClientChannelHandler extends BaseChannelHandler {
         super.channelInactive(ctx);
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        super.channelWritabilityChanged(ctx);
+        Node node = ctx.channel().attr(key).get();
+        if (node != null && ctx.channel().isWritable()) {
+            node.getOutboundQueue().flush();
+        }
+    }
+
     @Override
     public void channelRead0(ChannelHandlerContext ctx, Object msg) throws Exception {
         SocketChannel socketChannel = (SocketChannel) ctx.channel();
@@ -117,6 +126,9 @@ public class ClientChannelHandler extends BaseChannelHandler {
         super.channelUnregistered(ctx);
         Attribute<Node> nodeAttribute = ctx.channel().attr(key);
         Node node = nodeAttribute.get();
+        if (node != null) {
+            node.getOutboundQueue().clear();
+        }
         if (node != null && node.getDisconnectListener() != null) {
             LoggerUtil.COMMON_LOG.info("-----------------client channelInactive  node is channelUnregistered node={}-----------------", node.getId());
             node.getDisconnectListener().action();
@@ -94,6 +94,17 @@ public class ServerChannelHandler extends BaseChannelHandler {
         ctx.close();
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        super.channelWritabilityChanged(ctx);
+        SocketChannel channel = (SocketChannel) ctx.channel();
+        String nodeId = IpUtil.getNodeId(channel.remoteAddress());
+        Node node = channel.attr(AttributeKey.<Node>valueOf("node-" + nodeId)).get();
+        if (node != null && channel.isWritable()) {
+            node.getOutboundQueue().flush();
+        }
+    }
+
     @Override
     public void channelRead0(ChannelHandlerContext ctx, Object msg) {
         SocketChannel channel = (SocketChannel) ctx.channel();
@@ -130,6 +141,9 @@ public class ServerChannelHandler extends BaseChannelHandler {
         Attribute<Node> nodeAttribute = channel.attr(AttributeKey.valueOf("node-" + nodeId));
 
         Node node = nodeAttribute.get();
+        if (node != null) {
+            node.getOutboundQueue().clear();
+        }
         if (node != null && node.getDisconnectListener() != null) {
             node.getDisconnectListener().action();
         }
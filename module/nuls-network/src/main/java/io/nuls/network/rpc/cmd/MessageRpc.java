@@ -59,7 +59,8 @@ public class MessageRpc extends BaseCmd {
             description = "模块协议指令注册")
     @Parameters(value = {
             @Parameter(parameterName = "role", requestType = @TypeDescriptor(value = String.class), parameterDes = "模块角色名称"),
-            @Parameter(parameterName = "protocolCmds", requestType = @TypeDescriptor(value = List.class, collectionElement = String.class), parameterDes = "注册指令列表")
+            @Parameter(parameterName = "protocolCmds", requestType = @TypeDescriptor(value = List.class, collectionElement = String.class), parameterDes = "注册指令列表"),
+            @Parameter(parameterName = "batch", requestType = @TypeDescriptor(value = boolean.class), parameterDes = "是否支持批量消息处理msgProcessBatch,不填写,默认false", canNull = true)
     })
     @ResponseData(description = "无特定返回值，没有错误即成功")
     public Response protocolRegister(Map params) {
@@ -74,6 +75,9 @@ public class MessageRpc extends BaseCmd {
             for (String cmd : protocolCmds) {
                 messageHandlerFactory.addProtocolRoleHandlerMap(cmd, CmdPriority.DEFAULT, role);
             }
+            if (Boolean.parseBoolean(String.valueOf(params.get("batch")))) {
+                messageHandlerFactory.addBatchRole(role);
+            }
             Log.info("----------------------------new message register---------------------------");
         } catch (Exception e) {
             LoggerUtil.COMMON_LOG.error(role, e);
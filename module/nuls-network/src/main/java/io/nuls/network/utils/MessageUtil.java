@@ -25,6 +25,8 @@
 package io.nuls.network.utils;
 
 import io.nuls.core.rpc.model.CmdPriority;
+import io.nuls.network.constant.NetworkConstant;
+import io.nuls.network.constant.OutboundPriority;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -48,10 +50,74 @@ public class MessageUtil {
 
     public static Map<String, Integer> highLeverCmd = new HashMap<>();
 
+    /**
+     * 区块转发及补全交易的消息
+     */
+    public static Map<String, Integer> blockForwardCmd = new HashMap<>();
+
+    /**
+     * 区块同步的批量数据消息
+     */
+    public static Map<String, Integer> bulkCmd = new HashMap<>();
+
+    static {
+        blockForwardCmd.put("sBlock", 1);
+        blockForwardCmd.put("cBlock", 1);
+        blockForwardCmd.put("forward", 1);
+        blockForwardCmd.put("getsBlock", 1);
+        blockForwardCmd.put("getTxs", 1);
+        blockForwardCmd.put("txs", 1);
+        bulkCmd.put("block", 1);
+        bulkCmd.put("complete", 1);
+        bulkCmd.put("getBlocks", 1);
+        bulkCmd.put("getBlockH", 1);
+    }
+
     public static boolean isLowerLeverCmd(String cmd) {
         return (lowerLeverCmd.get(cmd) != null);
     }
 
+    /**
+     * 获取消息发送时的优先级分类
+     * Get the outbound class of a message
+     *
+     * @param cmd 消息指令
+     * @return OutboundPriority
+     */
+    public static OutboundPriority getOutboundPriority(String cmd) {
+        if (highLeverCmd.get(cmd) != null || isNetworkCmd(cmd)) {
+            return OutboundPriority.CONSENSUS;
+        }
+        if (bulkCmd.get(cmd) != null) {
+            return OutboundPriority.BULK;
+        }
+        if (blockForwardCmd.get(cmd) != null) {
+            return OutboundPriority.BLOCK_FORWARD;
+        }
+        if (isLowerLeverCmd(cmd)) {
+            return OutboundPriority.TX_GOSSIP;
+        }
+        return OutboundPriority.BLOCK_FORWARD;
+    }
+
+    private static boolean isNetworkCmd(String cmd) {
+        switch (cmd) {
+            case NetworkConstant.CMD_MESSAGE_VERSION:
+            case NetworkConstant.CMD_MESSAGE_VERACK:
+            case NetworkConstant.CMD_MESSAGE_ADDR:
+            case NetworkConstant.CMD_MESSAGE_GET_ADDR:
+            case NetworkConstant.CMD_MESSAGE_BYE:
+            case NetworkConstant.CMD_MESSAGE_GET_TIME:
+            case NetworkConstant.CMD_MESSAGE_RESPONSE_TIME:
+            case NetworkConstant.CMD_MESSAGE_SEND_LOCAL_INFOS:
+            case NetworkConstant.CMD_MESSAGE_PING:
+            case NetworkConstant.CMD_MESSAGE_PONG:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     public static void addCmdPriority(String cmd, CmdPriority cmdPriority) {
         switch (cmdPriority) {
             case HIGH:
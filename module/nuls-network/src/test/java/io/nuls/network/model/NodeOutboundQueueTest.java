@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.network.model;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.nuls.network.constant.OutboundPriority;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @description 节点发送队列测试
+ **/
+public class NodeOutboundQueueTest {
+
+    private EmbeddedChannel channel;
+
+    @Before
+    public void before() {
+        channel = new EmbeddedChannel();
+    }
+
+    @After
+    public void after() {
+        NodeOutboundQueue.setSendRateLimit(0L, 0L);
+        channel.finishAndReleaseAll();
+    }
+
+    private Node newNode() {
+        Node node = new Node(1L, "127.0.0.1", 8001, 0, Node.OUT, false);
+        node.setChannel(channel);
+        return node;
+    }
+
+    private ByteBuf frame(int size, int tag) {
+        ByteBuf buf = Unpooled.buffer(size);
+        buf.writeByte(tag);
+        buf.writerIndex(size);
+        return buf;
+    }
+
+    private int readTag() {
+        ByteBuf buf = channel.readOutbound();
+        Assert.assertNotNull(buf);
+        int tag = buf.getByte(0);
+        buf.release();
+        return tag;
+    }
+
+    @Test
+    public void priorityOrder() {
+        Node node = newNode();
+        NodeOutboundQueue queue = node.getOutboundQueue();
+        Assert.assertTrue(queue.offer(frame(100, 4), "block", null));
+        Assert.assertTrue(queue.offer(frame(100, 3), "newHash", null));
+        Assert.assertTrue(queue.offer(frame(100, 2), "sBlock", null));
+        Assert.assertTrue(queue.offer(frame(100, 1), "ping", null));
+        Assert.assertEquals(100, queue.getQueuedBytes(OutboundPriority.BULK));
+        channel.runPendingTasks();
+        Assert.assertEquals(1, readTag());
+        Assert.assertEquals(2, readTag());
+        Assert.assertEquals(3, readTag());
+        Assert.assertEquals(4, readTag());
+        Assert.assertEquals(0, queue.getQueuedBytes(OutboundPriority.BULK));
+    }
+
+    @Test
+    public void dropWhenFull() {
+        Node node = newNode();
+        NodeOutboundQueue queue = node.getOutboundQueue();
+        ByteBuf tooLarge = frame((int) OutboundPriority.TX_GOSSIP.getMaxQueuedBytes() + 1, 1);
+        ChannelPromise promise = channel.newPromise();
+        Assert.assertFalse(queue.offer(tooLarge, "newHash", promise));
+        Assert.assertEquals(0, tooLarge.refCnt());
+        Assert.assertFalse(promise.isSuccess());
+        Assert.assertNotNull(promise.cause());
+
+        promise = channel.newPromise();
+        Assert.assertTrue(queue.offer(frame(100, 2), "newHash", promise));
+        channel.runPendingTasks();
+        Assert.assertTrue(promise.isSuccess());
+        Assert.assertEquals(2, readTag());
+    }
+
+    @Test
+    public void rateLimit() {
+        NodeOutboundQueue.setSendRateLimit(100L, 0L);
+        Node node = newNode();
+        NodeOutboundQueue queue = node.getOutboundQueue();
+        queue.offer(frame(150, 1), "newHash", null);
+        queue.offer(frame(150, 2), "newHash", null);
+        queue.offer(frame(150, 3), "sBlock", null);
+        channel.runPendingTasks();
+        //区块转发消息不受限制但占用额度, 交易广播需要等待额度恢复
+        Assert.assertEquals(3, readTag());
+        Assert.assertNull(channel.readOutbound());
+        Assert.assertEquals(300, queue.getQueuedBytes(OutboundPriority.TX_GOSSIP));
+
+        queue.clear();
+        Assert.assertEquals(0, queue.getQueuedBytes(OutboundPriority.TX_GOSSIP));
+    }
+}
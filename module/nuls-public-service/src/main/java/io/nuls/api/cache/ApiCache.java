@@ -1,12 +1,28 @@
 package io.nuls.api.cache;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import io.nuls.api.model.po.*;
 
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.nuls.api.constant.ApiConstant.*;
+
+/**
+ * 链的内存缓存
+ * 账户、账户资产和别名按访问顺序淘汰, 未命中时由db/mongo下的服务从数据库加载后放入, 同步和回滚区块写库后同时更新缓存.
+ * 共识节点数量有限且查询时需要遍历全部节点, 所以agentMap保存全部节点, 不淘汰
+ * In-memory cache of a chain.
+ * Accounts, account ledgers and aliases are evicted least recently used first. Misses are loaded from the database by
+ * the services under db/mongo, and saving or rolling back a block writes through to the cache. Agents are few and
+ * their queries scan all of them, so agentMap holds every agent and is never evicted.
+ */
 public class ApiCache {
 
     private ChainInfo chainInfo;
@@ -19,38 +35,70 @@ public class ApiCache {
 
     private CurrentRound currentRound;
 
-    private Map<String, AccountInfo> accountMap = new ConcurrentHashMap<>();
+    private final Cache<String, AccountInfo> accountCache = CacheBuilder.newBuilder()
+            .maximumSize(ACCOUNT_CACHE_SIZE)
+            .recordStats()
+            .build();
+
+    private final Cache<String, AccountLedgerInfo> ledgerCache = CacheBuilder.newBuilder()
+            .maximumSize(LEDGER_CACHE_SIZE)
+            .recordStats()
+            .build();
 
-    private Map<String, AccountLedgerInfo> ledgerMap = new ConcurrentHashMap<>();
+    private final Cache<String, AliasInfo> aliasCache = CacheBuilder.newBuilder()
+            .maximumSize(ALIAS_CACHE_SIZE)
+            .recordStats()
+            .build();
 
     private Map<String, AgentInfo> agentMap = new ConcurrentHashMap<>();
 
-    private Map<String, AliasInfo> aliasMap = new ConcurrentHashMap<>();
+    private final AtomicLong agentHitCount = new AtomicLong();
 
-    private List<Nrc20Info> nrc20InfoList = new ArrayList<>();
+    private final AtomicLong agentMissCount = new AtomicLong();
+
+    private final List<Nrc20Info> nrc20InfoList = new CopyOnWriteArrayList<>();
 
     public ApiCache() {
         currentRound = new CurrentRound();
     }
 
     public void addAccountInfo(AccountInfo accountInfo) {
-        accountMap.put(accountInfo.getAddress(), accountInfo);
+        accountCache.put(accountInfo.getAddress(), accountInfo);
     }
 
     public AccountInfo getAccountInfo(String address) {
-        return accountMap.get(address);
+        return accountCache.getIfPresent(address);
+    }
+
+    public void removeAccountInfo(String address) {
+        accountCache.invalidate(address);
     }
 
     public AccountLedgerInfo getAccountLedgerInfo(String key) {
-        return ledgerMap.get(key);
+        return ledgerCache.getIfPresent(key);
     }
 
     public void addAccountLedgerInfo(AccountLedgerInfo ledgerInfo) {
-        ledgerMap.put(ledgerInfo.getKey(), ledgerInfo);
+        ledgerCache.put(ledgerInfo.getKey(), ledgerInfo);
+    }
+
+    public void removeAccountLedgerInfo(String key) {
+        ledgerCache.invalidate(key);
     }
 
+    /**
+     * 同一个合约只保留一条
+     * Keeps a single entry per contract
+     */
     public void addNrc20Info(Nrc20Info nrc20Info) {
-        nrc20InfoList.add(nrc20Info);
+        synchronized (nrc20InfoList) {
+            removeNrc20Info(nrc20Info.getContractAddress());
+            nrc20InfoList.add(nrc20Info);
+        }
+    }
+
+    public void removeNrc20Info(String contractAddress) {
+        nrc20InfoList.removeIf(info -> info.getContractAddress().equals(contractAddress));
     }
 
     public List<Nrc20Info> getNrc20InfoList() {
@@ -62,16 +110,40 @@ public class ApiCache {
     }
 
     public AgentInfo getAgentInfo(String agentHash) {
-        return agentMap.get(agentHash);
+        AgentInfo agentInfo = agentMap.get(agentHash);
+        if (agentInfo == null) {
+            agentMissCount.incrementAndGet();
+        } else {
+            agentHitCount.incrementAndGet();
+        }
+        return agentInfo;
     }
 
     public void addAlias(AliasInfo aliasInfo) {
-        aliasMap.put(aliasInfo.getAddress(), aliasInfo);
-        aliasMap.put(aliasInfo.getAlias(), aliasInfo);
+        aliasCache.put(aliasInfo.getAddress(), aliasInfo);
+        aliasCache.put(aliasInfo.getAlias(), aliasInfo);
     }
 
     public AliasInfo getAlias(String key) {
-        return aliasMap.get(key);
+        return aliasCache.getIfPresent(key);
+    }
+
+    public void removeAlias(AliasInfo aliasInfo) {
+        aliasCache.invalidate(aliasInfo.getAddress());
+        aliasCache.invalidate(aliasInfo.getAlias());
+    }
+
+    /**
+     * 各类缓存的命中统计
+     * Hit statistics of every kind of cached object
+     */
+    public Map<String, CacheStats> getCacheStats() {
+        Map<String, CacheStats> map = new LinkedHashMap<>();
+        map.put("account", accountCache.stats());
+        map.put("ledger", ledgerCache.stats());
+        map.put("alias", aliasCache.stats());
+        map.put("agent", new CacheStats(agentHitCount.get(), agentMissCount.get(), 0, 0, 0, 0));
+        return map;
     }
 
 
@@ -100,22 +172,6 @@ public class ApiCache {
         this.currentRound = currentRound;
     }
 
-    public Map<String, AccountInfo> getAccountMap() {
-        return accountMap;
-    }
-
-    public void setAccountMap(Map<String, AccountInfo> accountMap) {
-        this.accountMap = accountMap;
-    }
-
-    public Map<String, AccountLedgerInfo> getLedgerMap() {
-        return ledgerMap;
-    }
-
-    public void setLedgerMap(Map<String, AccountLedgerInfo> ledgerMap) {
-        this.ledgerMap = ledgerMap;
-    }
-
     public Map<String, AgentInfo> getAgentMap() {
         return agentMap;
     }
@@ -124,14 +180,6 @@ public class ApiCache {
         this.agentMap = agentMap;
     }
 
-    public Map<String, AliasInfo> getAliasMap() {
-        return aliasMap;
-    }
-
-    public void setAliasMap(Map<String, AliasInfo> aliasMap) {
-        this.aliasMap = aliasMap;
-    }
-
     public CoinContextInfo getCoinContextInfo() {
         return coinContextInfo;
     }
@@ -117,4 +117,20 @@ public interface ApiConstant {
     //设置别名金额
     BigInteger ALIAS_AMOUNT = BigInteger.valueOf(100000000L);
 
+    //本地高度落后钱包高度超过此值时进入批量追块模式
+    long SYNC_BATCH_DISTANCE = 1000;
+    //批量追块模式下每批最多写入的区块数
+    int SYNC_BATCH_BLOCK_COUNT = 200;
+    //批量追块模式下提前获取并解析的区块数
+    int SYNC_PREFETCH_BLOCK_COUNT = 400;
+    //获取并解析区块的线程数
+    int SYNC_PREFETCH_THREAD_COUNT = 4;
+
+    //内存中最多缓存的账户数
+    int ACCOUNT_CACHE_SIZE = 50000;
+    //内存中最多缓存的账户资产数
+    int LEDGER_CACHE_SIZE = 100000;
+    //内存中最多缓存的别名数, 按地址和别名各存一条
+    int ALIAS_CACHE_SIZE = 20000;
+
 }
@@ -1,9 +1,11 @@
 package io.nuls.api.db;
 
 import io.nuls.api.model.po.AccountInfo;
+import io.nuls.api.model.po.CursorPageInfo;
 import io.nuls.api.model.po.PageInfo;
 import io.nuls.api.model.po.TxRelationInfo;
 import io.nuls.api.model.po.mini.MiniAccountInfo;
+import io.nuls.api.utils.PageCursor;
 
 import java.math.BigInteger;
 import java.util.Map;
@@ -20,8 +22,12 @@ public interface AccountService {
 
     PageInfo<TxRelationInfo> getAccountTxs(int chainId, String address, int pageIndex, int pageSize, int type, long startHeight, long endHeight);
 
+    CursorPageInfo<TxRelationInfo> getAccountTxs(int chainId, String address, PageCursor cursor, int pageSize, int type, long startHeight, long endHeight);
+
     PageInfo<TxRelationInfo> getAcctTxs(int chainId, String address, int pageIndex, int pageSize, int type, long startHeight, long endHeight);
 
+    CursorPageInfo<TxRelationInfo> getAcctTxs(int chainId, String address, PageCursor cursor, int pageSize, int type, long startHeight, long endHeight);
+
     PageInfo<MiniAccountInfo> getCoinRanking(int pageIndex, int pageSize, int chainId);
 
     BigInteger getAllAccountBalance(int chainId);
@@ -2,8 +2,10 @@ package io.nuls.api.db;
 
 import io.nuls.api.model.po.BlockHeaderInfo;
 import io.nuls.api.model.po.BlockHexInfo;
+import io.nuls.api.model.po.CursorPageInfo;
 import io.nuls.api.model.po.PageInfo;
 import io.nuls.api.model.po.mini.MiniBlockHeaderInfo;
+import io.nuls.api.utils.PageCursor;
 
 import java.math.BigInteger;
 import java.util.List;
@@ -18,8 +20,12 @@ public interface BlockService {
 
     void saveBLockHeaderInfo(int chainId, BlockHeaderInfo blockHeaderInfo);
 
+    void saveBlockHeaderList(int chainId, List<BlockHeaderInfo> blockHeaderInfos);
+
     PageInfo<MiniBlockHeaderInfo> pageQuery(int chainId, int pageIndex, int pageSize, String packingAddress, boolean filterEmptyBlocks);
 
+    CursorPageInfo<MiniBlockHeaderInfo> pageQuery(int chainId, PageCursor cursor, int pageSize, String packingAddress, boolean filterEmptyBlocks);
+
     List<MiniBlockHeaderInfo> getBlockList(int chainId, long startHeight, long endHeight);
 
     int getBlockPackageTxCount(int chainId, long startHeight, long endHeight);
@@ -30,6 +36,8 @@ public interface BlockService {
 
     void saveBlockHexInfo(int chainId, BlockHexInfo hexInfo);
 
+    void saveBlockHexList(int chainId, List<BlockHexInfo> hexInfos);
+
     BlockHexInfo getBlockHexInfo(int chainId, long height);
 
     BlockHexInfo getBlockHexInfo(int chainId, String hash);
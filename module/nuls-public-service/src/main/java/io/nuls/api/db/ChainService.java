@@ -26,5 +26,7 @@ public interface ChainService {
 
     SyncInfo saveNewSyncInfo(int chainId, long newHeight);
 
+    SyncInfo saveNewSyncInfo(int chainId, long newHeight, int batchCount);
+
     void updateStep(SyncInfo syncInfo);
 }
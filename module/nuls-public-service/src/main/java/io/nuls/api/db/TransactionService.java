@@ -2,6 +2,7 @@ package io.nuls.api.db;
 
 import io.nuls.api.model.po.*;
 import io.nuls.api.model.po.mini.MiniTransactionInfo;
+import io.nuls.api.utils.PageCursor;
 
 import java.util.List;
 import java.util.Set;
@@ -16,6 +17,8 @@ public interface TransactionService {
 
     PageInfo<MiniTransactionInfo> getTxList(int chainId, int pageIndex, int pageSize, int type, boolean isHidden);
 
+    CursorPageInfo<MiniTransactionInfo> getTxList(int chainId, PageCursor cursor, int pageSize, int type, boolean isHidden);
+
     List<TxHexInfo> getUnConfirmList(int chainId);
 
     void deleteTxs(int chainId);
@@ -14,7 +14,6 @@ import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -24,8 +23,7 @@ public class MongoAccountLedgerServiceImpl implements AccountLedgerService {
     @Autowired
     private MongoDBService mongoDBService;
 
-    private List<String> keyList = new LinkedList<>();
-
+    //启动时预先加载的账户资产数
     private static int cacheSize = 30000;
 
     public void initCache() {
@@ -34,7 +32,6 @@ public class MongoAccountLedgerServiceImpl implements AccountLedgerService {
             for (Document document : documentList) {
                 AccountLedgerInfo ledgerInfo = DocumentTransferTool.toInfo(document, "key", AccountLedgerInfo.class);
                 apiCache.addAccountLedgerInfo(ledgerInfo);
-                keyList.add(ledgerInfo.getKey());
             }
         }
     }
@@ -48,12 +45,7 @@ public class MongoAccountLedgerServiceImpl implements AccountLedgerService {
                 return null;
             }
             accountLedgerInfo = DocumentTransferTool.toInfo(document, "key", AccountLedgerInfo.class);
-            while (keyList.size() >= cacheSize) {
-                key = keyList.remove(0);
-                apiCache.getLedgerMap().remove(key);
-            }
             apiCache.addAccountLedgerInfo(accountLedgerInfo);
-            keyList.add(accountLedgerInfo.getKey());
         }
         return accountLedgerInfo.copy();
     }
@@ -86,11 +78,10 @@ public class MongoAccountLedgerServiceImpl implements AccountLedgerService {
             mongoDBService.bulkWrite(DBTableConstant.ACCOUNT_LEDGER_TABLE + chainId, modelList, options);
         }
 
+        //写库后更新缓存, 缓存满时淘汰最久未访问的账户资产
         ApiCache apiCache = CacheManager.getCache(chainId);
         for (AccountLedgerInfo ledgerInfo : accountLedgerInfoMap.values()) {
-            if (apiCache.getLedgerMap().containsKey(ledgerInfo.getKey())) {
-                apiCache.addAccountLedgerInfo(ledgerInfo);
-            }
+            apiCache.addAccountLedgerInfo(ledgerInfo);
         }
     }
 
@@ -7,11 +7,13 @@ import io.nuls.api.constant.ApiConstant;
 import io.nuls.api.db.AccountService;
 import io.nuls.api.manager.CacheManager;
 import io.nuls.api.model.po.AccountInfo;
+import io.nuls.api.model.po.CursorPageInfo;
 import io.nuls.api.model.po.PageInfo;
 import io.nuls.api.model.po.TxRelationInfo;
 import io.nuls.api.model.po.mini.MiniAccountInfo;
 import io.nuls.api.utils.DBUtil;
 import io.nuls.api.utils.DocumentTransferTool;
+import io.nuls.api.utils.PageCursor;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.model.BigIntegerUtils;
@@ -20,7 +22,6 @@ import org.bson.conversions.Bson;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -32,8 +33,7 @@ public class MongoAccountServiceImpl implements AccountService {
     @Autowired
     private MongoDBService mongoDBService;
 
-    private List<String> addressList = new LinkedList<>();
-
+    //启动时预先加载的账户数
     public static int cacheSize = 5000;
 
     public void initCache() {
@@ -43,7 +43,6 @@ public class MongoAccountServiceImpl implements AccountService {
                 Document document = documentList.get(i);
                 AccountInfo accountInfo = DocumentTransferTool.toInfo(document, "address", AccountInfo.class);
                 apiCache.addAccountInfo(accountInfo);
-                addressList.add(accountInfo.getAddress());
             }
         }
     }
@@ -60,12 +59,7 @@ public class MongoAccountServiceImpl implements AccountService {
                 return null;
             }
             accountInfo = DocumentTransferTool.toInfo(document, "address", AccountInfo.class);
-            while (addressList.size() >= cacheSize) {
-                address = addressList.remove(0);
-                apiCache.getAccountMap().remove(address);
-            }
             apiCache.addAccountInfo(accountInfo);
-            addressList.add(accountInfo.getAddress());
         }
         return accountInfo.copy();
     }
@@ -100,19 +94,10 @@ public class MongoAccountServiceImpl implements AccountService {
             mongoDBService.bulkWrite(ACCOUNT_TABLE + chainId, modelList, options);
         }
 
+        //写库后更新缓存, 缓存满时淘汰最久未访问的账户
         ApiCache apiCache = CacheManager.getCache(chainId);
         for (AccountInfo accountInfo : accountInfoMap.values()) {
-            if (apiCache.getAccountMap().containsKey(accountInfo.getAddress())) {
-                apiCache.addAccountInfo(accountInfo);
-            }
-//            else {
-//                while (addressList.size() >= cacheSize) {
-//                    String address = addressList.remove(0);
-//                    apiCache.getAccountMap().remove(address);
-//                }
-//                apiCache.addAccountInfo(accountInfo);
-//                addressList.add(accountInfo.getAddress());
-//            }
+            apiCache.addAccountInfo(accountInfo);
         }
     }
 
@@ -128,6 +113,69 @@ public class MongoAccountServiceImpl implements AccountService {
     }
 
     public PageInfo<TxRelationInfo> getAccountTxs(int chainId, String address, int pageIndex, int pageSize, int type, long startHeight, long endHeight) {
+        Bson filter = accountTxsFilter(address, type, startHeight, endHeight);
+        Bson addressFilter = Filters.eq("address", address);
+        int start = (pageIndex - 1) * pageSize;
+        int end = pageIndex * pageSize;
+        int index = DBUtil.getShardNumber(address);
+
+        long unConfirmCount = mongoDBService.getCount(TX_UNCONFIRM_RELATION_TABLE + chainId, addressFilter);
+        long confirmCount = mongoDBService.getCount(TX_RELATION_TABLE + chainId + "_" + index, filter);
+        List<TxRelationInfo> txRelationInfoList;
+        if (end <= unConfirmCount) {
+            txRelationInfoList = unConfirmLimitQuery(chainId, filter, start, pageSize);
+        } else if (start - 1 > unConfirmCount) {
+            start = start - 1;
+            start = (int) (start - unConfirmCount);
+            txRelationInfoList = confirmLimitQuery(chainId, index, filter, start, pageSize);
+        } else {
+            txRelationInfoList = relationLimitQuery(chainId, index, addressFilter, filter, start, pageSize);
+        }
+
+        PageInfo<TxRelationInfo> pageInfo = new PageInfo<>(pageIndex, pageSize, unConfirmCount + confirmCount, txRelationInfoList);
+        return pageInfo;
+    }
+
+    /**
+     * 游标分页查询账户交易, 先返回未确认交易, 再返回已确认交易, 两部分都按(createTime, _id)倒序
+     * Cursor page of the account's transactions, the unconfirmed ones first and then the confirmed ones, both sorted by
+     * (createTime, _id) descending
+     */
+    public CursorPageInfo<TxRelationInfo> getAccountTxs(int chainId, String address, PageCursor cursor, int pageSize, int type, long startHeight, long endHeight) {
+        Bson filter = accountTxsFilter(address, type, startHeight, endHeight);
+        Bson addressFilter = Filters.eq("address", address);
+        int index = DBUtil.getShardNumber(address);
+        List<TxRelationInfo> txRelationInfoList = new ArrayList<>();
+        Document last = null;
+        boolean lastUnconfirmed = false;
+        if (cursor == null || cursor.isUnconfirmed()) {
+            List<Document> docsList = this.mongoDBService.keysetQuery(TX_UNCONFIRM_RELATION_TABLE + chainId, addressFilter, null, "createTime", cursor, pageSize);
+            for (Document document : docsList) {
+                TxRelationInfo txRelationInfo = TxRelationInfo.toInfo(document);
+                txRelationInfo.setStatus(ApiConstant.TX_UNCONFIRM);
+                txRelationInfoList.add(txRelationInfo);
+                last = document;
+                lastUnconfirmed = true;
+            }
+            //未确认交易已取完, 已确认交易从头开始
+            cursor = null;
+        }
+        if (txRelationInfoList.size() < pageSize) {
+            List<Document> docsList = this.mongoDBService.keysetQuery(TX_RELATION_TABLE + chainId + "_" + index, filter, null, "createTime", cursor, pageSize - txRelationInfoList.size());
+            txRelationInfoList.addAll(toConfirmedRelations(docsList));
+            if (!docsList.isEmpty()) {
+                last = docsList.get(docsList.size() - 1);
+                lastUnconfirmed = false;
+            }
+        }
+        String nextCursor = null;
+        if (txRelationInfoList.size() == pageSize) {
+            nextCursor = PageCursor.of(last, "createTime", lastUnconfirmed).encode();
+        }
+        return new CursorPageInfo<>(pageSize, nextCursor, txRelationInfoList);
+    }
+
+    private Bson accountTxsFilter(String address, int type, long startHeight, long endHeight) {
         Bson filter;
         Bson addressFilter = Filters.eq("address", address);
 
@@ -148,28 +196,30 @@ public class MongoAccountServiceImpl implements AccountService {
         } else {
             filter = addressFilter;
         }
-        int start = (pageIndex - 1) * pageSize;
-        int end = pageIndex * pageSize;
+        return filter;
+    }
+
+    public PageInfo<TxRelationInfo> getAcctTxs(int chainId, String address, int pageIndex, int pageSize, int type, long startHeight, long endHeight) {
+        Bson filter = acctTxsFilter(address, type, startHeight, endHeight);
         int index = DBUtil.getShardNumber(address);
+        long count = mongoDBService.getCount(TX_RELATION_TABLE + chainId + "_" + index, filter);
+        List<Document> docsList = this.mongoDBService.pageQuery(TX_RELATION_TABLE + chainId + "_" + index, filter, PageCursor.sort("createTime"), pageIndex, pageSize);
+        PageInfo<TxRelationInfo> pageInfo = new PageInfo<>(pageIndex, pageSize, count, toConfirmedRelations(docsList));
+        return pageInfo;
+    }
 
-        long unConfirmCount = mongoDBService.getCount(TX_UNCONFIRM_RELATION_TABLE + chainId, addressFilter);
-        long confirmCount = mongoDBService.getCount(TX_RELATION_TABLE + chainId + "_" + index, filter);
-        List<TxRelationInfo> txRelationInfoList;
-        if (end <= unConfirmCount) {
-            txRelationInfoList = unConfirmLimitQuery(chainId, filter, start, pageSize);
-        } else if (start - 1 > unConfirmCount) {
-            start = start - 1;
-            start = (int) (start - unConfirmCount);
-            txRelationInfoList = confirmLimitQuery(chainId, index, filter, start, pageSize);
-        } else {
-            txRelationInfoList = relationLimitQuery(chainId, index, addressFilter, filter, start, pageSize);
+    public CursorPageInfo<TxRelationInfo> getAcctTxs(int chainId, String address, PageCursor cursor, int pageSize, int type, long startHeight, long endHeight) {
+        Bson filter = acctTxsFilter(address, type, startHeight, endHeight);
+        int index = DBUtil.getShardNumber(address);
+        List<Document> docsList = this.mongoDBService.keysetQuery(TX_RELATION_TABLE + chainId + "_" + index, filter, null, "createTime", cursor, pageSize);
+        String nextCursor = null;
+        if (docsList.size() == pageSize) {
+            nextCursor = PageCursor.of(docsList.get(pageSize - 1), "createTime").encode();
         }
-
-        PageInfo<TxRelationInfo> pageInfo = new PageInfo<>(pageIndex, pageSize, unConfirmCount + confirmCount, txRelationInfoList);
-        return pageInfo;
+        return new CursorPageInfo<>(pageSize, nextCursor, toConfirmedRelations(docsList));
     }
 
-    public PageInfo<TxRelationInfo> getAcctTxs(int chainId, String address, int pageIndex, int pageSize, int type, long startHeight, long endHeight) {
+    private Bson acctTxsFilter(String address, int type, long startHeight, long endHeight) {
         Bson filter;
         Bson addressFilter = Filters.eq("address", address);
 
@@ -190,17 +240,17 @@ public class MongoAccountServiceImpl implements AccountService {
         } else {
             filter = addressFilter;
         }
-        int index = DBUtil.getShardNumber(address);
-        long count = mongoDBService.getCount(TX_RELATION_TABLE + chainId + "_" + index, filter);
-        List<Document> docsList = this.mongoDBService.pageQuery(TX_RELATION_TABLE + chainId + "_" + index, filter, Sorts.descending("createTime"), pageIndex, pageSize);
+        return filter;
+    }
+
+    private List<TxRelationInfo> toConfirmedRelations(List<Document> docsList) {
         List<TxRelationInfo> txRelationInfoList = new ArrayList<>();
         for (Document document : docsList) {
             TxRelationInfo txRelationInfo = TxRelationInfo.toInfo(document);
             txRelationInfo.setStatus(1);
             txRelationInfoList.add(txRelationInfo);
         }
-        PageInfo<TxRelationInfo> pageInfo = new PageInfo<>(pageIndex, pageSize, count, txRelationInfoList);
-        return pageInfo;
+        return txRelationInfoList;
     }
 
     private List<TxRelationInfo> unConfirmLimitQuery(int chainId, Bson filter, int start, int pageSize) {
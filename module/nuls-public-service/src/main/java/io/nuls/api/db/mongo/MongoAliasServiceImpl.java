@@ -76,6 +76,10 @@ public class MongoAliasServiceImpl implements AliasService {
         InsertManyOptions options = new InsertManyOptions();
         options.ordered(false);
         mongoDBService.insertMany(ALIAS_TABLE + chainId, documentList, options);
+        ApiCache apiCache = CacheManager.getCache(chainId);
+        for (AliasInfo info : aliasInfoList) {
+            apiCache.addAlias(info);
+        }
     }
 
 
@@ -87,8 +91,7 @@ public class MongoAliasServiceImpl implements AliasService {
         List<String> list = new ArrayList<>();
         for (AliasInfo aliasInfo : aliasInfoList) {
             list.add(aliasInfo.getAddress());
-            apiCache.getAliasMap().remove(aliasInfo.getAddress());
-            apiCache.getAliasMap().remove(aliasInfo.getAlias());
+            apiCache.removeAlias(aliasInfo);
         }
         mongoDBService.delete(ALIAS_TABLE + chainId, Filters.in("_id", list));
     }
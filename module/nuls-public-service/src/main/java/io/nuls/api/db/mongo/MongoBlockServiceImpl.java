@@ -2,6 +2,7 @@ package io.nuls.api.db.mongo;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.model.InsertOneModel;
 import com.mongodb.client.model.Sorts;
 import com.mongodb.client.model.WriteModel;
@@ -10,10 +11,12 @@ import io.nuls.api.db.BlockService;
 import io.nuls.api.manager.CacheManager;
 import io.nuls.api.model.po.BlockHeaderInfo;
 import io.nuls.api.model.po.BlockHexInfo;
+import io.nuls.api.model.po.CursorPageInfo;
 import io.nuls.api.model.po.PageInfo;
 import io.nuls.api.model.po.SyncInfo;
 import io.nuls.api.model.po.mini.MiniBlockHeaderInfo;
 import io.nuls.api.utils.DocumentTransferTool;
+import io.nuls.api.utils.PageCursor;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.model.StringUtils;
@@ -76,6 +79,28 @@ public class MongoBlockServiceImpl implements BlockService {
         mongoDBService.insertOne(BLOCK_HEX_TABLE + chainId, document);
     }
 
+    @Override
+    public void saveBlockHeaderList(int chainId, List<BlockHeaderInfo> blockHeaderInfos) {
+        List<Document> documentList = new ArrayList<>();
+        for (BlockHeaderInfo headerInfo : blockHeaderInfos) {
+            documentList.add(DocumentTransferTool.toDocument(headerInfo, "height"));
+        }
+        InsertManyOptions options = new InsertManyOptions();
+        options.ordered(false);
+        mongoDBService.insertMany(BLOCK_HEADER_TABLE + chainId, documentList, options);
+    }
+
+    @Override
+    public void saveBlockHexList(int chainId, List<BlockHexInfo> hexInfos) {
+        List<Document> documentList = new ArrayList<>();
+        for (BlockHexInfo hexInfo : hexInfos) {
+            documentList.add(DocumentTransferTool.toDocument(hexInfo, "height"));
+        }
+        InsertManyOptions options = new InsertManyOptions();
+        options.ordered(false);
+        mongoDBService.insertMany(BLOCK_HEX_TABLE + chainId, documentList, options);
+    }
+
     public BlockHexInfo getBlockHexInfo(int chainId, long height) {
         Document document = mongoDBService.findOne(BLOCK_HEX_TABLE + chainId, Filters.eq("_id", height));
         if (document == null) {
@@ -154,17 +179,55 @@ public class MongoBlockServiceImpl implements BlockService {
             }
         }
         long totalCount = mongoDBService.getCount(BLOCK_HEADER_TABLE + chainId, filter);
+        List<Document> docsList;
+        if (filter == null) {
+            //区块高度从0开始连续, 第pageIndex页的第一条就是最新高度往前(pageIndex - 1) * pageSize个区块, 按_id直接定位, 不用skip
+            long topHeight = totalCount - 1 - (long) (pageIndex - 1) * pageSize;
+            docsList = this.mongoDBService.keysetQuery(BLOCK_HEADER_TABLE + chainId, null, miniHeaderFields(), "_id", new PageCursor(topHeight + 1, topHeight + 1), pageSize);
+        } else {
+            docsList = this.mongoDBService.pageQuery(BLOCK_HEADER_TABLE + chainId, filter, miniHeaderFields(), PageCursor.sort("_id"), pageIndex, pageSize);
+        }
+        PageInfo<MiniBlockHeaderInfo> pageInfo = new PageInfo<>(pageIndex, pageSize, totalCount, toMiniHeaders(docsList));
+        return pageInfo;
+    }
+
+    @Override
+    public CursorPageInfo<MiniBlockHeaderInfo> pageQuery(int chainId, PageCursor cursor, int pageSize, String packingAddress, boolean filterEmptyBlocks) {
+        if (!CacheManager.isChainExist(chainId)) {
+            return new CursorPageInfo<>(pageSize);
+        }
+        Bson filter = null;
+        if (StringUtils.isNotBlank(packingAddress)) {
+            filter = Filters.eq("packingAddress", packingAddress);
+        }
+        if (filterEmptyBlocks) {
+            if (filter == null) {
+                filter = Filters.gt("txCount", 1);
+            } else {
+                filter = Filters.and(filter, Filters.gt("txCount", 1));
+            }
+        }
+        List<Document> docsList = this.mongoDBService.keysetQuery(BLOCK_HEADER_TABLE + chainId, filter, miniHeaderFields(), "_id", cursor, pageSize);
+        String nextCursor = null;
+        if (docsList.size() == pageSize) {
+            nextCursor = PageCursor.of(docsList.get(pageSize - 1), "_id").encode();
+        }
+        return new CursorPageInfo<>(pageSize, nextCursor, toMiniHeaders(docsList));
+    }
+
+    private BasicDBObject miniHeaderFields() {
         BasicDBObject fields = new BasicDBObject();
         fields.append("_id", 1).append("createTime", 1).append("txCount", 1).append("agentHash", 1).
                 append("agentId", 1).append("agentAlias", 1).append("size", 1).append("reward", 1);
+        return fields;
+    }
 
-        List<Document> docsList = this.mongoDBService.pageQuery(BLOCK_HEADER_TABLE + chainId, filter, fields, Sorts.descending("_id"), pageIndex, pageSize);
+    private List<MiniBlockHeaderInfo> toMiniHeaders(List<Document> docsList) {
         List<MiniBlockHeaderInfo> list = new ArrayList<>();
         for (Document document : docsList) {
             list.add(DocumentTransferTool.toInfo(document, "height", MiniBlockHeaderInfo.class));
         }
-        PageInfo<MiniBlockHeaderInfo> pageInfo = new PageInfo<>(pageIndex, pageSize, totalCount, list);
-        return pageInfo;
+        return list;
     }
 
     @Override
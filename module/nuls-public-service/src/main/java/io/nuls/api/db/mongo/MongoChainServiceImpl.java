@@ -135,9 +135,14 @@ public class MongoChainServiceImpl implements ChainService {
     }
 
     public SyncInfo saveNewSyncInfo(int chainId, long newHeight) {
-        SyncInfo syncInfo = new SyncInfo(chainId, newHeight, 0);
+        return saveNewSyncInfo(chainId, newHeight, 1);
+    }
+
+    public SyncInfo saveNewSyncInfo(int chainId, long newHeight, int batchCount) {
+        SyncInfo syncInfo = new SyncInfo(chainId, newHeight, 0, batchCount);
         Document document = DocumentTransferTool.toDocument(syncInfo, "chainId");
-        if (newHeight == 0) {
+        //本批从创世块开始时, 同步信息可能还不存在
+        if (newHeight < batchCount) {
             Bson query = Filters.eq("_id", chainId);
             Document document1 = mongoDBService.findOne(SYNC_INFO_TABLE, query);
             if(document1 != null) {
@@ -87,12 +87,14 @@ public class MongoContractServiceImpl implements ContractService {
         if (contractInfoMap.isEmpty()) {
             return;
         }
+        ApiCache apiCache = CacheManager.getCache(chainId);
         List<WriteModel<Document>> modelList = new ArrayList<>();
         for (ContractInfo contractInfo : contractInfoMap.values()) {
             Document document = contractInfo.toDocument();
 
             if (contractInfo.isNew()) {
                 modelList.add(new DeleteOneModel<>(Filters.eq("_id", contractInfo.getContractAddress())));
+                apiCache.removeNrc20Info(contractInfo.getContractAddress());
             } else {
                 modelList.add(new ReplaceOneModel<>(Filters.eq("_id", contractInfo.getContractAddress()), document));
             }
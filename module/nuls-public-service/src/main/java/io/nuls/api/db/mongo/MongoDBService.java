@@ -29,6 +29,7 @@ import com.mongodb.client.*;
 import com.mongodb.client.model.*;
 import io.nuls.api.ApiContext;
 import io.nuls.api.utils.LoggerUtil;
+import io.nuls.api.utils.PageCursor;
 import io.nuls.core.basic.InitializingBean;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.core.annotation.Order;
@@ -352,6 +353,31 @@ public class MongoDBService implements InitializingBean {
         return list;
     }
 
+    /**
+     * 游标分页, 按(sortField, _id)倒序取cursor之后的pageSize条记录, cursor为空时取第一页
+     * 需要(过滤字段, sortField, _id)上的索引才能避免扫描
+     * Cursor page sorted by (sortField, _id) descending, returns pageSize records after the cursor, or the first page
+     * when the cursor is null. Needs an index on (filter fields, sortField, _id) to avoid scanning.
+     */
+    public List<Document> keysetQuery(String collName, Bson filter, BasicDBObject fields, String sortField, PageCursor cursor, int pageSize) {
+        if (cursor != null) {
+            Bson after = cursor.after(sortField);
+            filter = filter == null ? after : Filters.and(filter, after);
+        }
+        return find(collName, filter, fields, PageCursor.sort(sortField), pageSize);
+    }
+
+    private List<Document> find(String collName, Bson filter, BasicDBObject fields, Bson sort, int limit) {
+        MongoCollection<Document> collection = getCollection(collName);
+        FindIterable<Document> iterable = filter == null ? collection.find() : collection.find(filter);
+        if (fields != null) {
+            iterable = iterable.projection(fields);
+        }
+        List<Document> list = new ArrayList<>();
+        iterable.sort(sort).limit(limit).forEach((Consumer<Document>) list::add);
+        return list;
+    }
+
     public long getCount(String collName, Bson var1) {
         MongoCollection<Document> collection = getCollection(collName);
         if (var1 == null) {
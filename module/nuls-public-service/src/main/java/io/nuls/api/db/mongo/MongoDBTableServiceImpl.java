@@ -119,12 +119,18 @@ public class MongoDBTableServiceImpl implements DBTableService {
             mongoDBService.createIndex(DBTableConstant.TX_RELATION_TABLE + chainId + "_" + i, Indexes.ascending("address", "type"));
             mongoDBService.createIndex(DBTableConstant.TX_RELATION_TABLE + chainId + "_" + i, Indexes.ascending("txHash"));
             mongoDBService.createIndex(DBTableConstant.TX_RELATION_TABLE + chainId + "_" + i, Indexes.descending("createTime"));
+            //账户交易分页, 按(createTime, _id)倒序
+            mongoDBService.createIndex(DBTableConstant.TX_RELATION_TABLE + chainId + "_" + i, Indexes.compoundIndex(Indexes.ascending("address"), Indexes.descending("createTime", "_id")));
+            mongoDBService.createIndex(DBTableConstant.TX_RELATION_TABLE + chainId + "_" + i, Indexes.compoundIndex(Indexes.ascending("address", "type"), Indexes.descending("createTime", "_id")));
         }
+        mongoDBService.createIndex(DBTableConstant.TX_UNCONFIRM_RELATION_TABLE + chainId, Indexes.compoundIndex(Indexes.ascending("address"), Indexes.descending("createTime", "_id")));
         //账户信息表
         mongoDBService.createIndex(DBTableConstant.ACCOUNT_TABLE + chainId, Indexes.descending("totalBalance"));
         mongoDBService.createIndex(DBTableConstant.ACCOUNT_LEDGER_TABLE + chainId, Indexes.descending("address"));
         //交易表
         mongoDBService.createIndex(DBTableConstant.TX_TABLE + chainId, Indexes.descending("height"));
+        mongoDBService.createIndex(DBTableConstant.TX_TABLE + chainId, Indexes.descending("height", "_id"));
+        mongoDBService.createIndex(DBTableConstant.TX_TABLE + chainId, Indexes.compoundIndex(Indexes.ascending("type"), Indexes.descending("height", "_id")));
         //block 表
         mongoDBService.createIndex(DBTableConstant.BLOCK_HEADER_TABLE + chainId, Indexes.ascending("hash"));
         //委托记录表
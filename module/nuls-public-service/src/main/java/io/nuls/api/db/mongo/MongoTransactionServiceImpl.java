@@ -10,6 +10,7 @@ import io.nuls.api.model.po.*;
 import io.nuls.api.model.po.mini.MiniTransactionInfo;
 import io.nuls.api.model.rpc.BalanceInfo;
 import io.nuls.api.utils.DocumentTransferTool;
+import io.nuls.api.utils.PageCursor;
 import io.nuls.base.basic.AddressTool;
 import io.nuls.core.basic.InitializingBean;
 import io.nuls.core.constant.TxType;
@@ -192,7 +193,7 @@ public class MongoTransactionServiceImpl implements TransactionService, Initiali
             filter = ne("type", 1);
         }
         long totalCount = mongoDBService.getCount(TX_TABLE + chainId, filter);
-        List<Document> docList = this.mongoDBService.pageQuery(TX_TABLE + chainId, filter, Sorts.descending("height"), pageIndex, pageSize);
+        List<Document> docList = this.mongoDBService.pageQuery(TX_TABLE + chainId, filter, PageCursor.sort("height"), pageIndex, pageSize);
         List<MiniTransactionInfo> txList = new ArrayList<>();
         for (Document document : docList) {
             txList.add(MiniTransactionInfo.toInfo(document));
@@ -202,6 +203,25 @@ public class MongoTransactionServiceImpl implements TransactionService, Initiali
         return pageInfo;
     }
 
+    public CursorPageInfo<MiniTransactionInfo> getTxList(int chainId, PageCursor cursor, int pageSize, int type, boolean isHidden) {
+        Bson filter = null;
+        if (type > 0) {
+            filter = eq("type", type);
+        } else if (isHidden) {
+            filter = ne("type", 1);
+        }
+        List<Document> docList = this.mongoDBService.keysetQuery(TX_TABLE + chainId, filter, null, "height", cursor, pageSize);
+        List<MiniTransactionInfo> txList = new ArrayList<>();
+        for (Document document : docList) {
+            txList.add(MiniTransactionInfo.toInfo(document));
+        }
+        String nextCursor = null;
+        if (docList.size() == pageSize) {
+            nextCursor = PageCursor.of(docList.get(pageSize - 1), "height").encode();
+        }
+        return new CursorPageInfo<>(pageSize, nextCursor, txList);
+    }
+
     @Override
     public List<TxHexInfo> getUnConfirmList(int chainId) {
         List<Document> docList = mongoDBService.query(TX_UNCONFIRM_TABLE + chainId);
@@ -0,0 +1,57 @@
+package io.nuls.api.model.po;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 游标分页结果, cursor为空表示没有下一页
+ * Result of a cursor page, an empty cursor means there is no next page
+ */
+public class CursorPageInfo<T> {
+
+    private int pageSize;
+
+    private String cursor;
+
+    private List<T> list;
+
+    public CursorPageInfo() {
+
+    }
+
+    public CursorPageInfo(int pageSize, String cursor, List<T> list) {
+        this.pageSize = pageSize;
+        this.cursor = cursor;
+        this.list = list;
+    }
+
+    public CursorPageInfo(int pageSize) {
+        this.pageSize = pageSize;
+
+        this.list = new ArrayList<>();
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public List<T> getList() {
+        return list;
+    }
+
+    public void setList(List<T> list) {
+        this.list = list;
+    }
+}
@@ -8,6 +8,12 @@ public class SyncInfo {
 
     private int step;
 
+    //批量写入时本批区块的数量, 本批区块的高度为 bestHeight - batchCount + 1 到 bestHeight, 0或1表示逐块写入
+    private int batchCount;
+
+    //批量写入中断时的步骤, 回滚本批中其余区块时使用
+    private int batchStep;
+
     public SyncInfo() {
     }
 
@@ -17,6 +23,11 @@ public class SyncInfo {
         this.step = step;
     }
 
+    public SyncInfo(int chainId, long bestHeight, int step, int batchCount) {
+        this(chainId, bestHeight, step);
+        this.batchCount = batchCount;
+    }
+
     public boolean isFinish() {
         return this.step == 100;
     }
@@ -44,4 +55,20 @@ public class SyncInfo {
     public void setStep(int step) {
         this.step = step;
     }
+
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    public void setBatchCount(int batchCount) {
+        this.batchCount = batchCount;
+    }
+
+    public int getBatchStep() {
+        return batchStep;
+    }
+
+    public void setBatchStep(int batchStep) {
+        this.batchStep = batchStep;
+    }
 }
@@ -29,6 +29,7 @@ import io.nuls.api.model.po.*;
 import io.nuls.api.model.po.mini.MiniAccountInfo;
 import io.nuls.api.model.rpc.*;
 import io.nuls.api.utils.LoggerUtil;
+import io.nuls.api.utils.PageCursor;
 import io.nuls.api.utils.VerifyUtils;
 import io.nuls.base.basic.AddressTool;
 import io.nuls.core.basic.Result;
@@ -225,6 +226,128 @@ public class AccountController {
 
     }
 
+    @RpcMethod("getAccountTxsByCursor")
+    public RpcResult getAccountTxsByCursor(List<Object> params) {
+        VerifyUtils.verifyParams(params, 7);
+        int chainId, pageSize, type;
+        String address;
+        PageCursor cursor;
+        long startHeight, endHeight;
+        try {
+            chainId = (int) params.get(0);
+        } catch (Exception e) {
+            return RpcResult.paramError("[chainId] is inValid");
+        }
+        try {
+            cursor = PageCursor.decode((String) params.get(1));
+        } catch (Exception e) {
+            return RpcResult.paramError("[cursor] is inValid");
+        }
+        try {
+            pageSize = (int) params.get(2);
+        } catch (Exception e) {
+            return RpcResult.paramError("[pageSize] is inValid");
+        }
+        try {
+            address = (String) params.get(3);
+        } catch (Exception e) {
+            return RpcResult.paramError("[address] is inValid");
+        }
+        try {
+            type = (int) params.get(4);
+        } catch (Exception e) {
+            return RpcResult.paramError("[type] is inValid");
+        }
+        try {
+            startHeight = Long.parseLong("" + params.get(5));
+        } catch (Exception e) {
+            return RpcResult.paramError("[startHeight] is invalid");
+        }
+        try {
+            endHeight = Long.parseLong("" + params.get(6));
+        } catch (Exception e) {
+            return RpcResult.paramError("[endHeight] is invalid");
+        }
+
+        if (!AddressTool.validAddress(chainId, address)) {
+            return RpcResult.paramError("[address] is inValid");
+        }
+        if (pageSize <= 0 || pageSize > 100) {
+            pageSize = 10;
+        }
+
+        RpcResult result = new RpcResult();
+        CursorPageInfo<TxRelationInfo> pageInfo;
+        if (CacheManager.isChainExist(chainId)) {
+            pageInfo = accountService.getAccountTxs(chainId, address, cursor, pageSize, type, startHeight, endHeight);
+        } else {
+            pageInfo = new CursorPageInfo<>(pageSize);
+        }
+        result.setResult(pageInfo);
+        return result;
+    }
+
+    @RpcMethod("getAcctTxsByCursor")
+    public RpcResult getAcctTxsByCursor(List<Object> params) {
+        VerifyUtils.verifyParams(params, 7);
+        int chainId, pageSize, type;
+        String address;
+        PageCursor cursor;
+        long startHeight, endHeight;
+        try {
+            chainId = (int) params.get(0);
+        } catch (Exception e) {
+            return RpcResult.paramError("[chainId] is inValid");
+        }
+        try {
+            cursor = PageCursor.decode((String) params.get(1));
+        } catch (Exception e) {
+            return RpcResult.paramError("[cursor] is inValid");
+        }
+        try {
+            pageSize = (int) params.get(2);
+        } catch (Exception e) {
+            return RpcResult.paramError("[pageSize] is inValid");
+        }
+        try {
+            address = (String) params.get(3);
+        } catch (Exception e) {
+            return RpcResult.paramError("[address] is inValid");
+        }
+        try {
+            type = (int) params.get(4);
+        } catch (Exception e) {
+            return RpcResult.paramError("[type] is inValid");
+        }
+        try {
+            startHeight = Long.parseLong("" + params.get(5));
+        } catch (Exception e) {
+            return RpcResult.paramError("[startHeight] is invalid");
+        }
+        try {
+            endHeight = Long.parseLong("" + params.get(6));
+        } catch (Exception e) {
+            return RpcResult.paramError("[endHeight] is invalid");
+        }
+
+        if (!AddressTool.validAddress(chainId, address)) {
+            return RpcResult.paramError("[address] is inValid");
+        }
+        if (pageSize <= 0 || pageSize > 100) {
+            pageSize = 10;
+        }
+
+        RpcResult result = new RpcResult();
+        CursorPageInfo<TxRelationInfo> pageInfo;
+        if (CacheManager.isChainExist(chainId)) {
+            pageInfo = accountService.getAcctTxs(chainId, address, cursor, pageSize, type, startHeight, endHeight);
+        } else {
+            pageInfo = new CursorPageInfo<>(pageSize);
+        }
+        result.setResult(pageInfo);
+        return result;
+    }
+
     @RpcMethod("getAccount")
     public RpcResult getAccount(List<Object> params) {
         VerifyUtils.verifyParams(params, 2);
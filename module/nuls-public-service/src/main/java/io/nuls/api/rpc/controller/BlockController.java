@@ -27,9 +27,11 @@ import io.nuls.api.manager.CacheManager;
 import io.nuls.api.model.po.BlockHeaderInfo;
 import io.nuls.api.model.po.BlockHexInfo;
 import io.nuls.api.model.po.BlockInfo;
+import io.nuls.api.model.po.CursorPageInfo;
 import io.nuls.api.model.po.PageInfo;
 import io.nuls.api.model.po.mini.MiniBlockHeaderInfo;
 import io.nuls.api.model.rpc.RpcResult;
+import io.nuls.api.utils.PageCursor;
 import io.nuls.api.utils.VerifyUtils;
 import io.nuls.core.basic.Result;
 import io.nuls.core.constant.CommonCodeConstanst;
@@ -260,6 +262,56 @@ public class BlockController {
         return result;
     }
 
+    @RpcMethod("getBlockHeaderListByCursor")
+    public RpcResult getBlockHeaderListByCursor(List<Object> params) {
+        VerifyUtils.verifyParams(params, 3);
+        int chainId, pageSize;
+        PageCursor cursor;
+        boolean filterEmptyBlocks;
+        String packingAddress = null;
+        try {
+            chainId = (int) params.get(0);
+        } catch (Exception e) {
+            return RpcResult.paramError("[chainId] is invalid");
+        }
+        try {
+            cursor = PageCursor.decode((String) params.get(1));
+        } catch (Exception e) {
+            return RpcResult.paramError("[cursor] is invalid");
+        }
+        try {
+            pageSize = (int) params.get(2);
+        } catch (Exception e) {
+            return RpcResult.paramError("[pageSize] is invalid");
+        }
+        try {
+            filterEmptyBlocks = (boolean) params.get(3);
+        } catch (Exception e) {
+            return RpcResult.paramError("[filterEmptyBlocks] is invalid");
+        }
+        try {
+            if (params.size() > 4) {
+                packingAddress = (String) params.get(4);
+            }
+        } catch (Exception e) {
+            return RpcResult.paramError("[packingAddress] is invalid");
+        }
+
+        if (pageSize <= 0 || pageSize > 100) {
+            pageSize = 10;
+        }
+
+        CursorPageInfo<MiniBlockHeaderInfo> pageInfo;
+        if (!CacheManager.isChainExist(chainId)) {
+            pageInfo = new CursorPageInfo<>(pageSize);
+        } else {
+            pageInfo = blockService.pageQuery(chainId, cursor, pageSize, packingAddress, filterEmptyBlocks);
+        }
+        RpcResult result = new RpcResult();
+        result.setResult(pageInfo);
+        return result;
+    }
+
 //
 //    @RpcMethod("rollbackBestBlocks")
 //    public RpcResult rollbackBestBlocks(List<Object> params) {
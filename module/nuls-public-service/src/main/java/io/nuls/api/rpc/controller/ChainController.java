@@ -1,5 +1,6 @@
 package io.nuls.api.rpc.controller;
 
+import com.google.common.cache.CacheStats;
 import io.nuls.api.ApiContext;
 import io.nuls.api.analysis.WalletRpcHandler;
 import io.nuls.api.cache.ApiCache;
@@ -131,6 +132,32 @@ public class ChainController {
         return RpcResult.success(apiCache.getCoinContextInfo());
     }
 
+    @RpcMethod("getCacheStats")
+    public RpcResult getCacheStats(List<Object> params) {
+        VerifyUtils.verifyParams(params, 1);
+        int chainId;
+        try {
+            chainId = (int) params.get(0);
+        } catch (Exception e) {
+            return RpcResult.paramError("[chainId] is invalid");
+        }
+        if (!CacheManager.isChainExist(chainId)) {
+            return RpcResult.dataNotFound();
+        }
+        ApiCache apiCache = CacheManager.getCache(chainId);
+        Map<String, Object> map = new HashMap<>();
+        for (Map.Entry<String, CacheStats> entry : apiCache.getCacheStats().entrySet()) {
+            CacheStats stats = entry.getValue();
+            Map<String, Object> statsMap = new HashMap<>();
+            statsMap.put("hitCount", stats.hitCount());
+            statsMap.put("missCount", stats.missCount());
+            statsMap.put("hitRate", stats.hitRate());
+            statsMap.put("evictionCount", stats.evictionCount());
+            map.put(entry.getKey(), statsMap);
+        }
+        return RpcResult.success(map);
+    }
+
     @RpcMethod("search")
     public RpcResult search(List<Object> params) {
         VerifyUtils.verifyParams(params, 2);
@@ -15,6 +15,7 @@ import io.nuls.api.model.po.mini.MiniTransactionInfo;
 import io.nuls.api.model.rpc.RpcErrorCode;
 import io.nuls.api.model.rpc.RpcResult;
 import io.nuls.api.utils.LoggerUtil;
+import io.nuls.api.utils.PageCursor;
 import io.nuls.api.utils.VerifyUtils;
 import io.nuls.base.RPCUtil;
 import io.nuls.base.basic.AddressTool;
@@ -181,6 +182,51 @@ public class TransactionController {
         return rpcResult;
     }
 
+    @RpcMethod("getTxListByCursor")
+    public RpcResult getTxListByCursor(List<Object> params) {
+        VerifyUtils.verifyParams(params, 5);
+        int chainId, pageSize, type;
+        PageCursor cursor;
+        boolean isHidden;
+        try {
+            chainId = (int) params.get(0);
+        } catch (Exception e) {
+            return RpcResult.paramError("[chainId] is inValid");
+        }
+        try {
+            cursor = PageCursor.decode((String) params.get(1));
+        } catch (Exception e) {
+            return RpcResult.paramError("[cursor] is inValid");
+        }
+        try {
+            pageSize = (int) params.get(2);
+        } catch (Exception e) {
+            return RpcResult.paramError("[pageSize] is inValid");
+        }
+        try {
+            type = (int) params.get(3);
+        } catch (Exception e) {
+            return RpcResult.paramError("[type] is inValid");
+        }
+        try {
+            isHidden = (boolean) params.get(4);
+        } catch (Exception e) {
+            return RpcResult.paramError("[isHidden] is inValid");
+        }
+        if (pageSize <= 0 || pageSize > 100) {
+            pageSize = 10;
+        }
+        CursorPageInfo<MiniTransactionInfo> pageInfo;
+        if (!CacheManager.isChainExist(chainId)) {
+            pageInfo = new CursorPageInfo<>(pageSize);
+        } else {
+            pageInfo = txService.getTxList(chainId, cursor, pageSize, type, isHidden);
+        }
+        RpcResult rpcResult = new RpcResult();
+        rpcResult.setResult(pageInfo);
+        return rpcResult;
+    }
+
     @RpcMethod("getBlockTxList")
     public RpcResult getBlockTxList(List<Object> params) {
         VerifyUtils.verifyParams(params, 4);
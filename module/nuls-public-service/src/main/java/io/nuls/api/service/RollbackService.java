@@ -81,9 +81,7 @@ public class RollbackService {
             SyncInfo syncInfo = chainService.getSyncInfo(chainId);
             if (syncInfo != null) {
                 if (syncInfo.getBestHeight() > 0) {
-                    syncInfo.setBestHeight(syncInfo.getBestHeight() - 1);
-                    syncInfo.setStep(100);
-                    chainService.updateStep(syncInfo);
+                    finishRollback(syncInfo);
                 }
             }
             return true;
@@ -757,8 +755,23 @@ public class RollbackService {
         transactionService.rollbackTx(chainId, blockInfo.getHeader().getTxHashList());
         blockService.deleteBlockHeader(chainId, blockInfo.getHeader().getHeight());
 
-        syncInfo.setStep(100);
-        syncInfo.setBestHeight(blockInfo.getHeader().getHeight() - 1);
+        finishRollback(syncInfo);
+    }
+
+    /**
+     * 区块回滚完成, 如果是批量写入中断的区块, 本批其余的区块按中断时的步骤继续回滚
+     * The block is rolled back. If it belongs to an interrupted batch, the rest of the batch is rolled back from the
+     * step the batch was interrupted at.
+     */
+    private void finishRollback(SyncInfo syncInfo) {
+        syncInfo.setBestHeight(syncInfo.getBestHeight() - 1);
+        if (syncInfo.getBatchCount() > 1) {
+            syncInfo.setBatchCount(syncInfo.getBatchCount() - 1);
+            syncInfo.setStep(syncInfo.getBatchStep());
+        } else {
+            syncInfo.setBatchCount(0);
+            syncInfo.setStep(100);
+        }
         chainService.updateStep(syncInfo);
     }
 
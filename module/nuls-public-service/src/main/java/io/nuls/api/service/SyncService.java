@@ -5,7 +5,6 @@ import io.nuls.api.cache.ApiCache;
 import io.nuls.api.constant.ApiConstant;
 import io.nuls.api.constant.ApiErrorCode;
 import io.nuls.api.db.*;
-import io.nuls.api.db.mongo.MongoAccountServiceImpl;
 import io.nuls.api.db.mongo.MongoChainServiceImpl;
 import io.nuls.api.manager.CacheManager;
 import io.nuls.api.model.po.*;
@@ -91,22 +90,73 @@ public class SyncService {
 
 
     public boolean syncNewBlock(int chainId, BlockInfo blockInfo) {
-        clear(chainId);
+        return syncNewBlocks(chainId, Collections.singletonList(blockInfo));
+    }
+
+    /**
+     * 按顺序解析一批连续的区块, 各表的数据合并后一次写入, 一批只记录一条同步信息
+     * Analyse a run of consecutive blocks in order and write the data of all of them to each collection at once,
+     * recording a single sync info for the whole run
+     */
+    public boolean syncNewBlocks(int chainId, List<BlockInfo> blockList) {
+        clear();
         long time1, time2;
         time1 = System.currentTimeMillis();
-        findAddProcessAgentOfBlock(chainId, blockInfo);
-        //处理交易
-        processTxs(chainId, blockInfo.getTxList());
-        //处理交易
-        roundManager.process(chainId, blockInfo);
+        int txCount = 0;
+        for (BlockInfo blockInfo : blockList) {
+            findAddProcessAgentOfBlock(chainId, blockInfo);
+            //处理交易
+            processTxs(chainId, blockInfo.getTxList());
+            //处理交易
+            roundManager.process(chainId, blockInfo);
+            txCount += blockInfo.getHeader().getTxCount();
+        }
         //保存数据
-        save(chainId, blockInfo);
+        save(chainId, blockList);
 
+        BlockHeaderInfo bestHeader = blockList.get(blockList.size() - 1).getHeader();
         ApiCache apiCache = CacheManager.getCache(chainId);
-        apiCache.setBestHeader(blockInfo.getHeader());
+        apiCache.setBestHeader(bestHeader);
 
         time2 = System.currentTimeMillis();
-        LoggerUtil.commonLog.info("-----height finish:" + blockInfo.getHeader().getHeight() + "-----txCount:" + blockInfo.getHeader().getTxCount() + "-----use:" + (time2 - time1) + "-----");
+        if (blockList.size() == 1) {
+            LoggerUtil.commonLog.info("-----height finish:" + bestHeader.getHeight() + "-----txCount:" + txCount + "-----use:" + (time2 - time1) + "-----");
+        } else {
+            LoggerUtil.commonLog.info("-----height finish:" + blockList.get(0).getHeader().getHeight() + "-" + bestHeader.getHeight() + "-----txCount:" + txCount + "-----use:" + (time2 - time1) + "-----");
+        }
+        return true;
+    }
+
+    /**
+     * 区块能否和前后的区块合并写入
+     * 共识节点、委托、链和资产相关的交易在解析时或下一轮次计算时会查询数据库中的节点、委托和链信息,
+     * 包含这些交易的区块需要在之前的区块写入后单独处理
+     * Whether the block can be written together with its neighbours.
+     * Agent, deposit, chain and asset transactions read agents, deposits and chains back from the database, either
+     * while they are analysed or when the next round is computed, so their blocks are synced on their own once the
+     * blocks before them are written.
+     */
+    public boolean isBatchable(BlockInfo blockInfo) {
+        for (TransactionInfo tx : blockInfo.getTxList()) {
+            switch (tx.getType()) {
+                case TxType.REGISTER_AGENT:
+                case TxType.CONTRACT_CREATE_AGENT:
+                case TxType.DEPOSIT:
+                case TxType.CONTRACT_DEPOSIT:
+                case TxType.CANCEL_DEPOSIT:
+                case TxType.CONTRACT_CANCEL_DEPOSIT:
+                case TxType.STOP_AGENT:
+                case TxType.CONTRACT_STOP_AGENT:
+                case TxType.RED_PUNISH:
+                case TxType.REGISTER_CHAIN_AND_ASSET:
+                case TxType.DESTROY_CHAIN_AND_ASSET:
+                case TxType.ADD_ASSET_TO_CHAIN:
+                case TxType.REMOVE_ASSET_FROM_CHAIN:
+                    return false;
+                default:
+                    break;
+            }
+        }
         return true;
     }
 
@@ -829,22 +879,39 @@ public class SyncService {
      * Store entity in the database after parsing the block and all transactions
      */
     public void save(int chainId, BlockInfo blockInfo) {
-        long height = blockInfo.getHeader().getHeight();
+        save(chainId, Collections.singletonList(blockInfo));
+    }
+
+    /**
+     * 批量写入时同步信息记录本批最后一个区块的高度和区块数量, 中断后从最后一个区块开始逐块回滚
+     * When a batch is written the sync info holds the height of its last block and the number of blocks, so an
+     * interrupted batch is rolled back block by block starting from the last one
+     */
+    private void save(int chainId, List<BlockInfo> blockList) {
+        long height = blockList.get(blockList.size() - 1).getHeader().getHeight();
 
         long time1, time2;
 
-        SyncInfo syncInfo = chainService.saveNewSyncInfo(chainId, height);
+        SyncInfo syncInfo = chainService.saveNewSyncInfo(chainId, height, blockList.size());
 
+        List<BlockHeaderInfo> headerList = new ArrayList<>(blockList.size());
+        List<BlockHexInfo> hexList = new ArrayList<>(blockList.size());
+        List<TransactionInfo> txList = new ArrayList<>();
+        for (BlockInfo blockInfo : blockList) {
+            headerList.add(blockInfo.getHeader());
+            hexList.add(blockInfo.getBlockHexInfo());
+            txList.addAll(blockInfo.getTxList());
+        }
         //存储区块头信息
         time1 = System.currentTimeMillis();
-        blockService.saveBLockHeaderInfo(chainId, blockInfo.getHeader());
+        blockService.saveBlockHeaderList(chainId, headerList);
         //存区块序列化完整信息
-        blockService.saveBlockHexInfo(chainId, blockInfo.getBlockHexInfo());
+        blockService.saveBlockHexList(chainId, hexList);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveBlockHexInfo, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
         //存储交易记录
-        txService.saveTxList(chainId, blockInfo.getTxList());
+        txService.saveTxList(chainId, txList);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveTxList, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
@@ -902,45 +969,45 @@ public class SyncService {
             涉及到统计类的表放在最后来存储，便于回滚
          */
         //存储共识节点列表
-        syncInfo.setStep(10);
-        chainService.updateStep(syncInfo);
+        updateStep(syncInfo, 10);
         agentService.saveAgentList(chainId, agentInfoList);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveAgentList, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
         //存储账户资产信息
-        syncInfo.setStep(20);
-        chainService.updateStep(syncInfo);
+        updateStep(syncInfo, 20);
         ledgerService.saveLedgerList(chainId, accountLedgerInfoMap);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveLedgerList, use: " + (time2 - time1));
 //        time1 = System.currentTimeMillis();
         //存储智能合约信息表
-        syncInfo.setStep(30);
-        chainService.updateStep(syncInfo);
+        updateStep(syncInfo, 30);
         contractService.saveContractInfos(chainId, contractInfoMap);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveContractInfos, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
 
         //存储账户token信息
-        syncInfo.setStep(40);
-        chainService.updateStep(syncInfo);
+        updateStep(syncInfo, 40);
         tokenService.saveAccountTokens(chainId, accountTokenMap);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveAccountTokens, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
 
         //存储账户信息表
-        syncInfo.setStep(50);
-        chainService.updateStep(syncInfo);
+        updateStep(syncInfo, 50);
         accountService.saveAccounts(chainId, accountInfoMap);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveAccounts, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
 
         //完成解析
-        syncInfo.setStep(100);
+        updateStep(syncInfo, 100);
+    }
+
+    private void updateStep(SyncInfo syncInfo, int step) {
+        syncInfo.setStep(step);
+        syncInfo.setBatchStep(step);
         chainService.updateStep(syncInfo);
     }
 
@@ -1012,7 +1079,7 @@ public class SyncService {
         return accountTokenInfo;
     }
 
-    private void clear(int chainId) {
+    private void clear() {
         accountInfoMap.clear();
         accountLedgerInfoMap.clear();
         agentInfoList.clear();
@@ -1027,18 +1094,5 @@ public class SyncService {
         accountTokenMap.clear();
         tokenTransferList.clear();
         chainInfoList.clear();
-
-        ApiCache apiCache = CacheManager.getCache(chainId);
-        if (apiCache.getAccountMap().size() > MongoAccountServiceImpl.cacheSize * 2) {
-            Set<String> keySet = apiCache.getAccountMap().keySet();
-            int i = 0;
-            for (String key : keySet) {
-                apiCache.getAccountMap().remove(key);
-                i++;
-                if (i >= MongoAccountServiceImpl.cacheSize) {
-                    break;
-                }
-            }
-        }
     }
 }
@@ -11,6 +11,17 @@ import io.nuls.api.utils.LoggerUtil;
 import io.nuls.core.basic.Result;
 import io.nuls.core.core.ioc.SpringLiteContext;
 import io.nuls.core.log.Log;
+import io.nuls.core.thread.ThreadUtils;
+import io.nuls.core.thread.commom.NulsThreadFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static io.nuls.api.constant.ApiConstant.*;
 
 public class SyncBlockTask implements Runnable {
 
@@ -20,6 +31,13 @@ public class SyncBlockTask implements Runnable {
 
     private RollbackService rollbackService;
 
+    //批量追块模式下提前获取并解析区块的线程池
+    private ExecutorService prefetchExecutor;
+    //已提交获取的区块, 按高度排列
+    private Deque<Future<Result<BlockInfo>>> prefetchQueue = new ArrayDeque<>();
+    //下一个要提交获取的区块高度
+    private long prefetchHeight;
+
     public SyncBlockTask(int chainId) {
         this.chainId = chainId;
         syncService = SpringLiteContext.getBean(SyncService.class);
@@ -36,9 +54,14 @@ public class SyncBlockTask implements Runnable {
         //Check the latest synchronization information before each entity synchronization.
         //If the latest block entity is not completely processed in one transaction, you need to roll back the block entity.
         try {
+            //批量写入中断时需要逐块回滚本批的所有区块
+            //An interrupted batch is rolled back block by block
             SyncInfo syncInfo = syncService.getSyncInfo(chainId);
-            if (syncInfo != null && !syncInfo.isFinish()) {
-                rollbackService.rollbackBlock(chainId, syncInfo.getBestHeight());
+            while (syncInfo != null && !syncInfo.isFinish()) {
+                if (!rollbackService.rollbackBlock(chainId, syncInfo.getBestHeight())) {
+                    return;
+                }
+                syncInfo = syncService.getSyncInfo(chainId);
             }
         } catch (Exception e) {
             Log.error(e);
@@ -54,6 +77,7 @@ public class SyncBlockTask implements Runnable {
                 running = false;
             }
         }
+        clearPrefetch();
     }
 
     /**
@@ -85,6 +109,14 @@ public class SyncBlockTask implements Runnable {
         if (localBestBlockHeader != null) {
             nextHeight = localBestBlockHeader.getHeight() + 1;
         }
+        if (ApiContext.localHeight - nextHeight > SYNC_BATCH_DISTANCE) {
+            List<BlockInfo> blockList = prefetchBlocks(localBestBlockHeader, nextHeight);
+            if (!blockList.isEmpty()) {
+                return syncService.syncNewBlocks(chainId, blockList);
+            }
+        } else {
+            clearPrefetch();
+        }
         Result<BlockInfo> result = WalletRpcHandler.getBlockInfo(chainId, nextHeight);
         if (result.isFailed()) {
             return false;
@@ -102,6 +134,60 @@ public class SyncBlockTask implements Runnable {
         return false;
     }
 
+    /**
+     * 批量追块模式: 多个线程提前获取并解析后面的区块, 按顺序取出连续且可以合并写入的一批区块
+     * 遇到获取失败、不连续或需要单独处理的区块时本批结束, 返回空列表时按逐块模式处理下一个区块
+     * Catch-up mode: blocks ahead are fetched and parsed on worker threads, and a run of consecutive blocks that can
+     * be written together is taken from them in order. The run ends at a failed fetch, a discontinuity or a block that
+     * has to be synced on its own; an empty list means the next block is synced the usual way.
+     */
+    private List<BlockInfo> prefetchBlocks(BlockHeaderInfo localBestBlockHeader, long nextHeight) throws Exception {
+        if (prefetchQueue.isEmpty() || prefetchHeight - prefetchQueue.size() != nextHeight) {
+            clearPrefetch();
+            prefetchHeight = nextHeight;
+        }
+        if (prefetchExecutor == null) {
+            prefetchExecutor = ThreadUtils.createThreadPool(SYNC_PREFETCH_THREAD_COUNT, 0, new NulsThreadFactory("api-sync-prefetch"));
+        }
+        List<BlockInfo> blockList = new ArrayList<>();
+        BlockHeaderInfo preHeader = localBestBlockHeader;
+        while (blockList.size() < SYNC_BATCH_BLOCK_COUNT) {
+            long endHeight = ApiContext.localHeight - SYNC_BATCH_DISTANCE;
+            while (prefetchQueue.size() < SYNC_PREFETCH_BLOCK_COUNT && prefetchHeight <= endHeight) {
+                long height = prefetchHeight++;
+                prefetchQueue.add(prefetchExecutor.submit(() -> WalletRpcHandler.getBlockInfo(chainId, height)));
+            }
+            if (prefetchQueue.isEmpty()) {
+                break;
+            }
+            Result<BlockInfo> result = prefetchQueue.peek().get();
+            BlockInfo blockInfo = result.isFailed() ? null : result.getData();
+            if (blockInfo == null || !checkBlockContinuity(preHeader, blockInfo.getHeader())) {
+                clearPrefetch();
+                break;
+            }
+            if (!syncService.isBatchable(blockInfo)) {
+                //需要单独处理的区块, 在之前的区块写入后单独作为一批
+                if (blockList.isEmpty()) {
+                    prefetchQueue.poll();
+                    blockList.add(blockInfo);
+                }
+                break;
+            }
+            prefetchQueue.poll();
+            blockList.add(blockInfo);
+            preHeader = blockInfo.getHeader();
+        }
+        return blockList;
+    }
+
+    private void clearPrefetch() {
+        for (Future<Result<BlockInfo>> future : prefetchQueue) {
+            future.cancel(false);
+        }
+        prefetchQueue.clear();
+    }
+
     /**
      * 区块连续性验证
      * Block continuity verification
@@ -0,0 +1,130 @@
+package io.nuls.api.utils;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.bson.conversions.Bson;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 游标分页的位置, 记录上一页最后一条记录的排序字段值与_id
+ * 查询按(排序字段, _id)倒序, 下一页只取排在该记录之后的数据, 不再用skip扫描前面的记录
+ * Position of a cursor page: the sort value and _id of the last record of the previous page.
+ * Queries are sorted by (sort field, _id) descending and the next page starts right after that record instead of
+ * skipping over everything before it.
+ */
+public class PageCursor {
+
+    private static final String ID = "_id";
+
+    private final Object value;
+
+    private final Object id;
+
+    /**
+     * 游标记录来自未确认数据, 先查未确认再查已确认的列表用它区分当前查到哪一部分
+     * The record comes from unconfirmed data, lists that read the unconfirmed part before the confirmed one use it to
+     * tell which part the cursor is in
+     */
+    private final boolean unconfirmed;
+
+    public PageCursor(Object value, Object id) {
+        this(value, id, false);
+    }
+
+    public PageCursor(Object value, Object id, boolean unconfirmed) {
+        this.value = value;
+        this.id = id;
+        this.unconfirmed = unconfirmed;
+    }
+
+    /**
+     * 以记录作为下一页的起点
+     * Use a record as the start of the next page
+     */
+    public static PageCursor of(Document document, String sortField) {
+        return of(document, sortField, false);
+    }
+
+    public static PageCursor of(Document document, String sortField, boolean unconfirmed) {
+        return new PageCursor(document.get(sortField), document.get(ID), unconfirmed);
+    }
+
+    public static Bson sort(String sortField) {
+        if (ID.equals(sortField)) {
+            return Sorts.descending(ID);
+        }
+        return Sorts.descending(sortField, ID);
+    }
+
+    /**
+     * 排在游标之后的记录
+     * Records sorted after the cursor
+     */
+    public Bson after(String sortField) {
+        if (ID.equals(sortField)) {
+            return Filters.lt(ID, id);
+        }
+        return Filters.or(Filters.lt(sortField, value), Filters.and(Filters.eq(sortField, value), Filters.lt(ID, id)));
+    }
+
+    /**
+     * 编码为对外返回的字符串, 调用方不应解析其内容
+     * Encode to the opaque token returned to callers
+     */
+    public String encode() {
+        Document document = new Document("v", value).append("id", id);
+        if (unconfirmed) {
+            document.append("u", true);
+        }
+        String json = document.toJson();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析客户端传回的游标, 空字符串表示第一页. 游标内容来自客户端, 只接受数字与字符串(_id另可为ObjectId),
+     * 嵌套文档会在查询条件中被当作操作符
+     * Parse a token sent back by a client, blank means the first page. The token comes from the client, so only numbers
+     * and strings are accepted (and an ObjectId for _id); an embedded document would act as an operator in the filter.
+     *
+     * @throws IllegalArgumentException 游标无效/the token is invalid
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        Document document;
+        try {
+            document = Document.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid cursor", e);
+        }
+        Object value = document.get("v");
+        Object id = document.get("id");
+        Object unconfirmed = document.get("u");
+        if (!isScalar(value) || !(isScalar(id) || id instanceof ObjectId)
+                || (unconfirmed != null && !(unconfirmed instanceof Boolean))) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+        return new PageCursor(value, id, Boolean.TRUE.equals(unconfirmed));
+    }
+
+    private static boolean isScalar(Object value) {
+        return value instanceof Number || value instanceof String;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public Object getId() {
+        return id;
+    }
+
+    public boolean isUnconfirmed() {
+        return unconfirmed;
+    }
+}
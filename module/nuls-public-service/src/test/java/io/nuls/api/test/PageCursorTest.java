@@ -0,0 +1,51 @@
+package io.nuls.api.test;
+
+import io.nuls.api.utils.PageCursor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class PageCursorTest {
+
+    private String token(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void encodeAndDecode() {
+        ObjectId id = new ObjectId();
+        PageCursor cursor = PageCursor.decode(PageCursor.of(new Document("createTime", 1574993520L).append("_id", id), "createTime", true).encode());
+        Assert.assertEquals(1574993520L, ((Number) cursor.getValue()).longValue());
+        Assert.assertEquals(id, cursor.getId());
+        Assert.assertTrue(cursor.isUnconfirmed());
+
+        cursor = PageCursor.decode(new PageCursor(100L, "hash").encode());
+        Assert.assertEquals("hash", cursor.getId());
+        Assert.assertFalse(cursor.isUnconfirmed());
+        Assert.assertNull(PageCursor.decode(""));
+    }
+
+    @Test
+    public void rejectOperators() {
+        String[] invalid = {
+                "{\"v\": {\"$ne\": null}, \"id\": 1}",
+                "{\"v\": 1, \"id\": {\"$gt\": 0}}",
+                "{\"v\": [1], \"id\": 1}",
+                "{\"v\": null, \"id\": 1}",
+                "{\"v\": 1}",
+                "{\"v\": 1, \"id\": 1, \"u\": \"true\"}"
+        };
+        for (String json : invalid) {
+            try {
+                PageCursor.decode(token(json));
+                Assert.fail(json);
+            } catch (IllegalArgumentException e) {
+                //expected
+            }
+        }
+    }
+}
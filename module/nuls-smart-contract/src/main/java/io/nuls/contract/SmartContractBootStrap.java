@@ -11,11 +11,13 @@ import io.nuls.contract.constant.ContractConstant;
 import io.nuls.contract.constant.ContractDBConstant;
 import io.nuls.contract.manager.ChainManager;
 import io.nuls.contract.model.bo.Chain;
+import io.nuls.contract.storage.ContractClassCodeStorageService;
 import io.nuls.contract.tx.common.TransactionCommitAdvice;
 import io.nuls.contract.tx.common.TransactionRollbackAdvice;
 import io.nuls.contract.util.ContractUtil;
 import io.nuls.contract.util.LogUtil;
 import io.nuls.contract.util.VMContext;
+import io.nuls.contract.vm.code.ClassCodeLoader;
 import io.nuls.contract.vm.program.ProgramMethod;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
@@ -32,6 +34,7 @@ import io.nuls.core.rpc.modulebootstrap.RpcModule;
 import io.nuls.core.rpc.modulebootstrap.RpcModuleState;
 import io.nuls.core.rpc.util.AddressPrefixDatas;
 import io.nuls.core.rpc.util.NulsDateUtils;
+import io.nuls.core.thread.ThreadUtils;
 
 import java.io.File;
 import java.io.IOException;
@@ -58,6 +61,8 @@ public class SmartContractBootStrap extends RpcModule {
     private ChainManager chainManager;
     @Autowired
     private AddressPrefixDatas addressPrefixDatas;
+    @Autowired
+    private ContractClassCodeStorageService contractClassCodeStorageService;
 
     public static void main(String[] args) throws Exception {
         systemConfig();
@@ -80,6 +85,7 @@ public class SmartContractBootStrap extends RpcModule {
             initContractDefaultLog();
             initNulsConfig();
             initDB();
+            initClassCodeCache();
             initNRC20Standard();
             initNRC721Standard();
             chainManager.initChain();
@@ -176,6 +182,19 @@ public class SmartContractBootStrap extends RpcModule {
     private void initDB() throws IOException {
         RocksDBService.init(ContractContext.DATA_PATH);
         ContractUtil.createTable(ContractDBConstant.DB_NAME_CONGIF);
+        ContractUtil.createTable(ContractDBConstant.DB_NAME_CONTRACT_CLASS_CODE);
+    }
+
+    /**
+     * 保存被调用合约的代码, 并在后台用上次运行保存的代码预热类代码缓存
+     * Save the code of called contracts and warm up the class code cache in the background with the code saved by previous runs
+     */
+    private void initClassCodeCache() {
+        ClassCodeLoader.setCodeStore(contractClassCodeStorageService::saveCode);
+        ThreadUtils.createAndRunThread("contract-class-code-warm-up", () -> {
+            int count = contractClassCodeStorageService.warmUp();
+            Log.info("class code cache warmed up with {} contract codes, {}", count, ClassCodeLoader.cacheStats());
+        });
     }
 
     /**
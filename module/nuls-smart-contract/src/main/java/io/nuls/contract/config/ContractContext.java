@@ -56,4 +56,9 @@ public class ContractContext {
     public static byte[] CROSS_CHAIN_SYSTEM_CONTRACT;
 
     public static short UPDATE_VERSION_V240 = 4;
+
+    /**
+     *  合约状态改为二进制编码写入的协议版本
+     */
+    public static short UPDATE_VERSION_V250 = 5;
 }
@@ -73,4 +73,5 @@ public interface ContractCmdConstant {
     String UPLOAD = "sc_upload";
     String TOKEN_TRANSFER_LIST = "sc_token_transfer_list";
     String ACCOUNT_CONTRACTS = "sc_account_contracts";
+    String CLASS_CODE_CACHE_STATS = "sc_class_code_cache_stats";
 }
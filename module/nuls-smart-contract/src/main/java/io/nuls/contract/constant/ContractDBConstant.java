@@ -46,4 +46,10 @@ public interface ContractDBConstant {
     String DB_NAME_CONTRACT_NRC20_TOKEN_ADDRESS = "contract_nrc20_token_address";
     String DB_NAME_CONTRACT_OFFLINE_TX_HASH_LIST = "contract_offline_tx_hash_list";
 
+    /**
+     * 合约代码表, key:代码hash, 用于重启后预热类代码缓存
+     * contract code table keyed by code hash, used to warm up the class code cache after a restart
+     */
+    String DB_NAME_CONTRACT_CLASS_CODE = "contract_class_code";
+
 }
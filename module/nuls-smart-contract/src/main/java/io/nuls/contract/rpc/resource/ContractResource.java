@@ -23,6 +23,7 @@
  */
 package io.nuls.contract.rpc.resource;
 
+import com.google.common.cache.CacheStats;
 import io.nuls.base.basic.AddressTool;
 import io.nuls.base.data.BlockHeader;
 import io.nuls.base.data.NulsHash;
@@ -52,6 +53,7 @@ import io.nuls.contract.util.MapUtil;
 import io.nuls.contract.vm.program.ProgramExecutor;
 import io.nuls.contract.vm.program.ProgramMethod;
 import io.nuls.contract.vm.program.ProgramResult;
+import io.nuls.contract.vm.code.ClassCodeLoader;
 import io.nuls.contract.vm.program.ProgramStatus;
 import io.nuls.core.basic.Page;
 import io.nuls.core.basic.Result;
@@ -1559,4 +1561,33 @@ public class ContractResource extends BaseCmd {
         }
     }
 
+    @CmdAnnotation(cmd = CLASS_CODE_CACHE_STATS, version = 1.0, description = "合约类代码缓存统计/contract class code cache statistics")
+    @Parameters(value = {
+        @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链ID")
+    })
+    @ResponseData(name = "返回值", description = "返回一个Map", responseType = @TypeDescriptor(value = Map.class, mapKeys = {
+        @Key(name = "size", valueType = long.class, description = "缓存的合约代码数"),
+        @Key(name = "hitCount", valueType = long.class, description = "命中次数"),
+        @Key(name = "missCount", valueType = long.class, description = "未命中次数"),
+        @Key(name = "hitRate", valueType = double.class, description = "命中率"),
+        @Key(name = "evictionCount", valueType = long.class, description = "淘汰次数")
+    }))
+    public Response classCodeCacheStats(Map<String, Object> params) {
+        try {
+            Integer chainId = (Integer) params.get("chainId");
+            ChainManager.chainHandle(chainId);
+            CacheStats stats = ClassCodeLoader.cacheStats();
+            Map<String, Object> resultMap = MapUtil.createLinkedHashMap(5);
+            resultMap.put("size", ClassCodeLoader.cacheSize());
+            resultMap.put("hitCount", stats.hitCount());
+            resultMap.put("missCount", stats.missCount());
+            resultMap.put("hitRate", stats.hitRate());
+            resultMap.put("evictionCount", stats.evictionCount());
+            return success(resultMap);
+        } catch (Exception e) {
+            Log.error(e);
+            return failed(e.getMessage());
+        }
+    }
+
 }
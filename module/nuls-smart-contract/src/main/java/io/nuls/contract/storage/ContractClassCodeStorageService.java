@@ -0,0 +1,26 @@
+package io.nuls.contract.storage;
+
+/**
+ * 合约代码存储, 以代码hash为key保存被调用过的合约代码, 模块重启后用于预热类代码缓存
+ * Contract code storage. Code of called contracts is kept under its code hash, so the class code cache can be
+ * warmed up after the module restarts.
+ */
+public interface ContractClassCodeStorageService {
+
+    /**
+     * 保存合约代码, 已保存过的代码忽略
+     * Save contract code, ignored when the code was already saved
+     *
+     * @param codeHash 代码hash/code hash
+     * @param code     合约代码/contract code
+     */
+    void saveCode(byte[] codeHash, byte[] code);
+
+    /**
+     * 用保存的合约代码预热类代码缓存, 预热的代码总权重不超过缓存容量的一半
+     * Warm up the class code cache with the saved contract code, up to half of the cache capacity
+     *
+     * @return 预热的合约代码数量/number of contract codes loaded
+     */
+    int warmUp();
+}
@@ -29,9 +29,11 @@ import io.nuls.contract.model.po.ContractAddressInfoPo;
 import io.nuls.contract.storage.ContractAddressStorageService;
 import io.nuls.contract.util.ContractDBUtil;
 import io.nuls.contract.util.ContractUtil;
+import io.nuls.contract.util.Log;
 import io.nuls.core.basic.Result;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.service.RocksDBIterator;
 import io.nuls.core.rockdb.service.RocksDBService;
 
 import java.util.ArrayList;
@@ -102,18 +104,26 @@ public class ContractAddressStorageServiceImpl implements ContractAddressStorage
 
     @Override
     public Result<List<ContractAddressInfoPo>> getContractInfoList(int chainId, byte[] creater) {
-        List<Entry<byte[], byte[]>> list = RocksDBService.entryList(baseArea + chainId);
-        if (list == null || list.size() == 0) {
-            return Result.getFailed(ContractErrorCode.DATA_NOT_FOUND);
-        }
         List<ContractAddressInfoPo> resultList = new ArrayList<>();
-        ContractAddressInfoPo po;
-        for (Entry<byte[], byte[]> entry : list) {
-            po = ContractDBUtil.getModel(entry.getValue(), ContractAddressInfoPo.class);
-            if (Arrays.equals(creater, po.getSender())) {
-                po.setContractAddress(entry.getKey());
-                resultList.add(po);
+        boolean empty = true;
+        //逐条读取, 避免把整张表复制到内存
+        try (RocksDBIterator iterator = RocksDBService.iterator(baseArea + chainId)) {
+            Entry<byte[], byte[]> entry;
+            ContractAddressInfoPo po;
+            while (iterator.hasNext()) {
+                empty = false;
+                entry = iterator.next();
+                po = ContractDBUtil.getModel(entry.getValue(), ContractAddressInfoPo.class);
+                if (Arrays.equals(creater, po.getSender())) {
+                    po.setContractAddress(entry.getKey());
+                    resultList.add(po);
+                }
             }
+        } catch (Exception e) {
+            Log.error(e);
+        }
+        if (empty) {
+            return Result.getFailed(ContractErrorCode.DATA_NOT_FOUND);
         }
         Result<List<ContractAddressInfoPo>> result = ContractUtil.getSuccess();
         result.setData(resultList);
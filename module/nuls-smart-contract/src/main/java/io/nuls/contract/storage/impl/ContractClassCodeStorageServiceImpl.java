@@ -0,0 +1,64 @@
+package io.nuls.contract.storage.impl;
+
+import io.nuls.contract.storage.ContractClassCodeStorageService;
+import io.nuls.contract.util.Log;
+import io.nuls.contract.vm.code.ClassCodeLoader;
+import io.nuls.core.core.annotation.Component;
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.core.rockdb.service.RocksDBService;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.nuls.contract.constant.ContractDBConstant.DB_NAME_CONTRACT_CLASS_CODE;
+
+@Component
+public class ContractClassCodeStorageServiceImpl implements ContractClassCodeStorageService {
+
+    private final Set<ByteArrayWrapper> savedCodeHashes = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void saveCode(byte[] codeHash, byte[] code) {
+        if (codeHash == null || code == null || code.length == 0) {
+            return;
+        }
+        if (!savedCodeHashes.add(new ByteArrayWrapper(codeHash))) {
+            return;
+        }
+        try {
+            if (RocksDBService.get(DB_NAME_CONTRACT_CLASS_CODE, codeHash) == null) {
+                RocksDBService.put(DB_NAME_CONTRACT_CLASS_CODE, codeHash, code);
+            }
+        } catch (Exception e) {
+            Log.error("save contract class code error", e);
+        }
+    }
+
+    @Override
+    public int warmUp() {
+        List<byte[]> codeHashes = RocksDBService.keyList(DB_NAME_CONTRACT_CLASS_CODE);
+        if (codeHashes == null) {
+            return 0;
+        }
+        long weight = 0;
+        int count = 0;
+        for (byte[] codeHash : codeHashes) {
+            savedCodeHashes.add(new ByteArrayWrapper(codeHash));
+            if (weight >= ClassCodeLoader.CACHE_MAX_WEIGHT / 2) {
+                continue;
+            }
+            byte[] code = RocksDBService.get(DB_NAME_CONTRACT_CLASS_CODE, codeHash);
+            if (code == null) {
+                continue;
+            }
+            try {
+                weight += ClassCodeLoader.preload(codeHash, code);
+                count++;
+            } catch (Exception e) {
+                Log.error("warm up contract class code error", e);
+            }
+        }
+        return count;
+    }
+}
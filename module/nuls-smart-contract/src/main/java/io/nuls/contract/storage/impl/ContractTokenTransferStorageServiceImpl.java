@@ -30,7 +30,8 @@ import io.nuls.contract.model.po.ContractTokenTransferInfoPo;
 import io.nuls.contract.storage.ContractTokenTransferStorageService;
 import io.nuls.core.basic.Result;
 import io.nuls.core.core.annotation.Component;
-import io.nuls.core.rockdb.model.Entry;
+import io.nuls.contract.util.Log;
+import io.nuls.core.rockdb.service.RocksDBIterator;
 import io.nuls.core.rockdb.service.RocksDBService;
 
 import java.util.ArrayList;
@@ -63,64 +64,32 @@ public class ContractTokenTransferStorageServiceImpl implements ContractTokenTra
 
     @Override
     public List<ContractTokenTransferInfoPo> getTokenTransferInfoListByAddress(int chainId, byte[] address) {
-        List<ContractTokenTransferInfoPo> infoPoList = new ArrayList<>();
-        List<Entry<byte[], byte[]>> entryList = RocksDBService.entryList(baseArea + chainId);
-        if (entryList == null || entryList.isEmpty()) {
-            return infoPoList;
-        }
-
-        ContractTokenTransferInfoPo tokenTransferInfoPo;
-        for (Entry<byte[], byte[]> entry : entryList) {
-            if (isAddressEquals(entry.getKey(), address)) {
-                tokenTransferInfoPo = getModel(entry.getValue(), ContractTokenTransferInfoPo.class);
-                infoPoList.add(tokenTransferInfoPo);
-            }
-        }
-        return infoPoList;
-    }
-
-    private boolean isAddressEquals(byte[] key, byte[] address) {
-        int length = Address.ADDRESS_LENGTH;
-        for (int i = 0; i < length; i++) {
-            if (key[i] != address[i]) {
-                return false;
-            }
-        }
-        return true;
+        byte[] prefix = new byte[Address.ADDRESS_LENGTH];
+        System.arraycopy(address, 0, prefix, 0, Address.ADDRESS_LENGTH);
+        return getTokenTransferInfoListByPrefix(chainId, prefix);
     }
 
     @Override
     public List<ContractTokenTransferInfoPo> getTokenTransferInfoListByAddress(int chainId, byte[] address, byte[] txHash) {
-        List<ContractTokenTransferInfoPo> infoPoList = new ArrayList<>();
-        List<Entry<byte[], byte[]>> entryList = RocksDBService.entryList(baseArea + chainId);
-        if (entryList == null || entryList.isEmpty()) {
-            return infoPoList;
-        }
-
-        ContractTokenTransferInfoPo tokenTransferInfoPo;
-        for (Entry<byte[], byte[]> entry : entryList) {
-            if (isAddressAndHashEquals(entry.getKey(), address, txHash)) {
-                tokenTransferInfoPo = getModel(entry.getValue(), ContractTokenTransferInfoPo.class);
-                infoPoList.add(tokenTransferInfoPo);
-            }
-        }
-        return infoPoList;
+        byte[] prefix = new byte[Address.ADDRESS_LENGTH + txHash.length];
+        System.arraycopy(address, 0, prefix, 0, Address.ADDRESS_LENGTH);
+        System.arraycopy(txHash, 0, prefix, Address.ADDRESS_LENGTH, txHash.length);
+        return getTokenTransferInfoListByPrefix(chainId, prefix);
     }
 
-    private boolean isAddressAndHashEquals(byte[] key, byte[] address, byte[] txHash) {
-        int length = Address.ADDRESS_LENGTH + txHash.length;
-        for (int i = 0, k = 0; i < length; i++) {
-            if (i < Address.ADDRESS_LENGTH) {
-                if (key[i] != address[i]) {
-                    return false;
-                }
-            } else {
-                if (key[i] != txHash[k++]) {
-                    return false;
-                }
+    /**
+     * key以地址(和交易hash)开头, 按前缀范围读取, 不再遍历整张表
+     */
+    private List<ContractTokenTransferInfoPo> getTokenTransferInfoListByPrefix(int chainId, byte[] prefix) {
+        List<ContractTokenTransferInfoPo> infoPoList = new ArrayList<>();
+        try (RocksDBIterator iterator = RocksDBService.prefixIterator(baseArea + chainId, prefix)) {
+            while (iterator.hasNext()) {
+                infoPoList.add(getModel(iterator.next().getValue(), ContractTokenTransferInfoPo.class));
             }
+        } catch (Exception e) {
+            Log.error(e);
         }
-        return true;
+        return infoPoList;
     }
 
     @Override
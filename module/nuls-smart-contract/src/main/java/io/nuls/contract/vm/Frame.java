@@ -24,6 +24,7 @@
  */
 package io.nuls.contract.vm;
 
+import io.nuls.contract.vm.code.DecodedCode;
 import io.nuls.contract.vm.code.MethodCode;
 import io.nuls.contract.vm.code.VariableType;
 import io.nuls.contract.vm.instructions.references.Athrow;
@@ -49,8 +50,22 @@ public class Frame {
 
     public final Result result;
 
+    /**
+     * 预解码的字节码, 关闭预解码时为null, 按字节码链表解释执行
+     * Pre-decoded instructions, null when pre-decoding is disabled and the instruction list is walked instead
+     */
+    private final DecodedCode decodedCode;
+
+    private int index;
+
     private AbstractInsnNode currentInsnNode;
 
+    /**
+     * 当前基本块的gas是否已整块扣除
+     * Whether the gas of the current block was charged as a whole
+     */
+    private boolean blockGasCharged;
+
     private OpCode currentOpCode;
 
     public boolean addGas = true;
@@ -65,32 +80,89 @@ public class Frame {
         this.operandStack = new OperandStack(this.maxStack);
         this.localVariables = new LocalVariables(this.maxLocals, args);
         this.result = new Result(this.methodCode.returnVariableType);
-        this.currentInsnNode = this.methodCode.instructions.getFirst();
+        this.decodedCode = VM.isPreDecode() ? this.methodCode.getDecodedCode() : null;
+        if (this.decodedCode != null) {
+            moveTo(0);
+        } else {
+            this.currentInsnNode = this.methodCode.instructions.getFirst();
+        }
+    }
+
+    private void moveTo(int index) {
+        this.index = index;
+        this.currentInsnNode = index < this.decodedCode.size() ? this.decodedCode.insnNodes[index] : null;
     }
 
     public void step() {
         if (this.currentInsnNode != null) {
-            this.currentInsnNode = this.currentInsnNode.getNext();
+            if (this.decodedCode != null) {
+                moveTo(this.index + 1);
+            } else {
+                this.currentInsnNode = this.currentInsnNode.getNext();
+            }
         }
     }
 
     public void jump() {
-        this.currentInsnNode = jumpInsnNode().label;
+        if (this.decodedCode != null) {
+            moveTo(this.decodedCode.jumpTargets[this.index]);
+        } else {
+            this.currentInsnNode = jumpInsnNode().label;
+        }
     }
 
     public void jump(LabelNode label) {
-        this.currentInsnNode = label;
+        if (this.decodedCode != null) {
+            moveTo(this.decodedCode.indexOf(label));
+        } else {
+            this.currentInsnNode = label;
+        }
     }
 
     public OpCode currentOpCode() {
-        if (this.currentInsnNode != null) {
-            this.currentOpCode = OpCode.valueOf(this.currentInsnNode.getOpcode());
-        } else {
+        if (this.currentInsnNode == null) {
             this.currentOpCode = null;
+        } else if (this.decodedCode != null) {
+            this.currentOpCode = this.decodedCode.opCodes[this.index];
+        } else {
+            this.currentOpCode = OpCode.valueOf(this.currentInsnNode.getOpcode());
         }
         return this.currentOpCode;
     }
 
+    /**
+     * 扣除当前字节码的gas
+     * Charge the gas of the current instruction
+     */
+    public void addGasUsed(OpCode opCode) {
+        if (this.decodedCode == null) {
+            this.vm.addGasUsed(this.vm.gasCost(this, opCode));
+            return;
+        }
+        int blockGasCost = this.decodedCode.blockGasCosts[this.index];
+        if (blockGasCost > 0) {
+            this.blockGasCharged = this.vm.tryAddGasUsed(blockGasCost);
+            if (this.blockGasCharged) {
+                return;
+            }
+        } else if (blockGasCost == 0 && this.blockGasCharged) {
+            return;
+        }
+        int gasCost = this.decodedCode.gasCosts[this.index];
+        if (gasCost == DecodedCode.DYNAMIC_GAS) {
+            gasCost = this.vm.gasCost(this, opCode);
+        }
+        this.vm.addGasUsed(gasCost);
+    }
+
+    /**
+     * invokestatic与invokespecial预先拼接的方法全名, 没有时返回null
+     * Pre-built full name of the method called by invokestatic and invokespecial, null if not available
+     */
+    public String methodFullName() {
+        return this.decodedCode != null ? this.decodedCode.methodFullNames[this.index] : null;
+    }
+
     public int getLine(LabelNode labelNode) {
         AbstractInsnNode abstractInsnNode = labelNode;
         while (!(abstractInsnNode instanceof LineNumberNode)) {
@@ -35,6 +35,7 @@ import io.nuls.contract.vm.natives.io.nuls.contract.sdk.NativeAddress;
 import io.nuls.contract.vm.util.CloneUtils;
 import io.nuls.contract.vm.util.Constants;
 import io.nuls.contract.vm.util.JsonUtils;
+import io.nuls.contract.vm.util.StateCodec;
 import org.apache.commons.lang3.StringUtils;
 import org.ethereum.core.Repository;
 import org.ethereum.vm.DataWord;
@@ -68,6 +69,14 @@ public class Heap {
 
     private final BiMap<String, String> classNames = HashBiMap.create(1024);
 
+    private final Map<String, StateCodec.FieldTable> fieldTables = new HashMap<>();
+
+    /**
+     * 是否以二进制编码写入合约状态, 读取时两种编码都支持
+     * Whether contract state is written in the binary encoding, both encodings are always readable
+     */
+    private boolean binaryState;
+
     private ObjectRef contract;
 
     private byte[] address;
@@ -86,6 +95,10 @@ public class Heap {
         this.vm = vm;
     }
 
+    public void setBinaryState(boolean binaryState) {
+        this.binaryState = binaryState;
+    }
+
     public void loadClassCodes(Map<String, ClassCode> classCodes) {
         if (classCodes != null) {
             int i = 0;
@@ -182,10 +195,49 @@ public class Heap {
             return null;
         }
         byte[] value = dataWord.getNoLeadZeroesData();
+        if (StateCodec.isBinary(value)) {
+            return StateCodec.decodeFields(value, getFieldTable(objectRef), classNames);
+        }
         Map<String, Object> map = (Map<String, Object>) JsonUtils.decode(new String(value), classNames);
         return map;
     }
 
+    /**
+     * 对象所属类的字段表, 只包含合约自身类声明的字段, 合约代码部署后不会改变, 因此下标稳定;
+     * SDK/JDK类的字段随版本可能变化, 始终按名称编码. 数组、找不到类代码或没有合约字段时返回null
+     * Field table of the object's class, made only of fields declared by the contract's own classes. Contract code
+     * never changes once deployed, so the indexes stay stable; fields of SDK/JDK classes may change between releases
+     * and are always written by name. Null for arrays, when the class code can't be found or there are no contract fields
+     */
+    private StateCodec.FieldTable getFieldTable(ObjectRef objectRef) {
+        if (objectRef.isArray() || objectRef.getVariableType().isPrimitive()) {
+            return null;
+        }
+        String className = objectRef.getVariableType().getType();
+        if (fieldTables.containsKey(className)) {
+            return fieldTables.get(className);
+        }
+        LinkedList<ClassCode> hierarchy = new LinkedList<>();
+        String name = className;
+        while (StringUtils.isNotBlank(name)) {
+            ClassCode classCode = this.vm.methodArea.findClass(name);
+            if (classCode == null) {
+                break;
+            }
+            if (this.vm.methodArea.isContractClass(name)) {
+                hierarchy.addFirst(classCode);
+            }
+            name = classCode.superName;
+        }
+        List<String> names = new ArrayList<>();
+        for (ClassCode classCode : hierarchy) {
+            names.addAll(classCode.fields.keySet());
+        }
+        StateCodec.FieldTable fieldTable = names.isEmpty() ? null : new StateCodec.FieldTable(names);
+        fieldTables.put(className, fieldTable);
+        return fieldTable;
+    }
+
     public Object getField(ObjectRef objectRef, String fieldName) {
         return getFields(objectRef).get(fieldName);
     }
@@ -297,6 +349,9 @@ public class Heap {
         if (!arrayRef.getVariableType().getComponentType().isPrimitive()) {
             clazz = ObjectRef.class;
         }
+        if (StateCodec.isBinary(value)) {
+            return StateCodec.decodeArray(value, clazz, classNames);
+        }
         Object object = JsonUtils.decodeArray(new String(value), clazz, classNames);
         return object;
     }
@@ -632,10 +687,15 @@ public class Heap {
                 continue;
             }
             String key = JsonUtils.encode(objectRef, classNames);
-            String value = JsonUtils.encode(fields, classNames);
+            DataWord value;
+            if (binaryState) {
+                value = DataWord.wrap(StateCodec.encodeFields(fields, getFieldTable(objectRef), classNames));
+            } else {
+                value = new DataWord(JsonUtils.encode(fields, classNames));
+            }
             //Log.info("[{}]modified objectRef: {}, fields: {}", j, objectRef, fields);
             //Log.info("[{}]modified key: {}, value: {}", j, key, value);
-            contractState.put(new DataWord(key), new DataWord(value));
+            contractState.put(new DataWord(key), value);
             if (objectRef.isArray()) {
                 for (String k : fields.keySet()) {
                     Integer i = Integer.valueOf(k);
@@ -649,9 +709,14 @@ public class Heap {
                         if (!objectRef.getVariableType().getComponentType().isPrimitive()) {
                             clazz = ObjectRef.class;
                         }
-                        String arrayValue = JsonUtils.encodeArray(object, clazz, classNames);
+                        DataWord arrayValue;
+                        if (binaryState) {
+                            arrayValue = DataWord.wrap(StateCodec.encodeArray(object, clazz, classNames));
+                        } else {
+                            arrayValue = new DataWord(JsonUtils.encodeArray(object, clazz, classNames));
+                        }
                         //Log.info("[{}]modified arrayKey: {}, arrayValue: {}", j, arrayKey, arrayValue);
-                        contractState.put(new DataWord(arrayKey), new DataWord(arrayValue));
+                        contractState.put(new DataWord(arrayKey), arrayValue);
                     }
                 }
             }
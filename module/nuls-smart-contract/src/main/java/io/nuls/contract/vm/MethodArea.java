@@ -59,11 +59,20 @@ public class MethodArea {
     }
 
     public MethodCode loadMethod(String className, String methodName, String methodDesc) {
-        String fullName;
-        if (StringUtils.isNotEmpty(methodDesc)) {
-            fullName = className + "." + methodName + methodDesc;
-        } else {
-            fullName = className + "." + methodName;
+        return loadMethod(className, methodName, methodDesc, null);
+    }
+
+    /**
+     * @param fullName 预先拼接的方法全名, 为null时根据类名、方法名与描述拼接
+     *                 pre-built full name of the method, built from the class name, method name and descriptor when null
+     */
+    public MethodCode loadMethod(String className, String methodName, String methodDesc, String fullName) {
+        if (fullName == null) {
+            if (StringUtils.isNotEmpty(methodDesc)) {
+                fullName = className + "." + methodName + methodDesc;
+            } else {
+                fullName = className + "." + methodName;
+            }
         }
         MethodCode methodCode = INIT_METHOD_CODES.get(fullName);
         if (methodCode != null) {
@@ -120,6 +129,33 @@ public class MethodArea {
         return classCode;
     }
 
+    /**
+     * 查找类代码, 不加载类也不执行类初始化, 找不到时返回null
+     * Find the code of a class without loading or initializing it, returns null when it can't be found
+     */
+    public ClassCode findClass(String className) {
+        ClassCode classCode = INIT_CLASS_CODES.get(className);
+        if (classCode == null) {
+            classCode = this.classCodes.get(className);
+        }
+        if (classCode == null) {
+            classCode = ClassCodeLoader.getFromResource(className);
+        }
+        if (classCode == null) {
+            classCode = this.loadClassCodes.get(className);
+        }
+        return classCode;
+    }
+
+    /**
+     * 类是否解析为合约自身的代码(而不是虚拟机内置或SDK/JDK资源中的类)
+     * Whether the class resolves to the contract's own code rather than a built-in or bundled SDK/JDK class
+     */
+    public boolean isContractClass(String className) {
+        ClassCode classCode = this.loadClassCodes.get(className);
+        return classCode != null && findClass(className) == classCode;
+    }
+
     public void loadClassCodes(Map<String, ClassCode> classCodes) {
         if (classCodes != null) {
             this.loadClassCodes.putAll(classCodes);
@@ -57,9 +57,7 @@ import io.nuls.contract.vm.program.impl.ProgramInvoke;
 import io.nuls.core.crypto.HexUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.ethereum.core.Repository;
-import org.objectweb.asm.tree.LookupSwitchInsnNode;
-import org.objectweb.asm.tree.MultiANewArrayInsnNode;
-import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -81,6 +79,13 @@ public class VM {
 
     public static final int MAX_GAS = 1000_0000;
 
+    /**
+     * 是否使用预解码的字节码执行, 关闭时按字节码链表逐条解释, 用于对比测试
+     * Whether to execute pre-decoded instructions; when disabled the instruction list is interpreted one by one,
+     * used for comparison
+     */
+    private static volatile boolean preDecode = true;
+
     public final VMStack vmStack;
 
     public final Heap heap;
@@ -373,8 +378,7 @@ public class VM {
         }
 
         if (frame.addGas) {
-            int gasCost = gasCost(frame, opCode);
-            addGasUsed(gasCost);
+            frame.addGasUsed(opCode);
         }
 
         switch (opCode) {
@@ -873,6 +877,43 @@ public class VM {
     }
 
     public int gasCost(Frame frame, OpCode opCode) {
+        int gasCost;
+        switch (opCode) {
+            case NEWARRAY:
+            case ANEWARRAY:
+                int count = frame.operandStack.popInt();
+                gasCost = Math.max(count, 1) * GasCost.NEWARRAY;
+                frame.operandStack.pushInt(count);
+                break;
+            case MULTIANEWARRAY:
+                MultiANewArrayInsnNode multiANewArrayInsnNode = frame.multiANewArrayInsnNode();
+                int size = 1;
+                int[] dimensions = new int[multiANewArrayInsnNode.dims];
+                for (int i = multiANewArrayInsnNode.dims - 1; i >= 0; i--) {
+                    int length = frame.operandStack.popInt();
+                    if (length > 0) {
+                        size *= length;
+                    }
+                    dimensions[i] = length;
+                }
+                for (int dimension : dimensions) {
+                    frame.operandStack.pushInt(dimension);
+                }
+                gasCost = size * GasCost.MULTIANEWARRAY;
+                break;
+            default:
+                gasCost = staticGasCost(opCode, frame.getCurrentInsnNode());
+                break;
+        }
+        return gasCost;
+    }
+
+    /**
+     * 计算与运行时状态无关的字节码gas, 数组创建类字节码的gas取决于操作数栈, 返回-1
+     * Gas of an instruction that does not depend on runtime state. Returns -1 for the array creation
+     * instructions, whose gas depends on the operand stack.
+     */
+    public static int staticGasCost(OpCode opCode, AbstractInsnNode insnNode) {
         int gasCost = 1;
         switch (opCode) {
             case NOP:
@@ -897,7 +938,7 @@ public class VM {
                 gasCost = GasCost.CONSTANT;
                 break;
             case LDC:
-                Object value = frame.ldcInsnNode().cst;
+                Object value = ((LdcInsnNode) insnNode).cst;
                 if (value instanceof Number) {
                     gasCost = GasCost.LDC;
                 } else {
@@ -1032,11 +1073,11 @@ public class VM {
                 gasCost = GasCost.CONTROL;
                 break;
             case TABLESWITCH:
-                TableSwitchInsnNode table = frame.tableSwitchInsnNode();
+                TableSwitchInsnNode table = (TableSwitchInsnNode) insnNode;
                 gasCost = Math.max(table.max - table.min, 1) * GasCost.TABLESWITCH;
                 break;
             case LOOKUPSWITCH:
-                LookupSwitchInsnNode lookup = frame.lookupSwitchInsnNode();
+                LookupSwitchInsnNode lookup = (LookupSwitchInsnNode) insnNode;
                 gasCost = Math.max(lookup.keys.size(), 1) * GasCost.LOOKUPSWITCH;
                 break;
             case IRETURN:
@@ -1059,12 +1100,6 @@ public class VM {
             case NEW:
                 gasCost = GasCost.REFERENCE;
                 break;
-            case NEWARRAY:
-            case ANEWARRAY:
-                int count = frame.operandStack.popInt();
-                gasCost = Math.max(count, 1) * GasCost.NEWARRAY;
-                frame.operandStack.pushInt(count);
-                break;
             case ARRAYLENGTH:
             case ATHROW:
             case CHECKCAST:
@@ -1073,26 +1108,15 @@ public class VM {
             case MONITOREXIT:
                 gasCost = GasCost.REFERENCE;
                 break;
-            case MULTIANEWARRAY:
-                MultiANewArrayInsnNode multiANewArrayInsnNode = frame.multiANewArrayInsnNode();
-                int size = 1;
-                int[] dimensions = new int[multiANewArrayInsnNode.dims];
-                for (int i = multiANewArrayInsnNode.dims - 1; i >= 0; i--) {
-                    int length = frame.operandStack.popInt();
-                    if (length > 0) {
-                        size *= length;
-                    }
-                    dimensions[i] = length;
-                }
-                for (int dimension : dimensions) {
-                    frame.operandStack.pushInt(dimension);
-                }
-                gasCost = size * GasCost.MULTIANEWARRAY;
-                break;
             case IFNULL:
             case IFNONNULL:
                 gasCost = GasCost.EXTENDED;
                 break;
+            case NEWARRAY:
+            case ANEWARRAY:
+            case MULTIANEWARRAY:
+                gasCost = -1;
+                break;
             default:
                 break;
         }
@@ -1311,6 +1335,27 @@ public class VM {
         }
     }
 
+    /**
+     * 剩余gas足够时扣除gas并返回true, 否则不扣除并返回false
+     * Charge the gas and return true if enough gas is left, otherwise charge nothing and return false
+     */
+    public boolean tryAddGasUsed(long needGas) {
+        long gasUsed = this.gasUsed + needGas;
+        if (this.gas > 0 && gasUsed > this.gas) {
+            return false;
+        }
+        this.gasUsed = gasUsed;
+        return true;
+    }
+
+    public static boolean isPreDecode() {
+        return preDecode;
+    }
+
+    public static void setPreDecode(boolean preDecode) {
+        VM.preDecode = preDecode;
+    }
+
     public void setGas(long gas) {
         this.gas = gas;
     }
@@ -24,20 +24,18 @@
  */
 package io.nuls.contract.vm.code;
 
-import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.codec.binary.Hex;
 
+/**
+ * 以合约代码hash作为类代码缓存的key, 查找缓存时不再对整个jar计算hash与比较
+ * Class code cache key made of the contract code hash, so lookups no longer hash and compare whole jars
+ */
 public class ClassCodeCacheKey {
 
-    private final byte[] bytes;
     private final String key;
 
-    public ClassCodeCacheKey(byte[] bytes) {
-        this.bytes = bytes;
-        this.key = DigestUtils.sha1Hex(bytes);
-    }
-
-    public byte[] getBytes() {
-        return bytes;
+    public ClassCodeCacheKey(byte[] codeHash) {
+        this.key = Hex.encodeHexString(codeHash);
     }
 
     public String getKey() {
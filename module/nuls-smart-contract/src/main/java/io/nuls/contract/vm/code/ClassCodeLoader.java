@@ -24,17 +24,17 @@
  */
 package io.nuls.contract.vm.code;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.CacheStats;
 import io.nuls.contract.vm.util.Constants;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.ethereum.crypto.HashUtil;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.ClassNode;
 
-import javax.annotation.Nonnull;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
@@ -43,8 +43,9 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.jar.JarEntry;
 import java.util.jar.JarInputStream;
 
@@ -52,21 +53,33 @@ public class ClassCodeLoader {
 
     private static final Map<String, ClassCode> RESOURCE_CLASS_CODES;
 
-    private static final LoadingCache<ClassCodeCacheKey, Map<String, ClassCode>> CACHE;
+    /**
+     * 缓存的最大权重, 即解析后类代码的估算字节数
+     * Maximum weight of the cache, the estimated size in bytes of the parsed class codes
+     */
+    public static final long CACHE_MAX_WEIGHT = 256L * 1024 * 1024;
+
+    /**
+     * 解析后的类代码大约是jar大小的倍数
+     * Parsed class codes take roughly this many times the size of the jar
+     */
+    private static final int WEIGHT_FACTOR = 16;
+
+    private static final Cache<ClassCodeCacheKey, CacheEntry> CACHE;
+
+    /**
+     * 调用已上链合约时解析的代码, 以代码hash保存, 重启后用于预热缓存
+     * Code parsed for calls to deployed contracts is handed to this store under its code hash, to warm up the cache after a restart
+     */
+    private static volatile BiConsumer<byte[], byte[]> codeStore;
 
     static {
         CACHE = CacheBuilder.newBuilder()
-                //.initialCapacity(100)
-                //.maximumSize(1024)
                 .initialCapacity(50)
-                .maximumSize(512)
-                .expireAfterAccess(10 * 60, TimeUnit.SECONDS)
-                .build(new CacheLoader<ClassCodeCacheKey, Map<String, ClassCode>>() {
-                    @Override
-                    public Map<String, ClassCode> load(@Nonnull final ClassCodeCacheKey cacheKey) {
-                        return ClassCodeLoader.loadJar(cacheKey.getBytes());
-                    }
-                });
+                .maximumWeight(CACHE_MAX_WEIGHT)
+                .weigher((ClassCodeCacheKey cacheKey, CacheEntry entry) -> entry.getWeight())
+                .recordStats()
+                .build();
         RESOURCE_CLASS_CODES = loadFromResource();
     }
 
@@ -141,13 +154,70 @@ public class ClassCodeLoader {
     }
 
     public static Map<String, ClassCode> loadJarCache(byte[] bytes) {
+        return loadJarCache(HashUtil.sha3(bytes), () -> bytes, false);
+    }
+
+    /**
+     * 按代码hash获取已上链合约的类代码, 只有缓存未命中时才读取并解析代码
+     * Get the class codes of a deployed contract by its code hash, the code is only read and parsed on a cache miss
+     *
+     * @param codeHash     代码hash/code hash
+     * @param codeSupplier 读取代码/reads the code
+     */
+    public static Map<String, ClassCode> loadJarCache(byte[] codeHash, Supplier<byte[]> codeSupplier) {
+        return loadJarCache(codeHash, codeSupplier, true);
+    }
+
+    private static Map<String, ClassCode> loadJarCache(byte[] codeHash, Supplier<byte[]> codeSupplier, boolean store) {
         try {
-            return CACHE.get(new ClassCodeCacheKey(bytes));
+            return CACHE.get(new ClassCodeCacheKey(codeHash), () -> {
+                byte[] bytes = codeSupplier.get();
+                CacheEntry entry = newEntry(bytes);
+                BiConsumer<byte[], byte[]> codeStore = ClassCodeLoader.codeStore;
+                if (store && codeStore != null) {
+                    codeStore.accept(codeHash, bytes);
+                }
+                return entry;
+            }).getClassCodes();
         } catch (ExecutionException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * 预热缓存, 代码已缓存时忽略
+     * Warm up the cache, ignored when the code is already cached
+     *
+     * @return 缓存项的权重/weight of the cache entry
+     */
+    public static int preload(byte[] codeHash, byte[] bytes) {
+        ClassCodeCacheKey cacheKey = new ClassCodeCacheKey(codeHash);
+        CacheEntry entry = CACHE.asMap().get(cacheKey);
+        if (entry == null) {
+            entry = newEntry(bytes);
+            CACHE.asMap().putIfAbsent(cacheKey, entry);
+        }
+        return entry.getWeight();
+    }
+
+    public static void setCodeStore(BiConsumer<byte[], byte[]> codeStore) {
+        ClassCodeLoader.codeStore = codeStore;
+    }
+
+    public static CacheStats cacheStats() {
+        return CACHE.stats();
+    }
+
+    public static long cacheSize() {
+        return CACHE.size();
+    }
+
+    private static CacheEntry newEntry(byte[] bytes) {
+        Map<String, ClassCode> classCodes = loadJar(bytes);
+        long weight = (long) bytes.length * WEIGHT_FACTOR;
+        return new CacheEntry(classCodes, (int) Math.min(weight, Integer.MAX_VALUE));
+    }
+
     private static boolean isSupport(VariableType variableType) {
         if (variableType.isPrimitiveType()) {
             return false;
@@ -241,4 +311,25 @@ public class ClassCodeLoader {
         return map;
     }
 
+    private static class CacheEntry {
+
+        private final Map<String, ClassCode> classCodes;
+
+        private final int weight;
+
+        private CacheEntry(Map<String, ClassCode> classCodes, int weight) {
+            this.classCodes = classCodes;
+            this.weight = weight;
+        }
+
+        private Map<String, ClassCode> getClassCodes() {
+            return classCodes;
+        }
+
+        private int getWeight() {
+            return weight;
+        }
+
+    }
+
 }
@@ -0,0 +1,188 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.contract.vm.code;
+
+import io.nuls.contract.vm.OpCode;
+import io.nuls.contract.vm.VM;
+import org.objectweb.asm.tree.*;
+
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 方法字节码的预解码结果, 随MethodCode(即ClassCode)一起缓存, 每个方法只解码一次
+ * Pre-decoded instruction stream of a method, cached with its MethodCode (and so with the ClassCode)
+ * <p>
+ * 指令链表展开为数组, 跳转目标解析为数组下标, 静态gas预先计算, 静态调用的方法全名预先拼接.
+ * 由无副作用且不会抛出异常的字节码组成的基本块在块首一次性扣除整块gas, 整块gas超出剩余gas时逐条扣除,
+ * 因此执行结果与gas消耗和逐条解释完全一致
+ * The instruction list is flattened into arrays, jump targets are resolved to array indexes, static gas is computed
+ * ahead of time and the full names of statically dispatched methods are pre-built. A basic block made only of
+ * instructions that have no side effect outside the frame and cannot throw is charged as a whole at its first
+ * instruction; when the block does not fit into the remaining gas, it is charged instruction by instruction, so
+ * results and gas usage are identical to interpreting one instruction at a time.
+ */
+public class DecodedCode {
+
+    /**
+     * gas取决于运行时状态
+     * The gas depends on runtime state
+     */
+    public static final int DYNAMIC_GAS = -1;
+
+    /**
+     * 字节码不属于整块扣除gas的基本块
+     * The instruction is not part of a block charged as a whole
+     */
+    public static final int NOT_IN_BLOCK = -1;
+
+    /**
+     * 只修改当前栈帧且不会抛出异常的字节码
+     * Instructions that only modify the current frame and cannot throw
+     */
+    private static final Set<OpCode> BLOCK_OPCODES = EnumSet.of(
+            OpCode.NOP,
+            OpCode.ACONST_NULL, OpCode.ICONST_M1, OpCode.ICONST_0, OpCode.ICONST_1, OpCode.ICONST_2,
+            OpCode.ICONST_3, OpCode.ICONST_4, OpCode.ICONST_5, OpCode.LCONST_0, OpCode.LCONST_1,
+            OpCode.FCONST_0, OpCode.FCONST_1, OpCode.FCONST_2, OpCode.DCONST_0, OpCode.DCONST_1,
+            OpCode.BIPUSH, OpCode.SIPUSH,
+            OpCode.ILOAD, OpCode.LLOAD, OpCode.FLOAD, OpCode.DLOAD, OpCode.ALOAD,
+            OpCode.ISTORE, OpCode.LSTORE, OpCode.FSTORE, OpCode.DSTORE, OpCode.ASTORE,
+            OpCode.POP, OpCode.POP2, OpCode.DUP, OpCode.DUP_X1, OpCode.DUP_X2,
+            OpCode.DUP2, OpCode.DUP2_X1, OpCode.DUP2_X2, OpCode.SWAP,
+            OpCode.IADD, OpCode.LADD, OpCode.FADD, OpCode.DADD,
+            OpCode.ISUB, OpCode.LSUB, OpCode.FSUB, OpCode.DSUB,
+            OpCode.IMUL, OpCode.LMUL, OpCode.FMUL, OpCode.DMUL,
+            OpCode.INEG, OpCode.LNEG, OpCode.FNEG, OpCode.DNEG,
+            OpCode.ISHL, OpCode.LSHL, OpCode.ISHR, OpCode.LSHR, OpCode.IUSHR, OpCode.LUSHR,
+            OpCode.IAND, OpCode.LAND, OpCode.IOR, OpCode.LOR, OpCode.IXOR, OpCode.LXOR, OpCode.IINC,
+            OpCode.I2L, OpCode.I2F, OpCode.I2D, OpCode.L2I, OpCode.L2F, OpCode.L2D,
+            OpCode.F2I, OpCode.F2L, OpCode.F2D, OpCode.D2I, OpCode.D2L, OpCode.D2F,
+            OpCode.I2B, OpCode.I2C, OpCode.I2S,
+            OpCode.LCMP, OpCode.FCMPL, OpCode.FCMPG, OpCode.DCMPL, OpCode.DCMPG,
+            OpCode.IFEQ, OpCode.IFNE, OpCode.IFLT, OpCode.IFGE, OpCode.IFGT, OpCode.IFLE,
+            OpCode.IF_ICMPEQ, OpCode.IF_ICMPNE, OpCode.IF_ICMPLT, OpCode.IF_ICMPGE, OpCode.IF_ICMPGT,
+            OpCode.IF_ICMPLE, OpCode.IF_ACMPEQ, OpCode.IF_ACMPNE,
+            OpCode.GOTO, OpCode.IFNULL, OpCode.IFNONNULL
+    );
+
+    public final AbstractInsnNode[] insnNodes;
+
+    public final OpCode[] opCodes;
+
+    /**
+     * 每条字节码的静态gas, 见{@link #DYNAMIC_GAS}
+     * Static gas of every instruction, see {@link #DYNAMIC_GAS}
+     */
+    public final int[] gasCosts;
+
+    /**
+     * 基本块首条字节码处为整块gas, 块内其余字节码为0, 见{@link #NOT_IN_BLOCK}
+     * Gas of the whole block at its first instruction, 0 for the rest of the block, see {@link #NOT_IN_BLOCK}
+     */
+    public final int[] blockGasCosts;
+
+    /**
+     * 跳转字节码的目标下标, 其他字节码为-1
+     * Target index of jump instructions, -1 for other instructions
+     */
+    public final int[] jumpTargets;
+
+    /**
+     * invokestatic与invokespecial调用的方法全名
+     * Full name of the method called by invokestatic and invokespecial
+     */
+    public final String[] methodFullNames;
+
+    private final Map<LabelNode, Integer> labelIndexes = new IdentityHashMap<>();
+
+    public DecodedCode(InsnList instructions) {
+        int size = instructions.size();
+        insnNodes = instructions.toArray();
+        opCodes = new OpCode[size];
+        gasCosts = new int[size];
+        blockGasCosts = new int[size];
+        jumpTargets = new int[size];
+        methodFullNames = new String[size];
+        for (int i = 0; i < size; i++) {
+            if (insnNodes[i] instanceof LabelNode) {
+                labelIndexes.put((LabelNode) insnNodes[i], i);
+            }
+        }
+        int blockStart = -1;
+        for (int i = 0; i < size; i++) {
+            AbstractInsnNode insnNode = insnNodes[i];
+            OpCode opCode = OpCode.valueOf(insnNode.getOpcode());
+            opCodes[i] = opCode;
+            jumpTargets[i] = -1;
+            if (insnNode instanceof JumpInsnNode) {
+                jumpTargets[i] = indexOf(((JumpInsnNode) insnNode).label);
+            }
+            if (opCode == null) {
+                // 标签是跳转目标, 作为基本块的边界; 行号与栈帧信息不影响基本块
+                // Labels are jump targets and end a block, line numbers and frames do not
+                if (insnNode instanceof LabelNode) {
+                    blockStart = -1;
+                }
+                blockGasCosts[i] = NOT_IN_BLOCK;
+                continue;
+            }
+            gasCosts[i] = VM.staticGasCost(opCode, insnNode);
+            if (opCode == OpCode.INVOKESTATIC || opCode == OpCode.INVOKESPECIAL) {
+                MethodInsnNode methodInsnNode = (MethodInsnNode) insnNode;
+                methodFullNames[i] = methodInsnNode.owner + "." + methodInsnNode.name + methodInsnNode.desc;
+            }
+            if (!BLOCK_OPCODES.contains(opCode)) {
+                blockStart = -1;
+                blockGasCosts[i] = NOT_IN_BLOCK;
+                continue;
+            }
+            if (blockStart < 0) {
+                blockStart = i;
+            } else {
+                blockGasCosts[i] = 0;
+            }
+            blockGasCosts[blockStart] += gasCosts[i];
+            if (insnNode instanceof JumpInsnNode) {
+                blockStart = -1;
+            }
+        }
+    }
+
+    public int size() {
+        return insnNodes.length;
+    }
+
+    public int indexOf(LabelNode labelNode) {
+        Integer index = labelIndexes.get(labelNode);
+        if (index == null) {
+            throw new RuntimeException("unknown label");
+        }
+        return index;
+    }
+
+}
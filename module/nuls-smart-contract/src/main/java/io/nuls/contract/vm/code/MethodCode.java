@@ -216,6 +216,8 @@ public class MethodCode {
 
     public final String normalDesc;
 
+    private volatile DecodedCode decodedCode;
+
     public MethodCode(ClassCode classCode, MethodNode methodNode) {
         access = methodNode.access;
         name = methodNode.name;
@@ -313,6 +315,19 @@ public class MethodCode {
 //        }
     }
 
+    /**
+     * 预解码的字节码, 首次执行时生成
+     * Pre-decoded instructions, built on first execution
+     */
+    public DecodedCode getDecodedCode() {
+        DecodedCode code = decodedCode;
+        if (code == null) {
+            code = new DecodedCode(instructions);
+            decodedCode = code;
+        }
+        return code;
+    }
+
     public boolean hasViewAnnotation() {
         return hasAnnotation(VIEW_ANNOTATION_DESC);
     }
@@ -321,8 +321,8 @@ public class ProgramExecutorImpl implements ProgramExecutor {
                 if (accountState.getNonce().compareTo(BigInteger.ZERO) <= 0) {
                     return revert(String.format("contract[%s] has stopped", contractAddress));
                 }
-                byte[] codes = repository.getCode(contractAddressBytes);
-                classCodes = ClassCodeLoader.loadJarCache(codes);
+                byte[] codeHash = accountState.getCodeHash();
+                classCodes = ClassCodeLoader.loadJarCache(codeHash, () -> repository.getCode(contractAddressBytes));
                 logTime("load code");
             }
 
@@ -332,6 +332,7 @@ public class ProgramExecutorImpl implements ProgramExecutor {
 
             vm.setProgramExecutor(this);
             vm.heap.loadClassCodes(classCodes);
+            vm.heap.setBinaryState(ProtocolGroupManager.getCurrentVersion(getCurrentChainId()) >= ContractContext.UPDATE_VERSION_V250);
             // add by pierre at 2019-11-21 标记 当存在合约内部调用合约，共享同一个合约的内存数据 需要协议升级 done
             //Log.debug("++++++++++++++++++++");
             //Log.warn(programInvoke.toString());
@@ -0,0 +1,564 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.contract.vm.util;
+
+import com.google.common.collect.BiMap;
+import io.nuls.contract.vm.ObjectRef;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Array;
+import java.util.*;
+
+import static io.nuls.contract.vm.util.Utils.hashMapInitialCapacity;
+
+/**
+ * 合约状态的二进制编码
+ * Binary encoding of contract state values
+ * <p>
+ * 编码以版本号字节开头, 与旧的JSON编码('{'或'[')区分, 读取时两种格式都支持, 旧状态在对象下次被修改时以新格式写回.
+ * 对象字段以字段表的布局哈希开头(0表示没有字段表), 字段名按字段表编码为下标, 不在字段表中的字段名(如数组分片)直接写入名称;
+ * 读取时布局哈希与当前字段表不一致则报错, 不会按错误的下标解码. 值以类型标记开头.
+ * The encoding starts with a version byte that differs from the legacy JSON encoding ('{' or '['). Both formats are
+ * readable, legacy values are written back in the new format the next time their object changes.
+ * Object fields start with the layout hash of the field table (0 when there is none). Field names are written as
+ * indexes into the field table, names missing from the table (e.g. array chunks) are written as strings. Reading
+ * fails when the layout hash doesn't match the current field table instead of decoding against the wrong indexes.
+ * Every value starts with a type tag.
+ */
+public class StateCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final int NULL = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int FLOAT = 3;
+    private static final int DOUBLE = 4;
+    private static final int FALSE = 5;
+    private static final int TRUE = 6;
+    private static final int BYTE = 7;
+    private static final int CHAR = 8;
+    private static final int SHORT = 9;
+    private static final int STRING = 10;
+    private static final int REF = 11;
+    private static final int MAP = 12;
+    private static final int ARRAY_I = 13;
+    private static final int ARRAY_J = 14;
+    private static final int ARRAY_F = 15;
+    private static final int ARRAY_D = 16;
+    private static final int ARRAY_Z = 17;
+    private static final int ARRAY_B = 18;
+    private static final int ARRAY_C = 19;
+    private static final int ARRAY_S = 20;
+    private static final int ARRAY_R = 21;
+
+    public static boolean isBinary(byte[] value) {
+        return value != null && value.length > 0 && value[0] == VERSION;
+    }
+
+    public static byte[] encodeFields(Map<String, Object> fields, FieldTable fieldTable, BiMap<String, String> classNames) {
+        Writer writer = new Writer();
+        writer.write(VERSION);
+        writer.writeFixed(fieldTable == null ? 0 : fieldTable.getLayoutHash(), 4);
+        writeFields(writer, fields, fieldTable, classNames);
+        return writer.toByteArray();
+    }
+
+    public static Map<String, Object> decodeFields(byte[] value, FieldTable fieldTable, BiMap<String, String> classNames) {
+        Reader reader = new Reader(value, 1);
+        int layoutHash = (int) reader.readFixed(4);
+        if (layoutHash == 0) {
+            fieldTable = null;
+        } else if (fieldTable == null || fieldTable.getLayoutHash() != layoutHash) {
+            throw new IllegalStateException("field layout changed, expected layout hash " + layoutHash);
+        }
+        return readFields(reader, fieldTable, classNames);
+    }
+
+    public static byte[] encodeArray(Object value, Class<?> elementType, BiMap<String, String> classNames) {
+        Writer writer = new Writer();
+        writer.write(VERSION);
+        writeArray(writer, value, elementType, classNames);
+        return writer.toByteArray();
+    }
+
+    public static Object decodeArray(byte[] value, Class<?> elementType, BiMap<String, String> classNames) {
+        Reader reader = new Reader(value, 1);
+        return readArray(reader, elementType, classNames);
+    }
+
+    private static void writeFields(Writer writer, Map<String, Object> fields, FieldTable fieldTable, BiMap<String, String> classNames) {
+        writer.writeVarInt(fields.size());
+        for (Map.Entry<String, Object> entry : fields.entrySet()) {
+            int index = fieldTable == null ? -1 : fieldTable.indexOf(entry.getKey());
+            writer.writeVarInt(index + 1);
+            if (index < 0) {
+                writer.writeString(entry.getKey());
+            }
+            writeValue(writer, entry.getValue(), classNames);
+        }
+    }
+
+    private static Map<String, Object> readFields(Reader reader, FieldTable fieldTable, BiMap<String, String> classNames) {
+        int size = reader.readVarInt();
+        Map<String, Object> fields = new LinkedHashMap<>(hashMapInitialCapacity(size));
+        for (int i = 0; i < size; i++) {
+            int index = reader.readVarInt() - 1;
+            if (index >= 0 && fieldTable == null) {
+                throw new IllegalArgumentException("field index " + index + " without field table");
+            }
+            String name = index < 0 ? reader.readString() : fieldTable.nameOf(index);
+            fields.put(name, readValue(reader, classNames));
+        }
+        return fields;
+    }
+
+    private static void writeValue(Writer writer, Object value, BiMap<String, String> classNames) {
+        if (value == null) {
+            writer.write(NULL);
+        } else if (value.getClass().isArray()) {
+            Class<?> clazz = value.getClass().getComponentType();
+            if (clazz == Integer.TYPE) {
+                writer.write(ARRAY_I);
+            } else if (clazz == Long.TYPE) {
+                writer.write(ARRAY_J);
+            } else if (clazz == Float.TYPE) {
+                writer.write(ARRAY_F);
+            } else if (clazz == Double.TYPE) {
+                writer.write(ARRAY_D);
+            } else if (clazz == Boolean.TYPE) {
+                writer.write(ARRAY_Z);
+            } else if (clazz == Byte.TYPE) {
+                writer.write(ARRAY_B);
+            } else if (clazz == Character.TYPE) {
+                writer.write(ARRAY_C);
+            } else if (clazz == Short.TYPE) {
+                writer.write(ARRAY_S);
+            } else {
+                writer.write(ARRAY_R);
+            }
+            writeArray(writer, value, clazz, classNames);
+        } else if (value instanceof Map) {
+            writer.write(MAP);
+            writeFields(writer, (Map<String, Object>) value, null, classNames);
+        } else if (value instanceof Integer) {
+            writer.write(INT);
+            writer.writeVarLong((Integer) value);
+        } else if (value instanceof Long) {
+            writer.write(LONG);
+            writer.writeVarLong((Long) value);
+        } else if (value instanceof Float) {
+            writer.write(FLOAT);
+            writer.writeFixed(Float.floatToRawIntBits((Float) value), 4);
+        } else if (value instanceof Double) {
+            writer.write(DOUBLE);
+            writer.writeFixed(Double.doubleToRawLongBits((Double) value), 8);
+        } else if (value instanceof Boolean) {
+            writer.write((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Byte) {
+            writer.write(BYTE);
+            writer.write((Byte) value);
+        } else if (value instanceof Character) {
+            writer.write(CHAR);
+            writer.writeVarInt((Character) value);
+        } else if (value instanceof Short) {
+            writer.write(SHORT);
+            writer.writeVarLong((Short) value);
+        } else if (value instanceof String) {
+            writer.write(STRING);
+            writer.writeString((String) value);
+        } else if (value instanceof ObjectRef) {
+            writer.write(REF);
+            writeObjectRef(writer, (ObjectRef) value, classNames);
+        } else {
+            throw new IllegalArgumentException("unknown value");
+        }
+    }
+
+    private static Object readValue(Reader reader, BiMap<String, String> classNames) {
+        int tag = reader.read();
+        switch (tag) {
+            case NULL:
+                return null;
+            case INT:
+                return (int) reader.readVarLong();
+            case LONG:
+                return reader.readVarLong();
+            case FLOAT:
+                return Float.intBitsToFloat((int) reader.readFixed(4));
+            case DOUBLE:
+                return Double.longBitsToDouble(reader.readFixed(8));
+            case FALSE:
+                return false;
+            case TRUE:
+                return true;
+            case BYTE:
+                return (byte) reader.read();
+            case CHAR:
+                return (char) reader.readVarInt();
+            case SHORT:
+                return (short) reader.readVarLong();
+            case STRING:
+                return reader.readString();
+            case REF:
+                return readObjectRef(reader, classNames);
+            case MAP:
+                return readFields(reader, null, classNames);
+            case ARRAY_I:
+                return readArray(reader, Integer.TYPE, classNames);
+            case ARRAY_J:
+                return readArray(reader, Long.TYPE, classNames);
+            case ARRAY_F:
+                return readArray(reader, Float.TYPE, classNames);
+            case ARRAY_D:
+                return readArray(reader, Double.TYPE, classNames);
+            case ARRAY_Z:
+                return readArray(reader, Boolean.TYPE, classNames);
+            case ARRAY_B:
+                return readArray(reader, Byte.TYPE, classNames);
+            case ARRAY_C:
+                return readArray(reader, Character.TYPE, classNames);
+            case ARRAY_S:
+                return readArray(reader, Short.TYPE, classNames);
+            case ARRAY_R:
+                return readArray(reader, ObjectRef.class, classNames);
+            default:
+                throw new IllegalArgumentException("unknown tag " + tag);
+        }
+    }
+
+    private static void writeArray(Writer writer, Object value, Class<?> elementType, BiMap<String, String> classNames) {
+        int length = Array.getLength(value);
+        writer.writeVarInt(length);
+        if (elementType == Integer.TYPE) {
+            for (int v : (int[]) value) {
+                writer.writeVarLong(v);
+            }
+        } else if (elementType == Long.TYPE) {
+            for (long v : (long[]) value) {
+                writer.writeVarLong(v);
+            }
+        } else if (elementType == Float.TYPE) {
+            for (float v : (float[]) value) {
+                writer.writeFixed(Float.floatToRawIntBits(v), 4);
+            }
+        } else if (elementType == Double.TYPE) {
+            for (double v : (double[]) value) {
+                writer.writeFixed(Double.doubleToRawLongBits(v), 8);
+            }
+        } else if (elementType == Boolean.TYPE) {
+            for (boolean v : (boolean[]) value) {
+                writer.write(v ? 1 : 0);
+            }
+        } else if (elementType == Byte.TYPE) {
+            writer.writeRaw((byte[]) value);
+        } else if (elementType == Character.TYPE) {
+            for (char v : (char[]) value) {
+                writer.writeVarInt(v);
+            }
+        } else if (elementType == Short.TYPE) {
+            for (short v : (short[]) value) {
+                writer.writeVarLong(v);
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                ObjectRef objectRef = (ObjectRef) Array.get(value, i);
+                if (objectRef == null) {
+                    writer.write(0);
+                } else {
+                    writer.write(1);
+                    writeObjectRef(writer, objectRef, classNames);
+                }
+            }
+        }
+    }
+
+    private static Object readArray(Reader reader, Class<?> elementType, BiMap<String, String> classNames) {
+        int length = reader.readVarInt();
+        if (elementType == Integer.TYPE) {
+            int[] array = new int[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = (int) reader.readVarLong();
+            }
+            return array;
+        } else if (elementType == Long.TYPE) {
+            long[] array = new long[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = reader.readVarLong();
+            }
+            return array;
+        } else if (elementType == Float.TYPE) {
+            float[] array = new float[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = Float.intBitsToFloat((int) reader.readFixed(4));
+            }
+            return array;
+        } else if (elementType == Double.TYPE) {
+            double[] array = new double[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = Double.longBitsToDouble(reader.readFixed(8));
+            }
+            return array;
+        } else if (elementType == Boolean.TYPE) {
+            boolean[] array = new boolean[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = reader.read() != 0;
+            }
+            return array;
+        } else if (elementType == Byte.TYPE) {
+            return reader.readBytes(length);
+        } else if (elementType == Character.TYPE) {
+            char[] array = new char[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = (char) reader.readVarInt();
+            }
+            return array;
+        } else if (elementType == Short.TYPE) {
+            short[] array = new short[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = (short) reader.readVarLong();
+            }
+            return array;
+        } else {
+            ObjectRef[] array = new ObjectRef[length];
+            for (int i = 0; i < length; i++) {
+                if (reader.read() != 0) {
+                    array[i] = readObjectRef(reader, classNames);
+                }
+            }
+            return array;
+        }
+    }
+
+    private static void writeObjectRef(Writer writer, ObjectRef objectRef, BiMap<String, String> classNames) {
+        writer.writeString(objectRef.getRef());
+        String desc = objectRef.getDesc();
+        String encodedDesc = classNames.inverse().get(desc);
+        writer.writeString(encodedDesc != null ? encodedDesc : desc);
+        int[] dimensions = objectRef.getDimensions();
+        writer.writeVarInt(dimensions.length);
+        for (int dimension : dimensions) {
+            writer.writeVarInt(dimension);
+        }
+    }
+
+    private static ObjectRef readObjectRef(Reader reader, BiMap<String, String> classNames) {
+        String ref = reader.readString();
+        String desc = reader.readString();
+        String decodedDesc = classNames.get(desc);
+        if (decodedDesc != null) {
+            desc = decodedDesc;
+        }
+        int[] dimensions = new int[reader.readVarInt()];
+        for (int i = 0; i < dimensions.length; i++) {
+            dimensions[i] = reader.readVarInt();
+        }
+        return new ObjectRef(ref, desc, dimensions);
+    }
+
+    /**
+     * 类的字段表, 由类及其父类声明的字段名组成(父类在前), 编码时字段名写为表中的下标
+     * Field table of a class, made of the field names declared by the class and its super classes (super classes
+     * first). Field names are encoded as indexes into this table.
+     */
+    public static class FieldTable {
+
+        private final List<String> names;
+
+        private final Map<String, Integer> indexes;
+
+        /**
+         * 字段名列表的哈希, 不为0
+         * Hash of the field name list, never 0
+         */
+        private final int layoutHash;
+
+        public FieldTable(List<String> names) {
+            this.names = new ArrayList<>(names.size());
+            this.indexes = new HashMap<>(hashMapInitialCapacity(names.size()));
+            for (String name : names) {
+                if (!this.indexes.containsKey(name)) {
+                    this.indexes.put(name, this.names.size());
+                    this.names.add(name);
+                }
+            }
+            int hash = this.names.hashCode();
+            this.layoutHash = hash == 0 ? 1 : hash;
+        }
+
+        public int getLayoutHash() {
+            return layoutHash;
+        }
+
+        public int indexOf(String name) {
+            Integer index = indexes.get(name);
+            return index == null ? -1 : index;
+        }
+
+        public String nameOf(int index) {
+            if (index >= names.size()) {
+                throw new IllegalArgumentException("unknown field index " + index);
+            }
+            return names.get(index);
+        }
+
+    }
+
+    private static class Writer extends ByteArrayOutputStream {
+
+        private Writer() {
+            super(64);
+        }
+
+        private void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        private void writeVarLong(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                write((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            write((int) zigzag);
+        }
+
+        private void writeFixed(long value, int length) {
+            for (int i = 0; i < length; i++) {
+                write((int) (value >>> (i * 8)));
+            }
+        }
+
+        /**
+         * 与DataOutputStream.writeUTF相同的字符编码(代理字符单独编码), 保证任意字符串都能原样读回
+         * Same character encoding as DataOutputStream.writeUTF (surrogates are encoded separately), so every string
+         * reads back unchanged
+         */
+        private void writeString(String value) {
+            int length = value.length();
+            writeVarInt(length);
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x0001 && c <= 0x007F) {
+                    write(c);
+                } else if (c <= 0x07FF) {
+                    write(0xC0 | ((c >> 6) & 0x1F));
+                    write(0x80 | (c & 0x3F));
+                } else {
+                    write(0xE0 | ((c >> 12) & 0x0F));
+                    write(0x80 | ((c >> 6) & 0x3F));
+                    write(0x80 | (c & 0x3F));
+                }
+            }
+        }
+
+        private void writeRaw(byte[] bytes) {
+            write(bytes, 0, bytes.length);
+        }
+
+    }
+
+    private static class Reader {
+
+        private final byte[] bytes;
+
+        private int position;
+
+        private Reader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        private int read() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("unexpected end of state value");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = read();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint");
+        }
+
+        private long readVarLong() {
+            long zigzag = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                zigzag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (zigzag >>> 1) ^ -(zigzag & 1);
+                }
+            }
+            throw new IllegalArgumentException("malformed varint");
+        }
+
+        private long readFixed(int length) {
+            long value = 0;
+            for (int i = 0; i < length; i++) {
+                value |= (long) read() << (i * 8);
+            }
+            return value;
+        }
+
+        private String readString() {
+            int length = readVarInt();
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                int b = read();
+                if (b < 0x80) {
+                    chars[i] = (char) b;
+                } else if ((b & 0xE0) == 0xC0) {
+                    chars[i] = (char) (((b & 0x1F) << 6) | (read() & 0x3F));
+                } else {
+                    chars[i] = (char) (((b & 0x0F) << 12) | ((read() & 0x3F) << 6) | (read() & 0x3F));
+                }
+            }
+            return new String(chars);
+        }
+
+        private byte[] readBytes(int length) {
+            if (length > bytes.length - position) {
+                throw new IllegalArgumentException("unexpected end of state value");
+            }
+            byte[] result = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return result;
+        }
+
+    }
+
+}
@@ -103,6 +103,14 @@ public final class DataWord implements Comparable<DataWord> {
         this.sData = data;
     }
 
+    /**
+     * Wraps the given bytes as they are, without padding them to 32 bytes,
+     * the same way {@link #DataWord(String)} keeps the bytes of contract state values
+     */
+    public static DataWord wrap(byte[] data) {
+        return new DataWord(Arrays.copyOf(data, data.length));
+    }
+
     public static DataWord of(ByteArrayWrapper wrappedData) {
         return of(wrappedData.getData());
     }
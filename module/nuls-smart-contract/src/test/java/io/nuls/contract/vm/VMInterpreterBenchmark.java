@@ -0,0 +1,88 @@
+package io.nuls.contract.vm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.nuls.base.protocol.ProtocolGroupManager;
+import io.nuls.contract.mock.basetest.MockBase;
+import io.nuls.contract.vm.program.ProgramResult;
+import io.nuls.core.crypto.HexUtil;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比预解码执行与逐条解释执行示例合约(contract-vm-testA/B)的性能, 开始前校验两种方式的结果与gas消耗一致
+ * Compares pre-decoded execution with one-by-one interpretation on the bundled sample contracts
+ * (contract-vm-testA/B). Results and gas usage of both are checked to be identical before measuring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VMInterpreterBenchmark extends MockBase {
+
+    private static final String CONTRACT_A = "tNULSeBaN5xpQLvYBMJuybAzgzRkRXL4r3tqMx";
+    private static final String CONTRACT_B = "tNULSeBaN1gZJobF3bxuLwXxvvAosdwQTVxWFn";
+
+    @Param({"true", "false"})
+    public boolean preDecode;
+
+    @Param({"test1", "test5", "test7", "test8"})
+    public String method;
+
+    private byte[] stateRoot;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        initClass();
+        ProtocolGroupManager.setLoadProtocol(false);
+        ProtocolGroupManager.updateProtocol(chainId, (short) 4);
+        setUp();
+
+        byte[] contractCodeA = IOUtils.toByteArray(getClass().getResourceAsStream("/contract-vm-testA-testA.jar"));
+        byte[] contractCodeB = IOUtils.toByteArray(getClass().getResourceAsStream("/contract-vm-testB-testB.jar"));
+        byte[] initialStateRoot = HexUtil.decode("56e81f171bcc55a6ff8345e692c0f86e5b48e01b996cadc001622fb5e363b421");
+        stateRoot = create(initialStateRoot, CONTRACT_A, SENDER, contractCodeA);
+        stateRoot = create(stateRoot, CONTRACT_B, SENDER, contractCodeB);
+        stateRoot = (byte[]) call(CONTRACT_A, stateRoot, SENDER, "setContractB", new String[]{CONTRACT_B})[0];
+        stateRoot = (byte[]) call(CONTRACT_B, stateRoot, SENDER, "setContractA", new String[]{CONTRACT_A})[0];
+
+        ProgramResult decoded = execute(true);
+        ProgramResult interpreted = execute(false);
+        if (!decoded.isSuccess() || !Objects.equals(decoded.getResult(), interpreted.getResult())
+                || decoded.getGasUsed() != interpreted.getGasUsed()) {
+            throw new IllegalStateException(String.format("method %s: pre-decoded %s, interpreted %s", method, decoded, interpreted));
+        }
+        VM.setPreDecode(preDecode);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        VM.setPreDecode(true);
+    }
+
+    private ProgramResult execute(boolean preDecode) throws JsonProcessingException {
+        VM.setPreDecode(preDecode);
+        return (ProgramResult) call(CONTRACT_A, stateRoot, SENDER, method, new String[]{})[1];
+    }
+
+    @Benchmark
+    public Object callContract() throws JsonProcessingException {
+        return call(CONTRACT_A, stateRoot, SENDER, method, new String[]{})[1];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(VMInterpreterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
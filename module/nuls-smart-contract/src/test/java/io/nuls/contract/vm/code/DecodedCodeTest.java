@@ -0,0 +1,69 @@
+package io.nuls.contract.vm.code;
+
+import io.nuls.contract.vm.GasCost;
+import io.nuls.contract.vm.OpCode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+public class DecodedCodeTest {
+
+    @Test
+    public void decode() {
+        LabelNode start = new LabelNode();
+        LabelNode loop = new LabelNode();
+        LabelNode end = new LabelNode();
+        InsnList instructions = new InsnList();
+        instructions.add(start);
+        instructions.add(new LineNumberNode(1, start));
+        //0: 基本块 iconst_0, istore_1
+        instructions.add(new InsnNode(Opcodes.ICONST_0));
+        instructions.add(new VarInsnNode(Opcodes.ISTORE, 1));
+        instructions.add(loop);
+        //1: 基本块 iload_1, bipush, if_icmpge
+        instructions.add(new VarInsnNode(Opcodes.ILOAD, 1));
+        instructions.add(new IntInsnNode(Opcodes.BIPUSH, 10));
+        instructions.add(new JumpInsnNode(Opcodes.IF_ICMPGE, end));
+        //2: 调用不属于基本块
+        instructions.add(new MethodInsnNode(Opcodes.INVOKESTATIC, "a/B", "c", "()V", false));
+        //3: 基本块 iinc, goto
+        instructions.add(new IincInsnNode(1, 1));
+        instructions.add(new JumpInsnNode(Opcodes.GOTO, loop));
+        instructions.add(end);
+        instructions.add(new InsnNode(Opcodes.RETURN));
+
+        DecodedCode code = new DecodedCode(instructions);
+        Assert.assertEquals(instructions.size(), code.size());
+        Assert.assertEquals(OpCode.ICONST_0, code.opCodes[2]);
+        Assert.assertNull(code.opCodes[0]);
+
+        Assert.assertEquals(GasCost.CONSTANT + GasCost.STORE, code.blockGasCosts[2]);
+        Assert.assertEquals(0, code.blockGasCosts[3]);
+        Assert.assertEquals(DecodedCode.NOT_IN_BLOCK, code.blockGasCosts[4]);
+        Assert.assertEquals(GasCost.LOAD + GasCost.CONSTANT + GasCost.COMPARISON, code.blockGasCosts[5]);
+        Assert.assertEquals(DecodedCode.NOT_IN_BLOCK, code.blockGasCosts[8]);
+        Assert.assertEquals(GasCost.REFERENCE, code.gasCosts[8]);
+        Assert.assertEquals("a/B.c()V", code.methodFullNames[8]);
+        Assert.assertEquals(GasCost.MATH + GasCost.CONTROL, code.blockGasCosts[9]);
+        Assert.assertEquals(DecodedCode.NOT_IN_BLOCK, code.blockGasCosts[12]);
+
+        Assert.assertEquals(11, code.jumpTargets[7]);
+        Assert.assertEquals(4, code.jumpTargets[10]);
+        Assert.assertEquals(11, code.indexOf(end));
+    }
+
+    @Test
+    public void dynamicGas() {
+        InsnList instructions = new InsnList();
+        instructions.add(new InsnNode(Opcodes.ICONST_1));
+        instructions.add(new IntInsnNode(Opcodes.NEWARRAY, Opcodes.T_INT));
+        instructions.add(new InsnNode(Opcodes.ARETURN));
+
+        DecodedCode code = new DecodedCode(instructions);
+        Assert.assertEquals(GasCost.CONSTANT, code.blockGasCosts[0]);
+        Assert.assertEquals(DecodedCode.DYNAMIC_GAS, code.gasCosts[1]);
+        Assert.assertEquals(DecodedCode.NOT_IN_BLOCK, code.blockGasCosts[1]);
+    }
+
+}
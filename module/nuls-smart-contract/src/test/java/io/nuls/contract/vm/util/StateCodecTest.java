@@ -0,0 +1,104 @@
+package io.nuls.contract.vm.util;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+import io.nuls.contract.vm.ObjectRef;
+import io.nuls.contract.vm.code.VariableType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class StateCodecTest {
+
+    private BiMap<String, String> classNames() {
+        BiMap<String, String> classNames = HashBiMap.create();
+        classNames.put("0", "Lio/nuls/Token;");
+        classNames.putAll(VariableType.DESCRIPTORS);
+        return classNames;
+    }
+
+    @Test
+    public void fields() {
+        BiMap<String, String> classNames = classNames();
+        StateCodec.FieldTable fieldTable = new StateCodec.FieldTable(Arrays.asList("name", "totalSupply", "balances", "name"));
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", "NULS 😀 \u0000 \uD800");
+        fields.put("totalSupply", new ObjectRef("12", "Ljava/math/BigInteger;"));
+        fields.put("balances", new ObjectRef("13", "Ljava/util/HashMap;"));
+        fields.put("decimals", 8);
+        fields.put("owner", null);
+        fields.put("minimum", Long.MIN_VALUE);
+        fields.put("rate", -1.5D);
+        fields.put("ratio", 0.25F);
+        fields.put("paused", true);
+        fields.put("flag", (byte) -1);
+        fields.put("symbol", '中');
+        fields.put("level", (short) -300);
+        fields.put("0", new int[]{0, -1, Integer.MAX_VALUE, Integer.MIN_VALUE});
+
+        byte[] value = StateCodec.encodeFields(fields, fieldTable, classNames);
+        Assert.assertTrue(StateCodec.isBinary(value));
+        Assert.assertFalse(StateCodec.isBinary(JsonUtils.encode(fields, classNames).getBytes()));
+
+        Map<String, Object> decoded = StateCodec.decodeFields(value, fieldTable, classNames);
+        Assert.assertEquals(Arrays.asList(fields.keySet().toArray()), Arrays.asList(decoded.keySet().toArray()));
+        for (Map.Entry<String, Object> entry : fields.entrySet()) {
+            Object expected = entry.getValue();
+            Object actual = decoded.get(entry.getKey());
+            if (expected instanceof int[]) {
+                Assert.assertArrayEquals((int[]) expected, (int[]) actual);
+            } else {
+                Assert.assertEquals(expected, actual);
+            }
+        }
+        Assert.assertTrue(value.length < JsonUtils.encode(fields, classNames).getBytes().length);
+    }
+
+    @Test
+    public void fieldLayout() {
+        BiMap<String, String> classNames = classNames();
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", "NULS");
+        fields.put("decimals", 8);
+
+        byte[] value = StateCodec.encodeFields(fields, null, classNames);
+        Assert.assertEquals(fields, StateCodec.decodeFields(value, null, classNames));
+        Assert.assertEquals(fields, StateCodec.decodeFields(value, new StateCodec.FieldTable(Arrays.asList("decimals", "name")), classNames));
+
+        value = StateCodec.encodeFields(fields, new StateCodec.FieldTable(Arrays.asList("name", "decimals")), classNames);
+        try {
+            StateCodec.decodeFields(value, new StateCodec.FieldTable(Arrays.asList("decimals", "name")), classNames);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            //expected
+        }
+        try {
+            StateCodec.decodeFields(value, null, classNames);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void arrays() {
+        BiMap<String, String> classNames = classNames();
+        ObjectRef[] refs = new ObjectRef[]{new ObjectRef("5", "Lio/nuls/Token;"), null, new ObjectRef("6", "[J", 3)};
+        ObjectRef[] decodedRefs = (ObjectRef[]) StateCodec.decodeArray(StateCodec.encodeArray(refs, ObjectRef.class, classNames), ObjectRef.class, classNames);
+        Assert.assertArrayEquals(refs, decodedRefs);
+        Assert.assertArrayEquals(new int[]{3}, decodedRefs[2].getDimensions());
+
+        byte[] bytes = new byte[]{0, 1, -128, 127};
+        Assert.assertArrayEquals(bytes, (byte[]) StateCodec.decodeArray(StateCodec.encodeArray(bytes, Byte.TYPE, classNames), Byte.TYPE, classNames));
+        long[] longs = new long[]{0L, -1L, Long.MAX_VALUE};
+        Assert.assertArrayEquals(longs, (long[]) StateCodec.decodeArray(StateCodec.encodeArray(longs, Long.TYPE, classNames), Long.TYPE, classNames));
+        boolean[] booleans = new boolean[]{true, false};
+        Assert.assertArrayEquals(booleans, (boolean[]) StateCodec.decodeArray(StateCodec.encodeArray(booleans, Boolean.TYPE, classNames), Boolean.TYPE, classNames));
+        char[] chars = new char[]{'a', '￿'};
+        Assert.assertArrayEquals(chars, (char[]) StateCodec.decodeArray(StateCodec.encodeArray(chars, Character.TYPE, classNames), Character.TYPE, classNames));
+    }
+
+}
@@ -1,18 +1,26 @@
 package io.nuls.transaction.cache;
 
+import io.nuls.base.RPCUtil;
+import io.nuls.base.data.CoinData;
 import io.nuls.base.data.Transaction;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
-import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.transaction.constant.TxConstant;
+import io.nuls.transaction.manager.TxManager;
 import io.nuls.transaction.model.bo.Chain;
+import io.nuls.transaction.rpc.call.LedgerCall;
 import io.nuls.transaction.storage.UnconfirmedTxStorageService;
+import io.nuls.transaction.utils.TxUtil;
 
+import java.math.BigInteger;
 import java.util.List;
-import java.util.Map;
 
 /**
  * 交易已完成交易管理模块的校验(打包的时候从这里取)
  * Waiting for a packaged transaction pool
+ * <p>
+ * 交易按手续费率从高到低取出, 见{@link PackableTxQueue}
+ * Transactions are polled by fee rate from high to low, see {@link PackableTxQueue}
  *
  * @author: Charlie
  * @date: 2018/11/13
@@ -20,6 +28,12 @@ import java.util.Map;
 @Component
 public class PackablePool {
 
+    /**
+     * 系统交易没有手续费, 始终优先打包
+     * System transactions carry no fee and are always packed first
+     */
+    private static final long SYSTEM_TX_FEE_RATE = Long.MAX_VALUE;
+
     @Autowired
     private UnconfirmedTxStorageService unconfirmedTxStorageService;
 
@@ -32,89 +46,79 @@ public class PackablePool {
      * @return
      */
     public boolean offerFirst(Chain chain, Transaction tx) {
-        ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
-        synchronized (hash) {
-            if (chain.getPackableHashQueue().offerFirst(hash)) {
-                chain.getPackableTxMap().put(hash, tx);
-                return true;
-            }
-        }
-        chain.getLogger().error("PackableHashQueue offerFirst false");
-        return false;
+        chain.getPackableTxQueue().offer(tx, feeRate(chain, tx), true);
+        return true;
     }
 
     /**
-     * 只还hash 不需要还到map中
+     * 只还hash 不需要还到map中, 交易已被确认或清理则不再放回
+     * Only return the hash, the transaction is not put back once it was confirmed or removed
      * @param chain
      * @param tx
      * @return
      */
     public boolean offerFirstOnlyHash(Chain chain, Transaction tx) {
-        ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
-        synchronized (hash) {
-            if (chain.getPackableHashQueue().offerFirst(hash)) {
-                return true;
-            }
-        }
-        chain.getLogger().error("PackableHashQueue offerFirst false");
-        return false;
+        return chain.getPackableTxQueue().offerFirstIfPresent(tx);
     }
 
     /**
-     * 将交易加入到待打包队列队尾
-     * Add the transaction to the end of the queue to be packed
+     * 按手续费率将交易加入待打包队列, 待打包交易数据总大小超过上限时淘汰费率最低的交易
+     * Add the transaction to the queue by fee rate,
+     * the lowest fee rate transactions are evicted when the total data size exceeds the limit
      *
      * @param chain
      * @param tx
      * @return
      */
     public boolean add(Chain chain, Transaction tx) {
-        ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
-        synchronized (hash) {
-            if (chain.getPackableHashQueue().offer(hash)) {
-                chain.getPackableTxMap().put(hash, tx);
-                return true;
-            }
+        PackableTxQueue queue = chain.getPackableTxQueue();
+        queue.offer(tx, feeRate(chain, tx), false);
+        List<Transaction> evicted = queue.evict(TxConstant.PACKABLE_TX_MAP_MAX_DATA_SIZE);
+        for (Transaction evictedTx : evicted) {
+            discardEvictedTx(chain, evictedTx);
         }
-        chain.getLogger().error("PackableHashQueue add false");
-        return false;
+        return queue.contains(tx.getHash().getBytes());
+    }
+
+    /**
+     * 待打包队列数据量达到压力阈值后, 费率不高于队列中最低费率的新交易直接丢弃
+     * Once the pool reaches the stress threshold, new transactions whose fee rate
+     * is not higher than the lowest queued fee rate are discarded
+     *
+     * @param chain
+     * @param tx
+     * @return true:丢弃 discard
+     */
+    public boolean discard(Chain chain, Transaction tx) {
+        PackableTxQueue queue = chain.getPackableTxQueue();
+        if (queue.dataSize() < TxConstant.PACKABLE_TX_MAP_STRESS_DATA_SIZE) {
+            return false;
+        }
+        long lowestFeeRate = queue.lowestFeeRate();
+        if (feeRate(chain, tx) > lowestFeeRate && lowestFeeRate >= 0) {
+            return false;
+        }
+        chain.getLogger().debug("Packable pool tx data size reach the discard threshold, hash:{}", tx.getHash().toHex());
+        return true;
     }
 
     /**
      * 从待打包队列获取一笔交易
      * Gets a transaction from the queue to be packaged
      * <p>
-     * 1.从队列中取出hash，然后再去map中获取交易
-     * 2.如果map没有说明已经被打包确认，然后接着拿下一个，直到获取到一个交易，或者队列为空
-     * <p>
-     * 1.Fetch the hash from the queue, and then fetch the transaction from the map
-     * 2.If the map does not indicate that it has been packaged for confirmation,
-     * then take one down until a transaction is obtained, or if the queue is empty
+     * 交易取出后仍保留在map中, 直到被确认或清理
+     * The transaction stays in the map until it is confirmed or removed
      *
      * @param chain
      * @return
      */
     public Transaction poll(Chain chain) {
-        while (true) {
-            ByteArrayWrapper hash = chain.getPackableHashQueue().poll();
-            if (null == hash) {
-                return null;
-            }
-            synchronized (hash) {
-                Transaction tx = chain.getPackableTxMap().get(hash);
-                if (null != tx) {
-                    return tx;
-                } else {
-                    unconfirmedTxStorageService.removeTx(chain.getChainId(), hash.getBytes());
-                }
-            }
-        }
-
+        return chain.getPackableTxQueue().poll();
     }
 
     /**
-     * 获取并移除此双端队列的最后一个元素；如果此双端队列为空，则返回 null
-     * Gets and removes the last element of the other double-ended queue; If this double-ended queue is empty, null is returned
+     * 获取并移除优先级最低的交易；如果队列为空，则返回 null
+     * Gets and removes the lowest priority transaction; If the queue is empty, null is returned
      *
      * 协议升级时需要重新处理未打包的交易
      * When the agreement is upgraded, unpackaged transactions need to be reprocessed
@@ -123,40 +127,24 @@ public class PackablePool {
      * @return
      */
     public Transaction pollLast(Chain chain) {
-        while (true) {
-            ByteArrayWrapper hash = chain.getPackableHashQueue().pollLast();
-            if (null == hash) {
-                return null;
-            }
-            synchronized (hash) {
-                Transaction tx = chain.getPackableTxMap().get(hash);
-                if (null != tx) {
-                    return tx;
-                } else {
-                    unconfirmedTxStorageService.removeTx(chain.getChainId(), hash.getBytes());
-                }
-            }
-        }
+        return chain.getPackableTxQueue().pollLast();
     }
 
     public void clearConfirmedTxs(Chain chain, List<byte[]> txHashs) {
-        Map<ByteArrayWrapper, Transaction> map = chain.getPackableTxMap();
+        PackableTxQueue queue = chain.getPackableTxQueue();
         for (byte[] hash : txHashs) {
-            ByteArrayWrapper wrapper = new ByteArrayWrapper(hash);
-            map.remove(wrapper);
+            queue.remove(hash);
         }
     }
 
     public void removeInvalidTxFromMap(Chain chain, Transaction tx) {
-        Map<ByteArrayWrapper, Transaction> map = chain.getPackableTxMap();
-        ByteArrayWrapper wrapper = new ByteArrayWrapper(tx.getHash().getBytes());
-        map.remove(wrapper);
+        chain.getPackableTxQueue().remove(tx.getHash().getBytes());
     }
 
     /**
-     * 判断交易是否在待打包队列的map中，交易如果存在于待打包hash队列中,不一定存在于map中.
+     * 判断交易是否在待打包队列的map中，交易如果存在于map中,不一定存在于可取出的队列中.
      * Determine if the transaction is in the map to be packaged;
-     * if the transaction exists in the hash queue to be packaged, it does not necessarily exist in the map.
+     * if the transaction exists in the map, it does not necessarily exist in the queue to be polled.
      *
      *
      * @param chain
@@ -164,20 +152,65 @@ public class PackablePool {
      * @return
      */
     public boolean exist(Chain chain, Transaction tx) {
-        ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
-        return chain.getPackableTxMap().containsKey(hash);
+        return chain.getPackableTxQueue().contains(tx.getHash().getBytes());
     }
 
     public int packableHashQueueSize(Chain chain) {
-        return chain.getPackableHashQueue().size();
+        return chain.getPackableTxQueue().queueSize();
     }
 
     public int packableTxMapSize(Chain chain) {
-        return chain.getPackableTxMap().size();
+        return chain.getPackableTxQueue().size();
+    }
+
+    /**
+     * 待打包map中所有交易的数据总大小 (B)
+     * Total data size of all transactions in the packable map (B)
+     */
+    public long packableTxMapDataSize(Chain chain) {
+        return chain.getPackableTxQueue().dataSize();
     }
 
     public void clear(Chain chain) {
-        chain.getPackableHashQueue().clear();
+        chain.getPackableTxQueue().clearQueue();
+    }
+
+    /**
+     * 计算交易每KB的手续费(主资产), 系统交易优先
+     * Fee per KB in the chain's main asset, system transactions first
+     */
+    private long feeRate(Chain chain, Transaction tx) {
+        if (TxManager.isSystemTx(chain, tx)) {
+            return SYSTEM_TX_FEE_RATE;
+        }
+        try {
+            CoinData coinData = TxUtil.getCoinData(tx);
+            BigInteger fee = coinData.getFeeByAsset(chain.getConfig().getChainId(), chain.getConfig().getAssetId());
+            if (fee.signum() <= 0) {
+                return 0L;
+            }
+            BigInteger rate = fee.multiply(BigInteger.valueOf(1024)).divide(BigInteger.valueOf(Math.max(tx.size(), 1)));
+            return rate.bitLength() < Long.SIZE - 1 ? Math.min(rate.longValue(), SYSTEM_TX_FEE_RATE - 1) : SYSTEM_TX_FEE_RATE - 1;
+        } catch (Exception e) {
+            chain.getLogger().error(e);
+            return 0L;
+        }
+    }
+
+    /**
+     * 被淘汰的交易从未确认库中删除, 并回滚账本未确认状态
+     * Remove the evicted transaction from unconfirmed storage and roll back its unconfirmed ledger state
+     */
+    private void discardEvictedTx(Chain chain, Transaction tx) {
+        chain.getLogger().debug("Packable pool tx data size reach the max threshold, evict tx:{}", tx.getHash().toHex());
+        unconfirmedTxStorageService.removeTx(chain.getChainId(), tx.getHash());
+        try {
+            String txStr = RPCUtil.encode(tx.serialize());
+            LedgerCall.rollBackUnconfirmTx(chain, txStr);
+            LedgerCall.rollbackTxValidateStatus(chain, txStr);
+        } catch (Exception e) {
+            chain.getLogger().error(e);
+        }
     }
 
 }
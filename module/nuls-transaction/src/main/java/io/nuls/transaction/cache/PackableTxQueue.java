@@ -0,0 +1,272 @@
+package io.nuls.transaction.cache;
+
+import io.nuls.base.data.CoinData;
+import io.nuls.base.data.CoinFrom;
+import io.nuls.base.data.Transaction;
+import io.nuls.core.exception.NulsException;
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.transaction.utils.TxUtil;
+
+import java.util.*;
+
+/**
+ * 按手续费率排序的待打包交易容器, 同时保存待打包交易map(包含正在打包中的交易)与可取出的优先队列
+ * Fee-rate ordered container of packable transactions. It holds both the packable transaction map
+ * (including transactions currently taken out for packing) and the priority queue they are polled from.
+ * <p>
+ * 排序规则: 1.通过offerFirst放回的交易(后放回的先取出) 2.有效手续费率从高到低 3.进入队列的先后顺序
+ * Ordering: 1.transactions put back with offerFirst (last in, first out) 2.effective fee rate descending 3.arrival order
+ * <p>
+ * 同一账户资产的nonce链中, 子交易的有效费率不会高于其父交易, 保证父交易总是先被取出
+ * Within a nonce chain of one account asset, a child's effective fee rate never exceeds its parent's,
+ * so a parent is always polled before the transactions spending its nonce.
+ */
+public class PackableTxQueue {
+
+    private static final Comparator<Entry> ORDER = (e1, e2) -> {
+        if (e1.front != e2.front) {
+            return e1.front ? -1 : 1;
+        }
+        if (!e1.front && e1.effectiveFeeRate != e2.effectiveFeeRate) {
+            return e1.effectiveFeeRate > e2.effectiveFeeRate ? -1 : 1;
+        }
+        return Long.compare(e1.seq, e2.seq);
+    };
+
+    /**
+     * 所有待打包交易(包括正在打包中的交易)
+     * All packable transactions, including the ones currently being packed
+     */
+    private final Map<ByteArrayWrapper, Entry> txMap = new HashMap<>();
+
+    /**
+     * 可取出的交易, 按优先级排序
+     * Transactions that can be polled, in priority order
+     */
+    private final TreeSet<Entry> queue = new TreeSet<>(ORDER);
+
+    /**
+     * key:交易产生的nonce(地址+资产+nonce), value:产生该nonce的交易
+     * key: the nonce a transaction produces (address + asset + nonce), value: the producing transaction
+     */
+    private final Map<ByteArrayWrapper, Entry> nonceIndex = new HashMap<>();
+
+    private long seq = 0L;
+    private long frontSeq = 0L;
+    private long dataSize = 0L;
+
+    /**
+     * 将交易加入队列, 交易已在队列中则忽略, 已被取出则重新放回
+     * Add a transaction to the queue. Ignored if it is already queued, re-queued if it was polled.
+     *
+     * @param tx      交易
+     * @param feeRate 手续费率 fee rate
+     * @param front   是否放入最前端 whether to put it in front of everything else
+     */
+    public synchronized void offer(Transaction tx, long feeRate, boolean front) {
+        ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
+        Entry entry = txMap.get(hash);
+        if (null == entry) {
+            entry = new Entry(hash, tx, tx.size());
+            entry.effectiveFeeRate = feeRate;
+            index(entry);
+            txMap.put(hash, entry);
+            dataSize += entry.size;
+        } else if (entry.queued) {
+            return;
+        }
+        enqueue(entry, front);
+    }
+
+    /**
+     * 将已存在于map中的交易重新放回队列最前端, 交易已被确认或清理则忽略
+     * Put a transaction that is still in the map back to the front of the queue; ignored once it was confirmed or removed
+     */
+    public synchronized boolean offerFirstIfPresent(Transaction tx) {
+        Entry entry = txMap.get(new ByteArrayWrapper(tx.getHash().getBytes()));
+        if (null == entry) {
+            return false;
+        }
+        if (entry.queued) {
+            queue.remove(entry);
+        }
+        enqueue(entry, true);
+        return true;
+    }
+
+    /**
+     * 取出优先级最高的交易, 交易仍保留在map中直到被确认或清理
+     * Poll the highest priority transaction; it stays in the map until confirmed or removed
+     */
+    public synchronized Transaction poll() {
+        return dequeue(queue.pollFirst());
+    }
+
+    /**
+     * 取出优先级最低的交易
+     * Poll the lowest priority transaction
+     */
+    public synchronized Transaction pollLast() {
+        return dequeue(queue.pollLast());
+    }
+
+    /**
+     * 从map与队列中彻底移除交易
+     * Remove a transaction from both the map and the queue
+     */
+    public synchronized boolean remove(byte[] hash) {
+        Entry entry = txMap.remove(new ByteArrayWrapper(hash));
+        if (null == entry) {
+            return false;
+        }
+        if (entry.queued) {
+            queue.remove(entry);
+        }
+        for (ByteArrayWrapper key : entry.producedNonces) {
+            if (nonceIndex.get(key) == entry) {
+                nonceIndex.remove(key);
+            }
+        }
+        dataSize -= entry.size;
+        return true;
+    }
+
+    /**
+     * 数据总大小超过上限时, 从队尾淘汰优先级最低的交易(正在打包的与放回最前端的交易不会被淘汰)
+     * When the total data size exceeds the limit, evict the lowest priority transactions from the tail of the queue.
+     * Transactions being packed or put back in front are never evicted.
+     *
+     * @param maxDataSize 数据总大小上限 (B)
+     * @return 被淘汰的交易 evicted transactions
+     */
+    public synchronized List<Transaction> evict(long maxDataSize) {
+        if (dataSize <= maxDataSize) {
+            return Collections.emptyList();
+        }
+        List<Transaction> evicted = new ArrayList<>();
+        while (dataSize > maxDataSize && !queue.isEmpty() && !queue.last().front) {
+            Entry entry = queue.last();
+            remove(entry.hash.getBytes());
+            evicted.add(entry.tx);
+        }
+        return evicted;
+    }
+
+    /**
+     * 队列中可被淘汰的最低有效费率, 没有可淘汰交易时返回-1
+     * The lowest effective fee rate that can be evicted, -1 when nothing can be evicted
+     */
+    public synchronized long lowestFeeRate() {
+        if (queue.isEmpty() || queue.last().front) {
+            return -1L;
+        }
+        return queue.last().effectiveFeeRate;
+    }
+
+    public synchronized boolean contains(byte[] hash) {
+        return txMap.containsKey(new ByteArrayWrapper(hash));
+    }
+
+    /**
+     * 清空可取出的队列, map中的交易保留
+     * Clear the pollable queue, transactions in the map are kept
+     */
+    public synchronized void clearQueue() {
+        for (Entry entry : queue) {
+            entry.queued = false;
+        }
+        queue.clear();
+    }
+
+    public synchronized int queueSize() {
+        return queue.size();
+    }
+
+    public synchronized int size() {
+        return txMap.size();
+    }
+
+    /**
+     * map中所有交易的数据总大小 (B)
+     * Total serialized size of all transactions in the map (B)
+     */
+    public synchronized long dataSize() {
+        return dataSize;
+    }
+
+    private void enqueue(Entry entry, boolean front) {
+        entry.front = front;
+        entry.seq = front ? --frontSeq : ++seq;
+        entry.queued = true;
+        queue.add(entry);
+    }
+
+    private Transaction dequeue(Entry entry) {
+        if (null == entry) {
+            return null;
+        }
+        entry.queued = false;
+        return entry.tx;
+    }
+
+    /**
+     * 建立nonce索引, 并用父交易的有效费率限制当前交易的有效费率
+     * Index the nonces this transaction produces and cap its effective fee rate by its parents'
+     */
+    private void index(Entry entry) {
+        CoinData coinData;
+        try {
+            coinData = entry.tx.getCoinDataInstance();
+        } catch (NulsException e) {
+            return;
+        }
+        if (null == coinData || coinData.getFrom() == null || coinData.getFrom().isEmpty()) {
+            return;
+        }
+        byte[] producedNonce = TxUtil.getNonce(entry.hash.getBytes());
+        List<ByteArrayWrapper> produced = new ArrayList<>(coinData.getFrom().size());
+        for (CoinFrom from : coinData.getFrom()) {
+            Entry parent = nonceIndex.get(nonceKey(from, from.getNonce()));
+            if (null != parent && parent.effectiveFeeRate < entry.effectiveFeeRate) {
+                entry.effectiveFeeRate = parent.effectiveFeeRate;
+            }
+            produced.add(nonceKey(from, producedNonce));
+        }
+        for (ByteArrayWrapper key : produced) {
+            nonceIndex.put(key, entry);
+        }
+        entry.producedNonces = produced;
+    }
+
+    private static ByteArrayWrapper nonceKey(CoinFrom from, byte[] nonce) {
+        byte[] address = from.getAddress();
+        byte[] key = new byte[address.length + 8 + nonce.length];
+        System.arraycopy(address, 0, key, 0, address.length);
+        int offset = address.length;
+        int assetsChainId = from.getAssetsChainId();
+        int assetsId = from.getAssetsId();
+        for (int i = 0; i < 4; i++) {
+            key[offset + i] = (byte) (assetsChainId >>> (i * 8));
+            key[offset + 4 + i] = (byte) (assetsId >>> (i * 8));
+        }
+        System.arraycopy(nonce, 0, key, offset + 8, nonce.length);
+        return new ByteArrayWrapper(key);
+    }
+
+    private static class Entry {
+        private final ByteArrayWrapper hash;
+        private final Transaction tx;
+        private final int size;
+        private long effectiveFeeRate;
+        private List<ByteArrayWrapper> producedNonces = Collections.emptyList();
+        private boolean front;
+        private boolean queued;
+        private long seq;
+
+        private Entry(ByteArrayWrapper hash, Transaction tx, int size) {
+            this.hash = hash;
+            this.tx = tx;
+            this.size = size;
+        }
+    }
+}
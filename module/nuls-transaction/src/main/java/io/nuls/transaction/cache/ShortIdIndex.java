@@ -0,0 +1,56 @@
+package io.nuls.transaction.cache;
+
+import com.google.common.hash.HashFunction;
+import io.nuls.base.data.CompactBlock;
+import io.nuls.core.model.ByteArrayWrapper;
+
+import java.util.*;
+
+/**
+ * 未确认交易hash集合, 随交易存入或移出未确认库增量维护, 用于还原紧凑区块
+ * 短id按区块的盐计算, 收到紧凑区块时对集合中的每个交易计算短id; 多个交易对应同一短id时, 该短id不返回任何交易
+ * Hash set of unconfirmed transactions, maintained incrementally as transactions are put into or removed from
+ * unconfirmed storage, used to rebuild compact blocks.
+ * Short ids are salted per block, so they are computed for every transaction in the set when a compact block arrives.
+ * A short id shared by more than one transaction resolves to nothing.
+ */
+public class ShortIdIndex {
+
+    private final Set<ByteArrayWrapper> hashSet = new HashSet<>();
+
+    public synchronized void add(byte[] txHash) {
+        hashSet.add(new ByteArrayWrapper(txHash));
+    }
+
+    public synchronized void remove(byte[] txHash) {
+        hashSet.remove(new ByteArrayWrapper(txHash));
+    }
+
+    /**
+     * 查找短id对应的交易hash, 未命中与冲突的短id不返回
+     * Look up the transaction hashes of the short ids, missing and colliding short ids are left out
+     *
+     * @param function 区块的短id函数/short id function of the block
+     * @param shortIds 短id/short ids
+     */
+    public synchronized List<byte[]> get(HashFunction function, Collection<Long> shortIds) {
+        Set<Long> shortIdSet = shortIds instanceof Set ? (Set<Long>) shortIds : new HashSet<>(shortIds);
+        Map<Long, byte[]> matched = new HashMap<>(shortIdSet.size());
+        Set<Long> collisions = new HashSet<>();
+        for (ByteArrayWrapper wrapper : hashSet) {
+            byte[] hash = wrapper.getBytes();
+            long shortId = CompactBlock.shortId(function, hash);
+            if (shortIdSet.contains(shortId) && matched.put(shortId, hash) != null) {
+                collisions.add(shortId);
+            }
+        }
+        for (Long shortId : collisions) {
+            matched.remove(shortId);
+        }
+        return new ArrayList<>(matched.values());
+    }
+
+    public synchronized int size() {
+        return hashSet.size();
+    }
+}
@@ -56,9 +56,13 @@ public interface TxConstant {
 
     int CACHED_SIZE = 50000;
 
-    /** 待打包队列存储交易的map 所有交易size 最大限制 (B)*/
+    /** 交易hash去重过滤器: 每个分片的容量, 分片数量, 单个分片的误判率 */
+    int TX_DUPLICATE_FILTER_CAPACITY = 500000;
+    int TX_DUPLICATE_FILTER_SLICES = 2;
+    double TX_DUPLICATE_FILTER_FPP = 0.000001D;
+
+    /** 待打包队列存储交易的map 所有交易size 压力阈值与最大限制 (B)*/
     int PACKABLE_TX_MAP_STRESS_DATA_SIZE = 150000 * 300;
-    int PACKABLE_TX_MAP_HEAVY_DATA_SIZE = 200000 * 300;
     int PACKABLE_TX_MAP_MAX_DATA_SIZE = 250000 * 300;
 
     int ORPHAN_LIST_MAX_DATA_SIZE = 50000 * 300;
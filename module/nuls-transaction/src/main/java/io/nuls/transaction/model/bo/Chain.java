@@ -2,9 +2,8 @@ package io.nuls.transaction.model.bo;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.nuls.base.data.NulsHash;
-import io.nuls.base.data.Transaction;
 import io.nuls.core.log.logback.NulsLogger;
-import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.transaction.cache.PackableTxQueue;
 import io.nuls.transaction.constant.TxConstant;
 import io.nuls.transaction.model.bo.config.ConfigBean;
 import io.nuls.transaction.model.po.TransactionNetPO;
@@ -12,7 +11,6 @@ import io.nuls.transaction.model.po.TransactionNetPO;
 import java.util.*;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -55,14 +53,9 @@ public class Chain {
     private Map<Integer, TxRegister> txRegisterMap;
 
     /**
-     * 可打包交易hash集合, 交易已完成交易管理模块的校验(打包的时候从这里取)
+     * 可打包交易集合, 按手续费率排序, 交易已完成交易管理模块的校验(打包的时候从这里取)
      */
-    private BlockingDeque<ByteArrayWrapper> packableHashQueue;
-
-    /**
-     * 可打包交易hash对应的交易map
-     */
-    private Map<ByteArrayWrapper, Transaction> packableTxMap;
+    private PackableTxQueue packableTxQueue;
 
 
     /**
@@ -122,8 +115,7 @@ public class Chain {
         this.packableState = new AtomicBoolean(true);
         this.processTxStatus = new AtomicBoolean(false);
         this.txRegisterMap = new ConcurrentHashMap<>(TxConstant.INIT_CAPACITY_32);
-        this.packableHashQueue = new LinkedBlockingDeque<>();
-        this.packableTxMap = new ConcurrentHashMap<>();
+        this.packableTxQueue = new PackableTxQueue();
         this.contractTxFail = false;
         this.txPackageOrphanMap = new HashMap<>();
         this.orphanList = new LinkedList<>();
@@ -169,20 +161,12 @@ public class Chain {
         this.txRegisterMap = txRegisterMap;
     }
 
-    public BlockingDeque<ByteArrayWrapper> getPackableHashQueue() {
-        return packableHashQueue;
-    }
-
-    public void setPackableHashQueue(BlockingDeque<ByteArrayWrapper> packableHashQueue) {
-        this.packableHashQueue = packableHashQueue;
-    }
-
-    public Map<ByteArrayWrapper, Transaction> getPackableTxMap() {
-        return packableTxMap;
+    public PackableTxQueue getPackableTxQueue() {
+        return packableTxQueue;
     }
 
-    public void setPackableTxMap(Map<ByteArrayWrapper, Transaction> packableTxMap) {
-        this.packableTxMap = packableTxMap;
+    public void setPackableTxQueue(PackableTxQueue packableTxQueue) {
+        this.packableTxQueue = packableTxQueue;
     }
 
     public long getBestBlockHeight() {
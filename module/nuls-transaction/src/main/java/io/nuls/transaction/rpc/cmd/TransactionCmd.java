@@ -1,16 +1,20 @@
 package io.nuls.transaction.rpc.cmd;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.google.common.cache.CacheStats;
 import io.nuls.base.RPCUtil;
 import io.nuls.base.data.BlockHeader;
+import io.nuls.base.data.CompactBlock;
 import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.Transaction;
 import io.nuls.base.protocol.TxRegisterDetail;
+import io.nuls.base.signture.VerifiedSignatureCache;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.model.ObjectUtils;
 import io.nuls.core.parse.JSONUtils;
+import io.nuls.core.parse.SerializeUtils;
 import io.nuls.core.rpc.cmd.BaseCmd;
 import io.nuls.core.rpc.model.*;
 import io.nuls.core.rpc.model.message.Response;
@@ -27,12 +31,10 @@ import io.nuls.transaction.model.dto.ModuleTxRegisterDTO;
 import io.nuls.transaction.model.po.TransactionConfirmedPO;
 import io.nuls.transaction.service.ConfirmedTxService;
 import io.nuls.transaction.service.TxService;
+import io.nuls.transaction.storage.UnconfirmedTxStorageService;
 import io.nuls.transaction.utils.TxUtil;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 import static io.nuls.transaction.utils.LoggerUtil.LOG;
 
@@ -51,6 +53,8 @@ public class TransactionCmd extends BaseCmd {
     private ChainManager chainManager;
     @Autowired
     private PackablePool packablePool;
+    @Autowired
+    private UnconfirmedTxStorageService unconfirmedTxStorageService;
 
     @CmdAnnotation(cmd = TxCmd.TX_REGISTER, version = 1.0, description = "注册模块交易/Register module transactions")
     @Parameters(value = {
@@ -515,6 +519,53 @@ public class TransactionCmd extends BaseCmd {
     }
 
 
+    @CmdAnnotation(cmd = TxCmd.TX_GET_TXS_BY_SHORT_IDS, version = 1.0, binaryParams = true,
+            description = "根据紧凑区块的短id, 从未确认交易中获取交易/Get unconfirmed transactions by compact block short ids")
+    @Parameters(value = {
+            @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链id"),
+            @Parameter(parameterName = "blockHash", requestType = @TypeDescriptor(value = String.class), parameterDes = "区块hash"),
+            @Parameter(parameterName = "nonce", requestType = @TypeDescriptor(value = long.class), parameterDes = "短id的盐"),
+            @Parameter(parameterName = "shortIds", requestType = @TypeDescriptor(value = String.class), parameterDes = "短id, 每个6字节")
+    })
+    @ResponseData(name = "返回值", description = "返回一个Map", responseType = @TypeDescriptor(value = Map.class, mapKeys = {
+            @Key(name = "txList", valueType = List.class, valueElement = String.class, description = "返回交易序列化数据字符串集合")
+    }))
+    public Response getTxsByShortIds(Map params) {
+        Chain chain = null;
+        try {
+            ObjectUtils.canNotEmpty(params.get("chainId"), TxErrorCode.PARAMETER_ERROR.getMsg());
+            ObjectUtils.canNotEmpty(params.get("blockHash"), TxErrorCode.PARAMETER_ERROR.getMsg());
+            ObjectUtils.canNotEmpty(params.get("nonce"), TxErrorCode.PARAMETER_ERROR.getMsg());
+            ObjectUtils.canNotEmpty(params.get("shortIds"), TxErrorCode.PARAMETER_ERROR.getMsg());
+            chain = chainManager.getChain((Integer) params.get("chainId"));
+            if (null == chain) {
+                throw new NulsException(TxErrorCode.CHAIN_NOT_FOUND);
+            }
+            NulsHash blockHash = NulsHash.fromHex((String) params.get("blockHash"));
+            long nonce = Long.parseLong(params.get("nonce").toString());
+            byte[] shortIdBytes = RPCUtil.decodeParam(params.get("shortIds"));
+            int shortIdLength = SerializeUtils.sizeOfUint48();
+            Set<Long> shortIds = new HashSet<>(shortIdBytes.length / shortIdLength);
+            for (int i = 0; i + shortIdLength <= shortIdBytes.length; i += shortIdLength) {
+                shortIds.add(SerializeUtils.readUint48(shortIdBytes, i));
+            }
+            List<Transaction> txs = unconfirmedTxStorageService.getTxListByShortIds(chain.getChainId(), CompactBlock.shortIdFunction(blockHash, nonce), shortIds);
+            List<String> txList = new ArrayList<>(txs.size());
+            for (Transaction tx : txs) {
+                txList.add(RPCUtil.encode(tx.serialize()));
+            }
+            Map<String, List<String>> resultMap = new HashMap<>(TxConstant.INIT_CAPACITY_2);
+            resultMap.put("txList", txList);
+            return success(resultMap);
+        } catch (NulsException e) {
+            errorLogProcess(chain, e);
+            return failed(e.getErrorCode());
+        } catch (Exception e) {
+            errorLogProcess(chain, e);
+            return failed(TxErrorCode.SYS_UNKOWN_EXCEPTION);
+        }
+    }
+
     @CmdAnnotation(cmd = TxCmd.TX_GET_NONEXISTENT_UNCONFIRMED_HASHS, version = 1.0, description = "查询传入的交易hash中,不在未确认库中的交易hash/Get nonexistent unconfirmed transaction hashs")
     @Parameters(value = {
             @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链id"),
@@ -692,6 +743,46 @@ public class TransactionCmd extends BaseCmd {
         }
     }
 
+    /**
+     * 已验证签名缓存的命中统计
+     * Hit statistics of the verified signature cache
+     * @param params
+     * @return
+     */
+    @CmdAnnotation(cmd = TxCmd.TX_SIGNATURE_CACHE_STATS, version = 1.0, description = "已验证签名缓存统计/Verified signature cache statistics")
+    @Parameters(value = {
+            @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链id")
+    })
+    @ResponseData(name = "返回值", description = "返回一个Map", responseType = @TypeDescriptor(value = Map.class, mapKeys = {
+            @Key(name = "hitCount", valueType = long.class, description = "命中次数"),
+            @Key(name = "missCount", valueType = long.class, description = "未命中次数"),
+            @Key(name = "hitRate", valueType = double.class, description = "命中率"),
+            @Key(name = "evictionCount", valueType = long.class, description = "淘汰次数")
+    }))
+    public Response signatureCacheStats(Map params) {
+        Chain chain = null;
+        try {
+            ObjectUtils.canNotEmpty(params.get("chainId"), TxErrorCode.PARAMETER_ERROR.getMsg());
+            chain = chainManager.getChain((Integer) params.get("chainId"));
+            if (null == chain) {
+                throw new NulsException(TxErrorCode.CHAIN_NOT_FOUND);
+            }
+            CacheStats stats = VerifiedSignatureCache.stats();
+            Map<String, Object> resultMap = new HashMap<>(TxConstant.INIT_CAPACITY_8);
+            resultMap.put("hitCount", stats.hitCount());
+            resultMap.put("missCount", stats.missCount());
+            resultMap.put("hitRate", stats.hitRate());
+            resultMap.put("evictionCount", stats.evictionCount());
+            return success(resultMap);
+        } catch (NulsException e) {
+            errorLogProcess(chain, e);
+            return failed(e.getErrorCode());
+        } catch (Exception e) {
+            errorLogProcess(chain, e);
+            return failed(TxErrorCode.SYS_UNKOWN_EXCEPTION);
+        }
+    }
+
     private void errorLogProcess(Chain chain, Exception e) {
         if (chain == null) {
             LOG.error(e);
@@ -329,13 +329,7 @@ public class ConfirmedTxServiceImpl implements ConfirmedTxService {
         }
         //计算待打包队列大小倒序放入未确认库, 和待打包队列
 
-        int packableTxMapDataSize = 0;
-        if(chain.getPackaging().get()) {
-            //是打包节点才计算待打包队列的当前容量
-            for (Transaction tx : chain.getPackableTxMap().values()) {
-                packableTxMapDataSize += tx.size();
-            }
-        }
+        long packableTxMapDataSize = packablePool.packableTxMapDataSize(chain);
         for (int i = txList.size() - 1; i >= 0; i--) {
             Transaction tx = txList.get(i);
             if(!TxManager.isSystemTx(chain, tx)) {
@@ -42,7 +42,6 @@ import io.nuls.core.crypto.HexUtil;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.log.logback.NulsLogger;
 import io.nuls.core.model.BigIntegerUtils;
-import io.nuls.core.model.ByteArrayWrapper;
 import io.nuls.core.parse.JSONUtils;
 import io.nuls.core.parse.SerializeUtils;
 import io.nuls.core.rpc.model.ModuleE;
@@ -99,7 +98,9 @@ public class TxServiceImpl implements TxService {
     @Autowired
     private TxConfig txConfig;
 
-    private ExecutorService verifySignExecutor = ThreadUtils.createThreadPool(Runtime.getRuntime().availableProcessors(), CACHED_SIZE, new NulsThreadFactory(TxConstant.VERIFY_TX_SIGN_THREAD));
+    private static final int VERIFY_SIGN_THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+
+    private ExecutorService verifySignExecutor = ThreadUtils.createThreadPool(VERIFY_SIGN_THREAD_COUNT, CACHED_SIZE, new NulsThreadFactory(TxConstant.VERIFY_TX_SIGN_THREAD));
 
     @Override
     public boolean register(Chain chain, ModuleTxRegisterDTO moduleTxRegisterDto) {
@@ -196,7 +197,7 @@ public class TxServiceImpl implements TxService {
                 throw new NulsException(TxErrorCode.TX_BROADCAST_FAIL);
             }
             //加入去重过滤集合,防止其他节点转发回来再次处理该交易
-            TxDuplicateRemoval.insertAndCheck(hash.toHex());
+            TxDuplicateRemoval.insertAndCheck(hash);
 
         } catch (IOException e) {
             throw new NulsException(TxErrorCode.DESERIALIZE_ERROR);
@@ -1503,17 +1504,26 @@ public class TxServiceImpl implements TxService {
         set.addAll(unconfirmedList);
         unconfirmedList = null;
         long d = 0L;
+        List<Transaction> verifyTxList = new ArrayList<>();
         for (TxVerifyWrapper txVerifyWrapper : txList) {
             Transaction tx = txVerifyWrapper.getTx();
             tx.setBlockHeight(blockHeight);
             //能加入表明未确认中没有,则需要处理
             if (set.add(tx.getHash().toHex())) {
-                long d1 = System.currentTimeMillis();
-                //不在未确认中就进行基础验证
-                //多线程处理单个交易
-                Future<Boolean> res = verifySignExecutor.submit(new Callable<Boolean>() {
-                    @Override
-                    public Boolean call() {
+                verifyTxList.add(tx);
+            }
+        }
+        //不在未确认中就进行基础验证, 按线程数分组多线程处理
+        //每组先批量验证全部签名, 验证通过的记入已验证签名缓存, 组内单个交易验证时不再重复验证签名
+        int groupSize = (verifyTxList.size() + VERIFY_SIGN_THREAD_COUNT - 1) / VERIFY_SIGN_THREAD_COUNT;
+        for (int i = 0; i < verifyTxList.size(); i += groupSize) {
+            long d1 = System.currentTimeMillis();
+            List<Transaction> group = verifyTxList.subList(i, Math.min(i + groupSize, verifyTxList.size()));
+            Future<Boolean> res = verifySignExecutor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    SignatureUtil.verifyBatch(group);
+                    for (Transaction tx : group) {
                         try {
                             //只验证单个交易的基础内容(TX模块本地验证)
                             TxRegister txRegister = TxManager.getTxRegister(chain, tx.getType());
@@ -1526,12 +1536,12 @@ public class TxServiceImpl implements TxService {
                             logger.error(e);
                             return false;
                         }
-                        return true;
                     }
-                });
-                futures.add(res);
-                d += (System.currentTimeMillis() - d1);
-            }
+                    return true;
+                }
+            });
+            futures.add(res);
+            d += (System.currentTimeMillis() - d1);
         }
 
         if (logger.isDebugEnabled()) {
@@ -1743,9 +1753,6 @@ public class TxServiceImpl implements TxService {
     @Override
     public void clearInvalidTx(Chain chain, Transaction tx, boolean changeStatus) {
         unconfirmedTxStorageService.removeTx(chain.getChainId(), tx.getHash());
-        //从待打包队里存交易的map中移除
-        ByteArrayWrapper wrapper = new ByteArrayWrapper(tx.getHash().getBytes());
-        chain.getPackableTxMap().remove(wrapper);
         //从待打包队列中存实际交易的的map中移除该笔交易
         packablePool.removeInvalidTxFromMap(chain, tx);
         //判断如果交易已被确认就不用调用账本清理了!!
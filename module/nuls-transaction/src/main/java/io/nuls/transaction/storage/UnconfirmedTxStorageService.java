@@ -1,10 +1,12 @@
 package io.nuls.transaction.storage;
 
+import com.google.common.hash.HashFunction;
 import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.Transaction;
 import io.nuls.transaction.model.po.TransactionNetPO;
 import io.nuls.transaction.model.po.TransactionUnconfirmedPO;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -80,6 +82,16 @@ public interface UnconfirmedTxStorageService {
      */
     List<Transaction> getTxList(int chainId, List<byte[]> hashList);
 
+    /**
+     * 根据紧凑区块的短id查询未确认交易, 未命中与多个交易共用的短id不返回
+     *
+     * @param chainId
+     * @param function 区块的短id函数
+     * @param shortIds 短id
+     * @return 交易数据列表
+     */
+    List<Transaction> getTxListByShortIds(int chainId, HashFunction function, Collection<Long> shortIds);
+
     /**
      * 根据交易hash批量删除已验证交易数据
      *
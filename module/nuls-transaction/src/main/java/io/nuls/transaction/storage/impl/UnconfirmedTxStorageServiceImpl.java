@@ -1,5 +1,6 @@
 package io.nuls.transaction.storage.impl;
 
+import com.google.common.hash.HashFunction;
 import io.nuls.base.basic.NulsByteBuffer;
 import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.Transaction;
@@ -10,16 +11,15 @@ import io.nuls.core.exception.NulsRuntimeException;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.core.rpc.util.NulsDateUtils;
+import io.nuls.transaction.cache.ShortIdIndex;
 import io.nuls.transaction.constant.TxDBConstant;
 import io.nuls.transaction.constant.TxErrorCode;
 import io.nuls.transaction.model.po.TransactionNetPO;
 import io.nuls.transaction.model.po.TransactionUnconfirmedPO;
 import io.nuls.transaction.storage.UnconfirmedTxStorageService;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.nuls.transaction.utils.LoggerUtil.LOG;
 
@@ -33,6 +33,23 @@ import static io.nuls.transaction.utils.LoggerUtil.LOG;
 @Component
 public class UnconfirmedTxStorageServiceImpl implements UnconfirmedTxStorageService {
 
+    /**
+     * 每条链未确认交易的hash集合, 用于匹配紧凑区块的短id, 首次使用时从未确认库加载
+     * Hash set of the unconfirmed transactions of each chain used to match compact block short ids, loaded from
+     * storage on first use
+     */
+    private final Map<Integer, ShortIdIndex> shortIdIndexMap = new ConcurrentHashMap<>();
+
+    private ShortIdIndex getShortIdIndex(int chainId) {
+        return shortIdIndexMap.computeIfAbsent(chainId, k -> {
+            ShortIdIndex shortIdIndex = new ShortIdIndex();
+            for (byte[] hash : getAllTxkeyList(chainId)) {
+                shortIdIndex.add(hash);
+            }
+            return shortIdIndex;
+        });
+    }
+
     @Override
     public boolean putTx(int chainId, Transaction tx) {
         if (tx == null) {
@@ -47,6 +64,9 @@ public class UnconfirmedTxStorageServiceImpl implements UnconfirmedTxStorageServ
         } catch (Exception e) {
             LOG.error(e);
         }
+        if (result) {
+            getShortIdIndex(chainId).add(txHashBytes);
+        }
         return result;
     }
 
@@ -63,7 +83,14 @@ public class UnconfirmedTxStorageServiceImpl implements UnconfirmedTxStorageServ
                 //序列化对象为byte数组存储
                 txPOMap.put(tx.getHash().getBytes(), txPO.serialize());
             }
-            return RocksDBService.batchPut(TxDBConstant.DB_TRANSACTION_UNCONFIRMED_PREFIX + chainId, txPOMap);
+            boolean result = RocksDBService.batchPut(TxDBConstant.DB_TRANSACTION_UNCONFIRMED_PREFIX + chainId, txPOMap);
+            if (result) {
+                ShortIdIndex shortIdIndex = getShortIdIndex(chainId);
+                for (byte[] hash : txPOMap.keySet()) {
+                    shortIdIndex.add(hash);
+                }
+            }
+            return result;
         } catch (Exception e) {
             LOG.error(e.getMessage());
             throw new NulsRuntimeException(TxErrorCode.DB_SAVE_BATCH_ERROR);
@@ -128,6 +155,9 @@ public class UnconfirmedTxStorageServiceImpl implements UnconfirmedTxStorageServ
         } catch (Exception e) {
             LOG.error(e);
         }
+        if (result) {
+            getShortIdIndex(chainId).remove(hash);
+        }
         return result;
     }
 
@@ -156,6 +186,15 @@ public class UnconfirmedTxStorageServiceImpl implements UnconfirmedTxStorageServ
         return txList;
     }
 
+    @Override
+    public List<Transaction> getTxListByShortIds(int chainId, HashFunction function, Collection<Long> shortIds) {
+        List<byte[]> hashList = getShortIdIndex(chainId).get(function, shortIds);
+        if (hashList.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return getTxList(chainId, hashList);
+    }
+
     @Override
     public boolean removeTxList(int chainId, List<byte[]> hashList) {
         //check params
@@ -165,7 +204,14 @@ public class UnconfirmedTxStorageServiceImpl implements UnconfirmedTxStorageServ
 
         try {
             //delete transaction
-            return RocksDBService.deleteKeys(TxDBConstant.DB_TRANSACTION_UNCONFIRMED_PREFIX + chainId, hashList);
+            boolean result = RocksDBService.deleteKeys(TxDBConstant.DB_TRANSACTION_UNCONFIRMED_PREFIX + chainId, hashList);
+            if (result) {
+                ShortIdIndex shortIdIndex = getShortIdIndex(chainId);
+                for (byte[] hash : hashList) {
+                    shortIdIndex.remove(hash);
+                }
+            }
+            return result;
         } catch (Exception e) {
             LOG.error(e);
         }
@@ -88,18 +88,13 @@ public class NetTxProcessTask implements Runnable {
                 //分组 调验证器
                 Map<String, List<String>> moduleVerifyMap = new HashMap<>(TxConstant.INIT_CAPACITY_8);
                 Iterator<TransactionNetPO> it = txNetList.iterator();
-                int packableTxMapDataSize = 0;
-                for(Transaction tx : chain.getPackableTxMap().values()){
-                    packableTxMapDataSize += tx.size();
-                }
                 while (it.hasNext()) {
                     TransactionNetPO txNetPO = it.next();
                     Transaction tx = txNetPO.getTx();
                     //待打包队列map超过预定值,则不再接受处理交易,直接转发交易完整交易
-                    if (TxUtil.discardTx(chain, packableTxMapDataSize, tx)) {
+                    if (packablePool.discard(chain, tx)) {
                         //待打包队列map超过预定值, 不处理转发失败的情况
-                        String hash = tx.getHash().toHex();
-                        NetworkCall.broadcastTx(chain, tx, TxDuplicateRemoval.getExcludeNode(hash));
+                        NetworkCall.broadcastTx(chain, tx, TxDuplicateRemoval.getExcludeNode(tx.getHash()));
                         it.remove();
                         continue;
                     }
@@ -119,8 +114,7 @@ public class NetTxProcessTask implements Runnable {
                         packablePool.add(chain, tx);
                     }
                     //网络交易不处理转发失败的情况
-                    String hash = tx.getHash().toHex();
-                    NetworkCall.forwardTxHash(chain, tx.getHash(), TxDuplicateRemoval.getExcludeNode(hash));
+                    NetworkCall.forwardTxHash(chain, tx.getHash(), TxDuplicateRemoval.getExcludeNode(tx.getHash()));
                 }
             } catch (Exception e) {
                 chain.getLogger().error(e);
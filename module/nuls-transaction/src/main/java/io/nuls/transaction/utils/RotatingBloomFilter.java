@@ -0,0 +1,176 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.nuls.transaction.utils;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 按分片轮换的无锁布隆过滤器, 用于交易hash去重
+ * Lock-free rotating bloom filter used to de-duplicate transaction hashes.
+ * <p>
+ * 过滤器由若干分片组成, 新元素写入最新分片, 最新分片写满后淘汰最旧的分片.
+ * 因此最近插入的 capacity*(slices-1) 到 capacity*slices 个元素始终可查, 误判率不超过 slices*fpp.
+ * The filter is made of several slices. New elements go into the newest slice, and when it is full
+ * the oldest slice is dropped, so the most recent capacity*(slices-1) to capacity*slices elements
+ * are always remembered with a false-positive rate of at most slices*fpp.
+ * <p>
+ * 输入为密码学hash, 直接取其字节并与进程内随机种子混合作为哈希值, 不做额外摘要计算.
+ * Inputs are cryptographic hashes, so their bytes are mixed with a per-process random seed
+ * instead of being digested again.
+ */
+public class RotatingBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final int capacity;
+    private final int bits;
+    private final int hashFunctions;
+    private final long seed;
+    private final AtomicReference<Slice[]> slices;
+
+    /**
+     * @param capacity 每个分片的元素个数 elements per slice
+     * @param slices   分片数量 number of slices, at least 2
+     * @param fpp      每个分片写满时的误判率 false-positive probability of a full slice
+     */
+    public RotatingBloomFilter(int capacity, int slices, double fpp) {
+        if (capacity <= 0 || slices < 2 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException();
+        }
+        this.capacity = capacity;
+        long m = (long) Math.ceil(-capacity * Math.log(fpp) / (LN2 * LN2));
+        this.bits = (int) Math.min(Math.max(m, Long.SIZE), Integer.MAX_VALUE - Long.SIZE);
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bits / capacity * LN2));
+        this.seed = new SecureRandom().nextLong();
+        Slice[] array = new Slice[slices];
+        for (int i = 0; i < slices; i++) {
+            array[i] = new Slice(bits);
+        }
+        this.slices = new AtomicReference<>(array);
+    }
+
+    /**
+     * 加入，返回false则表示已存在(或误判为已存在)
+     * Insert the hash, false means it already exists (or is a false positive)
+     * <p>
+     * 并发插入同一元素时可能有多个线程返回true, 调用方需能容忍偶尔的重复处理
+     * Concurrent inserts of the same element may both return true, callers must tolerate an occasional duplicate
+     */
+    public boolean insertAndCheck(byte[] hash) {
+        long h1 = mix(readLong(hash, 0) ^ seed);
+        long h2 = mix(readLong(hash, 8) + seed) | 1L;
+        Slice[] current = slices.get();
+        for (int i = 1; i < current.length; i++) {
+            if (current[i].contains(h1, h2)) {
+                return false;
+            }
+        }
+        Slice newest = current[0];
+        if (!newest.add(h1, h2)) {
+            return false;
+        }
+        if (newest.count.incrementAndGet() == capacity) {
+            rotate(current);
+        }
+        return true;
+    }
+
+    public boolean contains(byte[] hash) {
+        long h1 = mix(readLong(hash, 0) ^ seed);
+        long h2 = mix(readLong(hash, 8) + seed) | 1L;
+        for (Slice slice : slices.get()) {
+            if (slice.contains(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 最新分片写满后, 丢弃最旧的分片并放入一个新的空分片, 只有一个线程能完成轮换
+     * Once the newest slice is full, drop the oldest one and start a new empty slice; only one thread wins the swap
+     */
+    private void rotate(Slice[] expected) {
+        Slice[] next = new Slice[expected.length];
+        next[0] = new Slice(bits);
+        System.arraycopy(expected, 0, next, 1, expected.length - 1);
+        slices.compareAndSet(expected, next);
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0L;
+        int end = Math.min(bytes.length, offset + 8);
+        for (int i = offset; i < end; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private class Slice {
+        private final AtomicLongArray words;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Slice(int bits) {
+            this.words = new AtomicLongArray((bits + Long.SIZE - 1) / Long.SIZE);
+        }
+
+        private boolean contains(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashFunctions; i++, combined += h2) {
+                int index = (int) ((combined & Long.MAX_VALUE) % bits);
+                if ((words.get(index >>> 6) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return 是否有新置位的bit whether any bit was newly set
+         */
+        private boolean add(long h1, long h2) {
+            boolean changed = false;
+            long combined = h1;
+            for (int i = 0; i < hashFunctions; i++, combined += h2) {
+                int index = (int) ((combined & Long.MAX_VALUE) % bits);
+                int word = index >>> 6;
+                long mask = 1L << index;
+                long value;
+                while (((value = words.get(word)) & mask) == 0) {
+                    if (words.compareAndSet(word, value, value | mask)) {
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+            return changed;
+        }
+    }
+}
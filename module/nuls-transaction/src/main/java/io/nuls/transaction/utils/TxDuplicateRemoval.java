@@ -24,11 +24,16 @@
 
 package io.nuls.transaction.utils;
 
-import io.nuls.core.crypto.HexUtil;
+import io.nuls.base.data.NulsHash;
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.transaction.constant.TxConstant;
 
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * @author: Charlie
@@ -36,10 +41,11 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class TxDuplicateRemoval {
 
-    private static HashSetDuplicateProcessor processorOfTx = new HashSetDuplicateProcessor(1000000);
+    private static RotatingBloomFilter processorOfTx = new RotatingBloomFilter(
+            TxConstant.TX_DUPLICATE_FILTER_CAPACITY, TxConstant.TX_DUPLICATE_FILTER_SLICES, TxConstant.TX_DUPLICATE_FILTER_FPP);
 
-    public static boolean exist(String hash) {
-        return processorOfTx.contains(hash);
+    public static boolean exist(NulsHash hash) {
+        return processorOfTx.contains(hash.getBytes());
     }
 
     /**
@@ -47,50 +53,138 @@ public class TxDuplicateRemoval {
      * @param hash
      * @return
      */
-    public static boolean insertAndCheck(String hash) {
-        return processorOfTx.insertAndCheck(hash);
+    public static boolean insertAndCheck(NulsHash hash) {
+        return processorOfTx.insertAndCheck(hash.getBytes());
     }
 
     /**
      * 记录向本节点发送完整交易的其他网络节点，转发hash时排除掉
+     * 分为当前与上一代两组, 当前组超过指定数量后整体轮换, 上一代仍可查询
+     * Records the nodes that sent us the full transaction so they are excluded when forwarding the hash.
+     * Kept in two generations, the current one rotates out as a whole once it exceeds the limit
      */
-    private static Map<String, StringBuffer> forwardHashExcludeNodesMap = new ConcurrentHashMap<>();
+    private static final AtomicReference<ExcludeNodes[]> excludeNodesGenerations =
+            new AtomicReference<>(new ExcludeNodes[]{new ExcludeNodes(), new ExcludeNodes()});
 
     /**
-     * 超过指定数量则清理
+     * 超过指定数量则轮换
      */
     private static int maxSize = 20000;
 
-    public static void putExcludeNode(String hash, String newExcludeNode){
-        if(forwardHashExcludeNodesMap.size() >= maxSize){
-            forwardHashExcludeNodesMap.clear();
-        }
-        StringBuffer excludeNodes = forwardHashExcludeNodesMap.putIfAbsent(hash, new StringBuffer(newExcludeNode));
-        if(null != excludeNodes){
-            excludeNodes.append(",").append(newExcludeNode);
-            forwardHashExcludeNodesMap.put(hash, excludeNodes);
+    public static void putExcludeNode(NulsHash hash, String newExcludeNode){
+        ExcludeNodes[] generations = excludeNodesGenerations.get();
+        ExcludeNodes current = generations[0];
+        if (current.size() >= maxSize) {
+            excludeNodesGenerations.compareAndSet(generations, new ExcludeNodes[]{new ExcludeNodes(), current});
+            current = excludeNodesGenerations.get()[0];
         }
+        current.put(new ByteArrayWrapper(hash.getBytes()), newExcludeNode);
     }
 
-    public static String getExcludeNode(String hash){
-        StringBuffer excludeNodes = forwardHashExcludeNodesMap.get(hash);
-        if(null != excludeNodes){
-            return excludeNodes.toString();
+    public static String getExcludeNode(NulsHash hash){
+        ByteArrayWrapper key = new ByteArrayWrapper(hash.getBytes());
+        StringBuilder excludeNodes = new StringBuilder();
+        for (ExcludeNodes generation : excludeNodesGenerations.get()) {
+            generation.appendTo(key, excludeNodes);
         }
-        return null;
+        return excludeNodes.length() == 0 ? null : excludeNodes.toString();
     }
 
-    public static void removeExcludeNode(String hash){
-        forwardHashExcludeNodesMap.remove(hash);
+    public static void removeExcludeNode(NulsHash hash){
+        removeExcludeNode(hash.getBytes());
     }
 
     public static void removeExcludeNode(List<byte[]> hashs){
         for(byte[] hash : hashs){
-            forwardHashExcludeNodesMap.remove(HexUtil.encode(hash));
+            removeExcludeNode(hash);
+        }
+    }
+
+    private static void removeExcludeNode(byte[] hash){
+        ByteArrayWrapper key = new ByteArrayWrapper(hash);
+        for (ExcludeNodes generation : excludeNodesGenerations.get()) {
+            generation.remove(key);
         }
     }
 
     public static int sizeExcludeNode(){
-        return forwardHashExcludeNodesMap.size();
+        int size = 0;
+        for (ExcludeNodes generation : excludeNodesGenerations.get()) {
+            size += generation.size();
+        }
+        return size;
+    }
+
+    /**
+     * 一代排除节点记录: 节点id映射为序号, 每个交易hash只保存节点序号的位图(写时复制)
+     * One generation of exclusion records: node ids are mapped to indexes,
+     * and each transaction hash only keeps a copy-on-write bitset of node indexes
+     */
+    private static class ExcludeNodes {
+        private static final int MAX_NODES = 4096;
+        private final Map<String, Integer> nodeIndexes = new ConcurrentHashMap<>();
+        private final AtomicReferenceArray<String> nodes = new AtomicReferenceArray<>(MAX_NODES);
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private final Map<ByteArrayWrapper, long[]> hashNodes = new ConcurrentHashMap<>();
+
+        private void put(ByteArrayWrapper hash, String nodeId) {
+            int index = indexOf(nodeId);
+            if (index < 0) {
+                return;
+            }
+            hashNodes.compute(hash, (k, bitset) -> {
+                int word = index >>> 6;
+                long[] updated = new long[null == bitset ? word + 1 : Math.max(bitset.length, word + 1)];
+                if (null != bitset) {
+                    System.arraycopy(bitset, 0, updated, 0, bitset.length);
+                }
+                updated[word] |= 1L << index;
+                return updated;
+            });
+        }
+
+        private void appendTo(ByteArrayWrapper hash, StringBuilder excludeNodes) {
+            long[] bitset = hashNodes.get(hash);
+            if (null == bitset) {
+                return;
+            }
+            for (int word = 0; word < bitset.length; word++) {
+                long bits = bitset[word];
+                while (bits != 0) {
+                    int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    String nodeId = nodes.get(index);
+                    if (null != nodeId) {
+                        if (excludeNodes.length() > 0) {
+                            excludeNodes.append(",");
+                        }
+                        excludeNodes.append(nodeId);
+                    }
+                }
+            }
+        }
+
+        private int indexOf(String nodeId) {
+            Integer index = nodeIndexes.get(nodeId);
+            if (null != index) {
+                return index;
+            }
+            return nodeIndexes.computeIfAbsent(nodeId, id -> {
+                int next = nextIndex.getAndIncrement();
+                if (next >= MAX_NODES) {
+                    return -1;
+                }
+                nodes.set(next, id);
+                return next;
+            });
+        }
+
+        private void remove(ByteArrayWrapper hash) {
+            hashNodes.remove(hash);
+        }
+
+        private int size() {
+            return hashNodes.size();
+        }
     }
 }
@@ -337,37 +337,6 @@ public class TxUtil {
     }
 
 
-    /**
-     * 根据待打包队列存交易的map交易的数据总和, 来计算是放弃当前交易
-     *
-     * @return
-     */
-    public static boolean discardTx(Chain chain, int packableTxMapDataSize, Transaction tx) {
-        Random random = new Random();
-        //随机0~9
-        int number = random.nextInt(10);
-        if (packableTxMapDataSize >= TxConstant.PACKABLE_TX_MAP_MAX_DATA_SIZE) {
-            //扔100%
-            chain.getLogger().debug("Packable pool tx data size reach the 100% discard transaction threshold, hash:{}", tx.getHash().toHex());
-            return true;
-        } else if (packableTxMapDataSize >= TxConstant.PACKABLE_TX_MAP_HEAVY_DATA_SIZE) {
-            //扔80%
-            if (number < 8) {
-                chain.getLogger().debug("Packable pool tx data size reach the 80% discard transaction threshold, hash:{}", tx.getHash().toHex());
-                return true;
-            }
-        } else if (packableTxMapDataSize >= TxConstant.PACKABLE_TX_MAP_STRESS_DATA_SIZE) {
-            //扔50%
-            if (number < 5) {
-                chain.getLogger().debug("Packable pool tx data size reach the 50% discard transaction threshold, hash:{}", tx.getHash().toHex());
-                return true;
-            }
-        }
-        return false;
-    }
-
-
-
     /**
      * 获取两个集合的不同元素
      *
@@ -0,0 +1,92 @@
+package io.nuls.transaction.cache;
+
+import io.nuls.base.data.CoinData;
+import io.nuls.base.data.CoinFrom;
+import io.nuls.base.data.CoinTo;
+import io.nuls.base.data.Transaction;
+import io.nuls.transaction.constant.TxConstant;
+import io.nuls.transaction.utils.TxUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+public class PackableTxQueueTest {
+
+    private static final byte[] ADDRESS_A = new byte[23];
+    private static final byte[] ADDRESS_B = new byte[23];
+
+    static {
+        ADDRESS_A[22] = 1;
+        ADDRESS_B[22] = 2;
+    }
+
+    private Transaction newTx(byte[] address, byte[] nonce, long time) throws Exception {
+        CoinData coinData = new CoinData();
+        coinData.addFrom(new CoinFrom(address, 2, 1, BigInteger.valueOf(100000), nonce, (byte) 0));
+        coinData.addTo(new CoinTo(ADDRESS_B, 2, 1, BigInteger.ONE));
+        Transaction tx = new Transaction(2);
+        tx.setTime(time);
+        tx.setCoinData(coinData.serialize());
+        return tx;
+    }
+
+    @Test
+    public void feeRateOrder() throws Exception {
+        PackableTxQueue queue = new PackableTxQueue();
+        Transaction low = newTx(ADDRESS_A, TxConstant.DEFAULT_NONCE, 1L);
+        Transaction high = newTx(ADDRESS_B, TxConstant.DEFAULT_NONCE, 2L);
+        Transaction back = newTx(ADDRESS_B, TxConstant.DEFAULT_NONCE, 3L);
+        queue.offer(low, 10L, false);
+        queue.offer(high, 100L, false);
+        queue.offer(back, 1L, true);
+        Assert.assertEquals(3, queue.queueSize());
+        Assert.assertEquals(low.size() + high.size() + back.size(), queue.dataSize());
+
+        Assert.assertEquals(back.getHash(), queue.poll().getHash());
+        Assert.assertEquals(high.getHash(), queue.poll().getHash());
+        Assert.assertTrue(queue.offerFirstIfPresent(high));
+        Assert.assertEquals(high.getHash(), queue.poll().getHash());
+        Assert.assertEquals(low.getHash(), queue.poll().getHash());
+        Assert.assertNull(queue.poll());
+        Assert.assertEquals(3, queue.size());
+
+        queue.remove(high.getHash().getBytes());
+        Assert.assertFalse(queue.offerFirstIfPresent(high));
+        Assert.assertEquals(low.size() + back.size(), queue.dataSize());
+    }
+
+    @Test
+    public void childNeverBeforeParent() throws Exception {
+        PackableTxQueue queue = new PackableTxQueue();
+        Transaction parent = newTx(ADDRESS_A, TxConstant.DEFAULT_NONCE, 1L);
+        Transaction child = newTx(ADDRESS_A, TxUtil.getNonce(parent.getHash().getBytes()), 2L);
+        Transaction other = newTx(ADDRESS_B, TxConstant.DEFAULT_NONCE, 3L);
+        queue.offer(parent, 10L, false);
+        queue.offer(other, 50L, false);
+        queue.offer(child, 100L, false);
+
+        Assert.assertEquals(other.getHash(), queue.poll().getHash());
+        Assert.assertEquals(parent.getHash(), queue.poll().getHash());
+        Assert.assertEquals(child.getHash(), queue.poll().getHash());
+    }
+
+    @Test
+    public void evictLowestFeeRate() throws Exception {
+        PackableTxQueue queue = new PackableTxQueue();
+        Transaction low = newTx(ADDRESS_A, TxConstant.DEFAULT_NONCE, 1L);
+        Transaction high = newTx(ADDRESS_B, TxConstant.DEFAULT_NONCE, 2L);
+        queue.offer(high, 100L, false);
+        queue.offer(low, 10L, false);
+        Assert.assertEquals(10L, queue.lowestFeeRate());
+
+        Assert.assertTrue(queue.evict(queue.dataSize()).isEmpty());
+        Assert.assertEquals(low.getHash(), queue.evict(high.size()).get(0).getHash());
+        Assert.assertFalse(queue.contains(low.getHash().getBytes()));
+        Assert.assertEquals(high.size(), queue.dataSize());
+
+        queue.poll();
+        Assert.assertTrue(queue.evict(0L).isEmpty());
+        Assert.assertEquals(-1L, queue.lowestFeeRate());
+    }
+}
@@ -0,0 +1,129 @@
+package io.nuls.transaction.cache;
+
+import com.google.common.hash.Funnel;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import io.nuls.base.data.CompactBlock;
+import io.nuls.base.data.NulsHash;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ShortIdIndexTest {
+
+    private byte[] hash(int i) {
+        return NulsHash.calcHash(new byte[]{(byte) i}).getBytes();
+    }
+
+    @Test
+    public void addAndRemove() {
+        ShortIdIndex index = new ShortIdIndex();
+        HashFunction function = CompactBlock.shortIdFunction(new NulsHash(hash(0)), 1L);
+        byte[] a = hash(1);
+        byte[] b = hash(2);
+        index.add(a);
+        index.add(b);
+        index.add(a);
+        Assert.assertEquals(2, index.size());
+        List<byte[]> found = index.get(function, Arrays.asList(CompactBlock.shortId(function, a), 99L));
+        Assert.assertEquals(1, found.size());
+        Assert.assertArrayEquals(a, found.get(0));
+
+        //不同的盐得到不同的短id
+        HashFunction other = CompactBlock.shortIdFunction(new NulsHash(hash(0)), 2L);
+        found = index.get(other, Collections.singletonList(CompactBlock.shortId(other, b)));
+        Assert.assertEquals(1, found.size());
+        Assert.assertArrayEquals(b, found.get(0));
+
+        index.remove(a);
+        Assert.assertTrue(index.get(function, Collections.singletonList(CompactBlock.shortId(function, a))).isEmpty());
+        Assert.assertEquals(1, index.size());
+    }
+
+    @Test
+    public void collision() {
+        ShortIdIndex index = new ShortIdIndex();
+        //所有交易的短id都相同, 冲突的短id不返回
+        HashFunction function = new ConstantHashFunction();
+        byte[] a = hash(1);
+        byte[] b = hash(2);
+        long shortId = CompactBlock.shortId(function, a);
+        Assert.assertEquals(shortId, CompactBlock.shortId(function, b));
+        index.add(a);
+        index.add(b);
+        Assert.assertTrue(index.get(function, Collections.singletonList(shortId)).isEmpty());
+
+        //冲突的交易移除后, 短id重新可用
+        index.remove(b);
+        List<byte[]> found = index.get(function, Collections.singletonList(shortId));
+        Assert.assertEquals(1, found.size());
+        Assert.assertArrayEquals(a, found.get(0));
+    }
+
+    /**
+     * 对任意输入返回相同hash的函数, 用于构造短id冲突
+     */
+    private static class ConstantHashFunction implements HashFunction {
+
+        @Override
+        public HashCode hashBytes(byte[] input) {
+            return HashCode.fromLong(7L);
+        }
+
+        @Override
+        public Hasher newHasher() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Hasher newHasher(int expectedInputSize) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HashCode hashInt(int input) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HashCode hashLong(long input) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HashCode hashBytes(byte[] input, int off, int len) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HashCode hashBytes(ByteBuffer input) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HashCode hashUnencodedChars(CharSequence input) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HashCode hashString(CharSequence input, Charset charset) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> HashCode hashObject(T instance, Funnel<? super T> funnel) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int bits() {
+            return 64;
+        }
+    }
+}
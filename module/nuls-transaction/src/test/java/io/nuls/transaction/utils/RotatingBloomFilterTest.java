@@ -0,0 +1,60 @@
+package io.nuls.transaction.utils;
+
+import io.nuls.base.data.NulsHash;
+import io.nuls.core.crypto.Sha256Hash;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class RotatingBloomFilterTest {
+
+    private byte[] hash(int i) {
+        return Sha256Hash.hashTwice(ByteBuffer.allocate(4).putInt(i).array());
+    }
+
+    @Test
+    public void insertAndCheck() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(1000, 2, 0.000001D);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(filter.insertAndCheck(hash(i)));
+        }
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertFalse(filter.insertAndCheck(hash(i)));
+            Assert.assertTrue(filter.contains(hash(i)));
+        }
+        //第二个分片写满后, 最旧的分片被淘汰
+        for (int i = 1000; i < 3000; i++) {
+            Assert.assertTrue(filter.insertAndCheck(hash(i)));
+        }
+        Assert.assertFalse(filter.contains(hash(0)));
+        Assert.assertTrue(filter.contains(hash(2999)));
+    }
+
+    @Test
+    public void falsePositiveRate() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(100000, 2, 0.001D);
+        for (int i = 0; i < 100000; i++) {
+            filter.insertAndCheck(hash(i));
+        }
+        int falsePositive = 0;
+        for (int i = 100000; i < 200000; i++) {
+            if (filter.contains(hash(i))) {
+                falsePositive++;
+            }
+        }
+        Assert.assertTrue(falsePositive < 300);
+    }
+
+    @Test
+    public void excludeNodes() {
+        NulsHash hash = new NulsHash(hash(1));
+        Assert.assertNull(TxDuplicateRemoval.getExcludeNode(hash));
+        TxDuplicateRemoval.putExcludeNode(hash, "192.168.1.1:8001");
+        TxDuplicateRemoval.putExcludeNode(hash, "192.168.1.2:8001");
+        TxDuplicateRemoval.putExcludeNode(hash, "192.168.1.1:8001");
+        Assert.assertEquals("192.168.1.1:8001,192.168.1.2:8001", TxDuplicateRemoval.getExcludeNode(hash));
+        TxDuplicateRemoval.removeExcludeNode(hash);
+        Assert.assertNull(TxDuplicateRemoval.getExcludeNode(hash));
+    }
+}